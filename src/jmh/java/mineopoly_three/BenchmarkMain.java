@@ -0,0 +1,24 @@
+package mineopoly_three;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the JMH benchmarks with the GC profiler always attached, so every result reports allocation rate
+ *  (gc.alloc.rate.norm is bytes allocated per operation) next to throughput.
+ * Accepts all the usual JMH command line options, for example a benchmark name regex or -p boardSize=32
+ */
+public class BenchmarkMain {
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
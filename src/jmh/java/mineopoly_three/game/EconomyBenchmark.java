@@ -0,0 +1,73 @@
+package mineopoly_three.game;
+
+import mineopoly_three.item.InventoryItem;
+import mineopoly_three.item.ItemType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Economy operations that run every turn (increaseDemand, strategies reading prices) or on every sale
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EconomyBenchmark {
+    private Economy economy;
+    private List<InventoryItem> fullInventory;
+
+    @Setup(Level.Iteration)
+    public void createEconomy() {
+        economy = new Economy(new ItemType[]{ItemType.DIAMOND, ItemType.EMERALD, ItemType.RUBY});
+        economy.setNotificationsEnabled(false);
+        fullInventory = Arrays.asList(new InventoryItem(ItemType.DIAMOND), new InventoryItem(ItemType.DIAMOND),
+                                      new InventoryItem(ItemType.EMERALD), new InventoryItem(ItemType.RUBY),
+                                      new InventoryItem(ItemType.AUTOMINER));
+    }
+
+    @Benchmark
+    public int sellResources() {
+        // Keep demand going up so prices don't all settle at 0
+        economy.increaseDemand();
+        return economy.sellResources(fullInventory);
+    }
+
+    @Benchmark
+    public Map<ItemType, Integer> getCurrentPrices() {
+        return economy.getCurrentPrices();
+    }
+
+    @Benchmark
+    public int getPrice() {
+        return economy.getPrice(ItemType.DIAMOND) + economy.getPrice(ItemType.EMERALD) + economy.getPrice(ItemType.RUBY);
+    }
+
+    @Benchmark
+    public Map<ItemType, Integer> getCurrentPricesEveryTurn() {
+        // A new turn's prices need one new snapshot, then every read that turn shares it
+        economy.increaseDemand();
+        return economy.getCurrentPrices();
+    }
+
+    @Benchmark
+    public Economy increaseDemand() {
+        economy.increaseDemand();
+        return economy;
+    }
+}
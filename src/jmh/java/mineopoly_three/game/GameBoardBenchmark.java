@@ -0,0 +1,60 @@
+package mineopoly_three.game;
+
+import mineopoly_three.item.ItemType;
+import mineopoly_three.strategy.PlayerBoardView;
+import mineopoly_three.strategy.RandomStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The two per-turn GameBoard operations: updating the board and converting it into a PlayerBoardView
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameBoardBenchmark {
+    @Param({"14", "20", "26", "32", "64", "128"})
+    public int boardSize;
+
+    private GameBoard board;
+    private MinePlayer redPlayer;
+    private MinePlayer bluePlayer;
+
+    @Setup(Level.Iteration)
+    public void generateBoard() {
+        board = new WorldGenerator(boardSize).generateBoard(boardSize);
+        Economy economy = new Economy(new ItemType[]{ItemType.DIAMOND, ItemType.EMERALD, ItemType.RUBY});
+        redPlayer = new MinePlayer(new RandomStrategy(), board.getTileAtLocation(board.getRedStartTileLocation()),
+                                   economy, boardSize, true);
+        bluePlayer = new MinePlayer(new RandomStrategy(), board.getTileAtLocation(board.getBlueStartTileLocation()),
+                                    economy, boardSize, false);
+        redPlayer.getCurrentTile().onEnter(redPlayer);
+        bluePlayer.getCurrentTile().onEnter(bluePlayer);
+    }
+
+    @Benchmark
+    public GameBoard update() {
+        board.update();
+        return board;
+    }
+
+    @Benchmark
+    public PlayerBoardView convertToView() {
+        return board.convertToView(redPlayer, bluePlayer);
+    }
+}
@@ -0,0 +1,57 @@
+package mineopoly_three.game;
+
+import mineopoly_three.strategy.PlayerStrategy;
+import mineopoly_three.strategy.RandomStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Plays whole headless games of PlayerStrategy against RandomStrategy. Seeds cycle through a fixed set so
+ *  every run plays the same games
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class GameEngineBenchmark {
+    private static final int NUM_SEEDS = 16;
+
+    @Param({"14", "20", "26", "32", "64", "128"})
+    public int boardSize;
+
+    private GameEngine engine;
+    private long nextSeed;
+
+    @Setup(Level.Trial)
+    public void createEngine() {
+        engine = new GameEngine(boardSize, new PlayerStrategy(), new RandomStrategy(), 0);
+        engine.setHeadless(true);
+        nextSeed = 0;
+    }
+
+    @Setup(Level.Invocation)
+    public void resetEngine() {
+        engine.reset(boardSize, nextSeed, new PlayerStrategy(), new RandomStrategy());
+        nextSeed = (nextSeed + 1) % NUM_SEEDS;
+    }
+
+    @Benchmark
+    public int runGame() {
+        engine.runGame();
+        return engine.getRedPlayerScore();
+    }
+}
@@ -0,0 +1,61 @@
+package mineopoly_three.game;
+
+import mineopoly_three.strategy.PlayerStrategy;
+import mineopoly_three.strategy.RandomStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Getting an engine ready for the next game, by resetting the last game's engine or by constructing a new one.
+ *  Run with -prof gc to compare how much each allocates per game
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameEngineResetBenchmark {
+    private static final int NUM_SEEDS = 16;
+
+    @Param({"14", "32", "64", "128"})
+    public int boardSize;
+
+    private GameEngine engine;
+    private long nextSeed;
+
+    @Setup(Level.Trial)
+    public void playFirstGame() {
+        engine = new GameEngine(boardSize, new PlayerStrategy(), new RandomStrategy(), 0);
+        engine.setHeadless(true);
+        engine.runGame();
+        nextSeed = 1;
+    }
+
+    @Benchmark
+    public GameEngine resetEngine() {
+        engine.reset(boardSize, nextSeed, new PlayerStrategy(), new RandomStrategy());
+        nextSeed = (nextSeed + 1) % NUM_SEEDS;
+        return engine;
+    }
+
+    @Benchmark
+    public GameEngine constructEngine() {
+        GameEngine newEngine = new GameEngine(boardSize, new PlayerStrategy(), new RandomStrategy(), nextSeed);
+        newEngine.setHeadless(true);
+        nextSeed = (nextSeed + 1) % NUM_SEEDS;
+        return newEngine;
+    }
+}
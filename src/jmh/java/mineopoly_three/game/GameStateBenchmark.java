@@ -0,0 +1,63 @@
+package mineopoly_three.game;
+
+import mineopoly_three.action.TurnAction;
+import mineopoly_three.strategy.RandomStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulating games from a GameState the way a search-based strategy would: copying the state, then playing a
+ *  rollout of random actions from it
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameStateBenchmark {
+    private static final TurnAction[] allTurnActions = TurnAction.values();
+    private static final int ROLLOUT_TURNS = 50;
+
+    @Param({"14", "32", "64"})
+    public int boardSize;
+
+    private GameState startState;
+    private GameState scratchState;
+    private SplittableRandom random;
+
+    @Setup
+    public void createStates() {
+        GameEngine engine = new GameEngine(boardSize, new RandomStrategy(), new RandomStrategy(), 0);
+        startState = engine.getGameState();
+        scratchState = startState.fork();
+        random = new SplittableRandom(0);
+    }
+
+    @Benchmark
+    public GameState fork() {
+        return startState.fork();
+    }
+
+    @Benchmark
+    public GameState rollout() {
+        scratchState.copyFrom(startState);
+        for (int turn = 0; turn < ROLLOUT_TURNS && !scratchState.isGameOver(); turn++) {
+            scratchState.step(allTurnActions[random.nextInt(allTurnActions.length)],
+                              allTurnActions[random.nextInt(allTurnActions.length)]);
+        }
+        return scratchState;
+    }
+}
@@ -0,0 +1,48 @@
+package mineopoly_three.game;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WorldGeneratorBenchmark {
+    private static final int NUM_SEEDS = 16;
+
+    @Param({"14", "20", "26", "32", "64", "128", "512"})
+    public int boardSize;
+
+    @Param({"1", "2"})
+    public int version;
+
+    private long nextSeed = 0;
+    private final BoardTemplateCache boardTemplateCache = new BoardTemplateCache(NUM_SEEDS);
+
+    @Benchmark
+    public GameBoard generateBoard() {
+        WorldGenerator worldGenerator = new WorldGenerator(nextSeed, version);
+        nextSeed = (nextSeed + 1) % NUM_SEEDS;
+        return worldGenerator.generateBoard(boardSize);
+    }
+
+    @Benchmark
+    public GameBoard createBoardFromTemplate() {
+        // After the first NUM_SEEDS calls every board is a copy of a cached template
+        GameBoard board = boardTemplateCache.createBoard(nextSeed, boardSize, version);
+        nextSeed = (nextSeed + 1) % NUM_SEEDS;
+        return board;
+    }
+}
@@ -0,0 +1,80 @@
+package mineopoly_three.replay;
+
+import mineopoly_three.game.GameEngine;
+import mineopoly_three.strategy.RandomStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding and decoding the replay of a full 1000 turn game
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ReplayBenchmark {
+    private Replay replay;
+    private File encodedReplayFile;
+    private File encodedBinaryReplayFile;
+    private File scratchReplayFile;
+
+    @Setup(Level.Trial)
+    public void playGame() throws IOException {
+        // Random strategies never score, so the game always lasts the full 1000 turns
+        GameEngine engine = new GameEngine(32, new RandomStrategy(), new RandomStrategy(), 0);
+        engine.setHeadless(true);
+        engine.runGame();
+        replay = engine.getReplay();
+
+        encodedReplayFile = File.createTempFile("mineopoly_benchmark", ".replay");
+        scratchReplayFile = File.createTempFile("mineopoly_benchmark", ".replay");
+        Replay.encodeReplayFile(replay, encodedReplayFile.getPath());
+        encodedBinaryReplayFile = File.createTempFile("mineopoly_benchmark", ".replay");
+        ReplayIO.writeReplayToFile(replay, encodedBinaryReplayFile.getPath());
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFiles() {
+        encodedReplayFile.delete();
+        encodedBinaryReplayFile.delete();
+        scratchReplayFile.delete();
+    }
+
+    @Benchmark
+    public File encode() throws IOException {
+        Replay.encodeReplayFile(replay, scratchReplayFile.getPath());
+        return scratchReplayFile;
+    }
+
+    @Benchmark
+    public Replay decode() throws IOException {
+        return Replay.decodeReplayFile(encodedReplayFile.getPath());
+    }
+
+    @Benchmark
+    public File encodeBinary() {
+        ReplayIO.writeReplayToFile(replay, scratchReplayFile.getPath());
+        return scratchReplayFile;
+    }
+
+    @Benchmark
+    public Replay decodeBinary() throws IOException {
+        return ReplayIO.readReplayFromFile(encodedBinaryReplayFile.getPath());
+    }
+}
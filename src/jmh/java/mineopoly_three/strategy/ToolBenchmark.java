@@ -0,0 +1,61 @@
+package mineopoly_three.strategy;
+
+import mineopoly_three.game.GameEngine;
+import mineopoly_three.tiles.TileType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.Point;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Nearest tile queries, which PlayerStrategy makes several times every turn
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ToolBenchmark {
+    @Param({"14", "20", "26", "32", "64", "128"})
+    public int boardSize;
+
+    private Tool tool;
+    private PlayerBoardView boardView;
+    private Point playerLocation;
+
+    @Setup(Level.Trial)
+    public void createView() {
+        GameEngine engine = new GameEngine(boardSize, new RandomStrategy(), new RandomStrategy(), 0);
+        boardView = engine.getBoard().convertToView(engine.getRedPlayer(), engine.getBluePlayer());
+        playerLocation = engine.getBoard().getRedStartTileLocation();
+        tool = new Tool();
+    }
+
+    @Benchmark
+    public Point nearestResource() {
+        return tool.nearestTile(TileType.RESOURCE_DIAMOND, boardView, playerLocation);
+    }
+
+    @Benchmark
+    public Point nearestResourceOnNewIndex() {
+        // What every query cost before the index was kept between turns
+        return new TileTypeIndex(boardView).nearest(TileType.RESOURCE_DIAMOND, playerLocation);
+    }
+
+    @Benchmark
+    public Point nearestRecharge() {
+        return tool.nearestTile(TileType.RECHARGE, boardView, playerLocation);
+    }
+}
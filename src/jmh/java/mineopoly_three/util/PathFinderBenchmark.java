@@ -0,0 +1,61 @@
+package mineopoly_three.util;
+
+import mineopoly_three.action.TurnAction;
+import mineopoly_three.game.GameEngine;
+import mineopoly_three.strategy.PlayerBoardView;
+import mineopoly_three.strategy.RandomStrategy;
+import mineopoly_three.tiles.TileType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.Point;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Looking up the next move from cached distance fields, against building a field from scratch
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PathFinderBenchmark {
+    @Param({"14", "20", "26", "32", "64", "128"})
+    public int boardSize;
+
+    private PathFinder pathFinder;
+    private PlayerBoardView boardView;
+    private Point playerLocation;
+    private Point otherPlayerLocation;
+
+    @Setup(Level.Trial)
+    public void createPathFinder() {
+        GameEngine engine = new GameEngine(boardSize, new RandomStrategy(), new RandomStrategy(), 0);
+        boardView = engine.getBoard().convertToView(engine.getRedPlayer(), engine.getBluePlayer());
+        playerLocation = engine.getBoard().getRedStartTileLocation();
+        otherPlayerLocation = engine.getBoard().getBlueStartTileLocation();
+        pathFinder = new PathFinder(boardView);
+        pathFinder.getDistanceField(TileType.RESOURCE_DIAMOND);
+    }
+
+    @Benchmark
+    public TurnAction nextMoveToResource() {
+        return pathFinder.getNextMove(TileType.RESOURCE_DIAMOND, playerLocation, otherPlayerLocation);
+    }
+
+    @Benchmark
+    public DistanceField buildResourceField() {
+        return new PathFinder(boardView).getDistanceField(TileType.RESOURCE_DIAMOND);
+    }
+}
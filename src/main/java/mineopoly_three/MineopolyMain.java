@@ -5,6 +5,13 @@ import mineopoly_three.graphics.UserInterface;
 import mineopoly_three.replay.Replay;
 import mineopoly_three.replay.ReplayIO;
 import mineopoly_three.strategy.*;
+import mineopoly_three.tournament.EvaluationResult;
+import mineopoly_three.tournament.League;
+import mineopoly_three.tournament.SequentialEvaluator;
+import mineopoly_three.tournament.StrategyFactory;
+import mineopoly_three.tournament.StrategyPlugin;
+import mineopoly_three.tournament.TournamentResult;
+import mineopoly_three.tournament.TournamentRunner;
 
 import javax.swing.*;
 
@@ -12,19 +19,31 @@ public class MineopolyMain {
     private static final int DEFAULT_BOARD_SIZE = 20;
     private static final int PREFERRED_GUI_WIDTH = 650; // Bump this up or down according to your screen size
     private static final boolean TEST_STRATEGY_WIN_PERCENT = true; // Change to true to test your win percent
+    // Change to true to also play every seed with your strategy as blue, stopping once the win percent is known
+    private static final boolean EVALUATE_PAIRED_COLORS = false;
+    private static final boolean RUN_LEAGUE = false; // Change to true to rate strategies against each other
+    private static final int LEAGUE_SEEDS_PER_BOARD_SIZE = 50;
 
     // Use this if you want to view a past match replay
     private static final String savedReplayFilePath = null;
+    // The turn to start watching the past match replay from
+    private static final int savedReplayStartTurn = 0;
     // Use this to save a replay of the current match
     private static final String replayOutputFilePath = null;
+    // Saved replays can be watched from any turn after simulating at most this many turns
+    private static final int REPLAY_CHECKPOINT_INTERVAL = 100;
 
     public static void main(String[] args) {
-        if (TEST_STRATEGY_WIN_PERCENT) {
-            MinePlayerStrategy yourStrategy = new PlayerStrategy(); // TODO: Replace this with your strategy
+        if (RUN_LEAGUE) {
+            runLeague();
+        } else if (TEST_STRATEGY_WIN_PERCENT) {
+            StrategyFactory yourStrategy = PlayerStrategy::new; // TODO: Replace this with your strategy
             int[] assignmentBoardSizes = new int[]{14, 20, 26, 32};
 
             for (int testBoardSize : assignmentBoardSizes) {
-                double strategyWinPercent = getStrategyWinPercent(yourStrategy, testBoardSize);
+                double strategyWinPercent = EVALUATE_PAIRED_COLORS
+                        ? getPairedStrategyWinPercent(yourStrategy, testBoardSize)
+                        : getStrategyWinPercent(yourStrategy, testBoardSize);
                 System.out.println("(Board size, win percent): (" + testBoardSize + ", " + strategyWinPercent + ")");
             }
         } else {
@@ -33,6 +52,17 @@ public class MineopolyMain {
         }
     }
 
+    private static void runLeague() {
+        int[] assignmentBoardSizes = new int[]{14, 20, 26, 32};
+        League league = League.withAvailableProcessors(assignmentBoardSizes, LEAGUE_SEEDS_PER_BOARD_SIZE,
+                                                       System.currentTimeMillis());
+        // PlayerStrategy keeps the board size in a static field, so every worker needs its own copy of the class
+        league.addStrategy("PlayerStrategy", StrategyPlugin.isolating(PlayerStrategy.class)); // TODO: Add yours
+        league.addStrategy("RandomStrategy", RandomStrategy::new);
+        league.run();
+        System.out.print(league.getRatingTable());
+    }
+
     private static void playGameOrReplay() {
         final GameEngine gameEngine;
         if (savedReplayFilePath == null) {
@@ -42,9 +72,10 @@ public class MineopolyMain {
             long randomSeed = System.currentTimeMillis();
             gameEngine = new GameEngine(DEFAULT_BOARD_SIZE, redStrategy, blueStrategy, randomSeed);
             gameEngine.setGuiEnabled(true);
+            gameEngine.setCheckpointInterval(REPLAY_CHECKPOINT_INTERVAL);
         } else {
             // Showing a replay
-            gameEngine = ReplayIO.setupEngineForReplay(savedReplayFilePath);
+            gameEngine = ReplayIO.setupEngineForReplay(savedReplayFilePath, savedReplayStartTurn);
             if (gameEngine == null) {
                 return;
             }
@@ -66,22 +97,28 @@ public class MineopolyMain {
         }
     }
 
-    private static double getStrategyWinPercent(MinePlayerStrategy yourStrategy, int boardSize) {
+    private static double getStrategyWinPercent(StrategyFactory yourStrategy, int boardSize) {
         final int numTotalRounds = 1000;
-        int numRoundsWonByMinScore = 0;
-        int winScore = 30 * (boardSize * boardSize);
-        MinePlayerStrategy randomStrategy = new RandomStrategy();
-        long randomSeed = System.currentTimeMillis();
-        GameEngine engine = new GameEngine(boardSize, yourStrategy, randomStrategy, randomSeed);
+        long firstSeed = System.currentTimeMillis();
+        // Rounds are spread across every core, each round gets a fresh copy of both strategies
+        TournamentRunner tournamentRunner = TournamentRunner.withAvailableProcessors();
+        TournamentResult tournamentResult = tournamentRunner.runTournament(yourStrategy, RandomStrategy::new,
+                                                                           boardSize, numTotalRounds, firstSeed);
+        return tournamentResult.getWinPercent();
+    }
 
-        for (int round = 0; round < numTotalRounds; round++) {
-            engine.runGame();
-            if (engine.getRedPlayerScore() >= winScore) {
-                numRoundsWonByMinScore++;
-            }
-        }
-//        System.out.println(engine.getRedPlayerScore());
-//        System.out.println(winScore);
-        return ((double) numRoundsWonByMinScore) / numTotalRounds;
+    private static double getPairedStrategyWinPercent(StrategyFactory yourStrategy, int boardSize) {
+        // Every seed is played with your strategy as red and as blue, so this is lower for strategies that only
+        //  win as red. Stops once the win percent is known to within 3% either way instead of playing a fixed number
+        //  of rounds
+        final double winPercentPrecision = 0.03;
+        final int maxPairs = 500;
+        long firstSeed = System.currentTimeMillis();
+        // Pairs of rounds are spread across every core, each round gets a fresh copy of both strategies
+        SequentialEvaluator evaluator = SequentialEvaluator.withAvailableProcessors();
+        EvaluationResult evaluationResult = evaluator.evaluate(yourStrategy, RandomStrategy::new, boardSize,
+                                                               SequentialEvaluator.Target.WIN_PERCENT,
+                                                               winPercentPrecision, maxPairs, firstSeed);
+        return evaluationResult.getWinPercent();
     }
 }
@@ -23,6 +23,7 @@ public class PlayerStrategy implements MinePlayerStrategy {
     private int currentInventorySize; // current size of inventory
     private int currentScore = 0; // current score of game
     private int mineCount = 0; // number of times mined
+    private Tool tool; // helper kept for the whole round so it can index the board once
 
     public PlayerStrategy() {};
 
@@ -70,7 +71,7 @@ public class PlayerStrategy implements MinePlayerStrategy {
         currentLocation = startTileLocation;
         destination = new Point();
 
-        Tool tool = new Tool(); // new instance of tool
+        tool = new Tool(); // new instance of tool for this round
         // first destination is diamond for it will always be the most expensive at the beginning of round
         destination = tool.nearestTile(TileType.RESOURCE_DIAMOND, startingBoard, startTileLocation);
     }
@@ -92,7 +93,9 @@ public class PlayerStrategy implements MinePlayerStrategy {
     public TurnAction getTurnAction(PlayerBoardView boardView, Economy economy, int currentCharge,
             boolean isRedTurn) {
         // current game board
-        Tool tool = new Tool(); // an instance of my Tool helper class
+        if (tool == null) {
+            tool = new Tool(); // an instance of my Tool helper class
+        }
         currentLocation = boardView.getYourLocation(); // sets current location to player location on board
         TileType mostExpensiveTile = tool.itemToTile(tool.mostExpensiveResource(economy, boardView)); // updated most expensive tile type
 
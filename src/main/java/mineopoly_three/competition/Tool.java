@@ -5,14 +5,16 @@ import mineopoly_three.action.TurnAction;
 import mineopoly_three.game.Economy;
 import mineopoly_three.item.ItemType;
 import mineopoly_three.strategy.PlayerBoardView;
+import mineopoly_three.strategy.TileTypeIndex;
 import mineopoly_three.tiles.TileType;
-import mineopoly_three.util.DistanceUtil;
 
 /**
  * Helper class that contains functions PlayerStrategy calls on to run game.
  */
 public class Tool {
     PlayerStrategy playerStrategy = new PlayerStrategy(); // an instance of PlayerStrategy
+    private static final ItemType[] allItemTypes = ItemType.values(); // checked in ordinal order, ties go to the first
+    private TileTypeIndex tileTypeIndex; // where every tile type is, kept in sync with the latest board
 
     /**
      * Helper method to determine the most expensive resource in economy during game.
@@ -26,9 +28,9 @@ public class Tool {
         }
         ItemType mostExpensiveTile = null;
         int maxValue = 0;
-        for (ItemType item: economy.getCurrentPrices().keySet()) {
-            if (economy.getCurrentPrices().get(item) > maxValue) {
-                maxValue = economy.getCurrentPrices().get(item);
+        for (ItemType item: allItemTypes) {
+            if (economy.getPrice(item) > maxValue) {
+                maxValue = economy.getPrice(item);
                 mostExpensiveTile = item;
             }
         }
@@ -70,15 +72,9 @@ public class Tool {
         if (tile == null) {
             return null;
         }
-        for (int row = 0; row < PlayerStrategy.getCurrentBoardSize(); row++) {
-            for (int col = 0; col < PlayerStrategy.getCurrentBoardSize(); col++) {
-                if (currentBoard.getTileTypeAtLocation(row, col).equals(tile)) {
-                    Point temp = new Point(row, col);
-                    if (DistanceUtil.getManhattanDistance(temp, currentLocation) < DistanceUtil.getManhattanDistance(destination, currentLocation)) {
-                        destination = temp;
-                    }
-                }
-            }
+        Point nearest = getTileTypeIndex(currentBoard).nearest(tile, currentLocation);
+        if (nearest != null) {
+            destination = nearest;
         }
         return destination;
     }
@@ -134,13 +130,25 @@ public class Tool {
             return null;
         }
         Point destination = playerStrategy.getDestination();
-        for (int row = 0; row < PlayerStrategy.getCurrentBoardSize(); row++) {
-            for (int col = 0; col < PlayerStrategy.getCurrentBoardSize(); col++) {
-                if (currentBoard.getTileTypeAtLocation(row, col).equals(tile)) {
-                    destination = new Point (row, col);
-                }
-            }
+        Point lastTile = getTileTypeIndex(currentBoard).last(tile);
+        if (lastTile != null) {
+            destination = lastTile;
         }
         return destination;
     }
+
+    /**
+     * Helper method to get the tile type index, updated to the current board.
+     *
+     * @param currentBoard current game board
+     * @return index of where every tile type is on the board
+     */
+    private TileTypeIndex getTileTypeIndex(PlayerBoardView currentBoard) {
+        if (tileTypeIndex == null) {
+            tileTypeIndex = new TileTypeIndex(currentBoard);
+        } else {
+            tileTypeIndex.sync(currentBoard);
+        }
+        return tileTypeIndex;
+    }
 }
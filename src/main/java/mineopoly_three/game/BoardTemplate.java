@@ -0,0 +1,199 @@
+package mineopoly_three.game;
+
+import mineopoly_three.tiles.Tile;
+
+import java.awt.Point;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * A freshly generated GameBoard in compact, immutable form: one byte per tile plus the few tiles that start with
+ *  items on them. Building a board from a template skips world generation entirely, and gives a board that plays
+ *  exactly the same as the one the template was made from.
+ */
+public final class BoardTemplate {
+    private final int boardSize;
+    private final int redStartIndex;
+    private final int blueStartIndex;
+    // Indexed by x + y * boardSize
+    private final byte[] tileCodes;
+    private final int[] itemTileIndices;
+    private final byte[][] itemsOnTiles;
+
+    private BoardTemplate(int boardSize, int redStartIndex, int blueStartIndex, byte[] tileCodes,
+                          int[] itemTileIndices, byte[][] itemsOnTiles) {
+        this.boardSize = boardSize;
+        this.redStartIndex = redStartIndex;
+        this.blueStartIndex = blueStartIndex;
+        this.tileCodes = tileCodes;
+        this.itemTileIndices = itemTileIndices;
+        this.itemsOnTiles = itemsOnTiles;
+    }
+
+    /**
+     * Makes a template of a board that no game has been played on yet
+     *
+     * @param board A board straight from a WorldGenerator
+     * @return The template of the board
+     */
+    public static BoardTemplate capture(GameBoard board) {
+        int boardSize = board.getSize();
+        byte[] tileCodes = new byte[boardSize * boardSize];
+        int numItemTiles = 0;
+        for (int y = 0; y < boardSize; y++) {
+            for (int x = 0; x < boardSize; x++) {
+                Tile tile = board.getTileAtLocation(x, y);
+                tileCodes[x + y * boardSize] = (byte) GameCheckpoint.getTileCode(tile);
+                if (!tile.getItemsOnTile().isEmpty()) {
+                    numItemTiles++;
+                }
+            }
+        }
+
+        int[] itemTileIndices = new int[numItemTiles];
+        byte[][] itemsOnTiles = new byte[numItemTiles][];
+        int itemTileNumber = 0;
+        for (int tileIndex = 0; tileIndex < tileCodes.length && itemTileNumber < numItemTiles; tileIndex++) {
+            Tile tile = board.getTileAtLocation(tileIndex % boardSize, tileIndex / boardSize);
+            if (!tile.getItemsOnTile().isEmpty()) {
+                itemTileIndices[itemTileNumber] = tileIndex;
+                itemsOnTiles[itemTileNumber] = GameCheckpoint.encodeItems(tile.getItemsOnTile());
+                itemTileNumber++;
+            }
+        }
+
+        Point redStart = board.getRedStartTileLocation();
+        Point blueStart = board.getBlueStartTileLocation();
+        return new BoardTemplate(boardSize, redStart.x + redStart.y * boardSize,
+                                 blueStart.x + blueStart.y * boardSize, tileCodes, itemTileIndices, itemsOnTiles);
+    }
+
+    public int getBoardSize() {
+        return boardSize;
+    }
+
+    /**
+     * @return A new board with the tiles, items and start locations of this template
+     */
+    public GameBoard createBoard() {
+        Tile[][] tiles = new Tile[boardSize][boardSize];
+        for (int y = 0; y < boardSize; y++) {
+            for (int x = 0; x < boardSize; x++) {
+                // Same layout as WorldGenerator, the top row of the array is the highest y
+                tiles[(boardSize - 1) - y][x] = GameCheckpoint.createTile(tileCodes[x + y * boardSize],
+                                                                          new Point(x, y), 0);
+            }
+        }
+        addItems(tiles);
+
+        GameBoard board = new GameBoard(tiles);
+        board.setRedStartLocation(toLocation(redStartIndex));
+        board.setBlueStartLocation(toLocation(blueStartIndex));
+        return board;
+    }
+
+    /**
+     * Lays this template out on a board left over from an earlier game, reusing its tiles wherever the template has
+     *  the same kind of tile in the same place. The result plays exactly the same as a board from createBoard()
+     *
+     * @param boardToReuse A board of the same size as this template, nothing else should be using it anymore
+     * @return boardToReuse, now holding the tiles, items and start locations of this template
+     */
+    GameBoard createBoard(GameBoard boardToReuse) {
+        if (boardToReuse.getSize() != boardSize) {
+            throw new IllegalArgumentException("Can't lay out a template of size " + boardSize
+                                               + " on a board of size " + boardToReuse.getSize());
+        }
+        Tile[][] tiles = boardToReuse.startRebuild();
+        for (int y = 0; y < boardSize; y++) {
+            for (int x = 0; x < boardSize; x++) {
+                tiles[(boardSize - 1) - y][x] = boardToReuse.createTile(tileCodes[x + y * boardSize], x, y);
+            }
+        }
+        addItems(tiles);
+        boardToReuse.finishRebuild();
+
+        boardToReuse.setRedStartLocation(toLocation(redStartIndex));
+        boardToReuse.setBlueStartLocation(toLocation(blueStartIndex));
+        return boardToReuse;
+    }
+
+    private void addItems(Tile[][] tiles) {
+        for (int i = 0; i < itemTileIndices.length; i++) {
+            int tileIndex = itemTileIndices[i];
+            Tile tile = tiles[(boardSize - 1) - tileIndex / boardSize][tileIndex % boardSize];
+            tile.getItemsOnTile().addAll(GameCheckpoint.decodeItems(itemsOnTiles[i]));
+        }
+    }
+
+    /**
+     * @return The number of bytes encode() will write
+     */
+    public int getEncodedSize() {
+        int encodedSize = 4 * 4 + tileCodes.length;
+        for (byte[] items : itemsOnTiles) {
+            encodedSize += 4 + 1 + items.length;
+        }
+        return encodedSize;
+    }
+
+    /**
+     * Writes this template to a buffer
+     *
+     * @param buffer A buffer with at least getEncodedSize() bytes remaining
+     */
+    public void encode(ByteBuffer buffer) {
+        buffer.putInt(boardSize).putInt(redStartIndex).putInt(blueStartIndex);
+        buffer.put(tileCodes);
+        buffer.putInt(itemTileIndices.length);
+        for (int i = 0; i < itemTileIndices.length; i++) {
+            buffer.putInt(itemTileIndices[i]).put((byte) itemsOnTiles[i].length).put(itemsOnTiles[i]);
+        }
+    }
+
+    /**
+     * Reads a template written by encode()
+     *
+     * @param buffer A buffer positioned at the start of an encoded template
+     * @return The decoded template
+     * @throws IllegalArgumentException If the buffer does not hold a valid template
+     */
+    public static BoardTemplate decode(ByteBuffer buffer) {
+        try {
+            int boardSize = buffer.getInt();
+            if (boardSize <= 0 || boardSize > Short.MAX_VALUE) {
+                throw new IllegalArgumentException("Invalid template board size " + boardSize);
+            }
+            int numTiles = boardSize * boardSize;
+            int redStartIndex = buffer.getInt();
+            int blueStartIndex = buffer.getInt();
+            if (redStartIndex < 0 || redStartIndex >= numTiles || blueStartIndex < 0 || blueStartIndex >= numTiles) {
+                throw new IllegalArgumentException("Invalid start tile in template");
+            }
+
+            byte[] tileCodes = new byte[numTiles];
+            buffer.get(tileCodes);
+            int numItemTiles = buffer.getInt();
+            if (numItemTiles < 0 || numItemTiles > numTiles) {
+                throw new IllegalArgumentException("Invalid item tile count " + numItemTiles + " in template");
+            }
+            int[] itemTileIndices = new int[numItemTiles];
+            byte[][] itemsOnTiles = new byte[numItemTiles][];
+            for (int i = 0; i < numItemTiles; i++) {
+                itemTileIndices[i] = buffer.getInt();
+                if (itemTileIndices[i] < 0 || itemTileIndices[i] >= numTiles) {
+                    throw new IllegalArgumentException("Invalid item tile " + itemTileIndices[i] + " in template");
+                }
+                itemsOnTiles[i] = GameCheckpoint.getItems(buffer);
+            }
+            return new BoardTemplate(boardSize, redStartIndex, blueStartIndex, tileCodes, itemTileIndices,
+                                     itemsOnTiles);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("The template ended early", e);
+        }
+    }
+
+    private Point toLocation(int tileIndex) {
+        return new Point(tileIndex % boardSize, tileIndex / boardSize);
+    }
+}
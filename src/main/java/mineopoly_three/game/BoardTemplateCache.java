@@ -0,0 +1,214 @@
+package mineopoly_three.game;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps the BoardTemplates of recently generated worlds, so playing the same seed again copies a template instead of
+ *  running world generation. Templates are kept in memory up to a fixed count, evicting the least recently used.
+ *  If a disk directory is set, every template is also saved there and evicted templates are read back from disk
+ *  instead of being generated again, including by later runs.
+ *
+ * One cache can be shared by GameEngines on different Threads.
+ */
+public class BoardTemplateCache {
+    private final int maxTemplatesInMemory;
+    private final Map<Key, BoardTemplate> templates;
+    private Path diskDirectory;
+    private long numHits;
+    private long numDiskHits;
+    private long numMisses;
+
+    /**
+     * @param maxTemplatesInMemory The most templates to keep in memory at once
+     */
+    public BoardTemplateCache(int maxTemplatesInMemory) {
+        if (maxTemplatesInMemory < 1) {
+            throw new IllegalArgumentException("A board template cache must hold at least one template");
+        }
+        this.maxTemplatesInMemory = maxTemplatesInMemory;
+        // Access order makes the first entry the least recently used one
+        this.templates = new LinkedHashMap<Key, BoardTemplate>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, BoardTemplate> eldest) {
+                return size() > BoardTemplateCache.this.maxTemplatesInMemory;
+            }
+        };
+    }
+
+    /**
+     * @param diskDirectory An existing directory to save templates in, or null to only keep templates in memory
+     */
+    public synchronized void setDiskDirectory(Path diskDirectory) {
+        this.diskDirectory = diskDirectory;
+    }
+
+    /**
+     * Gets a new board for a world, generating it only if its template isn't in memory or on disk
+     *
+     * @param randomSeed The seed of the world
+     * @param boardSize The size of the board
+     * @param worldGeneratorVersion The version of WorldGenerator the world is generated with
+     * @return A board no game has been played on, identical to one straight from a WorldGenerator
+     */
+    public GameBoard createBoard(long randomSeed, int boardSize, int worldGeneratorVersion) {
+        return getTemplate(randomSeed, boardSize, worldGeneratorVersion).createBoard();
+    }
+
+    /**
+     * Builds the world on a board left over from an earlier game of the same size, see BoardTemplate
+     *
+     * @param boardToReuse The board to build the world on, nothing else should be using it anymore
+     * @return boardToReuse, now holding the world
+     */
+    GameBoard createBoard(long randomSeed, int worldGeneratorVersion, GameBoard boardToReuse) {
+        return getTemplate(randomSeed, boardToReuse.getSize(), worldGeneratorVersion).createBoard(boardToReuse);
+    }
+
+    /**
+     * @param randomSeed The seed of the world
+     * @param boardSize The size of the board
+     * @param worldGeneratorVersion The version of WorldGenerator the world is generated with
+     * @return The template of the world
+     */
+    public BoardTemplate getTemplate(long randomSeed, int boardSize, int worldGeneratorVersion) {
+        Key key = new Key(randomSeed, boardSize, worldGeneratorVersion);
+        Path diskDirectory;
+        synchronized (this) {
+            BoardTemplate template = templates.get(key);
+            if (template != null) {
+                numHits++;
+                return template;
+            }
+            diskDirectory = this.diskDirectory;
+        }
+
+        // Generating can take a while, so it happens outside the lock. Two Threads wanting the same world at once
+        //  both generate it, which is wasted work but gives the same template
+        BoardTemplate template = (diskDirectory == null) ? null : readTemplate(diskDirectory, key);
+        boolean foundOnDisk = (template != null);
+        if (!foundOnDisk) {
+            template = BoardTemplate.capture(new WorldGenerator(randomSeed, worldGeneratorVersion)
+                                                     .generateBoard(boardSize));
+            if (diskDirectory != null) {
+                writeTemplate(diskDirectory, key, template);
+            }
+        }
+
+        synchronized (this) {
+            if (foundOnDisk) {
+                numDiskHits++;
+            } else {
+                numMisses++;
+            }
+            templates.put(key, template);
+        }
+        return template;
+    }
+
+    /**
+     * @return The number of templates in memory
+     */
+    public synchronized int size() {
+        return templates.size();
+    }
+
+    /**
+     * @return The number of boards made from a template that was in memory
+     */
+    public synchronized long getHitCount() {
+        return numHits;
+    }
+
+    /**
+     * @return The number of boards made from a template read from disk
+     */
+    public synchronized long getDiskHitCount() {
+        return numDiskHits;
+    }
+
+    /**
+     * @return The number of boards that had to be generated
+     */
+    public synchronized long getMissCount() {
+        return numMisses;
+    }
+
+    public synchronized void clear() {
+        templates.clear();
+    }
+
+    private static BoardTemplate readTemplate(Path diskDirectory, Key key) {
+        try {
+            return BoardTemplate.decode(ByteBuffer.wrap(Files.readAllBytes(diskDirectory.resolve(key.getFileName()))));
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | IllegalArgumentException e) {
+            // A damaged file is treated as missing, it will be overwritten with a newly generated template
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    private static void writeTemplate(Path diskDirectory, Key key, BoardTemplate template) {
+        ByteBuffer encodedTemplate = ByteBuffer.allocate(template.getEncodedSize());
+        template.encode(encodedTemplate);
+        try {
+            // Write then rename, so a reader never sees a partly written template
+            Path templateFile = diskDirectory.resolve(key.getFileName());
+            Path partialFile = Files.createTempFile(diskDirectory, key.getFileName(), ".partial");
+            boolean moved = false;
+            try {
+                Files.write(partialFile, encodedTemplate.array());
+                Files.move(partialFile, templateFile, StandardCopyOption.REPLACE_EXISTING,
+                           StandardCopyOption.ATOMIC_MOVE);
+                moved = true;
+            } finally {
+                if (!moved) {
+                    // Never leave partial files behind in the cache directory
+                    Files.deleteIfExists(partialFile);
+                }
+            }
+        } catch (IOException e) {
+            // The template is still cached in memory, only later runs miss out
+            e.printStackTrace();
+        }
+    }
+
+    private static class Key {
+        private final long randomSeed;
+        private final int boardSize;
+        private final int worldGeneratorVersion;
+
+        Key(long randomSeed, int boardSize, int worldGeneratorVersion) {
+            this.randomSeed = randomSeed;
+            this.boardSize = boardSize;
+            this.worldGeneratorVersion = worldGeneratorVersion;
+        }
+
+        String getFileName() {
+            return "board-v" + worldGeneratorVersion + "-" + boardSize + "-" + randomSeed + ".template";
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key otherKey = (Key) other;
+            return randomSeed == otherKey.randomSeed && boardSize == otherKey.boardSize
+                   && worldGeneratorVersion == otherKey.worldGeneratorVersion;
+        }
+
+        @Override
+        public int hashCode() {
+            return (Long.hashCode(randomSeed) * 31 + boardSize) * 31 + worldGeneratorVersion;
+        }
+    }
+}
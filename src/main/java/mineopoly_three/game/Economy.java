@@ -4,38 +4,109 @@ import mineopoly_three.item.InventoryItem;
 import mineopoly_three.item.ItemType;
 
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.Map;
 import java.util.Observable;
 
 public class Economy extends Observable {
     private static final int NUM_UPDATES_BEFORE_NOTIFY = 10;
+    private static final int NUM_ITEM_TYPES = ItemType.values().length;
 
     private final ItemType[] sellableResourceTypes;
-    private Map<ItemType, Integer> resourcePrices;
+    // Indexed by ItemType ordinal, 0 for anything that can't be sold
+    private final int[] resourcePrices;
+    // Indexed by ItemType ordinal, reused by every sale
+    private final int[] numSoldByType;
+    private int priceVersion;
+    // Read from the GUI and strategy Threads as well as the engine's, so the snapshot and its version are published
+    //  together
+    private volatile PricesSnapshot pricesSnapshot;
     private int updatesSinceLastNotify;
+    private boolean notificationsEnabled;
 
     public Economy(ItemType[] resourceTypes) {
         this.sellableResourceTypes = resourceTypes;
-        resourcePrices = new HashMap<>();
+        this.resourcePrices = new int[NUM_ITEM_TYPES];
+        this.numSoldByType = new int[NUM_ITEM_TYPES];
         for (ItemType resourceType : sellableResourceTypes) {
-            resourcePrices.put(resourceType, resourceType.getStartingPrice());
+            resourcePrices[resourceType.ordinal()] = resourceType.getStartingPrice();
         }
+        this.priceVersion = 0;
         this.updatesSinceLastNotify = 0;
+        this.notificationsEnabled = true;
     }
 
     /**
-     * Gets a copy of the current prices for each ResourceType
+     * Turning notifications off skips all observer bookkeeping, for games where nothing is watching the economy
+     *
+     * @param notificationsEnabled False to never notify observers of price changes
+     */
+    public void setNotificationsEnabled(boolean notificationsEnabled) {
+        this.notificationsEnabled = notificationsEnabled;
+    }
+
+    /**
+     * Gets the current price of one resource without building a Map of every price
+     *
+     * @param resourceType The resource to get the price of
+     * @return The price the resource sells for right now, or 0 if it can't be sold
+     */
+    public int getPrice(ItemType resourceType) {
+        return resourcePrices[resourceType.ordinal()];
+    }
+
+    /**
+     * Counts every change to prices this game. Anything computed from prices only needs to be recomputed when this
+     *  changes, which is at most once per turn and once per sale
+     *
+     * @return The number of times prices have changed
+     */
+    public int getPriceVersion() {
+        return priceVersion;
+    }
+
+    /**
+     * Gets the current prices for each ResourceType. The Map cannot be modified and is shared by every caller until
+     *  prices next change, at which point it keeps the old prices
      *
      * @return A Map from each ResourceType to its price
      */
     public Map<ItemType, Integer> getCurrentPrices() {
-        // Nothing outside this class should be able to modify prices, need to make a copy
-        Map<ItemType, Integer> resourcePricesCopy = new HashMap<>();
-        for (ItemType resourceType : resourcePrices.keySet()) {
-            resourcePricesCopy.put(resourceType, resourcePrices.get(resourceType));
+        PricesSnapshot snapshot = pricesSnapshot;
+        int currentVersion = priceVersion;
+        if (snapshot == null || snapshot.version != currentVersion) {
+            Map<ItemType, Integer> currentPrices = new EnumMap<>(ItemType.class);
+            for (ItemType resourceType : sellableResourceTypes) {
+                currentPrices.put(resourceType, resourcePrices[resourceType.ordinal()]);
+            }
+            snapshot = new PricesSnapshot(currentVersion, Collections.unmodifiableMap(currentPrices));
+            pricesSnapshot = snapshot;
         }
-        return resourcePricesCopy;
+        return snapshot.prices;
+    }
+
+    /**
+     * Puts every price back to its starting price for a new game. Prices still count as changed, so anything that
+     *  cached them by getPriceVersion() notices
+     */
+    void reset() {
+        for (ItemType resourceType : sellableResourceTypes) {
+            resourcePrices[resourceType.ordinal()] = resourceType.getStartingPrice();
+        }
+        priceVersion++;
+        updatesSinceLastNotify = 0;
+    }
+
+    /**
+     * Sets the price of a resource directly, used to put a game back to a GameCheckpoint
+     *
+     * @param resourceType The resource to set the price of
+     * @param price The new price
+     */
+    void setPrice(ItemType resourceType, int price) {
+        resourcePrices[resourceType.ordinal()] = price;
+        priceVersion++;
     }
 
     /**
@@ -44,15 +115,18 @@ public class Economy extends Observable {
      */
     protected void increaseDemand() {
         for (ItemType resourceType : sellableResourceTypes) {
-            Integer currentPrice = resourcePrices.getOrDefault(resourceType, 0);
-            Integer nextPrice = currentPrice + resourceType.getPriceIncreasePerTurn();
+            int nextPrice = resourcePrices[resourceType.ordinal()] + resourceType.getPriceIncreasePerTurn();
             if (nextPrice >= resourceType.getMaxPrice()) {
                 nextPrice = resourceType.getMaxPrice();
             }
-            resourcePrices.put(resourceType, nextPrice);
+            resourcePrices[resourceType.ordinal()] = nextPrice;
         }
+        priceVersion++;
 
         // Let any observers, like the GUI, know to update after this updates some number of times
+        if (!notificationsEnabled) {
+            return;
+        }
         this.updatesSinceLastNotify++;
         if (this.updatesSinceLastNotify >= NUM_UPDATES_BEFORE_NOTIFY) {
             this.notifyObservers();
@@ -69,30 +143,33 @@ public class Economy extends Observable {
      */
     protected int sellResources(Collection<InventoryItem> itemsToSell) {
         // Count the number of each resource type being sold
-        Map<ItemType, Integer> resourcesToNumSold = new HashMap<>();
         for (InventoryItem itemToSell : itemsToSell) {
             ItemType currentType = itemToSell.getItemType();
 
             if(currentType.isResource()) {
-                int numSold = resourcesToNumSold.getOrDefault(currentType, 0);
-                resourcesToNumSold.put(currentType, numSold + 1);
+                numSoldByType[currentType.ordinal()]++;
             }
         }
 
         // We now know how many of each type are being sold, need to calculate how much they are all worth
         int totalSellPrice = 0;
         for (ItemType sellableResourceType : sellableResourceTypes) {
-            int numSoldOfType = resourcesToNumSold.getOrDefault(sellableResourceType, 0);
-            int priceForResource = resourcePrices.getOrDefault(sellableResourceType, 0);
+            int numSoldOfType = numSoldByType[sellableResourceType.ordinal()];
+            int priceForResource = resourcePrices[sellableResourceType.ordinal()];
             totalSellPrice += numSoldOfType * priceForResource;
 
             // Supply has gone up, decrease the sell price according to oldPrice * (1 - (numSold / 8))
-            int newResourcePrice = (int) (priceForResource * (1.0 - (numSoldOfType / 8.0)));
-            resourcePrices.put(sellableResourceType, newResourcePrice);
+            resourcePrices[sellableResourceType.ordinal()] = (int) (priceForResource * (1.0 - (numSoldOfType / 8.0)));
         }
+        for (int typeIndex = 0; typeIndex < NUM_ITEM_TYPES; typeIndex++) {
+            numSoldByType[typeIndex] = 0;
+        }
+        priceVersion++;
 
         // Always notify observers on a sell
-        this.notifyObservers();
+        if (notificationsEnabled) {
+            this.notifyObservers();
+        }
         return totalSellPrice;
     }
 
@@ -102,4 +179,17 @@ public class Economy extends Observable {
         super.notifyObservers();
         this.updatesSinceLastNotify = 0;
     }
+
+    /**
+     * The prices at one price version, replaced as a whole so no Thread sees a version without its prices
+     */
+    private static class PricesSnapshot {
+        private final int version;
+        private final Map<ItemType, Integer> prices;
+
+        private PricesSnapshot(int version, Map<ItemType, Integer> prices) {
+            this.version = version;
+            this.prices = prices;
+        }
+    }
 }
@@ -17,40 +17,156 @@ public class GameBoard {
     public static final int AUTOMINER_MULTIPLIER = 4;
 
     private Tile[][] board;
+    // The tiles of the last game while this board is rebuilt for the next one, indexed the same way as board
+    private Tile[][] spareTiles;
     private Point redStartLocation;
     private Point blueStartLocation;
 
-    // A map of tile locations affected by an autominer to the number of turns they have been mined
-    private Map<Point, Integer> autominerTiles;
+    // The number of turns autominers have worked on every tile, indexed the same way as the PackedBoard
+    private int[] autominerTurnsMined;
+
+    // Only these tiles can change on their own between turns, so update() never has to look at the rest
+    private Set<Point> updatingTileLocations;
+    // The PackedBoard indices of the tiles with an autominer on them
+    private BitSet autominerLocations;
+    // The PackedBoard indices of every tile an autominer works on, in the order they are worked on
+    private int[] autominerCoverage;
+    private int autominerCoverageSize;
+    private boolean autominerCoverageDirty;
 
     // Variables to pre-compute things about the board and change them quickly on the fly
-    private TileType[][] tileView;
-    private Map<Point, List<InventoryItem>> itemsOnGround;
+    private PackedBoard packedBoard;
+    private ItemsOnGround itemsOnGround;
 
     public GameBoard(Tile[][] tiles) {
+        loadTiles(tiles, new int[tiles.length * tiles.length]);
+    }
+
+    private void loadTiles(Tile[][] tiles, int[] autominerTurnsMined) {
         board = tiles;
 
-        autominerTiles = new HashMap<>();
+        this.autominerTurnsMined = autominerTurnsMined;
+        if (updatingTileLocations == null) {
+            updatingTileLocations = new HashSet<>();
+            autominerLocations = new BitSet(tiles.length * tiles.length);
+            autominerCoverage = new int[16];
+        } else {
+            // Restored and rebuilt boards keep their collections
+            updatingTileLocations.clear();
+            autominerLocations.clear();
+        }
+        autominerCoverageSize = 0;
+        autominerCoverageDirty = false;
 
         // Pre-compute the intensive variables to give to a PlayerBoardView
-        itemsOnGround = new HashMap<>();
-        tileView = new TileType[board.length][board.length];
-        for (int i = 0; i < tileView.length; i++) {
-            for (int j = 0; j < tileView[i].length; j++) {
-                tileView[i][j] = board[i][j].getType();
-
-                Point itemLocation = board[i][j].getLocation();
-                Point itemLocationCopy = new Point(itemLocation.x, itemLocation.y);
-                List<InventoryItem> items = new ArrayList<>(board[i][j].getItemsOnTile());
-                itemsOnGround.put(itemLocationCopy, items);
+        itemsOnGround = new ItemsOnGround(board.length);
+        packedBoard = new PackedBoard(board.length);
+        for (int i = 0; i < board.length; i++) {
+            for (int j = 0; j < board[i].length; j++) {
+                Tile tile = board[i][j];
+                itemsOnGround.setItems(tile.getLocation(), tile.getItemsOnTile());
+                packTile(tile);
+                trackActiveTile(tile);
             }
         }
     }
 
+    /**
+     * Replaces every tile on this board, used to put a game back to a GameCheckpoint
+     *
+     * @param tiles The new tiles, in the same layout the constructor takes
+     * @param redStartLocation The red player's start location
+     * @param blueStartLocation The blue player's start location
+     * @param autominerTurnsMined The number of turns each tile has been worked on by autominers, indexed the same
+     *                            way as the PackedBoard. The board keeps and changes this array
+     */
+    void restore(Tile[][] tiles, Point redStartLocation, Point blueStartLocation, int[] autominerTurnsMined) {
+        loadTiles(tiles, autominerTurnsMined);
+        this.redStartLocation = redStartLocation;
+        this.blueStartLocation = blueStartLocation;
+    }
+
+    /**
+     * Starts turning this board into the board of a new game of the same size. The last game's tiles are kept on
+     *  the side, so createTile() can hand back any of them that is the right type in the right place instead of
+     *  allocating a new one. Every slot of the returned array has to be filled before calling finishRebuild()
+     *
+     * @return This board's own tile array, in the same layout the constructor takes
+     */
+    Tile[][] startRebuild() {
+        if (spareTiles == null) {
+            spareTiles = new Tile[board.length][board.length];
+        }
+        for (int i = 0; i < board.length; i++) {
+            System.arraycopy(board[i], 0, spareTiles[i], 0, board.length);
+        }
+        return board;
+    }
+
+    /**
+     * Sets this board up with the tiles put into the array from startRebuild(), as if it was just constructed
+     */
+    void finishRebuild() {
+        Arrays.fill(autominerTurnsMined, 0);
+        loadTiles(board, autominerTurnsMined);
+    }
+
+    /**
+     * @see #createTile(int, int, int)
+     */
+    Tile createTile(TileType tileType, int x, int y) {
+        return createTile(tileType.ordinal(), x, y);
+    }
+
+    /**
+     * Creates a freshly made tile for a location on this board. While the board is being rebuilt, the last game's
+     *  tile at the location is reset and reused if it can become the right kind of tile
+     *
+     * @param tileCode The kind of tile to create, as encoded by GameCheckpoint
+     * @param x The x coordinate of the tile
+     * @param y The y coordinate of the tile
+     * @return A tile that is not on any board yet
+     */
+    Tile createTile(int tileCode, int x, int y) {
+        int row = (board.length - 1) - y;
+        Tile spareTile = (spareTiles == null) ? null : spareTiles[row][x];
+        if (spareTile != null && GameCheckpoint.resetTile(spareTile, tileCode)) {
+            spareTiles[row][x] = null;
+            return spareTile;
+        }
+
+        // Nothing changes a tile's location, so every tile at the same location can share one Point
+        Point location;
+        if (spareTile != null) {
+            location = spareTile.getLocation();
+        } else if (board[row][x] != null) {
+            location = board[row][x].getLocation();
+        } else {
+            location = new Point(x, y);
+        }
+        return GameCheckpoint.createTile(tileCode, location, 0);
+    }
+
+    /**
+     * @param x The x coordinate of a tile
+     * @param y The y coordinate of a tile
+     * @return The number of turns autominers have worked on the tile, 0 if an autominer has never reached it
+     */
+    int getAutominerTurnsMined(int x, int y) {
+        return autominerTurnsMined[packedBoard.getTileIndex(x, y)];
+    }
+
     public int getSize() {
         return board.length;
     }
 
+    /**
+     * @return The packed primitive representation of this board, kept up to date as the board changes
+     */
+    public PackedBoard getPackedBoard() {
+        return packedBoard;
+    }
+
     public Point getRedStartTileLocation() {
         return redStartLocation;
     }
@@ -68,7 +184,50 @@ public class GameBoard {
     }
 
     public void trackItemsOnPoint(Point pointWithItem, List<InventoryItem> itemsOnPoint) {
-        itemsOnGround.put(pointWithItem, new ArrayList<>(itemsOnPoint));
+        itemsOnGround.setItems(pointWithItem, itemsOnPoint);
+        packedBoard.setItems(pointWithItem.x, pointWithItem.y, itemsOnPoint);
+        // Items are tracked after every interaction, which is also when tiles get mined
+        Tile tile = getTileAtLocation(pointWithItem);
+        packedBoard.setTileType(pointWithItem.x, pointWithItem.y, tile.getType());
+        packMiningProgress(tile);
+        trackAutominer(pointWithItem);
+    }
+
+    private void packTile(Tile tile) {
+        Point location = tile.getLocation();
+        packedBoard.setTileType(location.x, location.y, tile.getType());
+        packedBoard.setItems(location.x, location.y, tile.getItemsOnTile());
+        packMiningProgress(tile);
+    }
+
+    private void packMiningProgress(Tile tile) {
+        int numTimesMined = (tile instanceof MineableTile) ? ((MineableTile) tile).getNumTimesMined() : 0;
+        packedBoard.setMiningProgress(tile.getLocation().x, tile.getLocation().y, numTimesMined);
+    }
+
+    /**
+     * Records whether a tile needs to be looked at by update() every turn, either because the tile itself updates
+     *  or because an autominer is sitting on it
+     *
+     * @param tile The tile that was just placed on the board
+     */
+    private void trackActiveTile(Tile tile) {
+        Point location = tile.getLocation();
+        if (tile.hasTurnUpdate()) {
+            updatingTileLocations.add(location);
+        } else {
+            updatingTileLocations.remove(location);
+        }
+        trackAutominer(location);
+    }
+
+    private void trackAutominer(Point location) {
+        int tileIndex = packedBoard.getTileIndex(location.x, location.y);
+        boolean hasAutominer = packedBoard.hasAutominer(location.x, location.y);
+        if (autominerLocations.get(tileIndex) != hasAutominer) {
+            autominerLocations.set(tileIndex, hasAutominer);
+            autominerCoverageDirty = true;
+        }
     }
 
     /**
@@ -118,7 +277,8 @@ public class GameBoard {
                 playerOnTile.setCurrentTile(newTile);
             }
             board[(board.length - 1) - y][x] = newTile;
-            tileView[(board.length - 1) - y][x] = newTile.getType();
+            packTile(newTile);
+            trackActiveTile(newTile);
         }
     }
 
@@ -136,55 +296,77 @@ public class GameBoard {
     }
 
     /**
-     * Called every turn for the board to update its internal state
+     * Called every turn for the board to update its internal state. Only tiles that can change on their own
+     *  (tiles with a turn update and the tiles around autominers) are visited
      */
     public void update() {
-
-        List<Point> autominers = new ArrayList<>();
-
-        for (int i = 0; i < board.length; i++) {
-            for (int j = 0; j < board.length; j++) {
-                Tile currentTile = board[i][j];
-                currentTile.update();
-
-                if(currentTile.getItemsOnTile().stream().anyMatch(x -> x.getItemType() == ItemType.AUTOMINER)) {
-                    autominers.add(currentTile.getLocation());
-                }
-            }
+        for (Point updatingTileLocation : updatingTileLocations) {
+            getTileAtLocation(updatingTileLocation).update();
         }
 
-        // All tiles that are affected by at least one autominer
-        List<Point> affectedTiles = new ArrayList<>();
-
-        for(Point miner : autominers) {
-            affectedTiles.add(new Point(miner.x, miner.y));
-            if(miner.x > 0) affectedTiles.add(new Point(miner.x - 1, miner.y));
-            if(miner.x < board.length - 1) affectedTiles.add(new Point(miner.x + 1, miner.y));
-            if(miner.y > 0) affectedTiles.add(new Point(miner.x, miner.y - 1));
-            if(miner.y < board.length - 1) affectedTiles.add(new Point(miner.x, miner.y + 1));
+        if (autominerCoverageDirty) {
+            computeAutominerCoverage();
         }
 
-        for(Point p : affectedTiles) {
-            int turnsMined = autominerTiles.getOrDefault(p, 0);
+        for (int i = 0; i < autominerCoverageSize; i++) {
+            int tileIndex = autominerCoverage[i];
+            int turnsMined = autominerTurnsMined[tileIndex];
 
-            Tile tile = getTileAtLocation(p);
+            Tile tile = getTileAtLocation(tileIndex % board.length, tileIndex / board.length);
 
-            if(tile instanceof EmptyTile) {
+            if(hasMiningState(tile, MiningState.EMPTY)) {
                 tile = tile.interact(null, TurnAction.MINE);
-            } else if(turnsMined > 0 && tile instanceof ResourceTile) {
+            } else if(turnsMined > 0 && hasMiningState(tile, MiningState.RESOURCE)) {
                 if(turnsMined % AUTOMINER_MULTIPLIER == 0) {
                     tile = tile.interact(null, TurnAction.MINE);
-                    trackItemsOnPoint(p, tile.getItemsOnTile());
+                    trackItemsOnPoint(tile.getLocation(), tile.getItemsOnTile());
                 }
             }
 
             setTileAtTileLocation(tile);
 
-            autominerTiles.put(p, turnsMined + 1);
+            autominerTurnsMined[tileIndex] = turnsMined + 1;
         }
 
     }
 
+    private static boolean hasMiningState(Tile tile, MiningState miningState) {
+        return (tile instanceof MineableTile) && ((MineableTile) tile).getMiningState() == miningState;
+    }
+
+    /**
+     * Rebuilds the indices of the tiles affected by at least one autominer. A tile next to two autominers is in the
+     *  coverage twice, because it gets mined by both of them. Only needed when an autominer is placed or picked up
+     */
+    private void computeAutominerCoverage() {
+        autominerCoverageSize = 0;
+        int boardSize = board.length;
+
+        // Autominers work in the same order the board is scanned, top row first and then left to right
+        for (int y = boardSize - 1; y >= 0; y--) {
+            int rowEnd = (y + 1) * boardSize;
+            for (int miner = autominerLocations.nextSetBit(y * boardSize);
+                 miner >= 0 && miner < rowEnd; miner = autominerLocations.nextSetBit(miner + 1)) {
+                int x = miner - y * boardSize;
+                addAutominerCoverage(miner);
+                if(x > 0) addAutominerCoverage(miner - 1);
+                if(x < boardSize - 1) addAutominerCoverage(miner + 1);
+                if(y > 0) addAutominerCoverage(miner - boardSize);
+                if(y < boardSize - 1) addAutominerCoverage(miner + boardSize);
+            }
+        }
+
+        autominerCoverageDirty = false;
+    }
+
+    private void addAutominerCoverage(int tileIndex) {
+        if (autominerCoverageSize == autominerCoverage.length) {
+            autominerCoverage = Arrays.copyOf(autominerCoverage, autominerCoverageSize * 2);
+        }
+        autominerCoverage[autominerCoverageSize] = tileIndex;
+        autominerCoverageSize++;
+    }
+
     /**
      * Converts this GameBoard into a restricted information view of the board relative to what one player is
      *  allowed to know
@@ -212,20 +394,17 @@ public class GameBoard {
      */
     public PlayerBoardView convertToView(MinePlayer playerReceivingView, Point otherPlayerLocation,
                                          int otherPlayerScore) {
-        // Because we're passing around references, we don't want one strategy to change what the other sees
-        //  so we need to be careful and make copies of data being passed by reference
-        Map<Point, List<InventoryItem>> itemsOnGroundCopy = new HashMap<>();
-        for (Point pointWithItem : itemsOnGround.keySet()) {
-            Point pointCopy = new Point(pointWithItem.x, pointWithItem.y);
-            itemsOnGroundCopy.put(pointCopy, new ArrayList<>(itemsOnGround.get(pointWithItem)));
-        }
+        // Because we're passing around references, we don't want one strategy to change what the other sees.
+        //  The snapshot is immutable and shares storage with the board until the next change, so no copy is needed
+        Map<Point, List<InventoryItem>> itemsOnGroundSnapshot = itemsOnGround.snapshot();
 
         // Make copies of these locations so they may not be modified by a strategy
         Point playerLocation = playerReceivingView.getCurrentTile().getLocation();
         Point playerLocationCopy = new Point(playerLocation.x, playerLocation.y);
         Point otherLocationCopy = new Point(otherPlayerLocation.x, otherPlayerLocation.y);
-        // We don't need to copy tileView because it is never given to the strategy by reference
-        return new PlayerBoardView(tileView, itemsOnGroundCopy, playerLocationCopy, otherLocationCopy, otherPlayerScore);
+        // The packed snapshot only gives strategies read access, so tile types don't need to be copied either
+        return new PlayerBoardView(packedBoard.snapshot(), itemsOnGroundSnapshot, playerLocationCopy,
+                                   otherLocationCopy, otherPlayerScore);
     }
 
     /**
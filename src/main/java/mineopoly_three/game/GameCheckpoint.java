@@ -0,0 +1,415 @@
+package mineopoly_three.game;
+
+import mineopoly_three.action.TurnAction;
+import mineopoly_three.item.InventoryItem;
+import mineopoly_three.item.ItemType;
+import mineopoly_three.tiles.MarketTile;
+import mineopoly_three.tiles.MineableTile;
+import mineopoly_three.tiles.MiningState;
+import mineopoly_three.tiles.RechargeTile;
+import mineopoly_three.tiles.Tile;
+import mineopoly_three.tiles.TileType;
+
+import java.awt.Point;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The full state of a game at the start of a turn: every tile with its mining progress and items, the autominer
+ *  counters, the economy's prices and both players' positions, inventories, energy, scores and random number
+ *  generator state. Restoring a checkpoint and replaying the same actions gives exactly the same game.
+ * Strategies and the actions taken before the checkpoint are not part of it.
+ */
+public class GameCheckpoint {
+    private static final TileType[] allTileTypes = TileType.values();
+    private static final ItemType[] allItemTypes = ItemType.values();
+    private static final TurnAction[] allTurnActions = TurnAction.values();
+    // Empty and cracked tiles share a TileType but not behavior, so cracked tiles get a code of their own
+    static final int CRACKED_TILE_CODE = allTileTypes.length;
+    private static final byte[] NO_ITEMS = new byte[0];
+
+    private final int turnNumber;
+    private final int boardSize;
+    private final int redStartIndex;
+    private final int blueStartIndex;
+    // Indexed by x + y * boardSize
+    private final byte[] tileCodes;
+    private final byte[] miningProgress;
+    private final byte[][] itemsOnTiles;
+    private final int[] autominerTurnsMined;
+    // Indexed by ItemType ordinal, -1 for items the economy doesn't buy
+    private final int[] resourcePrices;
+    private final PlayerCheckpoint redPlayer;
+    private final PlayerCheckpoint bluePlayer;
+
+    private GameCheckpoint(int turnNumber, int boardSize, int redStartIndex, int blueStartIndex, byte[] tileCodes,
+                           byte[] miningProgress, byte[][] itemsOnTiles, int[] autominerTurnsMined,
+                           int[] resourcePrices, PlayerCheckpoint redPlayer, PlayerCheckpoint bluePlayer) {
+        this.turnNumber = turnNumber;
+        this.boardSize = boardSize;
+        this.redStartIndex = redStartIndex;
+        this.blueStartIndex = blueStartIndex;
+        this.tileCodes = tileCodes;
+        this.miningProgress = miningProgress;
+        this.itemsOnTiles = itemsOnTiles;
+        this.autominerTurnsMined = autominerTurnsMined;
+        this.resourcePrices = resourcePrices;
+        this.redPlayer = redPlayer;
+        this.bluePlayer = bluePlayer;
+    }
+
+    /**
+     * @return The number of turns both players had taken when this checkpoint was made
+     */
+    public int getTurnNumber() {
+        return turnNumber;
+    }
+
+    public int getBoardSize() {
+        return boardSize;
+    }
+
+    static GameCheckpoint capture(int turnNumber, GameBoard board, MinePlayer redPlayer, MinePlayer bluePlayer,
+                                  Economy economy) {
+        int boardSize = board.getSize();
+        int numTiles = boardSize * boardSize;
+        byte[] tileCodes = new byte[numTiles];
+        byte[] miningProgress = new byte[numTiles];
+        byte[][] itemsOnTiles = new byte[numTiles][];
+        int[] autominerTurnsMined = new int[numTiles];
+
+        for (int y = 0; y < boardSize; y++) {
+            for (int x = 0; x < boardSize; x++) {
+                int tileIndex = x + y * boardSize;
+                Tile tile = board.getTileAtLocation(x, y);
+                tileCodes[tileIndex] = (byte) getTileCode(tile);
+                if (tile instanceof MineableTile) {
+                    miningProgress[tileIndex] = (byte) ((MineableTile) tile).getNumTimesMined();
+                }
+                itemsOnTiles[tileIndex] = encodeItems(tile.getItemsOnTile());
+                autominerTurnsMined[tileIndex] = board.getAutominerTurnsMined(x, y);
+            }
+        }
+
+        int[] resourcePrices = new int[allItemTypes.length];
+        Map<ItemType, Integer> currentPrices = economy.getCurrentPrices();
+        for (ItemType itemType : allItemTypes) {
+            resourcePrices[itemType.ordinal()] = currentPrices.getOrDefault(itemType, -1);
+        }
+
+        Point redStart = board.getRedStartTileLocation();
+        Point blueStart = board.getBlueStartTileLocation();
+        return new GameCheckpoint(turnNumber, boardSize, redStart.x + redStart.y * boardSize,
+                                  blueStart.x + blueStart.y * boardSize, tileCodes, miningProgress, itemsOnTiles,
+                                  autominerTurnsMined, resourcePrices, new PlayerCheckpoint(redPlayer, boardSize),
+                                  new PlayerCheckpoint(bluePlayer, boardSize));
+    }
+
+    /**
+     * Puts a game back into the state of this checkpoint. The board keeps its identity so anything rendering it
+     *  stays attached, its contents are replaced
+     */
+    void restore(GameBoard board, MinePlayer redPlayer, MinePlayer bluePlayer, Economy economy) {
+        Tile[][] tiles = new Tile[boardSize][boardSize];
+        for (int y = 0; y < boardSize; y++) {
+            for (int x = 0; x < boardSize; x++) {
+                int tileIndex = x + y * boardSize;
+                Point location = new Point(x, y);
+                Tile tile = createTile(tileCodes[tileIndex], location, miningProgress[tileIndex]);
+                tile.getItemsOnTile().addAll(decodeItems(itemsOnTiles[tileIndex]));
+                tiles[(boardSize - 1) - y][x] = tile;
+            }
+        }
+        // The board keeps counting on the array it is given, and this checkpoint can be restored again later
+        board.restore(tiles, toLocation(redStartIndex), toLocation(blueStartIndex), autominerTurnsMined.clone());
+
+        // Players enter their tiles before their inventories come back, so standing on a market doesn't sell anything
+        this.redPlayer.restore(redPlayer, board);
+        this.bluePlayer.restore(bluePlayer, board);
+
+        for (ItemType itemType : allItemTypes) {
+            if (resourcePrices[itemType.ordinal()] >= 0) {
+                economy.setPrice(itemType, resourcePrices[itemType.ordinal()]);
+            }
+        }
+    }
+
+    /**
+     * @return The number of bytes encode() will write
+     */
+    public int getEncodedSize() {
+        int encodedSize = 4 * 4 + tileCodes.length * 3 + 4 + 4 * resourcePrices.length;
+        for (byte[] items : itemsOnTiles) {
+            encodedSize += items.length;
+        }
+        for (int turnsMined : autominerTurnsMined) {
+            if (turnsMined > 0) {
+                encodedSize += 8;
+            }
+        }
+        return encodedSize + redPlayer.getEncodedSize() + bluePlayer.getEncodedSize();
+    }
+
+    /**
+     * Writes this checkpoint to a buffer
+     *
+     * @param buffer A buffer with at least getEncodedSize() bytes remaining
+     */
+    public void encode(ByteBuffer buffer) {
+        buffer.putInt(turnNumber).putInt(boardSize).putInt(redStartIndex).putInt(blueStartIndex);
+        buffer.put(tileCodes).put(miningProgress);
+        for (byte[] items : itemsOnTiles) {
+            buffer.put((byte) items.length).put(items);
+        }
+        // Only tiles an autominer has ever worked on have a counter, so only those are written
+        int numAutominerTiles = 0;
+        for (int turnsMined : autominerTurnsMined) {
+            if (turnsMined > 0) {
+                numAutominerTiles++;
+            }
+        }
+        buffer.putInt(numAutominerTiles);
+        for (int tileIndex = 0; tileIndex < autominerTurnsMined.length; tileIndex++) {
+            if (autominerTurnsMined[tileIndex] > 0) {
+                buffer.putInt(tileIndex).putInt(autominerTurnsMined[tileIndex]);
+            }
+        }
+        for (int price : resourcePrices) {
+            buffer.putInt(price);
+        }
+        redPlayer.encode(buffer);
+        bluePlayer.encode(buffer);
+    }
+
+    /**
+     * Reads a checkpoint written by encode()
+     *
+     * @param buffer A buffer positioned at the start of an encoded checkpoint
+     * @return The decoded checkpoint
+     * @throws IllegalArgumentException If the buffer does not hold a valid checkpoint
+     */
+    public static GameCheckpoint decode(ByteBuffer buffer) {
+        try {
+            int turnNumber = buffer.getInt();
+            int boardSize = buffer.getInt();
+            if (boardSize <= 0 || boardSize > Short.MAX_VALUE) {
+                throw new IllegalArgumentException("Invalid checkpoint board size " + boardSize);
+            }
+            int numTiles = boardSize * boardSize;
+            int redStartIndex = buffer.getInt();
+            int blueStartIndex = buffer.getInt();
+
+            byte[] tileCodes = new byte[numTiles];
+            byte[] miningProgress = new byte[numTiles];
+            buffer.get(tileCodes).get(miningProgress);
+            byte[][] itemsOnTiles = new byte[numTiles][];
+            for (int i = 0; i < numTiles; i++) {
+                itemsOnTiles[i] = getItems(buffer);
+            }
+
+            int[] autominerTurnsMined = new int[numTiles];
+            int numAutominerTiles = buffer.getInt();
+            for (int i = 0; i < numAutominerTiles; i++) {
+                int tileIndex = buffer.getInt();
+                if (tileIndex < 0 || tileIndex >= numTiles) {
+                    throw new IllegalArgumentException("Invalid autominer tile " + tileIndex + " in checkpoint");
+                }
+                autominerTurnsMined[tileIndex] = buffer.getInt();
+            }
+            int[] resourcePrices = new int[allItemTypes.length];
+            for (int i = 0; i < resourcePrices.length; i++) {
+                resourcePrices[i] = buffer.getInt();
+            }
+
+            PlayerCheckpoint redPlayer = PlayerCheckpoint.decode(buffer);
+            PlayerCheckpoint bluePlayer = PlayerCheckpoint.decode(buffer);
+            return new GameCheckpoint(turnNumber, boardSize, redStartIndex, blueStartIndex, tileCodes,
+                                      miningProgress, itemsOnTiles, autominerTurnsMined, resourcePrices,
+                                      redPlayer, bluePlayer);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("The checkpoint ended early", e);
+        }
+    }
+
+    private Point toLocation(int tileIndex) {
+        return new Point(tileIndex % boardSize, tileIndex / boardSize);
+    }
+
+    static int getTileCode(Tile tile) {
+        if (tile instanceof MineableTile && ((MineableTile) tile).getMiningState() == MiningState.CRACKED) {
+            return CRACKED_TILE_CODE;
+        }
+        return tile.getType().ordinal();
+    }
+
+    static Tile createTile(int tileCode, Point location, int numTimesMined) {
+        if (tileCode == CRACKED_TILE_CODE) {
+            MineableTile crackedTile = new MineableTile(location);
+            crackedTile.crack();
+            return crackedTile;
+        }
+        if (tileCode < 0 || tileCode > CRACKED_TILE_CODE) {
+            throw new IllegalArgumentException("Invalid tile code " + tileCode);
+        }
+
+        TileType tileType = allTileTypes[tileCode];
+        switch (tileType) {
+            case EMPTY:
+                return new MineableTile(location);
+            case RED_MARKET:
+                return new MarketTile(location, true);
+            case BLUE_MARKET:
+                return new MarketTile(location, false);
+            case RECHARGE:
+                return new RechargeTile(location);
+            default:
+                ItemType tileResource = getResource(tileCode);
+                if (tileResource == null) {
+                    throw new IllegalArgumentException("No resource for tile type " + tileType);
+                }
+                return new MineableTile(location, tileResource, numTimesMined);
+        }
+    }
+
+    /**
+     * Puts a tile left over from an earlier game into the state createTile() would create it in, if it can be.
+     *  Any MineableTile can become any kind of mineable tile, other tiles only their own kind
+     *
+     * @param tile The tile to reuse, which is not on any board
+     * @param tileCode The kind of tile it should become
+     * @return True if the tile was reset, false if a new tile has to be created instead
+     */
+    static boolean resetTile(Tile tile, int tileCode) {
+        if (tile instanceof MineableTile) {
+            MineableTile mineableTile = (MineableTile) tile;
+            if (tileCode == CRACKED_TILE_CODE) {
+                mineableTile.reset();
+                mineableTile.crack();
+                return true;
+            }
+            ItemType tileResource = getResource(tileCode);
+            if (tileCode == TileType.EMPTY.ordinal() || tileResource != null) {
+                mineableTile.reset();
+                if (tileResource != null) {
+                    mineableTile.setResource(tileResource);
+                }
+                return true;
+            }
+            return false;
+        }
+        if (getTileCode(tile) == tileCode) {
+            tile.reset();
+            return true;
+        }
+        return false;
+    }
+
+    private static ItemType getResource(int tileCode) {
+        if (tileCode < 0 || tileCode >= allTileTypes.length) {
+            return null;
+        }
+        for (ItemType itemType : allItemTypes) {
+            if (itemType.getResourceTileType() == allTileTypes[tileCode]) {
+                return itemType;
+            }
+        }
+        return null;
+    }
+
+    static byte[] encodeItems(List<InventoryItem> items) {
+        if (items.isEmpty()) {
+            return NO_ITEMS;
+        }
+        byte[] encodedItems = new byte[items.size()];
+        for (int i = 0; i < encodedItems.length; i++) {
+            encodedItems[i] = (byte) items.get(i).getItemType().ordinal();
+        }
+        return encodedItems;
+    }
+
+    static List<InventoryItem> decodeItems(byte[] encodedItems) {
+        List<InventoryItem> items = new ArrayList<>(encodedItems.length);
+        for (byte itemOrdinal : encodedItems) {
+            items.add(InventoryItem.of(allItemTypes[itemOrdinal]));
+        }
+        return items;
+    }
+
+    static byte[] getItems(ByteBuffer buffer) {
+        int numItems = buffer.get();
+        if (numItems == 0) {
+            return NO_ITEMS;
+        }
+        byte[] items = new byte[numItems];
+        buffer.get(items);
+        for (byte itemOrdinal : items) {
+            if (itemOrdinal < 0 || itemOrdinal >= allItemTypes.length) {
+                throw new IllegalArgumentException("Invalid item " + itemOrdinal);
+            }
+        }
+        return items;
+    }
+
+    /**
+     * Everything about a MinePlayer that changes during a game, apart from the actions it has taken
+     */
+    private static class PlayerCheckpoint {
+        private final int tileIndex;
+        private final int score;
+        private final int energy;
+        private final int lastMoveOrdinal;
+        private final long randomState;
+        private final byte[] inventory;
+
+        PlayerCheckpoint(int tileIndex, int score, int energy, int lastMoveOrdinal, long randomState,
+                         byte[] inventory) {
+            this.tileIndex = tileIndex;
+            this.score = score;
+            this.energy = energy;
+            this.lastMoveOrdinal = lastMoveOrdinal;
+            this.randomState = randomState;
+            this.inventory = inventory;
+        }
+
+        PlayerCheckpoint(MinePlayer player, int boardSize) {
+            this(player.getCurrentTile().getLocation().x + player.getCurrentTile().getLocation().y * boardSize,
+                 player.getScore(), player.getCurrentEnergy(), player.getLastMove().ordinal(),
+                 player.getRandomState(), encodeItems(player.getInventory()));
+        }
+
+        void restore(MinePlayer player, GameBoard board) {
+            int boardSize = board.getSize();
+            Tile currentTile = board.getTileAtLocation(tileIndex % boardSize, tileIndex / boardSize);
+            if (tileIndex < 0 || currentTile == null) {
+                throw new IllegalArgumentException("Player location " + tileIndex + " is not on the board");
+            }
+            player.restoreState(currentTile, score, energy, allTurnActions[lastMoveOrdinal], randomState,
+                                decodeItems(inventory));
+        }
+
+        int getEncodedSize() {
+            return 4 * 3 + 1 + 8 + 1 + inventory.length;
+        }
+
+        void encode(ByteBuffer buffer) {
+            buffer.putInt(tileIndex).putInt(score).putInt(energy).put((byte) lastMoveOrdinal).putLong(randomState);
+            buffer.put((byte) inventory.length).put(inventory);
+        }
+
+        static PlayerCheckpoint decode(ByteBuffer buffer) {
+            int tileIndex = buffer.getInt();
+            int score = buffer.getInt();
+            int energy = buffer.getInt();
+            int lastMoveOrdinal = buffer.get();
+            if (lastMoveOrdinal < 0 || lastMoveOrdinal >= allTurnActions.length) {
+                throw new IllegalArgumentException("Invalid last move " + lastMoveOrdinal + " in checkpoint");
+            }
+            long randomState = buffer.getLong();
+            byte[] inventory = getItems(buffer);
+            return new PlayerCheckpoint(tileIndex, score, energy, lastMoveOrdinal, randomState, inventory);
+        }
+    }
+}
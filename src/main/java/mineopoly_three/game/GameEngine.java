@@ -3,29 +3,72 @@ package mineopoly_three.game;
 import mineopoly_three.action.Action;
 import mineopoly_three.action.TurnAction;
 import mineopoly_three.item.ItemType;
+import mineopoly_three.metrics.EngineMetrics;
+import mineopoly_three.metrics.LatencyHistogram;
+import mineopoly_three.metrics.MetricsSink;
+import mineopoly_three.metrics.TurnPhase;
 import mineopoly_three.replay.Replay;
 import mineopoly_three.strategy.MinePlayerStrategy;
 import mineopoly_three.strategy.PlayerBoardView;
 import mineopoly_three.tiles.Tile;
 
 import java.awt.Point;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Observable;
 import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @SuppressWarnings("unused")
 public class GameEngine extends Observable {
-    private static final int MAX_TURNS_PER_GAME = 1000;
+    static final int MAX_TURNS_PER_GAME = 1000;
     private static final double TURNS_PER_SECOND = 20;
 
     private long randomSeed;
+    private int worldGeneratorVersion = WorldGenerator.LEGACY_VERSION;
+    private BoardTemplateCache boardTemplateCache;
     private GameBoard board;
     private MinePlayer redPlayer;
     private MinePlayer bluePlayer;
     private Economy economy;
     private boolean guiEnabled;
+    private boolean headless;
+    private GameEventListener[] eventListeners;
     private int minScoreToWin;
 
+    // Strategies only run on their own Threads when they have a time budget
+    private long strategyTimeBudgetMillis;
+    private ExecutorService redStrategyExecutor;
+    private ExecutorService blueStrategyExecutor;
+    // Whether the last call into a strategy ran out of time, so its answer was the fallback
+    private boolean strategyTimedOut;
+    // Executors given up on because a timed out call ignored being interrupted and is still running on them, by
+    //  the strategy the call is running in. Kept across resets, since the same strategy can play the next game
+    private final Map<MinePlayerStrategy, ExecutorService> abandonedExecutors = new IdentityHashMap<>();
+
+    // Per game timings, only collected while metrics are enabled
+    private boolean metricsEnabled;
+    private MetricsSink metricsSink;
+    private EngineMetrics engineMetrics;
+
+    // Where the game is up to, kept in fields so a game can be checkpointed and resumed part way through
+    private int turnNumber;
+    private boolean resumedFromCheckpoint;
+    private int firstVisibleTurn;
+    private int checkpointInterval;
+    private List<GameCheckpoint> checkpoints;
+
     // Variables to greatly simplify exception flow logic
     private MinePlayer playerWhoThrewException;
     private Exception exceptionThrown;
@@ -35,6 +78,16 @@ public class GameEngine extends Observable {
     }
 
     public GameEngine(int boardSize, MinePlayerStrategy redPlayerStrategy, MinePlayerStrategy bluePlayerStrategy, long randomSeed) {
+        this(boardSize, redPlayerStrategy, bluePlayerStrategy, randomSeed, WorldGenerator.LEGACY_VERSION);
+    }
+
+    /**
+     * @param worldGeneratorVersion Which version of WorldGenerator builds this game's board and every board after a
+     *                               reset. The same seed only gives the same board with the same version
+     */
+    public GameEngine(int boardSize, MinePlayerStrategy redPlayerStrategy, MinePlayerStrategy bluePlayerStrategy,
+                      long randomSeed, int worldGeneratorVersion) {
+        this.worldGeneratorVersion = worldGeneratorVersion;
         // Generate a random GameBoard and set player start tiles
         this.setupEngineForGame(boardSize, randomSeed);
 
@@ -43,42 +96,80 @@ public class GameEngine extends Observable {
         this.redPlayer = new MinePlayer(redPlayerStrategy, redStartTile, economy, randomSeed, true);
         this.bluePlayer = new MinePlayer(bluePlayerStrategy, blueStartTile, economy, randomSeed, false);
         this.guiEnabled = false;
+        this.headless = false;
+        this.eventListeners = new GameEventListener[0];
     }
 
     private void setupEngineForGame(int boardSize, long randomSeed) {
         this.randomSeed = randomSeed;
-        WorldGenerator worldGenerator = new WorldGenerator(randomSeed);
-        this.board = worldGenerator.generateBoard(boardSize);
-        this.economy = new Economy(Arrays.stream(ItemType.values()).filter(ItemType::isResource).toArray(ItemType[]::new));
+        // A board of the same size is built again in place, reusing as many of the last game's tiles as it can
+        boolean reuseBoard = (board != null && board.getSize() == boardSize);
+        if (boardTemplateCache != null) {
+            this.board = reuseBoard ? boardTemplateCache.createBoard(randomSeed, worldGeneratorVersion, board)
+                    : boardTemplateCache.createBoard(randomSeed, boardSize, worldGeneratorVersion);
+        } else {
+            WorldGenerator worldGenerator = new WorldGenerator(randomSeed, worldGeneratorVersion);
+            this.board = reuseBoard ? worldGenerator.regenerateBoard(board) : worldGenerator.generateBoard(boardSize);
+        }
+        if (economy == null) {
+            this.economy = new Economy(Arrays.stream(ItemType.values()).filter(ItemType::isResource).toArray(ItemType[]::new));
+        } else {
+            economy.reset();
+        }
+        this.economy.setNotificationsEnabled(!headless);
         this.minScoreToWin = 30 * boardSize * boardSize;
+        this.turnNumber = 0;
+        this.resumedFromCheckpoint = false;
+        this.firstVisibleTurn = 0;
+        if (checkpoints == null) {
+            this.checkpoints = new ArrayList<>();
+        } else {
+            checkpoints.clear();
+        }
 
         this.playerWhoThrewException = null;
         this.exceptionThrown = null;
     }
 
     /**
-     * Allows the same GameEngine object to be used for multiple games
+     * Allows the same GameEngine object to be used for multiple games. The board, players and economy of the last
+     *  game are put back to their starting state and reused rather than created again, so take a copy of anything
+     *  needed from them (or the Replay) before resetting
      *
      * @param newBoardSize The size of the new game board to be generated
      * @param newSeed The new random seed value for world generation and the strategies to use
      * @param swapPlayers If true, the last red player will be the next blue player and vice versa
      */
     public void reset(int newBoardSize, long newSeed, boolean swapPlayers) {
-        this.setupEngineForGame(newBoardSize, newSeed);
-
         MinePlayerStrategy redPlayerStrategy = this.redPlayer.getStrategy();
         MinePlayerStrategy bluePlayerStrategy = this.bluePlayer.getStrategy();
-        Tile redStartTile = board.getTileAtLocation(board.getRedStartTileLocation());
-        Tile blueStartTile = board.getTileAtLocation(board.getBlueStartTileLocation());
         if (swapPlayers) {
-            this.redPlayer = new MinePlayer(bluePlayerStrategy, redStartTile, economy, randomSeed, true);
-            this.bluePlayer = new MinePlayer(redPlayerStrategy, blueStartTile, economy, randomSeed, false);
+            this.reset(newBoardSize, newSeed, bluePlayerStrategy, redPlayerStrategy);
         } else {
-            this.redPlayer = new MinePlayer(redPlayerStrategy, redStartTile, economy, randomSeed, true);
-            this.bluePlayer = new MinePlayer(bluePlayerStrategy, blueStartTile, economy, randomSeed, false);
+            this.reset(newBoardSize, newSeed, redPlayerStrategy, bluePlayerStrategy);
         }
     }
 
+    /**
+     * Allows the same GameEngine object to be used for multiple games with a new pair of strategies, reusing the
+     *  last game's objects like reset(int, long, boolean) does.
+     * Useful when strategies keep state between rounds and every game should start from fresh instances
+     *
+     * @param newBoardSize The size of the new game board to be generated
+     * @param newSeed The new random seed value for world generation and the strategies to use
+     * @param redPlayerStrategy The strategy that will play as the red player in the next game
+     * @param bluePlayerStrategy The strategy that will play as the blue player in the next game
+     */
+    public void reset(int newBoardSize, long newSeed, MinePlayerStrategy redPlayerStrategy,
+                      MinePlayerStrategy bluePlayerStrategy) {
+        this.setupEngineForGame(newBoardSize, newSeed);
+
+        Tile redStartTile = board.getTileAtLocation(board.getRedStartTileLocation());
+        Tile blueStartTile = board.getTileAtLocation(board.getBlueStartTileLocation());
+        redPlayer.reset(redPlayerStrategy, redStartTile, randomSeed);
+        bluePlayer.reset(bluePlayerStrategy, blueStartTile, randomSeed);
+    }
+
     public GameBoard getBoard() {
         return board;
     }
@@ -116,19 +207,218 @@ public class GameEngine extends Observable {
         return randomSeed;
     }
 
+    public int getWorldGeneratorVersion() {
+        return worldGeneratorVersion;
+    }
+
+    public long getStrategyTimeBudgetMillis() {
+        return strategyTimeBudgetMillis;
+    }
+
+    /**
+     * Limits how long a strategy can take to answer each call from the engine. A strategy that runs out of time on
+     *  getTurnAction does nothing that turn, which the Replay records as a timed out turn, and the late answer is
+     *  thrown away.
+     *  Out of time initialize and endRound calls are abandoned, and the game carries on.
+     * Calls with a budget run on a Thread of their own for each player, one call at a time. A strategy still busy
+     *  with a late call that ignored being interrupted sits out every call after it, counted as a timeout, until
+     *  the late call returns, including calls in later games after a reset
+     *
+     * @param strategyTimeBudgetMillis The most milliseconds each strategy call can take, or 0 for no limit
+     */
+    public void setStrategyTimeBudgetMillis(long strategyTimeBudgetMillis) {
+        if (strategyTimeBudgetMillis < 0) {
+            throw new IllegalArgumentException("The strategy time budget can't be negative");
+        }
+        this.strategyTimeBudgetMillis = strategyTimeBudgetMillis;
+    }
+
+    /**
+     * Makes every game after the next reset take its board from a cache of generated worlds, which is much faster
+     *  than generating the world when the same seeds are played over and over
+     *
+     * @param boardTemplateCache The cache to use, which can be shared with other GameEngines, or null to always
+     *                            generate boards
+     */
+    public void setBoardTemplateCache(BoardTemplateCache boardTemplateCache) {
+        this.boardTemplateCache = boardTemplateCache;
+    }
+
+    /**
+     * @param worldGeneratorVersion Which version of WorldGenerator builds the board of every game after the next reset
+     */
+    public void setWorldGeneratorVersion(int worldGeneratorVersion) {
+        if (worldGeneratorVersion != WorldGenerator.LEGACY_VERSION
+                && worldGeneratorVersion != WorldGenerator.SECTOR_VERSION) {
+            throw new IllegalArgumentException("Unknown world generator version " + worldGeneratorVersion);
+        }
+        this.worldGeneratorVersion = worldGeneratorVersion;
+    }
+
+    /**
+     * @return The number of turns both players have taken so far in the current game
+     */
+    public int getTurnNumber() {
+        return turnNumber;
+    }
+
+    public int getCheckpointInterval() {
+        return checkpointInterval;
+    }
+
+    /**
+     * Makes every following game record a GameCheckpoint at the start of every checkpointInterval-th turn. The
+     *  checkpoints are included in the Replay, so watching the replay can skip straight to any turn
+     *
+     * @param checkpointInterval The number of turns between checkpoints, or 0 to not record checkpoints
+     */
+    public void setCheckpointInterval(int checkpointInterval) {
+        if (checkpointInterval < 0) {
+            throw new IllegalArgumentException("The checkpoint interval can't be negative");
+        }
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    /**
+     * Turns before this one are played as fast as possible, without waiting between GUI frames or notifying
+     *  observers. Used to skip to a turn of a replay
+     *
+     * @param firstVisibleTurn The first turn anything watching the game should see
+     */
+    public void setFirstVisibleTurn(int firstVisibleTurn) {
+        this.firstVisibleTurn = firstVisibleTurn;
+    }
+
+    /**
+     * @return A snapshot of the full state of the current game
+     */
+    public GameCheckpoint createCheckpoint() {
+        return GameCheckpoint.capture(turnNumber, board, redPlayer, bluePlayer, economy);
+    }
+
+    /**
+     * @return A GameState of the current game that can be stepped forward without affecting this engine
+     */
+    public GameState getGameState() {
+        return GameState.capture(turnNumber, minScoreToWin, board, redPlayer, bluePlayer, economy);
+    }
+
+    /**
+     * Puts the current game back into the state saved in a checkpoint. The next call to runGame() continues from
+     *  the checkpoint's turn instead of starting a new game. Strategies are still initialized, so this is meant for
+     *  strategies that don't depend on what happened before the checkpoint, like a ReplayStrategy
+     *
+     * @param checkpoint A checkpoint made from a game on a board of the same size
+     */
+    public void restoreCheckpoint(GameCheckpoint checkpoint) {
+        if (checkpoint.getBoardSize() != board.getSize()) {
+            throw new IllegalArgumentException("The checkpoint is for a board of size " + checkpoint.getBoardSize()
+                                               + ", not " + board.getSize());
+        }
+        checkpoint.restore(board, redPlayer, bluePlayer, economy);
+        this.turnNumber = checkpoint.getTurnNumber();
+        this.resumedFromCheckpoint = true;
+        this.checkpoints = new ArrayList<>();
+        this.playerWhoThrewException = null;
+        this.exceptionThrown = null;
+    }
+
     public boolean isGuiEnabled() {
         return this.guiEnabled;
     }
 
     public void setGuiEnabled(boolean guiEnabled) {
         this.guiEnabled = guiEnabled;
+        if (guiEnabled) {
+            setHeadless(false);
+        }
+    }
+
+    public boolean isHeadless() {
+        return headless;
+    }
+
+    /**
+     * Headless engines are meant for bulk simulation. They never notify observers (of the engine or its economy),
+     *  never wait between turns, and skip the wait for the GUI to load at the start of a game.
+     * GameEventListeners still receive events. A headless engine can't have its GUI enabled.
+     *
+     * @param headless True to run every following game headless
+     */
+    public void setHeadless(boolean headless) {
+        this.headless = headless;
+        this.economy.setNotificationsEnabled(!headless);
+        if (headless) {
+            this.guiEnabled = false;
+        }
+    }
+
+    public boolean isMetricsEnabled() {
+        return metricsEnabled;
+    }
+
+    /**
+     * Times every phase of every turn, counts turns per second and, where the JVM supports it, the bytes the engine
+     *  allocates per turn. Metrics are off by default so games that don't want them pay nothing for them
+     *
+     * @param metricsEnabled True to collect EngineMetrics for every following game
+     */
+    public void setMetricsEnabled(boolean metricsEnabled) {
+        this.metricsEnabled = metricsEnabled;
+    }
+
+    /**
+     * Sends the EngineMetrics of every following game to a sink when the game ends, enabling metrics if they are not
+     *  already enabled. Any issue writing to the sink is printed and does not stop the game from ending normally
+     *
+     * @param metricsSink Where to send each game's metrics, which can be shared with other GameEngines, or null to
+     *                     stop sending them
+     */
+    public void setMetricsSink(MetricsSink metricsSink) {
+        this.metricsSink = metricsSink;
+        if (metricsSink != null) {
+            this.metricsEnabled = true;
+        }
+    }
+
+    /**
+     * @return The metrics of the game being played or last played, or null if metrics were not enabled for it
+     */
+    public EngineMetrics getEngineMetrics() {
+        return engineMetrics;
+    }
+
+    /**
+     * Registers a listener to receive events for every following game this engine plays
+     *
+     * @param listener The GameEventListener to add
+     */
+    public void addEventListener(GameEventListener listener) {
+        GameEventListener[] newListeners = Arrays.copyOf(eventListeners, eventListeners.length + 1);
+        newListeners[eventListeners.length] = listener;
+        this.eventListeners = newListeners;
+    }
+
+    /**
+     * @param listener The GameEventListener to stop sending events to
+     */
+    public void removeEventListener(GameEventListener listener) {
+        this.eventListeners = Arrays.stream(eventListeners)
+                .filter(registeredListener -> registeredListener != listener)
+                .toArray(GameEventListener[]::new);
     }
 
     public Replay getReplay() {
         boolean redThrewException = (playerWhoThrewException == redPlayer);
         boolean blueThrewException = (playerWhoThrewException == bluePlayer);
-        return new Replay(board.getSize(), randomSeed, redPlayer.getAllTurnActions(), bluePlayer.getAllTurnActions(),
-                          redThrewException, blueThrewException);
+        // The players' lists are reused by the next game, so the Replay gets its own copies
+        Replay replay = new Replay(board.getSize(), randomSeed, new ArrayList<>(redPlayer.getAllTurnActions()),
+                                   new ArrayList<>(bluePlayer.getAllTurnActions()), redThrewException,
+                                   blueThrewException, new ArrayList<>(checkpoints));
+        replay.setWorldGeneratorVersion(worldGeneratorVersion);
+        replay.setTimedOutTurns((BitSet) redPlayer.getTimedOutTurns().clone(),
+                                (BitSet) bluePlayer.getTimedOutTurns().clone());
+        return replay;
     }
 
     /**
@@ -140,6 +430,10 @@ public class GameEngine extends Observable {
         // Wait a few seconds at the start for graphical components to load
         delayBetweenGuiFrames(2000);
 
+        engineMetrics = metricsEnabled ? new EngineMetrics(randomSeed, board.getSize()) : null;
+        if (engineMetrics != null) {
+            engineMetrics.startGame();
+        }
         try {
             runGameLoop();
         } catch (Exception e) {
@@ -149,24 +443,41 @@ public class GameEngine extends Observable {
             this.exceptionThrown = e;
 
             // Let anything watching update
-            setChanged();
-            notifyObservers();
+            notifyGameObservers();
             e.printStackTrace();
+        } finally {
+            shutdownStrategyExecutors();
+        }
+
+        if (engineMetrics != null) {
+            engineMetrics.endGame();
+            writeMetrics();
+        }
+        for (GameEventListener listener : eventListeners) {
+            listener.onGameEnd(this);
         }
     }
 
-    private void runGameLoop() {
+    private void runGameLoop() throws Exception {
         initializePlayer(redPlayer, true);
         initializePlayer(bluePlayer, false);
+        for (GameEventListener listener : eventListeners) {
+            listener.onGameStart(this);
+        }
 
-        int turnNumber = 0;
-        boolean isRedTurn = true;
+        // Red goes first on even turns, which also holds for games resumed from a checkpoint
+        boolean isRedTurn = (turnNumber % 2 == 0);
         MinePlayer firstPlayer;
         MinePlayer secondPlayer;
         boolean roundHasWinner = false;
 
         while (turnNumber < MAX_TURNS_PER_GAME && !roundHasWinner) {
-            delayBetweenGuiFrames((long) (1000 / TURNS_PER_SECOND));
+            if (turnNumber >= firstVisibleTurn) {
+                delayBetweenGuiFrames((long) (1000 / TURNS_PER_SECOND));
+            }
+            if (checkpointInterval > 0 && turnNumber > 0 && turnNumber % checkpointInterval == 0) {
+                checkpoints.add(createCheckpoint());
+            }
 
             if (isRedTurn) {
                 firstPlayer = redPlayer;
@@ -179,25 +490,33 @@ public class GameEngine extends Observable {
             processTurn(firstPlayer, secondPlayer, isRedTurn);
             processTurn(secondPlayer, firstPlayer, isRedTurn);
 
+            long phaseStartNanos = startPhase();
             board.update();
 
             firstPlayer.setCurrentTile(board.getTileAtLocation(firstPlayer.getCurrentTile().getLocation()));
             secondPlayer.setCurrentTile(board.getTileAtLocation(secondPlayer.getCurrentTile().getLocation()));
+            phaseStartNanos = endPhase(TurnPhase.BOARD_UPDATE, phaseStartNanos);
 
             economy.increaseDemand();
+            endPhase(TurnPhase.ECONOMY_UPDATE, phaseStartNanos);
+            if (engineMetrics != null) {
+                engineMetrics.recordTurn();
+            }
 
             isRedTurn = !isRedTurn;
             turnNumber++;
             roundHasWinner = (redPlayer.getScore() >= minScoreToWin) || (bluePlayer.getScore() >= minScoreToWin);
             // The state of the engine has changed, let anything observing it (like the GUI) know
-            this.setChanged();
-            this.notifyObservers();
+            notifyGameObservers();
+            for (GameEventListener listener : eventListeners) {
+                listener.onTurnEnd(this, turnNumber);
+            }
         }
 
         endRound();
     }
 
-    private void initializePlayer(MinePlayer playerToInitialize, boolean isRedPlayer) {
+    private void initializePlayer(MinePlayer playerToInitialize, boolean isRedPlayer) throws Exception {
         playerWhoThrewException = playerToInitialize; // If an exception gets thrown, we know who did it
 
         int boardSize = board.getSize();
@@ -219,19 +538,35 @@ public class GameEngine extends Observable {
 
         // Get the initial view of the board and finally initialize the strategy
         PlayerBoardView startingBoard = board.convertToView(playerToInitialize, opponentStartTile, 0);
-        playerToInitialize.getStrategy().initialize(boardSize, maxInventorySize, maxCharge, minScoreToWin,
-                                                    startingBoard, playerStartCopy, isRedPlayer, new Random(randomSeed));
-        board.getTileAtLocation(startTileLocation).onEnter(playerToInitialize);
+        Random strategyRandom = new Random(randomSeed);
+        callStrategy(playerToInitialize, playerToInitialize.getStrategyTimings().getInitializeLatency(), () -> {
+            playerToInitialize.getStrategy().initialize(boardSize, maxInventorySize, maxCharge, minScoreToWin,
+                                                        startingBoard, playerStartCopy, isRedPlayer, strategyRandom);
+            return null;
+        }, null);
+        if (!resumedFromCheckpoint) {
+            // Restored players are already standing on their tiles
+            board.getTileAtLocation(startTileLocation).onEnter(playerToInitialize);
+        }
     }
 
-    private void processTurn(MinePlayer currentPlayer, MinePlayer otherPlayer, boolean isRedTurn) {
+    private void processTurn(MinePlayer currentPlayer, MinePlayer otherPlayer, boolean isRedTurn) throws Exception {
         playerWhoThrewException = currentPlayer; // If an exception gets thrown, we know who did it
 
         // Ask the player what they want to do
+        long phaseStartNanos = startPhase();
         PlayerBoardView boardView = board.convertToView(currentPlayer, otherPlayer);
+        phaseStartNanos = endPhase(TurnPhase.VIEW_CONVERSION, phaseStartNanos);
         MinePlayerStrategy playerStrategy = currentPlayer.getStrategy();
         int robotCharge = currentPlayer.getCurrentEnergy();
-        TurnAction playerAction = playerStrategy.getTurnAction(boardView, economy, robotCharge, isRedTurn);
+        TurnAction playerAction = callStrategy(currentPlayer,
+                currentPlayer.getStrategyTimings().getTurnActionLatency(),
+                () -> playerStrategy.getTurnAction(boardView, economy, robotCharge, isRedTurn), null);
+        phaseStartNanos = endPhase(TurnPhase.STRATEGY_CALL, phaseStartNanos);
+        if (strategyTimedOut) {
+            currentPlayer.addTimedOutTurn();
+            return;
+        }
         currentPlayer.addTurnAction(playerAction);
         if (playerAction == null) {
             return;
@@ -240,20 +575,192 @@ public class GameEngine extends Observable {
         // Perform the player's selected action
         Action actionToPerform = playerAction.getActionToPerform();
         actionToPerform.performAction(board, currentPlayer, playerAction);
+        endPhase(TurnPhase.ACTION_EXECUTION, phaseStartNanos);
+    }
+
+    private long startPhase() {
+        return (engineMetrics == null) ? 0 : System.nanoTime();
+    }
+
+    /**
+     * Records how long a phase of the turn took if metrics are enabled
+     *
+     * @param phase The phase that just ended
+     * @param phaseStartNanos When the phase started, from startPhase() or the end of the phase before it
+     * @return When the phase ended, so the next phase can start from it
+     */
+    private long endPhase(TurnPhase phase, long phaseStartNanos) {
+        if (engineMetrics == null) {
+            return 0;
+        }
+        long phaseEndNanos = System.nanoTime();
+        engineMetrics.recordPhase(phase, phaseEndNanos - phaseStartNanos);
+        return phaseEndNanos;
+    }
+
+    private void writeMetrics() {
+        if (metricsSink == null) {
+            return;
+        }
+        try {
+            metricsSink.write(engineMetrics);
+        } catch (IOException e) {
+            System.err.println("There was an issue writing the engine metrics");
+            e.printStackTrace();
+        }
     }
 
-    private void endRound() {
+    private void endRound() throws Exception {
         int redPlayerScore = redPlayer.getScore();
         int bluePlayerScore = bluePlayer.getScore();
         playerWhoThrewException = redPlayer;
-        redPlayer.getStrategy().endRound(redPlayerScore, bluePlayerScore);
+        callStrategy(redPlayer, redPlayer.getStrategyTimings().getEndRoundLatency(), () -> {
+            redPlayer.getStrategy().endRound(redPlayerScore, bluePlayerScore);
+            return null;
+        }, null);
         playerWhoThrewException = bluePlayer;
-        bluePlayer.getStrategy().endRound(bluePlayerScore, redPlayerScore);
+        callStrategy(bluePlayer, bluePlayer.getStrategyTimings().getEndRoundLatency(), () -> {
+            bluePlayer.getStrategy().endRound(bluePlayerScore, redPlayerScore);
+            return null;
+        }, null);
         playerWhoThrewException = null;
     }
 
+    /**
+     * Calls into a player's strategy, timing the call and holding it to the time budget if there is one
+     *
+     * @param player The player whose strategy is being called
+     * @param latency Where to record how long the call took
+     * @param strategyCall The call to make
+     * @param timeoutResult What to use instead of the strategy's answer if it runs out of time
+     * @return The strategy's answer, or timeoutResult if it ran out of time, which also sets strategyTimedOut
+     * @throws Exception Anything the strategy throws
+     */
+    private <T> T callStrategy(MinePlayer player, LatencyHistogram latency, Callable<T> strategyCall,
+                               T timeoutResult) throws Exception {
+        long startNanos = System.nanoTime();
+        strategyTimedOut = false;
+        try {
+            if (strategyTimeBudgetMillis <= 0) {
+                return strategyCall.call();
+            }
+            if (isStrategyStillRunning(player)) {
+                // Never run two calls into one strategy at once, the player sits out until its last call returns
+                player.getStrategyTimings().recordTimeout();
+                strategyTimedOut = true;
+                return timeoutResult;
+            }
+
+            ExecutorService strategyExecutor = getStrategyExecutor(player);
+            Future<T> strategyResult = strategyExecutor.submit(strategyCall);
+            try {
+                return strategyResult.get(strategyTimeBudgetMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                strategyResult.cancel(true);
+                abandonStrategyExecutor(player, strategyExecutor);
+                player.getStrategyTimings().recordTimeout();
+                strategyTimedOut = true;
+                return timeoutResult;
+            } catch (InterruptedException e) {
+                // The engine is being interrupted, not the strategy's fault
+                strategyResult.cancel(true);
+                Thread.currentThread().interrupt();
+                return timeoutResult;
+            } catch (ExecutionException e) {
+                Throwable strategyException = e.getCause();
+                if (strategyException instanceof Error) {
+                    throw (Error) strategyException;
+                }
+                throw (Exception) strategyException;
+            }
+        } finally {
+            latency.record(System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Gives up on the executor of a call that timed out, so the player's next call starts on a new Thread instead of
+     *  waiting behind the old call. A strategy that stops when interrupted is given the time budget again to do so
+     *  before its executor is abandoned
+     */
+    private void abandonStrategyExecutor(MinePlayer player, ExecutorService strategyExecutor) {
+        strategyExecutor.shutdownNow();
+        boolean callStopped = false;
+        try {
+            callStopped = strategyExecutor.awaitTermination(strategyTimeBudgetMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // A call that is still running races the engine, reading the board, its TileChangeLog and the Economy while
+        //  later turns change them, so it may see a state that never existed. Whatever it returns is thrown away
+        if (!callStopped) {
+            abandonedExecutors.put(player.getStrategy(), strategyExecutor);
+        }
+        if (player.isRedPlayer()) {
+            redStrategyExecutor = null;
+        } else {
+            blueStrategyExecutor = null;
+        }
+    }
+
+    private boolean isStrategyStillRunning(MinePlayer player) {
+        ExecutorService abandonedExecutor = abandonedExecutors.get(player.getStrategy());
+        if (abandonedExecutor == null) {
+            return false;
+        }
+        if (!abandonedExecutor.isTerminated()) {
+            return true;
+        }
+        abandonedExecutors.remove(player.getStrategy());
+        return false;
+    }
+
+    private ExecutorService getStrategyExecutor(MinePlayer player) {
+        if (player.isRedPlayer()) {
+            if (redStrategyExecutor == null) {
+                redStrategyExecutor = createStrategyExecutor("red");
+            }
+            return redStrategyExecutor;
+        }
+        if (blueStrategyExecutor == null) {
+            blueStrategyExecutor = createStrategyExecutor("blue");
+        }
+        return blueStrategyExecutor;
+    }
+
+    private static ExecutorService createStrategyExecutor(String playerColor) {
+        return Executors.newSingleThreadExecutor(runnable -> {
+            // A strategy stuck in a loop must not keep the program running after the game is over
+            Thread strategyThread = new Thread(runnable, "mineopoly-" + playerColor + "-strategy");
+            strategyThread.setDaemon(true);
+            return strategyThread;
+        });
+    }
+
+    private void shutdownStrategyExecutors() {
+        if (redStrategyExecutor != null) {
+            redStrategyExecutor.shutdownNow();
+            redStrategyExecutor = null;
+        }
+        if (blueStrategyExecutor != null) {
+            blueStrategyExecutor.shutdownNow();
+            blueStrategyExecutor = null;
+        }
+        // Abandoned executors were already shut down, their Threads are daemons that end with the stuck call. Only
+        //  the ones still running are kept, for whenever their strategy plays again
+        abandonedExecutors.values().removeIf(ExecutorService::isTerminated);
+    }
+
+    private void notifyGameObservers() {
+        if (headless || turnNumber < firstVisibleTurn) {
+            return;
+        }
+        this.setChanged();
+        this.notifyObservers();
+    }
+
     private void delayBetweenGuiFrames(long millisecondsToWait) {
-        if (!guiEnabled) {
+        if (headless || !guiEnabled) {
             return;
         }
 
@@ -0,0 +1,34 @@
+package mineopoly_three.game;
+
+/**
+ * Receives events from a GameEngine as a game is played. Unlike observing the engine, a listener only costs
+ *  anything when it is registered, and it still receives events when the engine runs headless.
+ * Every method has an empty default so listeners only implement the events they care about.
+ */
+public interface GameEventListener {
+
+    /**
+     * Called after both strategies have been initialized, right before the first turn
+     *
+     * @param engine The GameEngine playing the game
+     */
+    default void onGameStart(GameEngine engine) {
+    }
+
+    /**
+     * Called after both players have taken their turn and the board and economy have been updated
+     *
+     * @param engine The GameEngine playing the game
+     * @param turnNumber The number of turns played so far, starting at 1 after the first turn
+     */
+    default void onTurnEnd(GameEngine engine, int turnNumber) {
+    }
+
+    /**
+     * Called once the game is over, either normally or because a strategy threw an exception
+     *
+     * @param engine The GameEngine that played the game
+     */
+    default void onGameEnd(GameEngine engine) {
+    }
+}
@@ -0,0 +1,713 @@
+package mineopoly_three.game;
+
+import mineopoly_three.action.MoveAction;
+import mineopoly_three.action.TurnAction;
+import mineopoly_three.item.CountedItemList;
+import mineopoly_three.item.ItemType;
+import mineopoly_three.strategy.PlayerBoardView;
+import mineopoly_three.tiles.MineableTile;
+import mineopoly_three.tiles.RechargeTile;
+import mineopoly_three.tiles.Tile;
+import mineopoly_three.tiles.TileType;
+
+import java.awt.Point;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Everything that decides how a game plays out from the start of a turn, stored in primitive arrays indexed by
+ *  (x + y * boardSize) like the PackedBoard. Nothing in a GameState points at Tiles, players or strategies, so
+ *  fork() only copies a few arrays, and step() plays a whole turn with exactly the rules the GameEngine uses.
+ *  Stepping a state only allocates when an autominer is placed or picked up.
+ *
+ * This lets strategies look ahead by simulating many possible futures of the current turn. A strategy can't see
+ *  everything a GameState holds, like the other player's random number generator, so states built from a
+ *  strategy's point of view have to guess at those.
+ */
+public class GameState {
+    private static final TileType[] allTileTypes = TileType.values();
+    private static final ItemType[] allItemTypes = ItemType.values();
+    private static final int NUM_ITEM_TYPES = allItemTypes.length;
+    private static final int BITS_PER_ITEM_COUNT = 4;
+    private static final int MAX_ITEM_COUNT = (1 << BITS_PER_ITEM_COUNT) - 1;
+    private static final double DOUBLE_UNIT = 0x1.0p-53;
+    private static final int EMPTY_CODE = TileType.EMPTY.ordinal();
+    private static final int CRACKED_CODE = GameCheckpoint.CRACKED_TILE_CODE;
+    private static final int RECHARGE_CODE = TileType.RECHARGE.ordinal();
+    private static final int RED = 0;
+    private static final int BLUE = 1;
+    private static final int[] NO_COVERAGE = new int[0];
+
+    private final int boardSize;
+    private final int minScoreToWin;
+    private int turnNumber;
+
+    // Tile codes as encoded by GameCheckpoint, so cracked tiles can be told apart from empty ones
+    private final byte[] tileCodes;
+    private final byte[] miningProgress;
+    // How many of each ItemType are on every tile, packed into 4 bits per ItemType ordinal
+    private final short[] itemCounts;
+    private final int[] autominerTurnsMined;
+    // Indexed by ItemType ordinal, -1 for items the economy doesn't buy
+    private final int[] resourcePrices;
+
+    // Indexed by RED or BLUE
+    private final int[] playerTileIndices;
+    private final int[] playerEnergies;
+    private final int[] playerScores;
+    private final long[] playerRandomStates;
+    // Indexed by (player * NUM_ITEM_TYPES + ItemType ordinal)
+    private final int[] inventoryCounts;
+
+    // The tiles autominers work on, in the order the GameBoard works on them. The array is never changed once
+    //  computed, so forks share it until one of them places or picks up an autominer
+    private int[] autominerCoverage;
+    private boolean autominerCoverageDirty;
+
+    private GameState(int boardSize, int minScoreToWin) {
+        int numTiles = boardSize * boardSize;
+        this.boardSize = boardSize;
+        this.minScoreToWin = minScoreToWin;
+        this.tileCodes = new byte[numTiles];
+        this.miningProgress = new byte[numTiles];
+        this.itemCounts = new short[numTiles];
+        this.autominerTurnsMined = new int[numTiles];
+        this.resourcePrices = new int[NUM_ITEM_TYPES];
+        this.playerTileIndices = new int[2];
+        this.playerEnergies = new int[2];
+        this.playerScores = new int[2];
+        this.playerRandomStates = new long[2];
+        this.inventoryCounts = new int[2 * NUM_ITEM_TYPES];
+        this.autominerCoverage = NO_COVERAGE;
+        this.autominerCoverageDirty = true;
+    }
+
+    static GameState capture(int turnNumber, int minScoreToWin, GameBoard board, MinePlayer redPlayer,
+                             MinePlayer bluePlayer, Economy economy) {
+        int boardSize = board.getSize();
+        GameState state = new GameState(boardSize, minScoreToWin);
+        state.turnNumber = turnNumber;
+
+        for (int y = 0; y < boardSize; y++) {
+            for (int x = 0; x < boardSize; x++) {
+                int tileIndex = x + y * boardSize;
+                Tile tile = board.getTileAtLocation(x, y);
+                state.tileCodes[tileIndex] = (byte) GameCheckpoint.getTileCode(tile);
+                if (tile instanceof MineableTile) {
+                    state.miningProgress[tileIndex] = (byte) ((MineableTile) tile).getNumTimesMined();
+                }
+                CountedItemList items = tile.getItemsOnTile();
+                for (ItemType itemType : allItemTypes) {
+                    int count = items.getCount(itemType);
+                    assert count <= MAX_ITEM_COUNT;
+                    state.itemCounts[tileIndex] |= (short) (count << getItemShift(itemType));
+                }
+                state.autominerTurnsMined[tileIndex] = board.getAutominerTurnsMined(x, y);
+            }
+        }
+
+        Map<ItemType, Integer> currentPrices = economy.getCurrentPrices();
+        for (ItemType itemType : allItemTypes) {
+            state.resourcePrices[itemType.ordinal()] = currentPrices.getOrDefault(itemType, -1);
+        }
+
+        state.capturePlayer(RED, redPlayer);
+        state.capturePlayer(BLUE, bluePlayer);
+        return state;
+    }
+
+    /**
+     * Builds a state from what a strategy can see of the game. Anything a strategy can't see starts out as a guess:
+     *  cracked tiles look like empty tiles, autominers have not worked on any tile yet, both players have full
+     *  energy and empty inventories, this player has no score and both random number generators have state 0.
+     *  Strategies that keep track of more than the view shows can fill it in with the setters
+     *
+     * @param view The view of the board the strategy was given this turn
+     * @param economy The economy the strategy was given this turn
+     * @param isRedPlayer True if the strategy building this state is the red player
+     * @param turnNumber The number of turns both players have taken so far
+     * @param minScoreToWin The score the strategy was told it needs to win
+     * @return A state of the game as the strategy sees it
+     */
+    public static GameState fromView(PlayerBoardView view, Economy economy, boolean isRedPlayer, int turnNumber,
+                                     int minScoreToWin) {
+        int boardSize = view.getBoardSize();
+        GameState state = new GameState(boardSize, minScoreToWin);
+        state.turnNumber = turnNumber;
+
+        for (int y = 0; y < boardSize; y++) {
+            for (int x = 0; x < boardSize; x++) {
+                int tileIndex = x + y * boardSize;
+                state.tileCodes[tileIndex] = (byte) view.getTileTypeAtLocation(x, y).ordinal();
+                state.miningProgress[tileIndex] = (byte) view.getMiningProgressAtLocation(x, y);
+                for (ItemType itemType : allItemTypes) {
+                    int count = view.getItemCountAtLocation(x, y, itemType);
+                    state.itemCounts[tileIndex] |= (short) (count << getItemShift(itemType));
+                }
+            }
+        }
+
+        Map<ItemType, Integer> currentPrices = economy.getCurrentPrices();
+        for (ItemType itemType : allItemTypes) {
+            state.resourcePrices[itemType.ordinal()] = currentPrices.getOrDefault(itemType, -1);
+        }
+
+        int player = getPlayer(isRedPlayer);
+        Point yourLocation = view.getYourLocation();
+        Point otherLocation = view.getOtherPlayerLocation();
+        state.playerTileIndices[player] = yourLocation.x + yourLocation.y * boardSize;
+        state.playerTileIndices[1 - player] = otherLocation.x + otherLocation.y * boardSize;
+        state.playerEnergies[RED] = MinePlayer.MAX_ENERGY;
+        state.playerEnergies[BLUE] = MinePlayer.MAX_ENERGY;
+        state.playerScores[1 - player] = view.getOtherPlayerScore();
+        return state;
+    }
+
+    private void capturePlayer(int player, MinePlayer minePlayer) {
+        Point location = minePlayer.getCurrentTile().getLocation();
+        playerTileIndices[player] = location.x + location.y * boardSize;
+        playerEnergies[player] = minePlayer.getCurrentEnergy();
+        playerScores[player] = minePlayer.getScore();
+        playerRandomStates[player] = minePlayer.getRandomState();
+        for (ItemType itemType : allItemTypes) {
+            inventoryCounts[player * NUM_ITEM_TYPES + itemType.ordinal()] =
+                    minePlayer.getInventory().getCount(itemType);
+        }
+    }
+
+    /**
+     * @return A copy of this state that can be stepped without affecting this one
+     */
+    public GameState fork() {
+        GameState fork = new GameState(boardSize, minScoreToWin);
+        fork.copyFrom(this);
+        return fork;
+    }
+
+    /**
+     * Makes this state a copy of another state without allocating anything, so a search can keep reusing one
+     *  scratch state instead of forking a new one for every simulation
+     *
+     * @param other A state of a game on a board of the same size
+     */
+    public void copyFrom(GameState other) {
+        if (other.boardSize != boardSize || other.minScoreToWin != minScoreToWin) {
+            throw new IllegalArgumentException("Can only copy a state of a game on a board of the same size");
+        }
+        turnNumber = other.turnNumber;
+        System.arraycopy(other.tileCodes, 0, tileCodes, 0, tileCodes.length);
+        System.arraycopy(other.miningProgress, 0, miningProgress, 0, miningProgress.length);
+        System.arraycopy(other.itemCounts, 0, itemCounts, 0, itemCounts.length);
+        System.arraycopy(other.autominerTurnsMined, 0, autominerTurnsMined, 0, autominerTurnsMined.length);
+        System.arraycopy(other.resourcePrices, 0, resourcePrices, 0, resourcePrices.length);
+        System.arraycopy(other.playerTileIndices, 0, playerTileIndices, 0, 2);
+        System.arraycopy(other.playerEnergies, 0, playerEnergies, 0, 2);
+        System.arraycopy(other.playerScores, 0, playerScores, 0, 2);
+        System.arraycopy(other.playerRandomStates, 0, playerRandomStates, 0, 2);
+        System.arraycopy(other.inventoryCounts, 0, inventoryCounts, 0, inventoryCounts.length);
+        autominerCoverage = other.autominerCoverage;
+        autominerCoverageDirty = other.autominerCoverageDirty;
+    }
+
+    /**
+     * Plays one turn the way the GameEngine does: the player who goes first this turn acts, then the other player,
+     *  then recharge tiles and autominers do their work and resource prices go up
+     *
+     * @param redAction What the red player does this turn, null to do nothing
+     * @param blueAction What the blue player does this turn, null to do nothing
+     */
+    public void step(TurnAction redAction, TurnAction blueAction) {
+        if (isGameOver()) {
+            throw new IllegalStateException("The game is already over on turn " + turnNumber);
+        }
+
+        // Red goes first on even turns
+        if (isRedTurn()) {
+            performAction(RED, redAction);
+            performAction(BLUE, blueAction);
+        } else {
+            performAction(BLUE, blueAction);
+            performAction(RED, redAction);
+        }
+
+        rechargePlayer(RED);
+        rechargePlayer(BLUE);
+        runAutominers();
+        increaseDemand();
+        turnNumber++;
+    }
+
+    private void performAction(int player, TurnAction action) {
+        if (action == null) {
+            return;
+        }
+        switch (action) {
+            case MOVE_UP:
+                move(player, 0, 1);
+                break;
+            case MOVE_DOWN:
+                move(player, 0, -1);
+                break;
+            case MOVE_RIGHT:
+                move(player, 1, 0);
+                break;
+            case MOVE_LEFT:
+                move(player, -1, 0);
+                break;
+            default:
+                interact(player, action);
+                break;
+        }
+    }
+
+    /**
+     * @see MoveAction#performAction
+     */
+    private void move(int player, int xChange, int yChange) {
+        int tileIndex = playerTileIndices[player];
+        int nextX = (tileIndex % boardSize) + xChange;
+        int nextY = (tileIndex / boardSize) + yChange;
+        if (nextX < 0 || nextX >= boardSize || nextY < 0 || nextY >= boardSize) {
+            // Can't step outside the world
+            return;
+        }
+        int nextTileIndex = nextX + nextY * boardSize;
+        if (nextTileIndex == playerTileIndices[1 - player]) {
+            // Can't step on a tile if there's another player there
+            return;
+        }
+
+        // The random number is drawn even when the player has energy, exactly like MoveAction
+        boolean hasEnergyLeft = (playerEnergies[player] > 0);
+        boolean canMoveWithNoEnergyLeft = (nextDouble(player) < MoveAction.NO_ENERGY_MOVE_CHANCE);
+        if (hasEnergyLeft || canMoveWithNoEnergyLeft) {
+            playerTileIndices[player] = nextTileIndex;
+            if (tileCodes[nextTileIndex] == getMarketCode(player)) {
+                sellItems(player);
+            }
+            if (playerEnergies[player] > 0) {
+                playerEnergies[player]--;
+            }
+        }
+    }
+
+    /**
+     * @see mineopoly_three.tiles.Tile#interact
+     * @see MineableTile#interact
+     */
+    private void interact(int player, TurnAction action) {
+        int tileIndex = playerTileIndices[player];
+        boolean hasAutominer = (getItemCount(tileIndex, ItemType.AUTOMINER) > 0);
+
+        // Ensure there already is not an autominer here
+        if (action == TurnAction.PLACE_AUTOMINER && !hasAutominer) {
+            int inventoryIndex = player * NUM_ITEM_TYPES + ItemType.AUTOMINER.ordinal();
+            if (inventoryCounts[inventoryIndex] > 0) {
+                inventoryCounts[inventoryIndex]--;
+                addItem(tileIndex, ItemType.AUTOMINER);
+            }
+        } else {
+            ItemType toPickUp = null;
+            if (action == TurnAction.PICK_UP_RESOURCE) {
+                toPickUp = getFirstResourceType(tileIndex);
+            } else if (action == TurnAction.PICK_UP_AUTOMINER && hasAutominer) {
+                toPickUp = ItemType.AUTOMINER;
+            }
+
+            if (toPickUp != null && getInventorySize(player) < MinePlayer.MAX_ITEMS) {
+                inventoryCounts[player * NUM_ITEM_TYPES + toPickUp.ordinal()]++;
+                removeItem(tileIndex, toPickUp);
+            }
+        }
+
+        if (action == TurnAction.MINE) {
+            mine(tileIndex);
+        }
+    }
+
+    private void mine(int tileIndex) {
+        int tileCode = tileCodes[tileIndex];
+        if (tileCode == EMPTY_CODE) {
+            tileCodes[tileIndex] = (byte) CRACKED_CODE;
+            return;
+        }
+        ItemType tileResource = getResource(tileCode);
+        if (tileResource == null) {
+            // Cracked tiles, markets and recharge tiles can't be mined
+            return;
+        }
+
+        miningProgress[tileIndex]++;
+        if (miningProgress[tileIndex] >= tileResource.getTurnsToMine()) {
+            tileCodes[tileIndex] = (byte) CRACKED_CODE;
+            miningProgress[tileIndex] = 0;
+            addItem(tileIndex, tileResource);
+        }
+    }
+
+    /**
+     * @see Economy#sellResources
+     */
+    private void sellItems(int player) {
+        int totalSellPrice = 0;
+        for (ItemType itemType : allItemTypes) {
+            if (!itemType.isResource()) {
+                continue;
+            }
+            int inventoryIndex = player * NUM_ITEM_TYPES + itemType.ordinal();
+            int numSold = inventoryCounts[inventoryIndex];
+            int price = resourcePrices[itemType.ordinal()];
+            if (price >= 0) {
+                totalSellPrice += numSold * price;
+                resourcePrices[itemType.ordinal()] = (int) (price * (1.0 - (numSold / 8.0)));
+            }
+            inventoryCounts[inventoryIndex] = 0;
+        }
+        playerScores[player] += totalSellPrice;
+    }
+
+    private void rechargePlayer(int player) {
+        if (tileCodes[playerTileIndices[player]] == RECHARGE_CODE) {
+            // Same float arithmetic as MinePlayer.rechargeEnergy()
+            int energy = playerEnergies[player];
+            energy += (MinePlayer.MAX_ENERGY * RechargeTile.RECHARGE_PERCENT_PER_TURN);
+            playerEnergies[player] = Math.min(energy, MinePlayer.MAX_ENERGY);
+        }
+    }
+
+    /**
+     * @see GameBoard#update
+     */
+    private void runAutominers() {
+        if (autominerCoverageDirty) {
+            computeAutominerCoverage();
+        }
+
+        for (int tileIndex : autominerCoverage) {
+            int turnsMined = autominerTurnsMined[tileIndex];
+            int tileCode = tileCodes[tileIndex];
+            if (tileCode == EMPTY_CODE) {
+                mine(tileIndex);
+            } else if (turnsMined > 0 && getResource(tileCode) != null) {
+                if (turnsMined % GameBoard.AUTOMINER_MULTIPLIER == 0) {
+                    mine(tileIndex);
+                }
+            }
+            autominerTurnsMined[tileIndex] = turnsMined + 1;
+        }
+    }
+
+    private void computeAutominerCoverage() {
+        int numAutominers = 0;
+        for (short tileItemCounts : itemCounts) {
+            if (getItemCount(tileItemCounts, ItemType.AUTOMINER) > 0) {
+                numAutominers++;
+            }
+        }
+
+        // Forks may still be using the old coverage, so it is replaced rather than changed
+        int[] coverage = new int[numAutominers * 5];
+        int coverageSize = 0;
+        // Autominers work in the same order the board is scanned, top row first and then left to right
+        for (int y = boardSize - 1; y >= 0; y--) {
+            for (int x = 0; x < boardSize; x++) {
+                int miner = x + y * boardSize;
+                if (getItemCount(itemCounts[miner], ItemType.AUTOMINER) == 0) {
+                    continue;
+                }
+                coverage[coverageSize++] = miner;
+                if (x > 0) coverage[coverageSize++] = miner - 1;
+                if (x < boardSize - 1) coverage[coverageSize++] = miner + 1;
+                if (y > 0) coverage[coverageSize++] = miner - boardSize;
+                if (y < boardSize - 1) coverage[coverageSize++] = miner + boardSize;
+            }
+        }
+
+        autominerCoverage = (coverageSize == coverage.length) ? coverage : Arrays.copyOf(coverage, coverageSize);
+        autominerCoverageDirty = false;
+    }
+
+    /**
+     * @see Economy#increaseDemand
+     */
+    private void increaseDemand() {
+        for (ItemType itemType : allItemTypes) {
+            int price = resourcePrices[itemType.ordinal()];
+            if (price >= 0) {
+                resourcePrices[itemType.ordinal()] = Math.min(price + itemType.getPriceIncreasePerTurn(),
+                                                              itemType.getMaxPrice());
+            }
+        }
+    }
+
+    /**
+     * Draws the next double from a player's random number generator exactly like java.util.Random.nextDouble()
+     */
+    private double nextDouble(int player) {
+        long state = StatefulRandom.advance(playerRandomStates[player]);
+        long highBits = StatefulRandom.getBits(state, 26);
+        state = StatefulRandom.advance(state);
+        long lowBits = StatefulRandom.getBits(state, 27);
+        playerRandomStates[player] = state;
+        return ((highBits << 27) + lowBits) * DOUBLE_UNIT;
+    }
+
+    private void addItem(int tileIndex, ItemType itemType) {
+        assert getItemCount(tileIndex, itemType) < MAX_ITEM_COUNT;
+        itemCounts[tileIndex] += (short) (1 << getItemShift(itemType));
+        if (itemType == ItemType.AUTOMINER && getItemCount(tileIndex, itemType) == 1) {
+            autominerCoverageDirty = true;
+        }
+    }
+
+    private void removeItem(int tileIndex, ItemType itemType) {
+        itemCounts[tileIndex] -= (short) (1 << getItemShift(itemType));
+        if (itemType == ItemType.AUTOMINER && getItemCount(tileIndex, itemType) == 0) {
+            autominerCoverageDirty = true;
+        }
+    }
+
+    private ItemType getFirstResourceType(int tileIndex) {
+        for (ItemType itemType : allItemTypes) {
+            if (itemType.isResource() && getItemCount(tileIndex, itemType) > 0) {
+                return itemType;
+            }
+        }
+        return null;
+    }
+
+    private int getItemCount(int tileIndex, ItemType itemType) {
+        return getItemCount(itemCounts[tileIndex], itemType);
+    }
+
+    private static int getItemCount(short packedCounts, ItemType itemType) {
+        return (packedCounts >> getItemShift(itemType)) & MAX_ITEM_COUNT;
+    }
+
+    private static int getItemShift(ItemType itemType) {
+        return itemType.ordinal() * BITS_PER_ITEM_COUNT;
+    }
+
+    private static int getMarketCode(int player) {
+        return (player == RED) ? TileType.RED_MARKET.ordinal() : TileType.BLUE_MARKET.ordinal();
+    }
+
+    private static ItemType getResource(int tileCode) {
+        if (tileCode >= allTileTypes.length) {
+            return null;
+        }
+        TileType tileType = allTileTypes[tileCode];
+        for (ItemType itemType : allItemTypes) {
+            if (itemType.getResourceTileType() == tileType) {
+                return itemType;
+            }
+        }
+        return null;
+    }
+
+    private static int getPlayer(boolean isRedPlayer) {
+        return isRedPlayer ? RED : BLUE;
+    }
+
+    private int getTileIndex(int x, int y) {
+        if (x < 0 || x >= boardSize || y < 0 || y >= boardSize) {
+            throw new IllegalArgumentException("(" + x + ", " + y + ") is not on the board");
+        }
+        return x + y * boardSize;
+    }
+
+    public int getBoardSize() {
+        return boardSize;
+    }
+
+    public int getMinScoreToWin() {
+        return minScoreToWin;
+    }
+
+    /**
+     * @return The number of turns both players have taken so far
+     */
+    public int getTurnNumber() {
+        return turnNumber;
+    }
+
+    /**
+     * @return True if the red player acts first on the next turn
+     */
+    public boolean isRedTurn() {
+        return turnNumber % 2 == 0;
+    }
+
+    /**
+     * @return True if the GameEngine would stop the game here, because a player has won or it ran out of turns
+     */
+    public boolean isGameOver() {
+        return turnNumber >= GameEngine.MAX_TURNS_PER_GAME || playerScores[RED] >= minScoreToWin
+                || playerScores[BLUE] >= minScoreToWin;
+    }
+
+    /**
+     * @param x The x coordinate of the tile
+     * @param y The y coordinate of the tile
+     * @return The type of the tile at (x, y), cracked tiles are EMPTY like they are on the GameBoard
+     */
+    public TileType getTileType(int x, int y) {
+        int tileCode = tileCodes[getTileIndex(x, y)];
+        return (tileCode == CRACKED_CODE) ? TileType.EMPTY : allTileTypes[tileCode];
+    }
+
+    /**
+     * @param x The x coordinate of the tile
+     * @param y The y coordinate of the tile
+     * @return True if the tile at (x, y) has been cracked, so mining it does nothing
+     */
+    public boolean isCracked(int x, int y) {
+        return tileCodes[getTileIndex(x, y)] == CRACKED_CODE;
+    }
+
+    /**
+     * @param x The x coordinate of the tile
+     * @param y The y coordinate of the tile
+     * @return How many times the resource at (x, y) has been mined, 0 if there is no resource
+     */
+    public int getMiningProgress(int x, int y) {
+        return miningProgress[getTileIndex(x, y)];
+    }
+
+    /**
+     * @param x The x coordinate of the tile
+     * @param y The y coordinate of the tile
+     * @param itemType The type of item to count
+     * @return How many items of that type are on the ground at (x, y)
+     */
+    public int getItemCount(int x, int y, ItemType itemType) {
+        return getItemCount(getTileIndex(x, y), itemType);
+    }
+
+    /**
+     * @param x The x coordinate of the tile
+     * @param y The y coordinate of the tile
+     * @return The number of turns autominers have worked on the tile at (x, y)
+     */
+    public int getAutominerTurnsMined(int x, int y) {
+        return autominerTurnsMined[getTileIndex(x, y)];
+    }
+
+    /**
+     * @param resourceType The resource to get the price of
+     * @return The price the resource sells for right now, or 0 if it can't be sold
+     */
+    public int getPrice(ItemType resourceType) {
+        return Math.max(resourcePrices[resourceType.ordinal()], 0);
+    }
+
+    public int getPlayerX(boolean isRedPlayer) {
+        return playerTileIndices[getPlayer(isRedPlayer)] % boardSize;
+    }
+
+    public int getPlayerY(boolean isRedPlayer) {
+        return playerTileIndices[getPlayer(isRedPlayer)] / boardSize;
+    }
+
+    public int getEnergy(boolean isRedPlayer) {
+        return playerEnergies[getPlayer(isRedPlayer)];
+    }
+
+    public void setEnergy(boolean isRedPlayer, int energy) {
+        playerEnergies[getPlayer(isRedPlayer)] = energy;
+    }
+
+    public int getScore(boolean isRedPlayer) {
+        return playerScores[getPlayer(isRedPlayer)];
+    }
+
+    public void setScore(boolean isRedPlayer, int score) {
+        playerScores[getPlayer(isRedPlayer)] = score;
+    }
+
+    /**
+     * @param isRedPlayer True for the red player's inventory, false for the blue player's
+     * @param itemType The type of item to count
+     * @return How many items of that type the player is holding
+     */
+    public int getInventoryCount(boolean isRedPlayer, ItemType itemType) {
+        return inventoryCounts[getPlayer(isRedPlayer) * NUM_ITEM_TYPES + itemType.ordinal()];
+    }
+
+    /**
+     * @param isRedPlayer True for the red player's inventory, false for the blue player's
+     * @param itemType The type of item to set the count of
+     * @param count How many items of that type the player is holding
+     */
+    public void setInventoryCount(boolean isRedPlayer, ItemType itemType, int count) {
+        inventoryCounts[getPlayer(isRedPlayer) * NUM_ITEM_TYPES + itemType.ordinal()] = count;
+    }
+
+    /**
+     * @param isRedPlayer True for the red player's inventory, false for the blue player's
+     * @return How many items the player is holding in total
+     */
+    public int getInventorySize(boolean isRedPlayer) {
+        return getInventorySize(getPlayer(isRedPlayer));
+    }
+
+    private int getInventorySize(int player) {
+        int inventorySize = 0;
+        for (int typeIndex = 0; typeIndex < NUM_ITEM_TYPES; typeIndex++) {
+            inventorySize += inventoryCounts[player * NUM_ITEM_TYPES + typeIndex];
+        }
+        return inventorySize;
+    }
+
+    /**
+     * Replaces the state of a player's random number generator, which decides whether a player with no energy left
+     *  gets to move. Strategies can't see the real state, so simulations of their games have to make one up
+     *
+     * @param isRedPlayer True for the red player's random number generator, false for the blue player's
+     * @param randomState Any number, only its lower 48 bits are used
+     */
+    public void setRandomState(boolean isRedPlayer, long randomState) {
+        playerRandomStates[getPlayer(isRedPlayer)] = randomState & ((1L << 48) - 1);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof GameState)) {
+            return false;
+        }
+        // The autominer coverage is computed from the items, so it doesn't need comparing
+        GameState otherState = (GameState) other;
+        return boardSize == otherState.boardSize && minScoreToWin == otherState.minScoreToWin
+                && turnNumber == otherState.turnNumber
+                && Arrays.equals(tileCodes, otherState.tileCodes)
+                && Arrays.equals(miningProgress, otherState.miningProgress)
+                && Arrays.equals(itemCounts, otherState.itemCounts)
+                && Arrays.equals(autominerTurnsMined, otherState.autominerTurnsMined)
+                && Arrays.equals(resourcePrices, otherState.resourcePrices)
+                && Arrays.equals(playerTileIndices, otherState.playerTileIndices)
+                && Arrays.equals(playerEnergies, otherState.playerEnergies)
+                && Arrays.equals(playerScores, otherState.playerScores)
+                && Arrays.equals(playerRandomStates, otherState.playerRandomStates)
+                && Arrays.equals(inventoryCounts, otherState.inventoryCounts);
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = turnNumber;
+        hash = 31 * hash + Arrays.hashCode(tileCodes);
+        hash = 31 * hash + Arrays.hashCode(itemCounts);
+        hash = 31 * hash + Arrays.hashCode(playerTileIndices);
+        hash = 31 * hash + Arrays.hashCode(playerScores);
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("GameState(turn=%d red=(%d, %d) score=%d energy=%d blue=(%d, %d) score=%d energy=%d)",
+                             turnNumber, getPlayerX(true), getPlayerY(true), playerScores[RED], playerEnergies[RED],
+                             getPlayerX(false), getPlayerY(false), playerScores[BLUE], playerEnergies[BLUE]);
+    }
+}
@@ -0,0 +1,176 @@
+package mineopoly_three.game;
+
+import mineopoly_three.item.InventoryItem;
+
+import java.awt.Point;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Keeps track of the items on every tile of the board so that PlayerBoardViews can be handed out without
+ *  copying the whole board every turn. Every snapshot shares the item storage with the board until the board
+ *  changes, then the board makes its own copy (copy-on-write). The per-tile item lists are immutable, so they
+ *  can be shared between any number of snapshots.
+ */
+class ItemsOnGround {
+    private final int boardSize;
+    private List<InventoryItem>[] itemsByTile;
+    private boolean itemsShared;
+    private long generation;
+    private Snapshot latestSnapshot;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    ItemsOnGround(int boardSize) {
+        this.boardSize = boardSize;
+        this.itemsByTile = new List[boardSize * boardSize];
+        for (int i = 0; i < itemsByTile.length; i++) {
+            itemsByTile[i] = Collections.emptyList();
+        }
+        this.itemsShared = false;
+        this.generation = 0;
+        this.latestSnapshot = null;
+    }
+
+    /**
+     * Records which items are now on the tile at a location. Nothing changes if the items are the same as before
+     *
+     * @param location The (x, y) location of the tile
+     * @param items The items currently on that tile, a copy of this list is stored
+     */
+    void setItems(Point location, List<InventoryItem> items) {
+        int tileIndex = location.x + location.y * boardSize;
+        if (hasSameItems(itemsByTile[tileIndex], items)) {
+            return;
+        }
+
+        if (itemsShared) {
+            // A snapshot still points at this array, make our own before changing it
+            itemsByTile = itemsByTile.clone();
+            itemsShared = false;
+        }
+
+        if (items.isEmpty()) {
+            itemsByTile[tileIndex] = Collections.emptyList();
+        } else {
+            itemsByTile[tileIndex] = Collections.unmodifiableList(new ArrayList<>(items));
+        }
+        generation++;
+        latestSnapshot = null;
+    }
+
+    /**
+     * @return The number of times the items on the board have changed
+     */
+    long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Gets an immutable view of the items on the board as they are right now. Later changes to the board are not
+     *  visible through the returned Map
+     *
+     * @return A Map from every location on the board to the unmodifiable list of items on that location
+     */
+    Map<Point, List<InventoryItem>> snapshot() {
+        if (latestSnapshot == null) {
+            latestSnapshot = new Snapshot(itemsByTile, boardSize);
+            itemsShared = true;
+        }
+        return latestSnapshot;
+    }
+
+    private static boolean hasSameItems(List<InventoryItem> currentItems, List<InventoryItem> newItems) {
+        if (currentItems.size() != newItems.size()) {
+            return false;
+        }
+        for (int i = 0; i < currentItems.size(); i++) {
+            if (currentItems.get(i) != newItems.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static class Snapshot extends AbstractMap<Point, List<InventoryItem>> {
+        private final List<InventoryItem>[] itemsByTile;
+        private final int boardSize;
+        private Set<Entry<Point, List<InventoryItem>>> entrySet;
+
+        private Snapshot(List<InventoryItem>[] itemsByTile, int boardSize) {
+            this.itemsByTile = itemsByTile;
+            this.boardSize = boardSize;
+        }
+
+        @Override
+        public int size() {
+            return itemsByTile.length;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return tileIndexOf(key) >= 0;
+        }
+
+        @Override
+        public List<InventoryItem> get(Object key) {
+            int tileIndex = tileIndexOf(key);
+            return (tileIndex >= 0) ? itemsByTile[tileIndex] : null;
+        }
+
+        @Override
+        public Set<Entry<Point, List<InventoryItem>>> entrySet() {
+            if (entrySet == null) {
+                entrySet = new EntrySet();
+            }
+            return entrySet;
+        }
+
+        private int tileIndexOf(Object key) {
+            if (!(key instanceof Point)) {
+                return -1;
+            }
+            Point location = (Point) key;
+            boolean xInBounds = (location.x >= 0 && location.x < boardSize);
+            boolean yInBounds = (location.y >= 0 && location.y < boardSize);
+            return (xInBounds && yInBounds) ? (location.x + location.y * boardSize) : -1;
+        }
+
+        private class EntrySet extends AbstractSet<Entry<Point, List<InventoryItem>>> {
+            @Override
+            public int size() {
+                return itemsByTile.length;
+            }
+
+            @Override
+            public Iterator<Entry<Point, List<InventoryItem>>> iterator() {
+                return new Iterator<Entry<Point, List<InventoryItem>>>() {
+                    private int nextTileIndex = 0;
+
+                    @Override
+                    public boolean hasNext() {
+                        return nextTileIndex < itemsByTile.length;
+                    }
+
+                    @Override
+                    public Entry<Point, List<InventoryItem>> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        // Points are mutable, so every entry gets its own
+                        Point location = new Point(nextTileIndex % boardSize, nextTileIndex / boardSize);
+                        List<InventoryItem> items = itemsByTile[nextTileIndex];
+                        nextTileIndex++;
+                        return new SimpleImmutableEntry<>(location, items);
+                    }
+                };
+            }
+        }
+    }
+}
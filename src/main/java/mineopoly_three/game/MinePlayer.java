@@ -2,7 +2,10 @@ package mineopoly_three.game;
 
 import mineopoly_three.action.TurnAction;
 import mineopoly_three.graphics.ImageManager;
+import mineopoly_three.item.CountedItemList;
 import mineopoly_three.item.InventoryItem;
+import mineopoly_three.item.ItemType;
+import mineopoly_three.metrics.StrategyTimings;
 import mineopoly_three.strategy.MinePlayerStrategy;
 import mineopoly_three.tiles.Tile;
 
@@ -26,34 +29,46 @@ public class MinePlayer {
     }
 
     private MinePlayerStrategy strategy;
-    private List<InventoryItem> inventory;
+    private CountedItemList inventory;
     private Tile currentTile;
     private boolean isRedPlayer;
     private int score;
     private TurnAction lastMove;
     private List<TurnAction> actions;
+    // Turns, by index into actions, where the strategy ran out of time
+    private BitSet timedOutTurns;
     private Economy economy;
     private int currentEnergy;
-    private Random randomNumberGenerator;
+    private StatefulRandom randomNumberGenerator;
+    private StrategyTimings strategyTimings;
 
     protected MinePlayer(MinePlayerStrategy strategy, Tile startingTile, Economy economy,
                          long randomSeed, boolean isRedPlayer) {
         this.strategy = strategy;
-        this.inventory = new ArrayList<>(MAX_ITEMS);
+        this.inventory = new CountedItemList();
         this.currentTile = startingTile;
         this.isRedPlayer = isRedPlayer;
         this.score = 0;
         this.lastMove = TurnAction.MOVE_DOWN;
-        this.actions = new LinkedList<>();
+        this.actions = new ArrayList<>();
+        this.timedOutTurns = new BitSet();
         this.economy = economy;
         this.currentEnergy = MAX_ENERGY;
-        this.randomNumberGenerator = new Random(randomSeed);
+        this.randomNumberGenerator = new StatefulRandom(randomSeed);
+        this.strategyTimings = new StrategyTimings();
     }
 
     public MinePlayerStrategy getStrategy() {
         return strategy;
     }
 
+    /**
+     * @return How long this player's strategy has taken to answer the GameEngine this game
+     */
+    public StrategyTimings getStrategyTimings() {
+        return strategyTimings;
+    }
+
     public Tile getCurrentTile() {
         return currentTile;
     }
@@ -62,31 +77,31 @@ public class MinePlayer {
         this.currentTile = newTile;
     }
 
-    public List<InventoryItem> getInventory() {
+    public CountedItemList getInventory() {
         return inventory;
     }
 
     /**
      * Adds an item to the player's inventory, if the inventory isn't full
      *
-     * @param itemToAdd The item to be added to the inventory
+     * @param itemType The type of the item to be added to the inventory
      * @return True if the item is successfully added, false otherwise
      */
-    public boolean addItemToInventory(InventoryItem itemToAdd) {
+    public boolean addItemToInventory(ItemType itemType) {
         if (inventory.size() >= MAX_ITEMS) {
             // Inventory full, could not add the item
             return false;
         }
 
         // Let the strategy know this player received an item
-        strategy.onReceiveItem(itemToAdd);
-        inventory.add(itemToAdd);
+        strategy.onReceiveItem(InventoryItem.of(itemType));
+        inventory.addItem(itemType);
         return true;
     }
 
     public void sellItems() {
         int totalItemSellPrice = economy.sellResources(inventory);
-        inventory.removeIf(x -> x.getItemType().isResource());
+        inventory.removeResources();
 
         if (totalItemSellPrice > 0) {
             score += totalItemSellPrice;
@@ -114,10 +129,25 @@ public class MinePlayer {
         }
     }
 
+    /**
+     * Records a turn where the strategy ran out of time, so the player did nothing
+     */
+    public void addTimedOutTurn() {
+        timedOutTurns.set(actions.size());
+        actions.add(null);
+    }
+
     public List<TurnAction> getAllTurnActions() {
         return actions;
     }
 
+    /**
+     * @return The turns, by index into getAllTurnActions(), where the strategy ran out of time
+     */
+    public BitSet getTimedOutTurns() {
+        return timedOutTurns;
+    }
+
     public float getChargePercent() {
         return ((float) currentEnergy) / MAX_ENERGY;
     }
@@ -144,6 +174,60 @@ public class MinePlayer {
         return randomNumberGenerator;
     }
 
+    TurnAction getLastMove() {
+        return lastMove;
+    }
+
+    long getRandomState() {
+        return randomNumberGenerator.getState();
+    }
+
+    /**
+     * Puts this player back into a state saved by a GameCheckpoint. The actions taken so far are cleared
+     *
+     * @param newTile The tile the player is standing on, the player enters it before getting its inventory back
+     * @param newScore The player's score
+     * @param newEnergy The player's energy
+     * @param newLastMove The last direction the player moved in
+     * @param randomState The state of the player's random number generator
+     * @param newInventory The items the player is holding
+     */
+    void restoreState(Tile newTile, int newScore, int newEnergy, TurnAction newLastMove, long randomState,
+                      List<InventoryItem> newInventory) {
+        inventory.clear();
+        currentTile.onExit(this);
+        newTile.onEnter(this);
+        this.currentTile = newTile;
+
+        inventory.addAll(newInventory);
+        this.score = newScore;
+        this.currentEnergy = newEnergy;
+        this.lastMove = newLastMove;
+        this.randomNumberGenerator.setState(randomState);
+        actions.clear();
+    }
+
+    /**
+     * Puts this player back into the state it was constructed in, for a new game with a new strategy. The lists this
+     *  player keeps, including the actions taken, are cleared rather than replaced, as are its strategy timings
+     *
+     * @param newStrategy The strategy playing as this player in the new game
+     * @param startingTile The tile the player starts on
+     * @param randomSeed The seed for the player's random number generator
+     */
+    void reset(MinePlayerStrategy newStrategy, Tile startingTile, long randomSeed) {
+        this.strategy = newStrategy;
+        inventory.clear();
+        this.currentTile = startingTile;
+        this.score = 0;
+        this.lastMove = TurnAction.MOVE_DOWN;
+        actions.clear();
+        timedOutTurns.clear();
+        this.currentEnergy = MAX_ENERGY;
+        this.randomNumberGenerator.setSeed(randomSeed);
+        strategyTimings.clear();
+    }
+
     /**
      * Gets the Image corresponding the direction the player is currently facing
      *
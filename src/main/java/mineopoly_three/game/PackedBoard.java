@@ -0,0 +1,261 @@
+package mineopoly_three.game;
+
+import mineopoly_three.item.InventoryItem;
+import mineopoly_three.item.ItemType;
+import mineopoly_three.tiles.TileType;
+
+import java.awt.Point;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A compact representation of everything a player can see on the board, stored in primitive arrays indexed by
+ *  (x + y * boardSize) where (0, 0) is the bottom left tile. For every tile this stores:
+ *  - The TileType ordinal
+ *  - How many times the tile has been mined
+ *  - How many of each ItemType are on the tile, packed into 4 bits per ItemType ordinal
+ *
+ * Tile types and mining progress are shared with every snapshot, exactly like the board used to share its
+ *  TileType[][]. Item counts are copy-on-write, so a snapshot always sees the items from the turn it was taken.
+ *
+ * Every change of a tile's type is also appended to a log shared with the snapshots, so anything built from the
+ *  tile types can catch up on just the tiles that changed instead of scanning the whole board again.
+ */
+public class PackedBoard {
+    private static final TileType[] allTileTypes = TileType.values();
+    private static final ItemType[] allItemTypes = ItemType.values();
+    private static final int BITS_PER_ITEM_COUNT = 4;
+    private static final int MAX_ITEM_COUNT = (1 << BITS_PER_ITEM_COUNT) - 1;
+    static {
+        assert allItemTypes.length * BITS_PER_ITEM_COUNT <= Short.SIZE;
+    }
+
+    private final int boardSize;
+    private final byte[] tileTypes;
+    private final byte[] miningProgress;
+    private final TileChangeLog tileChanges;
+    private short[] itemCounts;
+    private boolean itemCountsShared;
+    private PackedBoard latestSnapshot;
+
+    PackedBoard(int boardSize) {
+        this(boardSize, new byte[boardSize * boardSize], new byte[boardSize * boardSize], new TileChangeLog(),
+             new short[boardSize * boardSize]);
+    }
+
+    private PackedBoard(int boardSize, byte[] tileTypes, byte[] miningProgress, TileChangeLog tileChanges,
+                        short[] itemCounts) {
+        this.boardSize = boardSize;
+        this.tileTypes = tileTypes;
+        this.miningProgress = miningProgress;
+        this.tileChanges = tileChanges;
+        this.itemCounts = itemCounts;
+        this.itemCountsShared = false;
+        this.latestSnapshot = null;
+    }
+
+    /**
+     * Packs a board given as a TileType[][] (where index [0][0] is the top left tile) and a map of items on the ground
+     *
+     * @param tiles The type of every tile, indexed [row from the top][x]
+     * @param itemsOnGround A map from locations to the items on those locations, may be missing locations
+     * @return A PackedBoard with the same tiles and items
+     */
+    public static PackedBoard fromTileTypes(TileType[][] tiles, Map<Point, List<InventoryItem>> itemsOnGround) {
+        PackedBoard packedBoard = new PackedBoard(tiles.length);
+        for (int i = 0; i < tiles.length; i++) {
+            for (int j = 0; j < tiles[i].length; j++) {
+                int y = (tiles.length - 1) - i;
+                if (tiles[i][j] != null) {
+                    packedBoard.setTileType(j, y, tiles[i][j]);
+                }
+            }
+        }
+
+        for (Map.Entry<Point, List<InventoryItem>> itemsOnPoint : itemsOnGround.entrySet()) {
+            Point location = itemsOnPoint.getKey();
+            if (packedBoard.isValidLocation(location.x, location.y)) {
+                packedBoard.setItems(location.x, location.y, itemsOnPoint.getValue());
+            }
+        }
+        return packedBoard;
+    }
+
+    public int getSize() {
+        return boardSize;
+    }
+
+    /**
+     * @param x The x coordinate of the tile
+     * @param y The y coordinate of the tile
+     * @return The index of the tile at (x, y) in the packed arrays
+     */
+    public int getTileIndex(int x, int y) {
+        return x + y * boardSize;
+    }
+
+    public boolean isValidLocation(int x, int y) {
+        return x >= 0 && x < boardSize && y >= 0 && y < boardSize;
+    }
+
+    /**
+     * @param x The x coordinate of the tile
+     * @param y The y coordinate of the tile
+     * @return The type of the tile at (x, y), or null if the location is outside the board
+     */
+    public TileType getTileType(int x, int y) {
+        if (!isValidLocation(x, y)) {
+            return null;
+        }
+        return allTileTypes[tileTypes[getTileIndex(x, y)]];
+    }
+
+    /**
+     * @param x The x coordinate of the tile
+     * @param y The y coordinate of the tile
+     * @return The number of times the resource at (x, y) has been mined, or 0 if the location is outside the board
+     */
+    public int getMiningProgress(int x, int y) {
+        if (!isValidLocation(x, y)) {
+            return 0;
+        }
+        return miningProgress[getTileIndex(x, y)];
+    }
+
+    /**
+     * @param x The x coordinate of the tile
+     * @param y The y coordinate of the tile
+     * @param itemType The type of item to count
+     * @return The number of items of that type on the tile at (x, y), or 0 if the location is outside the board
+     */
+    public int getItemCount(int x, int y, ItemType itemType) {
+        if (!isValidLocation(x, y)) {
+            return 0;
+        }
+        return getItemCount(itemCounts[getTileIndex(x, y)], itemType);
+    }
+
+    /**
+     * @param x The x coordinate of the tile
+     * @param y The y coordinate of the tile
+     * @return The total number of resource items on the tile at (x, y)
+     */
+    public int getResourceCount(int x, int y) {
+        if (!isValidLocation(x, y)) {
+            return 0;
+        }
+
+        short packedCounts = itemCounts[getTileIndex(x, y)];
+        int numResources = 0;
+        for (ItemType itemType : allItemTypes) {
+            if (itemType.isResource()) {
+                numResources += getItemCount(packedCounts, itemType);
+            }
+        }
+        return numResources;
+    }
+
+    public boolean hasAutominer(int x, int y) {
+        return getItemCount(x, y, ItemType.AUTOMINER) > 0;
+    }
+
+    /**
+     * @return The number of times any tile has changed type since this board was created. This only ever grows,
+     *          so it works as a version number for anything computed from tile types
+     */
+    public int getTileChangeCount() {
+        return tileChanges.count;
+    }
+
+    /**
+     * @param changeNumber Which change to look up, from 0 up to getTileChangeCount() - 1
+     * @return The index of the tile that changed type
+     */
+    public int getChangedTileIndex(int changeNumber) {
+        if (changeNumber < 0 || changeNumber >= tileChanges.count) {
+            throw new IndexOutOfBoundsException("No tile change number " + changeNumber);
+        }
+        return tileChanges.tileIndices[changeNumber];
+    }
+
+    /**
+     * @param other Another PackedBoard
+     * @return True if both boards see the same tile types, because one is a snapshot of the other
+     */
+    public boolean sharesTilesWith(PackedBoard other) {
+        return other != null && tileTypes == other.tileTypes;
+    }
+
+    /**
+     * Gets a read only copy of this board. The copy keeps seeing changes to tile types and mining progress,
+     *  but keeps the item counts from the moment it was taken
+     *
+     * @return A PackedBoard that shares storage with this one
+     */
+    PackedBoard snapshot() {
+        if (latestSnapshot == null) {
+            latestSnapshot = new PackedBoard(boardSize, tileTypes, miningProgress, tileChanges, itemCounts);
+            itemCountsShared = true;
+        }
+        return latestSnapshot;
+    }
+
+    void setTileType(int x, int y, TileType tileType) {
+        int tileIndex = getTileIndex(x, y);
+        byte tileTypeOrdinal = (byte) tileType.ordinal();
+        if (tileTypes[tileIndex] != tileTypeOrdinal) {
+            tileTypes[tileIndex] = tileTypeOrdinal;
+            tileChanges.add(tileIndex);
+        }
+    }
+
+    void setMiningProgress(int x, int y, int numTimesMined) {
+        miningProgress[getTileIndex(x, y)] = (byte) numTimesMined;
+    }
+
+    void setItems(int x, int y, List<InventoryItem> items) {
+        int packedCounts = 0;
+        // Indexed so that packing the many tiles without items doesn't create an Iterator for each one
+        for (int i = 0; i < items.size(); i++) {
+            int shift = items.get(i).getItemType().ordinal() * BITS_PER_ITEM_COUNT;
+            int currentCount = (packedCounts >> shift) & MAX_ITEM_COUNT;
+            assert currentCount < MAX_ITEM_COUNT;
+            packedCounts += (1 << shift);
+        }
+
+        int tileIndex = getTileIndex(x, y);
+        if (itemCounts[tileIndex] == (short) packedCounts) {
+            return;
+        }
+
+        if (itemCountsShared) {
+            // A snapshot still points at these counts, make our own before changing them
+            itemCounts = itemCounts.clone();
+            itemCountsShared = false;
+        }
+        itemCounts[tileIndex] = (short) packedCounts;
+        latestSnapshot = null;
+    }
+
+    private static int getItemCount(short packedCounts, ItemType itemType) {
+        int shift = itemType.ordinal() * BITS_PER_ITEM_COUNT;
+        return (packedCounts >> shift) & MAX_ITEM_COUNT;
+    }
+
+    /**
+     * An append-only list of the indices of tiles that changed type
+     */
+    private static class TileChangeLog {
+        private int[] tileIndices = new int[16];
+        private int count = 0;
+
+        void add(int tileIndex) {
+            if (count == tileIndices.length) {
+                tileIndices = Arrays.copyOf(tileIndices, count * 2);
+            }
+            tileIndices[count] = tileIndex;
+            count++;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package mineopoly_three.game;
+
+import java.util.Random;
+
+/**
+ * A Random that produces exactly the same sequence as java.util.Random for the same seed, but whose internal state
+ *  can be read and restored so a game in progress can be checkpointed
+ */
+class StatefulRandom extends Random {
+    private static final long serialVersionUID = 1L;
+    private static final long MULTIPLIER = 0x5DEECE66DL;
+    private static final long ADDEND = 0xBL;
+    private static final long MASK = (1L << 48) - 1;
+
+    // Not initialized here, Random's constructor calls setSeed before subclass field initializers run
+    private long state;
+
+    StatefulRandom(long seed) {
+        super(seed);
+    }
+
+    @Override
+    public synchronized void setSeed(long seed) {
+        super.setSeed(seed);
+        this.state = (seed ^ MULTIPLIER) & MASK;
+    }
+
+    @Override
+    protected int next(int bits) {
+        state = advance(state);
+        return getBits(state, bits);
+    }
+
+    /**
+     * Steps a state the same way every call to next() does, so code that keeps states in primitive arrays can
+     *  produce the same sequence as a StatefulRandom without one
+     *
+     * @param state The current state
+     * @return The state after one more call to next()
+     */
+    static long advance(long state) {
+        return (state * MULTIPLIER + ADDEND) & MASK;
+    }
+
+    /**
+     * @param state A state returned by advance()
+     * @param bits The number of random bits wanted
+     * @return The bits next() would return for that state
+     */
+    static int getBits(long state, int bits) {
+        return (int) (state >>> (48 - bits));
+    }
+
+    long getState() {
+        return state;
+    }
+
+    void setState(long state) {
+        this.state = state & MASK;
+    }
+}
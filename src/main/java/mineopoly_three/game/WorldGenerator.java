@@ -1,33 +1,63 @@
 package mineopoly_three.game;
 
-import mineopoly_three.item.InventoryItem;
 import mineopoly_three.item.ItemType;
-import mineopoly_three.tiles.EmptyTile;
-import mineopoly_three.tiles.MarketTile;
-import mineopoly_three.tiles.RechargeTile;
-import mineopoly_three.tiles.ResourceTile;
+import mineopoly_three.tiles.MineableTile;
 import mineopoly_three.tiles.Tile;
 import mineopoly_three.tiles.TileType;
 
 import java.awt.Point;
 import java.util.Arrays;
 import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
 
 /**
  * A class to generate a random GameBoard based on an initial seed value. Giving a random number generator
  *  a seed value means that it will always generate the same "random" sequence whenever it is provided
  *  with the same seed value later. This allows us to generate an unpredictable GameBoard, but also
  *  generate that same exact GameBoard if necessary for replaying a match / reproducing bugs / other purposes
+ *
+ * There are two versions of resource generation, and a seed only gives the same board with the same version:
+ * LEGACY_VERSION throws darts at each resource ring from one Random, retrying when a dart lands on a taken tile.
+ * SECTOR_VERSION splits each ring into sectors, gives every sector its own SplittableRandom stream and picks from
+ *  the list of free tiles in that sector, so it never retries and sectors can be filled in parallel. On large boards
+ *  sorting tiles into sectors and filling the sectors both run in parallel. The streams are split in a fixed order
+ *  before any sector is filled, so the board does not depend on how many cores there are
  */
 public class WorldGenerator {
+    public static final int LEGACY_VERSION = 1;
+    public static final int SECTOR_VERSION = 2;
+
     private static final float RANDOM_RESOURCE_CHANCE = 0.2f;
     private static final int MAX_EMPTY_TILE_SEARCHES = 50;
+    private static final int NUM_SECTORS_PER_RING = 8;
+    // Smaller boards are faster to fill on one thread than to hand out to the common pool
+    private static final int MIN_TILES_FOR_PARALLEL_GENERATION = 128 * 128;
+    private final long rngSeedValue;
+    private final int version;
     private final Random randomGenerator;
 
     public WorldGenerator(long rngSeedValue) {
+        this(rngSeedValue, LEGACY_VERSION);
+    }
+
+    /**
+     * @param rngSeedValue The seed to generate the board from
+     * @param version Which version of resource generation to use, LEGACY_VERSION or SECTOR_VERSION
+     */
+    public WorldGenerator(long rngSeedValue, int version) {
+        if (version != LEGACY_VERSION && version != SECTOR_VERSION) {
+            throw new IllegalArgumentException("Unknown world generator version " + version);
+        }
+        this.rngSeedValue = rngSeedValue;
+        this.version = version;
         this.randomGenerator = new Random(rngSeedValue);
     }
 
+    public int getVersion() {
+        return version;
+    }
+
     /**
      * Generates a GameBoard by filling it with empty tiles, adding market tiles, and then generating the resources
      *
@@ -42,18 +72,45 @@ public class WorldGenerator {
                 // The top left corner is index (0, 0) but location (0, maxY)
                 // This is so MOVE_UP actually moves up relative to the bottom of the screen
                 Point tileLocation = new Point(j, (boardSize - 1) - i);
-                tilesOnBoard[i][j] = new EmptyTile(tileLocation);
+                tilesOnBoard[i][j] = new MineableTile(tileLocation);
             }
         }
 
         GameBoard board = new GameBoard(tilesOnBoard);
+        this.populateBoard(board);
+        return board;
+    }
+
+    /**
+     * Generates a new world on a board left over from an earlier game of the same size, reusing its tiles wherever
+     *  the new world has the same kind of tile in the same place. The result is the same as generateBoard()
+     *
+     * @param boardToReuse The board to generate the world on, nothing else should be using it anymore
+     * @return boardToReuse, now holding the generated world
+     */
+    GameBoard regenerateBoard(GameBoard boardToReuse) {
+        int boardSize = boardToReuse.getSize();
+        Tile[][] tilesOnBoard = boardToReuse.startRebuild();
+        for (int i = 0; i < tilesOnBoard.length; i++) {
+            for (int j = 0; j < tilesOnBoard[i].length; j++) {
+                tilesOnBoard[i][j] = boardToReuse.createTile(TileType.EMPTY, j, (boardSize - 1) - i);
+            }
+        }
+        boardToReuse.finishRebuild();
 
+        this.populateBoard(boardToReuse);
+        return boardToReuse;
+    }
+
+    private void populateBoard(GameBoard board) {
         this.addChargingTiles(board);
         this.addMarketTiles(board);
-        this.generateResources(board);
+        if (version == SECTOR_VERSION) {
+            this.generateResourcesBySector(board);
+        } else {
+            this.generateResources(board);
+        }
         this.addAutominerTiles(board);
-
-        return board;
     }
 
     private void addChargingTiles(GameBoard board) {
@@ -61,8 +118,7 @@ public class WorldGenerator {
         int halfBoardSize = board.getSize() / 2;
         for (int y = halfBoardSize - 1; y <= halfBoardSize; y++) {
             for (int x = halfBoardSize - 1; x <= halfBoardSize; x++) {
-                Point chargingSquareLocation = new Point(x, y);
-                board.setTileAtTileLocation(new RechargeTile(chargingSquareLocation));
+                board.setTileAtTileLocation(board.createTile(TileType.RECHARGE, x, y));
             }
         }
     }
@@ -74,10 +130,14 @@ public class WorldGenerator {
         Point blueLowerMarketPoint = new Point(boardSize * 3 / 4, boardSize * 3 / 4);
         Point blueUpperMarketPoint = new Point(boardSize / 4, boardSize / 4);
 
-        board.setTileAtTileLocation(new MarketTile(redLowerMarketPoint, true));
-        board.setTileAtTileLocation(new MarketTile(redUpperMarketPoint, true));
-        board.setTileAtTileLocation(new MarketTile(blueLowerMarketPoint, false));
-        board.setTileAtTileLocation(new MarketTile(blueUpperMarketPoint, false));
+        board.setTileAtTileLocation(board.createTile(TileType.RED_MARKET, redLowerMarketPoint.x,
+                                                     redLowerMarketPoint.y));
+        board.setTileAtTileLocation(board.createTile(TileType.RED_MARKET, redUpperMarketPoint.x,
+                                                     redUpperMarketPoint.y));
+        board.setTileAtTileLocation(board.createTile(TileType.BLUE_MARKET, blueLowerMarketPoint.x,
+                                                     blueLowerMarketPoint.y));
+        board.setTileAtTileLocation(board.createTile(TileType.BLUE_MARKET, blueUpperMarketPoint.x,
+                                                     blueUpperMarketPoint.y));
 
         // Set the start points for both players to be their lower market
         board.setRedStartLocation(redLowerMarketPoint);
@@ -125,11 +185,163 @@ public class WorldGenerator {
                 }
 
                 // Plop this resource down at the random empty tile
-                Point randomLocation = new Point(randomX, randomY);
-                Tile resourceTile = new ResourceTile(randomLocation, typeToSpawn);
-                board.setTileAtTileLocation(resourceTile);
+                placeResource(board, randomX, randomY, typeToSpawn);
+            }
+        }
+    }
+
+    private void generateResourcesBySector(GameBoard board) {
+        assert board.getSize() >= 10;
+        final int boardSize = board.getSize();
+        final int halfBoardSize = boardSize / 2;
+        final ItemType[] resourceTypes = Arrays.stream(ItemType.values()).filter(ItemType::isResource).toArray(ItemType[]::new);
+        final int numSectors = resourceTypes.length * NUM_SECTORS_PER_RING;
+
+        // Sort every empty tile into the sector of the ring it falls in, indexed by x + y * boardSize. Rows only read
+        //  the board and write their own part of tileSectors, so they can be sorted in parallel
+        boolean generateInParallel = (boardSize * boardSize >= MIN_TILES_FOR_PARALLEL_GENERATION);
+        int[][] sectorTiles = new int[numSectors][];
+        int[] sectorSizes = new int[numSectors];
+        int[] tileSectors = new int[boardSize * boardSize];
+        IntStream rows = IntStream.range(0, boardSize);
+        if (generateInParallel) {
+            rows = rows.parallel();
+        }
+        rows.forEach(y -> {
+            for (int x = 0; x < boardSize; x++) {
+                int sector = -1;
+                if (board.getTileAtLocation(x, y).getType() == TileType.EMPTY) {
+                    sector = findSector(x - halfBoardSize, y - halfBoardSize, halfBoardSize, resourceTypes);
+                }
+                tileSectors[x + y * boardSize] = sector;
+            }
+        });
+        for (int sector : tileSectors) {
+            if (sector >= 0) {
+                sectorSizes[sector]++;
+            }
+        }
+        for (int sector = 0; sector < numSectors; sector++) {
+            sectorTiles[sector] = new int[sectorSizes[sector]];
+            sectorSizes[sector] = 0;
+        }
+        for (int tileIndex = 0; tileIndex < tileSectors.length; tileIndex++) {
+            int sector = tileSectors[tileIndex];
+            if (sector >= 0) {
+                sectorTiles[sector][sectorSizes[sector]++] = tileIndex;
             }
         }
+
+        // Split every stream and work out every sector's share of its ring before anything runs in parallel
+        SplittableRandom worldRandom = new SplittableRandom(rngSeedValue);
+        SplittableRandom[] sectorRandoms = new SplittableRandom[numSectors];
+        int[] numToSpawnBySector = new int[numSectors];
+        for (int ring = 0; ring < resourceTypes.length; ring++) {
+            SplittableRandom ringRandom = worldRandom.split();
+            int firstSector = ring * NUM_SECTORS_PER_RING;
+            for (int sector = firstSector; sector < firstSector + NUM_SECTORS_PER_RING; sector++) {
+                sectorRandoms[sector] = ringRandom.split();
+            }
+            int numResourceTilesToSpawn = (int) (boardSize * boardSize * resourceTypes[ring].getSpawnCountRatio());
+            divideBetweenSectors(numResourceTilesToSpawn, sectorSizes, numToSpawnBySector, firstSector);
+        }
+
+        // Sectors never share a tile, so each one can fill in its own results
+        ItemType[][] spawnedTypes = new ItemType[numSectors][];
+        IntStream sectors = IntStream.range(0, numSectors);
+        if (generateInParallel) {
+            sectors = sectors.parallel();
+        }
+        sectors.forEach(sector -> spawnedTypes[sector] = fillSector(sectorTiles[sector], numToSpawnBySector[sector],
+                resourceTypes[sector / NUM_SECTORS_PER_RING], resourceTypes, sectorRandoms[sector]));
+
+        // Placing a resource updates the board's shared bookkeeping, so only this part stays on one Thread
+        for (int sector = 0; sector < numSectors; sector++) {
+            for (int i = 0; i < numToSpawnBySector[sector]; i++) {
+                int tileIndex = sectorTiles[sector][i];
+                placeResource(board, tileIndex % boardSize, tileIndex / boardSize, spawnedTypes[sector][i]);
+            }
+        }
+    }
+
+    /**
+     * @return The index of the sector holding an offset from the center of the board, or -1 if it is in no ring
+     */
+    private static int findSector(int xOffset, int yOffset, int halfBoardSize, ItemType[] resourceTypes) {
+        double radius = Math.sqrt(xOffset * xOffset + yOffset * yOffset);
+        for (int ring = 0; ring < resourceTypes.length; ring++) {
+            double minRadius = halfBoardSize * resourceTypes[ring].getMinSpawnDistanceRatio();
+            double maxRadius = halfBoardSize * resourceTypes[ring].getMaxSpawnDistanceRatio();
+            if (radius >= minRadius && radius < maxRadius) {
+                double angle = Math.atan2(yOffset, xOffset) + Math.PI;
+                int sectorInRing = Math.min((int) (angle / (2 * Math.PI) * NUM_SECTORS_PER_RING),
+                                            NUM_SECTORS_PER_RING - 1);
+                return ring * NUM_SECTORS_PER_RING + sectorInRing;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Shares the resources of one ring between its sectors by how many free tiles each has. Whatever doesn't divide
+     *  evenly goes to the sectors in order, and a sector never gets more resources than it has free tiles
+     */
+    private static void divideBetweenSectors(int numToSpawn, int[] sectorSizes, int[] numToSpawnBySector,
+                                             int firstSector) {
+        int numFreeTiles = 0;
+        for (int sector = firstSector; sector < firstSector + NUM_SECTORS_PER_RING; sector++) {
+            numFreeTiles += sectorSizes[sector];
+        }
+        numToSpawn = Math.min(numToSpawn, numFreeTiles);
+        if (numFreeTiles == 0) {
+            return;
+        }
+
+        int numLeftOver = numToSpawn;
+        for (int sector = firstSector; sector < firstSector + NUM_SECTORS_PER_RING; sector++) {
+            numToSpawnBySector[sector] = (int) ((long) numToSpawn * sectorSizes[sector] / numFreeTiles);
+            numLeftOver -= numToSpawnBySector[sector];
+        }
+        for (int sector = firstSector; numLeftOver > 0 && sector < firstSector + NUM_SECTORS_PER_RING; sector++) {
+            if (numToSpawnBySector[sector] < sectorSizes[sector]) {
+                numToSpawnBySector[sector]++;
+                numLeftOver--;
+            }
+        }
+    }
+
+    /**
+     * Picks which free tiles of a sector get resources by shuffling the chosen ones to the front of the list
+     *
+     * @return The type of resource spawned on each of the first numToSpawn tiles of sectorTiles
+     */
+    private static ItemType[] fillSector(int[] sectorTiles, int numToSpawn, ItemType ringResourceType,
+                                         ItemType[] resourceTypes, SplittableRandom sectorRandom) {
+        ItemType[] spawnedTypes = new ItemType[numToSpawn];
+        for (int i = 0; i < numToSpawn; i++) {
+            int chosenIndex = i + sectorRandom.nextInt(sectorTiles.length - i);
+            int chosenTile = sectorTiles[chosenIndex];
+            sectorTiles[chosenIndex] = sectorTiles[i];
+            sectorTiles[i] = chosenTile;
+
+            // Rarely spawn a resource of a different type
+            ItemType typeToSpawn = ringResourceType;
+            if (sectorRandom.nextDouble() <= RANDOM_RESOURCE_CHANCE) {
+                typeToSpawn = resourceTypes[sectorRandom.nextInt(resourceTypes.length)];
+            }
+            spawnedTypes[i] = typeToSpawn;
+        }
+        return spawnedTypes;
+    }
+
+    /**
+     * Puts a resource into an empty tile, which stays the same MineableTile
+     */
+    private static void placeResource(GameBoard board, int x, int y, ItemType resource) {
+        MineableTile emptyTile = (MineableTile) board.getTileAtLocation(x, y);
+        emptyTile.setResource(resource);
+        // Setting the same tile again lets the board see its new type
+        board.setTileAtTileLocation(emptyTile);
     }
 
     private void addAutominerTiles(GameBoard board) {
@@ -139,7 +351,7 @@ public class WorldGenerator {
         };
 
         for(Point p : autominers) {
-            board.getTileAtLocation(p.x, p.y).getItemsOnTile().add(new InventoryItem(ItemType.AUTOMINER));
+            board.getTileAtLocation(p.x, p.y).getItemsOnTile().addItem(ItemType.AUTOMINER);
             board.trackItemsOnPoint(p, board.getTileAtLocation(p.x, p.y).getItemsOnTile());
         }
     }
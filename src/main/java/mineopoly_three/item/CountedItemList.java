@@ -0,0 +1,137 @@
+package mineopoly_three.item;
+
+import java.util.AbstractList;
+
+/**
+ * A list of InventoryItems stored as how many of each ItemType it holds, so checking for, adding and removing an
+ *  item of some type never searches the list or allocates anything. Items are always listed in ItemType order, and
+ *  the items handed out are the shared ones from InventoryItem.of(), so lists with the same counts are equal.
+ */
+public class CountedItemList extends AbstractList<InventoryItem> {
+    private static final ItemType[] allItemTypes = ItemType.values();
+
+    private final int[] countsByType;
+    private int size;
+
+    public CountedItemList() {
+        this.countsByType = new int[allItemTypes.length];
+        this.size = 0;
+    }
+
+    /**
+     * @param itemType The type of item to count
+     * @return How many items of that type are in this list
+     */
+    public int getCount(ItemType itemType) {
+        return countsByType[itemType.ordinal()];
+    }
+
+    /**
+     * @param itemType The type of item to look for
+     * @return True if this list has at least one item of that type
+     */
+    public boolean hasItem(ItemType itemType) {
+        return countsByType[itemType.ordinal()] > 0;
+    }
+
+    /**
+     * @return The type of the first resource in this list, or null if there are no resources in this list
+     */
+    public ItemType getFirstResourceType() {
+        for (ItemType itemType : allItemTypes) {
+            if (itemType.isResource() && countsByType[itemType.ordinal()] > 0) {
+                return itemType;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param itemType The type of item to add to this list
+     */
+    public void addItem(ItemType itemType) {
+        countsByType[itemType.ordinal()]++;
+        size++;
+        modCount++;
+    }
+
+    /**
+     * @param itemType The type of item to remove from this list
+     * @return True if an item of that type was removed, false if this list didn't have one
+     */
+    public boolean removeItem(ItemType itemType) {
+        if (countsByType[itemType.ordinal()] == 0) {
+            return false;
+        }
+        countsByType[itemType.ordinal()]--;
+        size--;
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Removes every resource from this list, keeping any other items
+     */
+    public void removeResources() {
+        for (ItemType itemType : allItemTypes) {
+            if (itemType.isResource()) {
+                size -= countsByType[itemType.ordinal()];
+                countsByType[itemType.ordinal()] = 0;
+            }
+        }
+        modCount++;
+    }
+
+    @Override
+    public InventoryItem get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " is out of bounds for size " + size);
+        }
+        int itemsBefore = 0;
+        for (ItemType itemType : allItemTypes) {
+            itemsBefore += countsByType[itemType.ordinal()];
+            if (index < itemsBefore) {
+                return InventoryItem.of(itemType);
+            }
+        }
+        throw new IllegalStateException("Item counts do not add up to the size of the list");
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean add(InventoryItem itemToAdd) {
+        addItem(itemToAdd.getItemType());
+        return true;
+    }
+
+    @Override
+    public InventoryItem remove(int index) {
+        InventoryItem removedItem = get(index);
+        removeItem(removedItem.getItemType());
+        return removedItem;
+    }
+
+    /**
+     * Removes any one item of the same type as the given item, which does not have to be the same InventoryItem
+     *
+     * @param itemToRemove The InventoryItem whose type should be removed
+     * @return True if an item of that type was removed
+     */
+    @Override
+    public boolean remove(Object itemToRemove) {
+        return (itemToRemove instanceof InventoryItem) && removeItem(((InventoryItem) itemToRemove).getItemType());
+    }
+
+    @Override
+    public void clear() {
+        for (int typeIndex = 0; typeIndex < countsByType.length; typeIndex++) {
+            countsByType[typeIndex] = 0;
+        }
+        size = 0;
+        modCount++;
+    }
+}
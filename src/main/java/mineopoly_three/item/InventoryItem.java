@@ -1,12 +1,29 @@
 package mineopoly_three.item;
 
 public class InventoryItem {
-    private ItemType itemType;
+    private static final InventoryItem[] sharedItems = new InventoryItem[ItemType.values().length];
+    static {
+        for (ItemType itemType : ItemType.values()) {
+            sharedItems[itemType.ordinal()] = new InventoryItem(itemType);
+        }
+    }
+
+    private final ItemType itemType;
 
     public InventoryItem(ItemType itemType) {
         this.itemType = itemType;
     }
 
+    /**
+     * InventoryItems can't be changed, so one instance per ItemType can be handed out everywhere
+     *
+     * @param itemType The type of the item
+     * @return The shared InventoryItem of that type
+     */
+    public static InventoryItem of(ItemType itemType) {
+        return sharedItems[itemType.ordinal()];
+    }
+
     public ItemType getItemType() {
         return itemType;
     }
@@ -0,0 +1,78 @@
+package mineopoly_three.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+
+/**
+ * Appends one line of comma separated values to a file for every game, writing a header line first if the file is
+ *  new or empty. Every phase gets a mean, 99th percentile and total column, all in nanoseconds
+ */
+public class CsvMetricsSink implements MetricsSink {
+    private static final TurnPhase[] allTurnPhases = TurnPhase.values();
+
+    private final Path csvFilePath;
+
+    public CsvMetricsSink(Path csvFilePath) {
+        this.csvFilePath = csvFilePath;
+    }
+
+    public Path getCsvFilePath() {
+        return csvFilePath;
+    }
+
+    @Override
+    public synchronized void write(EngineMetrics metrics) throws IOException {
+        boolean needsHeader = !Files.exists(csvFilePath) || Files.size(csvFilePath) == 0;
+        try (Writer csvWriter = Files.newBufferedWriter(csvFilePath, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            if (needsHeader) {
+                csvWriter.write(getHeader());
+                csvWriter.write('\n');
+            }
+            csvWriter.write(toCsvLine(metrics));
+            csvWriter.write('\n');
+        }
+    }
+
+    /**
+     * @return The names of the columns toCsvLine writes, separated by commas
+     */
+    public static String getHeader() {
+        StringBuilder header = new StringBuilder(
+                "seed,boardSize,turns,gameNanos,turnsPerSecond,allocatedBytes,allocatedBytesPerTurn");
+        for (TurnPhase phase : allTurnPhases) {
+            String phaseName = phase.name().toLowerCase(Locale.ROOT);
+            header.append(',').append(phaseName).append("MeanNanos");
+            header.append(',').append(phaseName).append("P99Nanos");
+            header.append(',').append(phaseName).append("TotalNanos");
+        }
+        return header.toString();
+    }
+
+    /**
+     * @param metrics The metrics of a game
+     * @return The game's metrics as comma separated values, in the order of getHeader()
+     */
+    public static String toCsvLine(EngineMetrics metrics) {
+        StringBuilder line = new StringBuilder();
+        line.append(metrics.getRandomSeed());
+        line.append(',').append(metrics.getBoardSize());
+        line.append(',').append(metrics.getNumTurns());
+        line.append(',').append(metrics.getGameNanos());
+        line.append(',').append(String.format(Locale.ROOT, "%.1f", metrics.getTurnsPerSecond()));
+        line.append(',').append(metrics.getAllocatedBytes());
+        line.append(',').append(String.format(Locale.ROOT, "%.1f", metrics.getAllocatedBytesPerTurn()));
+        for (TurnPhase phase : allTurnPhases) {
+            LatencyHistogram phaseLatency = metrics.getPhaseLatency(phase);
+            line.append(',').append(String.format(Locale.ROOT, "%.1f", phaseLatency.getMeanNanos()));
+            line.append(',').append(phaseLatency.getValueAtPercentile(99));
+            line.append(',').append(phaseLatency.getTotalNanos());
+        }
+        return line.toString();
+    }
+}
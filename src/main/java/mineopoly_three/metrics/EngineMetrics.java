@@ -0,0 +1,148 @@
+package mineopoly_three.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+
+/**
+ * Where the time went in one game: how long each TurnPhase took, how fast turns were played overall and how much
+ *  the engine Thread allocated per turn.
+ *
+ * Allocations are read from the JVM's per Thread allocation counter, which not every JVM has, and are -1 on JVMs
+ *  without one. Strategies running on their own Thread because of a time budget are not included in the
+ *  allocation count.
+ */
+public class EngineMetrics {
+    private static final TurnPhase[] allTurnPhases = TurnPhase.values();
+    private static final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+    private static final Method allocatedBytesMethod = findAllocatedBytesMethod();
+
+    private final long randomSeed;
+    private final int boardSize;
+    private final LatencyHistogram[] phaseLatencies;
+    private int numTurns;
+    private long gameStartNanos;
+    private long gameNanos;
+    private long startAllocatedBytes;
+    private long allocatedBytes;
+
+    public EngineMetrics(long randomSeed, int boardSize) {
+        this.randomSeed = randomSeed;
+        this.boardSize = boardSize;
+        this.phaseLatencies = new LatencyHistogram[allTurnPhases.length];
+        for (int i = 0; i < phaseLatencies.length; i++) {
+            phaseLatencies[i] = new LatencyHistogram();
+        }
+        this.allocatedBytes = -1;
+    }
+
+    /**
+     * Starts the game clock and allocation count, call from the Thread that runs the game
+     */
+    public void startGame() {
+        gameStartNanos = System.nanoTime();
+        startAllocatedBytes = getCurrentThreadAllocatedBytes();
+    }
+
+    /**
+     * Stops the game clock and allocation count, call from the same Thread as startGame()
+     */
+    public void endGame() {
+        gameNanos = System.nanoTime() - gameStartNanos;
+        long endAllocatedBytes = getCurrentThreadAllocatedBytes();
+        if (startAllocatedBytes >= 0 && endAllocatedBytes >= 0) {
+            allocatedBytes = endAllocatedBytes - startAllocatedBytes;
+        }
+    }
+
+    public void recordPhase(TurnPhase phase, long nanos) {
+        phaseLatencies[phase.ordinal()].record(nanos);
+    }
+
+    public void recordTurn() {
+        numTurns++;
+    }
+
+    public long getRandomSeed() {
+        return randomSeed;
+    }
+
+    public int getBoardSize() {
+        return boardSize;
+    }
+
+    public int getNumTurns() {
+        return numTurns;
+    }
+
+    /**
+     * @return How long the game took from start to end, including strategy initialization and endRound
+     */
+    public long getGameNanos() {
+        return gameNanos;
+    }
+
+    public double getTurnsPerSecond() {
+        return (gameNanos == 0) ? 0 : numTurns / (gameNanos / 1e9);
+    }
+
+    /**
+     * @return The bytes the engine Thread allocated during the game, or -1 if the JVM can't count them
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * @return The average bytes the engine Thread allocated per turn, or -1 if the JVM can't count them
+     */
+    public double getAllocatedBytesPerTurn() {
+        if (allocatedBytes < 0) {
+            return -1;
+        }
+        return (numTurns == 0) ? 0 : (double) allocatedBytes / numTurns;
+    }
+
+    /**
+     * @param phase A part of a turn
+     * @return How long each time that part of a turn was played took
+     */
+    public LatencyHistogram getPhaseLatency(TurnPhase phase) {
+        return phaseLatencies[phase.ordinal()];
+    }
+
+    private static long getCurrentThreadAllocatedBytes() {
+        if (allocatedBytesMethod == null) {
+            return -1;
+        }
+        try {
+            return (Long) allocatedBytesMethod.invoke(threadBean, Thread.currentThread().getId());
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Looks up com.sun.management.ThreadMXBean by name, so this class still loads on JVMs without it
+     *
+     * @return The method that counts a Thread's allocations, or null if the JVM can't count them
+     */
+    private static Method findAllocatedBytesMethod() {
+        try {
+            Class<?> allocationBeanClass = Class.forName("com.sun.management.ThreadMXBean");
+            if (!allocationBeanClass.isInstance(threadBean)) {
+                return null;
+            }
+            if (!(Boolean) allocationBeanClass.getMethod("isThreadAllocatedMemorySupported").invoke(threadBean)) {
+                return null;
+            }
+            if (!(Boolean) allocationBeanClass.getMethod("isThreadAllocatedMemoryEnabled").invoke(threadBean)) {
+                allocationBeanClass.getMethod("setThreadAllocatedMemoryEnabled", boolean.class)
+                                   .invoke(threadBean, true);
+            }
+            return allocationBeanClass.getMethod("getThreadAllocatedBytes", long.class);
+        } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package mineopoly_three.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+
+/**
+ * Appends one JSON object per line to a file for every game, so a tournament's worth of games can be read back one
+ *  line at a time. Phase timings are kept under "phases", keyed by the lower case name of each TurnPhase
+ */
+public class JsonMetricsSink implements MetricsSink {
+    private static final TurnPhase[] allTurnPhases = TurnPhase.values();
+
+    private final Path jsonFilePath;
+
+    public JsonMetricsSink(Path jsonFilePath) {
+        this.jsonFilePath = jsonFilePath;
+    }
+
+    public Path getJsonFilePath() {
+        return jsonFilePath;
+    }
+
+    @Override
+    public synchronized void write(EngineMetrics metrics) throws IOException {
+        try (Writer jsonWriter = Files.newBufferedWriter(jsonFilePath, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            jsonWriter.write(toJson(metrics));
+            jsonWriter.write('\n');
+        }
+    }
+
+    /**
+     * @param metrics The metrics of a game
+     * @return The game's metrics as a single line JSON object
+     */
+    public static String toJson(EngineMetrics metrics) {
+        StringBuilder json = new StringBuilder("{");
+        json.append("\"seed\":").append(metrics.getRandomSeed());
+        json.append(",\"boardSize\":").append(metrics.getBoardSize());
+        json.append(",\"turns\":").append(metrics.getNumTurns());
+        json.append(",\"gameNanos\":").append(metrics.getGameNanos());
+        json.append(",\"turnsPerSecond\":").append(String.format(Locale.ROOT, "%.1f", metrics.getTurnsPerSecond()));
+        json.append(",\"allocatedBytes\":").append(metrics.getAllocatedBytes());
+        json.append(",\"allocatedBytesPerTurn\":")
+            .append(String.format(Locale.ROOT, "%.1f", metrics.getAllocatedBytesPerTurn()));
+        json.append(",\"phases\":{");
+        for (int i = 0; i < allTurnPhases.length; i++) {
+            LatencyHistogram phaseLatency = metrics.getPhaseLatency(allTurnPhases[i]);
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append('"').append(allTurnPhases[i].name().toLowerCase(Locale.ROOT)).append("\":{");
+            json.append("\"count\":").append(phaseLatency.getCount());
+            json.append(",\"meanNanos\":").append(String.format(Locale.ROOT, "%.1f", phaseLatency.getMeanNanos()));
+            json.append(",\"p99Nanos\":").append(phaseLatency.getValueAtPercentile(99));
+            json.append(",\"maxNanos\":").append(phaseLatency.getMaxNanos());
+            json.append(",\"totalNanos\":").append(phaseLatency.getTotalNanos());
+            json.append('}');
+        }
+        json.append("}}");
+        return json.toString();
+    }
+}
@@ -0,0 +1,165 @@
+package mineopoly_three.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts how long calls took, in nanoseconds, without storing every measurement. Values below 32ns get a bucket each,
+ *  and every power of two above that is split into 16 equal buckets, so any value read back is within 1/16 (6.25%)
+ *  of what was recorded no matter how large it is.
+ *
+ * Recording never locks, so any number of Threads can record into one histogram at the same time.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    // Every value below this has its own bucket
+    private static final int LINEAR_LIMIT = SUB_BUCKET_COUNT * 2;
+    private static final int LINEAR_LIMIT_BITS = SUB_BUCKET_BITS + 1;
+    private static final int NUM_BUCKETS = LINEAR_LIMIT + (63 - LINEAR_LIMIT_BITS) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray bucketCounts = new AtomicLongArray(NUM_BUCKETS);
+    private final LongAdder totalCount = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * @param nanos How long one call took. Negative values are recorded as 0
+     */
+    public void record(long nanos) {
+        nanos = Math.max(nanos, 0);
+        bucketCounts.incrementAndGet(getBucketIndex(nanos));
+        totalCount.increment();
+        totalNanos.add(nanos);
+
+        long currentMax = maxNanos.get();
+        while (nanos > currentMax && !maxNanos.compareAndSet(currentMax, nanos)) {
+            currentMax = maxNanos.get();
+        }
+    }
+
+    /**
+     * Adds every value recorded in another histogram to this one
+     *
+     * @param other The histogram to add
+     */
+    public void add(LatencyHistogram other) {
+        for (int bucketIndex = 0; bucketIndex < NUM_BUCKETS; bucketIndex++) {
+            long bucketCount = other.bucketCounts.get(bucketIndex);
+            if (bucketCount > 0) {
+                bucketCounts.addAndGet(bucketIndex, bucketCount);
+            }
+        }
+        totalCount.add(other.totalCount.sum());
+        totalNanos.add(other.totalNanos.sum());
+
+        long otherMax = other.maxNanos.get();
+        long currentMax = maxNanos.get();
+        while (otherMax > currentMax && !maxNanos.compareAndSet(currentMax, otherMax)) {
+            currentMax = maxNanos.get();
+        }
+    }
+
+    /**
+     * Forgets every recorded value. Unlike record(), this is not safe to call while other Threads are recording
+     */
+    public void clear() {
+        for (int bucketIndex = 0; bucketIndex < NUM_BUCKETS; bucketIndex++) {
+            // Most buckets are already empty, and reading them is much cheaper than writing them
+            if (bucketCounts.get(bucketIndex) != 0) {
+                bucketCounts.set(bucketIndex, 0);
+            }
+        }
+        totalCount.reset();
+        totalNanos.reset();
+        maxNanos.set(0);
+    }
+
+    /**
+     * @return The number of values recorded
+     */
+    public long getCount() {
+        return totalCount.sum();
+    }
+
+    /**
+     * @return The average of every recorded value in nanoseconds, or 0 if nothing was recorded
+     */
+    public double getMeanNanos() {
+        long count = totalCount.sum();
+        return (count == 0) ? 0 : (double) totalNanos.sum() / count;
+    }
+
+    /**
+     * @return The sum of every recorded value in nanoseconds
+     */
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    /**
+     * @return The largest value recorded in nanoseconds, exactly
+     */
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    /**
+     * Finds the value that a percentage of the recorded values are at or below
+     *
+     * @param percentile A percentage from 0 to 100, like 50 for the median or 99 for the 99th percentile
+     * @return The value in nanoseconds, rounded up to the top of its bucket, or 0 if nothing was recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100, not " + percentile);
+        }
+        long count = 0;
+        long[] counts = new long[NUM_BUCKETS];
+        for (int bucketIndex = 0; bucketIndex < NUM_BUCKETS; bucketIndex++) {
+            counts[bucketIndex] = bucketCounts.get(bucketIndex);
+            count += counts[bucketIndex];
+        }
+        if (count == 0) {
+            return 0;
+        }
+
+        long countAtPercentile = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long countSoFar = 0;
+        for (int bucketIndex = 0; bucketIndex < NUM_BUCKETS; bucketIndex++) {
+            countSoFar += counts[bucketIndex];
+            if (countSoFar >= countAtPercentile) {
+                return Math.min(getBucketHighestValue(bucketIndex), maxNanos.get());
+            }
+        }
+        return maxNanos.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("count=%d mean=%.1fus p50=%.1fus p99=%.1fus max=%.1fus", getCount(),
+                             getMeanNanos() / 1000, getValueAtPercentile(50) / 1000.0,
+                             getValueAtPercentile(99) / 1000.0, getMaxNanos() / 1000.0);
+    }
+
+    private static int getBucketIndex(long nanos) {
+        if (nanos < LINEAR_LIMIT) {
+            return (int) nanos;
+        }
+        int highestBit = 63 - Long.numberOfLeadingZeros(nanos);
+        int subBucket = (int) (nanos >>> (highestBit - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+        return LINEAR_LIMIT + (highestBit - LINEAR_LIMIT_BITS) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    private static long getBucketHighestValue(int bucketIndex) {
+        if (bucketIndex < LINEAR_LIMIT) {
+            return bucketIndex;
+        }
+        int highestBit = (bucketIndex - LINEAR_LIMIT) / SUB_BUCKET_COUNT + LINEAR_LIMIT_BITS;
+        int subBucket = (bucketIndex - LINEAR_LIMIT) % SUB_BUCKET_COUNT;
+        long bucketWidth = 1L << (highestBit - SUB_BUCKET_BITS);
+        long lowestValue = (SUB_BUCKET_COUNT + subBucket) * bucketWidth;
+        return lowestValue + bucketWidth - 1;
+    }
+}
@@ -0,0 +1,18 @@
+package mineopoly_three.metrics;
+
+import java.io.IOException;
+
+/**
+ * Somewhere to send the EngineMetrics of every game a GameEngine plays. A sink can be shared by many GameEngines
+ *  playing on different Threads, so implementations must be safe to call from any Thread
+ */
+public interface MetricsSink {
+
+    /**
+     * Called by the GameEngine at the end of every game
+     *
+     * @param metrics The metrics of the game that just ended
+     * @throws IOException If there is an issue writing the metrics
+     */
+    void write(EngineMetrics metrics) throws IOException;
+}
@@ -0,0 +1,57 @@
+package mineopoly_three.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * How long one strategy took to answer each kind of call from the GameEngine, and how many turns it ran out of time
+ *  on. Timings from many games can be added together, for example to profile a strategy over a whole tournament.
+ */
+public class StrategyTimings {
+    private final LatencyHistogram initializeLatency = new LatencyHistogram();
+    private final LatencyHistogram turnActionLatency = new LatencyHistogram();
+    private final LatencyHistogram endRoundLatency = new LatencyHistogram();
+    private final AtomicLong numTimeouts = new AtomicLong();
+
+    public LatencyHistogram getInitializeLatency() {
+        return initializeLatency;
+    }
+
+    public LatencyHistogram getTurnActionLatency() {
+        return turnActionLatency;
+    }
+
+    public LatencyHistogram getEndRoundLatency() {
+        return endRoundLatency;
+    }
+
+    /**
+     * @return The number of calls that ran past the GameEngine's time budget
+     */
+    public long getTimeoutCount() {
+        return numTimeouts.get();
+    }
+
+    public void recordTimeout() {
+        numTimeouts.incrementAndGet();
+    }
+
+    /**
+     * Forgets every timing and timeout, not safe to call while anything is still recording
+     */
+    public void clear() {
+        initializeLatency.clear();
+        turnActionLatency.clear();
+        endRoundLatency.clear();
+        numTimeouts.set(0);
+    }
+
+    /**
+     * @param other Timings to add to these ones
+     */
+    public void add(StrategyTimings other) {
+        initializeLatency.add(other.initializeLatency);
+        turnActionLatency.add(other.turnActionLatency);
+        endRoundLatency.add(other.endRoundLatency);
+        numTimeouts.addAndGet(other.numTimeouts.get());
+    }
+}
@@ -0,0 +1,13 @@
+package mineopoly_three.metrics;
+
+/**
+ * The parts of a turn the GameEngine times separately. Each player's view conversion, strategy call and action
+ *  are timed on their own, so those phases are recorded twice per turn
+ */
+public enum TurnPhase {
+    VIEW_CONVERSION,
+    STRATEGY_CALL,
+    ACTION_EXECUTION,
+    BOARD_UPDATE,
+    ECONOMY_UPDATE
+}
@@ -0,0 +1,59 @@
+package mineopoly_three.replay;
+
+/**
+ * The index entry for one match stored in a ReplayArchive. Everything here can be read without decoding the replay.
+ */
+public class ArchivedMatch {
+    public enum Winner {
+        RED, BLUE, TIE;
+
+        public static Winner fromScores(int redScore, int blueScore) {
+            if (redScore > blueScore) {
+                return RED;
+            } else if (blueScore > redScore) {
+                return BLUE;
+            }
+            return TIE;
+        }
+    }
+
+    private int matchIndex;
+    private long worldSeed;
+    private int boardSize;
+    private int redScore;
+    private int blueScore;
+    private Winner winner;
+
+    public ArchivedMatch(int matchIndex, long worldSeed, int boardSize, int redScore, int blueScore, Winner winner) {
+        this.matchIndex = matchIndex;
+        this.worldSeed = worldSeed;
+        this.boardSize = boardSize;
+        this.redScore = redScore;
+        this.blueScore = blueScore;
+        this.winner = winner;
+    }
+
+    public int getMatchIndex() {
+        return matchIndex;
+    }
+
+    public long getWorldSeed() {
+        return worldSeed;
+    }
+
+    public int getBoardSize() {
+        return boardSize;
+    }
+
+    public int getRedScore() {
+        return redScore;
+    }
+
+    public int getBlueScore() {
+        return blueScore;
+    }
+
+    public Winner getWinner() {
+        return winner;
+    }
+}
@@ -0,0 +1,477 @@
+package mineopoly_three.replay;
+
+import mineopoly_three.action.TurnAction;
+import mineopoly_three.game.GameCheckpoint;
+import mineopoly_three.game.WorldGenerator;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * A compact binary replay format. Every replay starts with a fixed size header:
+ * [magic "MRPL"][format version: byte][flags: byte][board size: int][world seed: long]
+ * [red action count: int][blue action count: int]
+ * followed by the red actions then the blue actions, two actions per byte with the first action of each pair in the
+ *  high 4 bits. Each action is its TurnAction ordinal, or NO_ACTION_CODE when the player did nothing on that turn.
+ *  If the timeouts flag is set, TIMEOUT_CODE also marks turns where the player's strategy ran out of time.
+ *  If the world generator flag is set, the header is followed by [world generator version: byte], which is never
+ *  compressed. Without it the board was built by WorldGenerator.LEGACY_VERSION.
+ *  If the checkpoints flag is set, the actions are followed by [checkpoint count: int] and then each GameCheckpoint
+ *  as [encoded size: int][encoded checkpoint].
+ *  If the deflate flag is set, everything after the header is deflate compressed.
+ *
+ * Replays are streamed through a fixed size buffer, so encoding and decoding only allocate the action lists no
+ *  matter how long the game was.
+ */
+public class BinaryReplayCodec implements ReplayCodec {
+    public static final int FORMAT_VERSION = 1;
+    static final int HEADER_SIZE = 4 + 1 + 1 + 4 + 8 + 4 + 4;
+
+    private static final byte[] MAGIC = {'M', 'R', 'P', 'L'};
+    private static final int FLAG_DEFLATE = 1;
+    private static final int FLAG_RED_EXCEPTION = 1 << 1;
+    private static final int FLAG_BLUE_EXCEPTION = 1 << 2;
+    private static final int FLAG_CHECKPOINTS = 1 << 3;
+    private static final int FLAG_WORLD_GENERATOR = 1 << 4;
+    private static final int FLAG_TIMEOUTS = 1 << 5;
+    private static final int NO_ACTION_CODE = 0xF;
+    private static final int TIMEOUT_CODE = 0xE;
+    private static final int BUFFER_SIZE = 8192;
+    private static final TurnAction[] allTurnActions = TurnAction.values();
+
+    private final boolean deflate;
+
+    /**
+     * Creates a codec that writes uncompressed replays. Compressed replays can still be decoded
+     */
+    public BinaryReplayCodec() {
+        this(false);
+    }
+
+    /**
+     * @param deflate Whether replays written by this codec should be deflate compressed
+     */
+    public BinaryReplayCodec(boolean deflate) {
+        this.deflate = deflate;
+    }
+
+    /**
+     * Checks whether a buffer starts with the magic bytes of this format. The buffer's position is not changed
+     *
+     * @param buffer The first bytes of an encoded replay
+     * @return True if the buffer holds the start of a binary replay
+     */
+    public static boolean isBinaryReplay(ByteBuffer buffer) {
+        if (buffer.remaining() < MAGIC.length) {
+            return false;
+        }
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (buffer.get(buffer.position() + i) != MAGIC[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void encode(Replay replay, WritableByteChannel channel) throws IOException {
+        List<TurnAction> redActions = replay.getRedPlayerActions();
+        List<TurnAction> blueActions = replay.getBluePlayerActions();
+
+        int flags = 0;
+        if (deflate) {
+            flags |= FLAG_DEFLATE;
+        }
+        if (replay.redThrewException()) {
+            flags |= FLAG_RED_EXCEPTION;
+        }
+        if (replay.blueThrewException()) {
+            flags |= FLAG_BLUE_EXCEPTION;
+        }
+        List<GameCheckpoint> checkpoints = replay.getCheckpoints();
+        if (!checkpoints.isEmpty()) {
+            flags |= FLAG_CHECKPOINTS;
+        }
+        boolean hasWorldGeneratorVersion = replay.getWorldGeneratorVersion() != WorldGenerator.LEGACY_VERSION;
+        if (hasWorldGeneratorVersion) {
+            flags |= FLAG_WORLD_GENERATOR;
+        }
+        BitSet redTimedOutTurns = replay.getRedTimedOutTurns();
+        BitSet blueTimedOutTurns = replay.getBlueTimedOutTurns();
+        if (!redTimedOutTurns.isEmpty() || !blueTimedOutTurns.isEmpty()) {
+            flags |= FLAG_TIMEOUTS;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        buffer.put(MAGIC);
+        buffer.put((byte) FORMAT_VERSION);
+        buffer.put((byte) flags);
+        buffer.putInt(replay.getBoardSize());
+        buffer.putLong(replay.getWorldSeed());
+        buffer.putInt(redActions.size());
+        buffer.putInt(blueActions.size());
+        if (hasWorldGeneratorVersion) {
+            buffer.put((byte) replay.getWorldGeneratorVersion());
+        }
+
+        if (!deflate) {
+            putActions(redActions, redTimedOutTurns, buffer, channel);
+            putActions(blueActions, blueTimedOutTurns, buffer, channel);
+            putCheckpoints(checkpoints, buffer, channel);
+            drain(buffer, channel);
+            return;
+        }
+
+        // The header is never compressed so the format can be detected without inflating anything
+        drain(buffer, channel);
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            DeflaterOutputStream deflaterStream = new DeflaterOutputStream(Channels.newOutputStream(channel), deflater);
+            WritableByteChannel bodyChannel = Channels.newChannel(deflaterStream);
+            putActions(redActions, redTimedOutTurns, buffer, bodyChannel);
+            putActions(blueActions, blueTimedOutTurns, buffer, bodyChannel);
+            putCheckpoints(checkpoints, buffer, bodyChannel);
+            drain(buffer, bodyChannel);
+            // Finish instead of close, the channel belongs to the caller
+            deflaterStream.finish();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    @Override
+    public Replay decode(ReadableByteChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        buffer.limit(HEADER_SIZE);
+        fill(buffer, channel);
+        buffer.flip();
+        return decode(buffer, channel);
+    }
+
+    /**
+     * Decodes a replay that is entirely contained in a buffer, such as one mapped from a file. The buffer's
+     *  position is advanced past the uncompressed parts of the replay
+     *
+     * @param buffer A buffer positioned at the start of an encoded replay
+     * @return The decoded Replay
+     * @throws IOException If the buffer does not hold a valid binary replay
+     */
+    public Replay decode(ByteBuffer buffer) throws IOException {
+        return decode(buffer, null);
+    }
+
+    private Replay decode(ByteBuffer buffer, ReadableByteChannel channel) throws IOException {
+        if (buffer.remaining() < HEADER_SIZE) {
+            throw new EOFException("The replay ended before its header was read");
+        }
+        if (!isBinaryReplay(buffer)) {
+            throw new IOException("Not a binary replay");
+        }
+        buffer.position(buffer.position() + MAGIC.length);
+        int version = buffer.get();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported binary replay version " + version);
+        }
+
+        int flags = buffer.get();
+        int boardSize = buffer.getInt();
+        long worldSeed = buffer.getLong();
+        int numRedActions = buffer.getInt();
+        int numBlueActions = buffer.getInt();
+        if (numRedActions < 0 || numBlueActions < 0) {
+            throw new IOException("Negative action count in replay header");
+        }
+        int worldGeneratorVersion = WorldGenerator.LEGACY_VERSION;
+        if ((flags & FLAG_WORLD_GENERATOR) != 0) {
+            ensureRemaining(1, buffer, channel);
+            worldGeneratorVersion = buffer.get();
+        }
+
+        boolean hasCheckpoints = (flags & FLAG_CHECKPOINTS) != 0;
+        boolean hasTimeouts = (flags & FLAG_TIMEOUTS) != 0;
+        BitSet redTimedOutTurns = new BitSet();
+        BitSet blueTimedOutTurns = new BitSet();
+        List<TurnAction> redActions;
+        List<TurnAction> blueActions;
+        List<GameCheckpoint> checkpoints;
+        if ((flags & FLAG_DEFLATE) == 0) {
+            redActions = getActions(numRedActions, hasTimeouts, redTimedOutTurns, buffer, channel);
+            blueActions = getActions(numBlueActions, hasTimeouts, blueTimedOutTurns, buffer, channel);
+            checkpoints = hasCheckpoints ? getCheckpoints(buffer, channel) : new ArrayList<>();
+        } else {
+            Inflater inflater = new Inflater();
+            try {
+                ReadableByteChannel bodyChannel = inflatedChannel(buffer, channel, inflater);
+                ByteBuffer bodyBuffer = ByteBuffer.allocate(BUFFER_SIZE);
+                bodyBuffer.flip();
+                redActions = getActions(numRedActions, hasTimeouts, redTimedOutTurns, bodyBuffer, bodyChannel);
+                blueActions = getActions(numBlueActions, hasTimeouts, blueTimedOutTurns, bodyBuffer, bodyChannel);
+                checkpoints = hasCheckpoints ? getCheckpoints(bodyBuffer, bodyChannel) : new ArrayList<>();
+            } finally {
+                inflater.end();
+            }
+        }
+
+        boolean redThrewException = (flags & FLAG_RED_EXCEPTION) != 0;
+        boolean blueThrewException = (flags & FLAG_BLUE_EXCEPTION) != 0;
+        Replay replay = new Replay(boardSize, worldSeed, redActions, blueActions, redThrewException,
+                                   blueThrewException, checkpoints);
+        replay.setWorldGeneratorVersion(worldGeneratorVersion);
+        replay.setTimedOutTurns(redTimedOutTurns, blueTimedOutTurns);
+        return replay;
+    }
+
+    private static ReadableByteChannel inflatedChannel(ByteBuffer buffer, ReadableByteChannel channel,
+                                                       Inflater inflater) {
+        ReadableByteChannel compressedChannel;
+        if (channel == null) {
+            // Everything is already in memory, wrapping the buffer avoids copying it
+            compressedChannel = new BufferChannel(buffer);
+        } else {
+            // Bytes read along with the header come first, then the rest of the channel
+            compressedChannel = new BufferChannel(buffer, channel);
+        }
+        return Channels.newChannel(new InflaterInputStream(Channels.newInputStream(compressedChannel), inflater));
+    }
+
+    private static void putActions(List<TurnAction> actions, BitSet timedOutTurns, ByteBuffer buffer,
+                                   WritableByteChannel channel) throws IOException {
+        int highNibble = -1;
+        for (int turn = 0; turn < actions.size(); turn++) {
+            TurnAction action = actions.get(turn);
+            int actionCode = (action == null) ? NO_ACTION_CODE : action.ordinal();
+            if (timedOutTurns.get(turn)) {
+                actionCode = TIMEOUT_CODE;
+            }
+            if (highNibble < 0) {
+                highNibble = actionCode;
+                continue;
+            }
+
+            if (!buffer.hasRemaining()) {
+                drain(buffer, channel);
+            }
+            buffer.put((byte) ((highNibble << 4) | actionCode));
+            highNibble = -1;
+        }
+
+        if (highNibble >= 0) {
+            // Odd number of actions, the count in the header says to ignore the padding
+            if (!buffer.hasRemaining()) {
+                drain(buffer, channel);
+            }
+            buffer.put((byte) ((highNibble << 4) | NO_ACTION_CODE));
+        }
+    }
+
+    private static void putCheckpoints(List<GameCheckpoint> checkpoints, ByteBuffer buffer,
+                                       WritableByteChannel channel) throws IOException {
+        if (checkpoints.isEmpty()) {
+            return;
+        }
+        if (buffer.remaining() < 4) {
+            drain(buffer, channel);
+        }
+        buffer.putInt(checkpoints.size());
+
+        for (GameCheckpoint checkpoint : checkpoints) {
+            int encodedSize = checkpoint.getEncodedSize();
+            if (buffer.remaining() < 4 + encodedSize) {
+                drain(buffer, channel);
+            }
+            if (buffer.remaining() >= 4 + encodedSize) {
+                buffer.putInt(encodedSize);
+                checkpoint.encode(buffer);
+                continue;
+            }
+
+            // Checkpoints of big boards don't fit in the buffer, those get a buffer of their own
+            buffer.putInt(encodedSize);
+            drain(buffer, channel);
+            ByteBuffer checkpointBuffer = ByteBuffer.allocate(encodedSize);
+            checkpoint.encode(checkpointBuffer);
+            drain(checkpointBuffer, channel);
+        }
+    }
+
+    private static List<GameCheckpoint> getCheckpoints(ByteBuffer buffer, ReadableByteChannel channel)
+            throws IOException {
+        ensureRemaining(4, buffer, channel);
+        int numCheckpoints = buffer.getInt();
+        if (numCheckpoints < 0) {
+            throw new IOException("Negative checkpoint count in replay");
+        }
+
+        List<GameCheckpoint> checkpoints = new ArrayList<>(numCheckpoints);
+        for (int i = 0; i < numCheckpoints; i++) {
+            ensureRemaining(4, buffer, channel);
+            int encodedSize = buffer.getInt();
+            if (encodedSize < 0) {
+                throw new IOException("Negative checkpoint size in replay");
+            }
+            try {
+                checkpoints.add(GameCheckpoint.decode(getBytes(encodedSize, buffer, channel)));
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Invalid checkpoint in replay", e);
+            }
+        }
+        return checkpoints;
+    }
+
+    /**
+     * Takes the next bytes of the replay as a buffer of their own. Bytes that are already in memory are not copied
+     */
+    private static ByteBuffer getBytes(int numBytes, ByteBuffer buffer, ReadableByteChannel channel)
+            throws IOException {
+        if (buffer.remaining() >= numBytes) {
+            ByteBuffer bytes = buffer.slice();
+            bytes.limit(numBytes);
+            buffer.position(buffer.position() + numBytes);
+            return bytes;
+        }
+        if (channel == null) {
+            throw new EOFException("The replay ended before all of its checkpoints were read");
+        }
+
+        ByteBuffer bytes = ByteBuffer.allocate(numBytes);
+        bytes.put(buffer);
+        fill(bytes, channel);
+        bytes.flip();
+        return bytes;
+    }
+
+    private static List<TurnAction> getActions(int numActions, boolean hasTimeouts, BitSet timedOutTurns,
+                                               ByteBuffer buffer, ReadableByteChannel channel) throws IOException {
+        List<TurnAction> actions = new ArrayList<>(numActions);
+        while (actions.size() < numActions) {
+            if (!buffer.hasRemaining()) {
+                refill(buffer, channel);
+            }
+            int packedActions = buffer.get() & 0xFF;
+            addAction(packedActions >>> 4, hasTimeouts, actions, timedOutTurns);
+            if (actions.size() < numActions) {
+                addAction(packedActions & 0xF, hasTimeouts, actions, timedOutTurns);
+            }
+        }
+        return actions;
+    }
+
+    private static void addAction(int actionCode, boolean hasTimeouts, List<TurnAction> actions,
+                                  BitSet timedOutTurns) throws IOException {
+        if (hasTimeouts && actionCode == TIMEOUT_CODE) {
+            timedOutTurns.set(actions.size());
+            actions.add(null);
+        } else {
+            actions.add(decodeAction(actionCode));
+        }
+    }
+
+    private static TurnAction decodeAction(int actionCode) throws IOException {
+        if (actionCode == NO_ACTION_CODE) {
+            return null;
+        }
+        if (actionCode >= allTurnActions.length) {
+            throw new IOException("Invalid action code " + actionCode + " in replay");
+        }
+        return allTurnActions[actionCode];
+    }
+
+    private static void drain(ByteBuffer buffer, WritableByteChannel channel) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private static void fill(ByteBuffer buffer, ReadableByteChannel channel) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("The replay ended early");
+            }
+        }
+    }
+
+    private static void ensureRemaining(int numBytes, ByteBuffer buffer, ReadableByteChannel channel)
+            throws IOException {
+        if (buffer.remaining() >= numBytes) {
+            return;
+        }
+        if (channel == null) {
+            throw new EOFException("The replay ended early");
+        }
+        buffer.compact();
+        while (buffer.position() < numBytes) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("The replay ended early");
+            }
+        }
+        buffer.flip();
+    }
+
+    private static void refill(ByteBuffer buffer, ReadableByteChannel channel) throws IOException {
+        if (channel == null) {
+            throw new EOFException("The replay ended before all of its actions were read");
+        }
+        buffer.clear();
+        int bytesRead = 0;
+        while (bytesRead == 0) {
+            bytesRead = channel.read(buffer);
+        }
+        if (bytesRead < 0) {
+            throw new EOFException("The replay ended before all of its actions were read");
+        }
+        buffer.flip();
+    }
+
+    /**
+     * Reads whatever is left in a buffer, then optionally continues with a channel
+     */
+    private static class BufferChannel implements ReadableByteChannel {
+        private final ByteBuffer buffer;
+        private final ReadableByteChannel remainder;
+
+        BufferChannel(ByteBuffer buffer) {
+            this(buffer, null);
+        }
+
+        BufferChannel(ByteBuffer buffer, ReadableByteChannel remainder) {
+            this.buffer = buffer;
+            this.remainder = remainder;
+        }
+
+        @Override
+        public int read(ByteBuffer destination) throws IOException {
+            if (!buffer.hasRemaining()) {
+                return (remainder == null) ? -1 : remainder.read(destination);
+            }
+            int bytesToCopy = Math.min(buffer.remaining(), destination.remaining());
+            ByteBuffer slice = buffer.duplicate();
+            slice.limit(slice.position() + bytesToCopy);
+            destination.put(slice);
+            buffer.position(buffer.position() + bytesToCopy);
+            return bytesToCopy;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+            // The wrapped buffer and channel belong to the caller
+        }
+    }
+}
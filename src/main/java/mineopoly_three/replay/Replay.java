@@ -1,43 +1,57 @@
 package mineopoly_three.replay;
 
 import mineopoly_three.action.TurnAction;
+import mineopoly_three.game.GameCheckpoint;
+import mineopoly_three.game.WorldGenerator;
 
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.util.LinkedList;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.List;
 import java.util.Scanner;
 
 public class Replay {
-    private static final TurnAction[] allTurnActions = TurnAction.values();
-
     private int boardSize;
     private long worldSeed;
+    private int worldGeneratorVersion;
     private List<TurnAction> redPlayerActions;
     private List<TurnAction> bluePlayerActions;
     private boolean redThrewException;
     private boolean blueThrewException;
+    private BitSet redTimedOutTurns;
+    private BitSet blueTimedOutTurns;
+    private List<GameCheckpoint> checkpoints;
 
     public Replay(int boardSize, long worldSeed, List<TurnAction> redPlayerActions, List<TurnAction> bluePlayerActions,
                   boolean redThrewException, boolean blueThrewException) {
+        this(boardSize, worldSeed, redPlayerActions, bluePlayerActions, redThrewException, blueThrewException,
+             Collections.emptyList());
+    }
+
+    /**
+     * @param checkpoints Checkpoints of the game in increasing turn order, so watching the replay can start part
+     *                     way through without simulating every turn before it
+     */
+    public Replay(int boardSize, long worldSeed, List<TurnAction> redPlayerActions, List<TurnAction> bluePlayerActions,
+                  boolean redThrewException, boolean blueThrewException, List<GameCheckpoint> checkpoints) {
         this.boardSize = boardSize;
         this.worldSeed = worldSeed;
+        this.worldGeneratorVersion = WorldGenerator.LEGACY_VERSION;
         this.redPlayerActions = redPlayerActions;
         this.bluePlayerActions = bluePlayerActions;
         this.redThrewException = redThrewException;
         this.blueThrewException = blueThrewException;
+        this.redTimedOutTurns = new BitSet();
+        this.blueTimedOutTurns = new BitSet();
+        this.checkpoints = checkpoints;
     }
 
     /**
-     * Decodes the file containing replay information into a Java Replay object
-     * The file format is:
-     * [board size]\r\n
-     * [world seed]\r\n
-     * [red player actions]\r\n
-     * [blue player actions]\r\n
-     * (where player actions are a comma separated list of TurnAction indices)
+     * Decodes a file in the text replay format into a Java Replay object. See TextReplayCodec for the format, and
+     *  ReplayIO for reading replay files in any format
      *
      * @param replayFilePathToRead The file path to the file containing replay information
      * @return A Replay object consisting of the information read from the file
@@ -46,24 +60,15 @@ public class Replay {
      */
     public static Replay decodeReplayFile(String replayFilePathToRead) throws FileNotFoundException {
         Scanner replayFileReader = new Scanner(new File(replayFilePathToRead));
-        int boardSize = Integer.parseInt(replayFileReader.nextLine().trim());
-        long worldSeed = Long.parseLong(replayFileReader.nextLine().trim());
-
-        // Split and decode the red and blue player actions lists
-        String[] redActionEncoding = replayFileReader.nextLine().trim().split(",");
-        String[] blueActionEncoding = replayFileReader.nextLine().trim().split(",");
-        List<TurnAction> redActionList = decodeActionList(redActionEncoding);
-        List<TurnAction> blueActionList = decodeActionList(blueActionEncoding);
-
-        int lastRedAction = Integer.parseInt(redActionEncoding[redActionEncoding.length - 1]);
-        int lastBlueAction = Integer.parseInt(blueActionEncoding[blueActionEncoding.length - 1]);
-        boolean redThrewException = (lastRedAction < 0);
-        boolean blueThrewException = (lastBlueAction < 0);
-        return new Replay(boardSize, worldSeed, redActionList, blueActionList, redThrewException, blueThrewException);
+        try {
+            return TextReplayCodec.decode(replayFileReader);
+        } finally {
+            replayFileReader.close();
+        }
     }
 
     /**
-     * Writes a replay file from a given Replay object
+     * Writes a replay file in the text replay format from a given Replay object
      *
      * @param replay The Replay object to encode into a replay file
      * @param replayFilePathToWrite The file path of the replay file that will be written, if a file exists at this
@@ -78,53 +83,7 @@ public class Replay {
 
     @Override
     public String toString() {
-        String encodedRedActions = encodeActionList(redPlayerActions, redThrewException);
-        String encodedBlueActions = encodeActionList(bluePlayerActions, blueThrewException);
-        return String.join("\r\n", String.valueOf(boardSize), String.valueOf(worldSeed),
-                           encodedRedActions, encodedBlueActions);
-    }
-
-    private static String encodeActionList(List<TurnAction> actionList, boolean exceptionThrown) {
-        StringBuilder actionListEncoder = new StringBuilder();
-        for (TurnAction action : actionList) {
-            if (action == null) {
-                // There is no turn action at the length of the list, it will be treated as no action
-                actionListEncoder.append(allTurnActions.length);
-            } else {
-                actionListEncoder.append(action.ordinal());
-            }
-            actionListEncoder.append(',');
-        }
-
-        if (exceptionThrown) {
-            // A negative number indicates an exception
-            actionListEncoder.append("-1");
-        } else {
-            // Remove trailing comma
-            actionListEncoder.deleteCharAt(actionListEncoder.length() - 1);
-        }
-        return actionListEncoder.toString();
-    }
-
-    private static List<TurnAction> decodeActionList(String[] encodedList) {
-        List<TurnAction> turnActions = new LinkedList<>();
-
-        for (String encodedAction : encodedList) {
-            int actionIndex = Integer.parseInt(encodedAction);
-            if (actionIndex < 0) {
-                // Exception thrown on this turn
-                break;
-            }
-
-            if (actionIndex >= allTurnActions.length) {
-                // Player did nothing on this turn
-                turnActions.add(null);
-            } else {
-                turnActions.add(allTurnActions[actionIndex]);
-            }
-        }
-
-        return turnActions;
+        return TextReplayCodec.encodeToString(this);
     }
 
     public int getBoardSize() {
@@ -135,6 +94,17 @@ public class Replay {
         return worldSeed;
     }
 
+    /**
+     * @return The version of WorldGenerator that built the board from the world seed
+     */
+    public int getWorldGeneratorVersion() {
+        return worldGeneratorVersion;
+    }
+
+    public void setWorldGeneratorVersion(int worldGeneratorVersion) {
+        this.worldGeneratorVersion = worldGeneratorVersion;
+    }
+
     public List<TurnAction> getRedPlayerActions() {
         return redPlayerActions;
     }
@@ -150,4 +120,49 @@ public class Replay {
     public boolean blueThrewException() {
         return blueThrewException;
     }
+
+    /**
+     * @return The turns, by index into the red player's actions, where its strategy ran out of time and did nothing
+     */
+    public BitSet getRedTimedOutTurns() {
+        return redTimedOutTurns;
+    }
+
+    /**
+     * @return The turns, by index into the blue player's actions, where its strategy ran out of time and did nothing
+     */
+    public BitSet getBlueTimedOutTurns() {
+        return blueTimedOutTurns;
+    }
+
+    /**
+     * Marks the turns each strategy ran out of time on, which are otherwise told apart from a strategy choosing to do
+     *  nothing. The actions on those turns are null
+     *
+     * @param redTimedOutTurns The turns, by index into the red player's actions, where its strategy ran out of time
+     * @param blueTimedOutTurns The turns, by index into the blue player's actions, where its strategy ran out of time
+     */
+    public void setTimedOutTurns(BitSet redTimedOutTurns, BitSet blueTimedOutTurns) {
+        this.redTimedOutTurns = redTimedOutTurns;
+        this.blueTimedOutTurns = blueTimedOutTurns;
+    }
+
+    public List<GameCheckpoint> getCheckpoints() {
+        return checkpoints;
+    }
+
+    /**
+     * @param turnNumber The turn to start watching the replay from
+     * @return The latest checkpoint at or before the turn, or null if there isn't one
+     */
+    public GameCheckpoint getLatestCheckpoint(int turnNumber) {
+        GameCheckpoint latestCheckpoint = null;
+        for (GameCheckpoint checkpoint : checkpoints) {
+            if (checkpoint.getTurnNumber() > turnNumber) {
+                break;
+            }
+            latestCheckpoint = checkpoint;
+        }
+        return latestCheckpoint;
+    }
 }
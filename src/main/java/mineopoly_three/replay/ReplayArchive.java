@@ -0,0 +1,384 @@
+package mineopoly_three.replay;
+
+import mineopoly_three.game.GameEngine;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Stores many replays in a single append-only file so results can be analysed without opening a file per match.
+ * The file layout is:
+ * [magic "MRPA"][format version: int][index capacity: int][match count: int]
+ * [index capacity entries of: replay offset: long, replay length: int, world seed: long, board size: int,
+ *  red score: int, blue score: int, winner: byte, 3 bytes of padding]
+ * [replays in the binary replay format, one after another]
+ *
+ * The index has a fixed size chosen when the archive is created, so match N can be found without reading any other
+ *  match. Reads go through memory mappings of the file and replays are decoded straight out of them. One mapping can
+ *  cover at most 2GB, so the file is mapped in chunks, each overlapping the next so that almost every read fits
+ *  inside a single chunk. Chunks are kept once mapped, and only remapped when the file grows past their end.
+ */
+public class ReplayArchive implements Closeable, Iterable<Replay> {
+    public static final int FORMAT_VERSION = 1;
+
+    private static final int MAGIC = ('M' << 24) | ('R' << 16) | ('P' << 8) | 'A';
+    private static final int HEADER_SIZE = 16;
+    private static final int MATCH_COUNT_OFFSET = 12;
+    private static final int INDEX_ENTRY_SIZE = 36;
+    private static final ArchivedMatch.Winner[] allWinners = ArchivedMatch.Winner.values();
+    private static final int DEFAULT_CHUNK_SIZE = 1 << 30;
+    private static final int DEFAULT_CHUNK_OVERLAP = 1 << 24;
+
+    private final FileChannel archiveChannel;
+    private final boolean writable;
+    private final int indexCapacity;
+    private final BinaryReplayCodec replayCodec = new BinaryReplayCodec();
+    private volatile int numMatches;
+    private final Object mappingLock = new Object();
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+    private int chunkOverlap = DEFAULT_CHUNK_OVERLAP;
+    // Chunk i maps the file from i * chunkSize, for up to chunkSize + chunkOverlap bytes. Replaced, never changed
+    private volatile MappedByteBuffer[] chunkMappings = new MappedByteBuffer[0];
+    private long endOfData;
+
+    private ReplayArchive(FileChannel archiveChannel, boolean writable, int indexCapacity, int numMatches,
+                          long endOfData) {
+        this.archiveChannel = archiveChannel;
+        this.writable = writable;
+        this.indexCapacity = indexCapacity;
+        this.numMatches = numMatches;
+        this.endOfData = endOfData;
+    }
+
+    /**
+     * Creates a new, empty archive. If a file exists at this path, it will be overwritten
+     *
+     * @param archivePath The path of the archive file
+     * @param indexCapacity The maximum number of matches the archive will be able to hold
+     * @return An archive ready for matches to be appended
+     * @throws IOException If there is an issue creating the file
+     */
+    public static ReplayArchive create(Path archivePath, int indexCapacity) throws IOException {
+        if (indexCapacity <= 0) {
+            throw new IllegalArgumentException("An archive must be able to hold at least one match");
+        }
+
+        FileChannel archiveChannel = FileChannel.open(archivePath, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(indexCapacity).putInt(0);
+        header.flip();
+        writeFully(archiveChannel, header, 0);
+
+        long endOfIndex = HEADER_SIZE + (long) indexCapacity * INDEX_ENTRY_SIZE;
+        writeFully(archiveChannel, ByteBuffer.allocate(1), endOfIndex - 1);
+        return new ReplayArchive(archiveChannel, true, indexCapacity, 0, endOfIndex);
+    }
+
+    /**
+     * Opens an existing archive for reading only
+     *
+     * @param archivePath The path of the archive file
+     * @return The opened archive
+     * @throws IOException If there is an issue reading the file, or it is not a replay archive
+     */
+    public static ReplayArchive open(Path archivePath) throws IOException {
+        return open(archivePath, false);
+    }
+
+    /**
+     * Opens an existing archive
+     *
+     * @param archivePath The path of the archive file
+     * @param writable Whether more matches will be appended to the archive
+     * @return The opened archive
+     * @throws IOException If there is an issue reading the file, or it is not a replay archive
+     */
+    public static ReplayArchive open(Path archivePath, boolean writable) throws IOException {
+        FileChannel archiveChannel = writable
+                ? FileChannel.open(archivePath, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(archivePath, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            readFully(archiveChannel, header, 0);
+            header.flip();
+            if (header.getInt() != MAGIC) {
+                throw new IOException("Not a replay archive");
+            }
+            int version = header.getInt();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Unsupported replay archive version " + version);
+            }
+            int indexCapacity = header.getInt();
+            int numMatches = header.getInt();
+            long endOfIndex = HEADER_SIZE + (long) indexCapacity * INDEX_ENTRY_SIZE;
+            if (indexCapacity <= 0 || numMatches < 0 || numMatches > indexCapacity
+                    || endOfIndex > archiveChannel.size()) {
+                throw new IOException("The replay archive header is corrupt");
+            }
+
+            ReplayArchive archive = new ReplayArchive(archiveChannel, writable, indexCapacity, numMatches,
+                                                      endOfIndex);
+            if (numMatches > 0) {
+                // Appending continues right after the last replay in the index
+                ByteBuffer lastEntry = archive.getIndexEntry(numMatches - 1);
+                long lastReplayOffset = lastEntry.getLong();
+                int lastReplayLength = lastEntry.getInt();
+                if (lastReplayOffset < endOfIndex || lastReplayLength < 0
+                        || lastReplayOffset + lastReplayLength > archiveChannel.size()) {
+                    throw new IOException("The index entry of match " + (numMatches - 1) + " is corrupt");
+                }
+                archive.endOfData = lastReplayOffset + lastReplayLength;
+            }
+            return archive;
+        } catch (IOException | RuntimeException e) {
+            archiveChannel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Appends the replay and final scores of a match that has just been played
+     *
+     * @param finishedGame A GameEngine whose game has finished
+     * @return The index of the new match in this archive
+     * @throws IOException If there is an issue writing to the archive
+     */
+    public int append(GameEngine finishedGame) throws IOException {
+        return append(finishedGame.getReplay(), finishedGame.getRedPlayerScore(), finishedGame.getBluePlayerScore());
+    }
+
+    /**
+     * Appends a match to the end of the archive
+     *
+     * @param replay The replay of the match
+     * @param redScore The final score of the red player
+     * @param blueScore The final score of the blue player
+     * @return The index of the new match in this archive
+     * @throws IOException If there is an issue writing to the archive
+     */
+    public synchronized int append(Replay replay, int redScore, int blueScore) throws IOException {
+        if (!writable) {
+            throw new IllegalStateException("This archive was opened read only");
+        }
+        if (numMatches >= indexCapacity) {
+            throw new IllegalStateException("This archive is full, it can hold " + indexCapacity + " matches");
+        }
+
+        ByteArrayOutputStream encodedReplay = new ByteArrayOutputStream();
+        replayCodec.encode(replay, Channels.newChannel(encodedReplay));
+        ByteBuffer replayBuffer = ByteBuffer.wrap(encodedReplay.toByteArray());
+        long replayOffset = endOfData;
+        int replayLength = replayBuffer.remaining();
+        writeFully(archiveChannel, replayBuffer, replayOffset);
+
+        ArchivedMatch.Winner winner = ArchivedMatch.Winner.fromScores(redScore, blueScore);
+        ByteBuffer indexEntry = ByteBuffer.allocate(INDEX_ENTRY_SIZE);
+        indexEntry.putLong(replayOffset).putInt(replayLength).putLong(replay.getWorldSeed())
+                  .putInt(replay.getBoardSize()).putInt(redScore).putInt(blueScore).put((byte) winner.ordinal());
+        indexEntry.clear();
+        writeFully(archiveChannel, indexEntry, HEADER_SIZE + (long) numMatches * INDEX_ENTRY_SIZE);
+
+        // The count goes last, after the replay and index entry are on disk, so a crash part way through an append
+        //  never exposes a half written match, even if the OS crashes or loses power
+        archiveChannel.force(false);
+        ByteBuffer matchCount = ByteBuffer.allocate(4);
+        matchCount.putInt(numMatches + 1);
+        matchCount.flip();
+        writeFully(archiveChannel, matchCount, MATCH_COUNT_OFFSET);
+
+        endOfData = replayOffset + replayLength;
+        return numMatches++;
+    }
+
+    /**
+     * @return The number of matches in this archive
+     */
+    public int size() {
+        return numMatches;
+    }
+
+    /**
+     * @return The maximum number of matches this archive can hold
+     */
+    public int getIndexCapacity() {
+        return indexCapacity;
+    }
+
+    /**
+     * Reads the index entry of a match without decoding its replay
+     *
+     * @param matchIndex The index of the match, in the order the matches were appended
+     * @return The seed, board size and result of the match
+     * @throws IOException If there is an issue reading the archive
+     */
+    public ArchivedMatch getMatch(int matchIndex) throws IOException {
+        ByteBuffer indexEntry = getIndexEntry(matchIndex);
+        indexEntry.position(indexEntry.position() + 12); // Skip the replay offset and length
+        long worldSeed = indexEntry.getLong();
+        int boardSize = indexEntry.getInt();
+        int redScore = indexEntry.getInt();
+        int blueScore = indexEntry.getInt();
+        int winnerOrdinal = indexEntry.get() & 0xFF;
+        if (winnerOrdinal >= allWinners.length) {
+            throw new IOException("The index entry of match " + matchIndex + " is corrupt");
+        }
+        ArchivedMatch.Winner winner = allWinners[winnerOrdinal];
+        return new ArchivedMatch(matchIndex, worldSeed, boardSize, redScore, blueScore, winner);
+    }
+
+    /**
+     * Decodes the replay of a match directly from the mapped archive
+     *
+     * @param matchIndex The index of the match, in the order the matches were appended
+     * @return The replay of the match
+     * @throws IOException If there is an issue reading the archive, or the replay is corrupt
+     */
+    public Replay readReplay(int matchIndex) throws IOException {
+        ByteBuffer indexEntry = getIndexEntry(matchIndex);
+        long replayOffset = indexEntry.getLong();
+        int replayLength = indexEntry.getInt();
+        return replayCodec.decode(getMappedRegion(replayOffset, replayLength));
+    }
+
+    /**
+     * Iterates over every replay in the archive, in the order they were appended. Decoding errors are rethrown as
+     *  UncheckedIOExceptions
+     */
+    @Override
+    public Iterator<Replay> iterator() {
+        final int numMatchesToRead = numMatches;
+        return new Iterator<Replay>() {
+            private int nextMatchIndex = 0;
+
+            @Override
+            public boolean hasNext() {
+                return nextMatchIndex < numMatchesToRead;
+            }
+
+            @Override
+            public Replay next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                try {
+                    return readReplay(nextMatchIndex++);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+    }
+
+    @Override
+    public void close() throws IOException {
+        chunkMappings = new MappedByteBuffer[0];
+        archiveChannel.close();
+    }
+
+    private ByteBuffer getIndexEntry(int matchIndex) throws IOException {
+        if (matchIndex < 0 || matchIndex >= numMatches) {
+            throw new IndexOutOfBoundsException("Match " + matchIndex + " is not in an archive of "
+                                                + numMatches + " matches");
+        }
+        return getMappedRegion(HEADER_SIZE + (long) matchIndex * INDEX_ENTRY_SIZE, INDEX_ENTRY_SIZE);
+    }
+
+    /**
+     * Changes how the file is split into mappings, so tests can cover reads across chunks without a 1GB file
+     *
+     * @param chunkSize The distance between the starts of two chunks
+     * @param chunkOverlap How far each chunk reaches into the next one
+     */
+    void setMappingChunkSize(int chunkSize, int chunkOverlap) {
+        if (chunkSize <= 0 || chunkOverlap < 0 || (long) chunkSize + chunkOverlap > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("A chunk must fit in a single mapping");
+        }
+        synchronized (mappingLock) {
+            this.chunkSize = chunkSize;
+            this.chunkOverlap = chunkOverlap;
+            chunkMappings = new MappedByteBuffer[0];
+        }
+    }
+
+    /**
+     * Returns a buffer over part of the archive that is independent of any other reader. Regions are sliced out of
+     *  the chunk they start in, except for regions longer than the overlap that run past the end of it, which are
+     *  mapped on their own
+     */
+    private ByteBuffer getMappedRegion(long offset, int length) throws IOException {
+        int currentChunkSize = chunkSize;
+        int chunkIndex = (int) (offset / currentChunkSize);
+        long chunkStart = (long) chunkIndex * currentChunkSize;
+        long regionEnd = offset + length;
+        if (regionEnd - chunkStart > (long) currentChunkSize + chunkOverlap) {
+            checkArchiveReaches(regionEnd);
+            return archiveChannel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+        }
+
+        MappedByteBuffer[] mappings = chunkMappings;
+        MappedByteBuffer chunk = (chunkIndex < mappings.length) ? mappings[chunkIndex] : null;
+        if (chunk == null || chunkStart + chunk.capacity() < regionEnd) {
+            chunk = mapChunk(chunkIndex, chunkStart, regionEnd);
+        }
+
+        ByteBuffer region = chunk.duplicate();
+        region.limit((int) (regionEnd - chunkStart));
+        region.position((int) (offset - chunkStart));
+        return region.slice();
+    }
+
+    private MappedByteBuffer mapChunk(int chunkIndex, long chunkStart, long regionEnd) throws IOException {
+        synchronized (mappingLock) {
+            // Another reader may have mapped the chunk while this one waited
+            MappedByteBuffer[] mappings = chunkMappings;
+            MappedByteBuffer chunk = (chunkIndex < mappings.length) ? mappings[chunkIndex] : null;
+            if (chunk != null && chunkStart + chunk.capacity() >= regionEnd) {
+                return chunk;
+            }
+
+            long archiveSize = checkArchiveReaches(regionEnd);
+            long chunkLength = Math.min((long) chunkSize + chunkOverlap, archiveSize - chunkStart);
+            chunk = archiveChannel.map(FileChannel.MapMode.READ_ONLY, chunkStart, chunkLength);
+            MappedByteBuffer[] newMappings = Arrays.copyOf(mappings, Math.max(mappings.length, chunkIndex + 1));
+            newMappings[chunkIndex] = chunk;
+            chunkMappings = newMappings;
+            return chunk;
+        }
+    }
+
+    private long checkArchiveReaches(long regionEnd) throws IOException {
+        long archiveSize = archiveChannel.size();
+        if (regionEnd > archiveSize) {
+            throw new IOException("The archive is truncated");
+        }
+        return archiveSize;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int bytesRead = channel.read(buffer, position);
+            if (bytesRead < 0) {
+                throw new IOException("Not a replay archive");
+            }
+            position += bytesRead;
+        }
+    }
+}
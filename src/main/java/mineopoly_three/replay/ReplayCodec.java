@@ -0,0 +1,29 @@
+package mineopoly_three.replay;
+
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Converts Replays to and from a stream of bytes. Codecs never close the channels they are given.
+ */
+public interface ReplayCodec {
+
+    /**
+     * Writes a Replay to a channel
+     *
+     * @param replay The Replay to encode
+     * @param channel The channel to write the encoded Replay to
+     * @throws IOException If there is an issue writing to the channel
+     */
+    void encode(Replay replay, WritableByteChannel channel) throws IOException;
+
+    /**
+     * Reads a Replay from a channel
+     *
+     * @param channel The channel to read an encoded Replay from
+     * @return The decoded Replay
+     * @throws IOException If there is an issue reading from the channel, or it does not hold a valid Replay
+     */
+    Replay decode(ReadableByteChannel channel) throws IOException;
+}
@@ -1,10 +1,15 @@
 package mineopoly_three.replay;
 
+import mineopoly_three.game.GameCheckpoint;
 import mineopoly_three.game.GameEngine;
 import mineopoly_three.strategy.MinePlayerStrategy;
 
-import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 
 public class ReplayIO {
     /**
@@ -14,29 +19,86 @@ public class ReplayIO {
      * @return A GameEngine ready for runGame() to be called to replay the match
      */
     public static GameEngine setupEngineForReplay(String replayFilePath) {
+        return setupEngineForReplay(replayFilePath, 0);
+    }
+
+    /**
+     * Sets up a GameEngine to play a replay of a past match starting from a specific turn. If the replay has
+     *  checkpoints, the engine starts from the latest one before that turn, and any turns between the checkpoint
+     *  and the requested turn are played without the GUI waiting on them
+     *
+     * @param replayFilePath The path to the replay file of a past match
+     * @param startTurn The first turn to show
+     * @return A GameEngine ready for runGame() to be called to replay the match
+     */
+    public static GameEngine setupEngineForReplay(String replayFilePath, int startTurn) {
         Replay gameReplay;
         try {
-            gameReplay = Replay.decodeReplayFile(replayFilePath);
-        } catch (FileNotFoundException e) {
+            gameReplay = readReplayFromFile(replayFilePath);
+        } catch (NoSuchFileException e) {
             System.err.println("Could not locate the replay file at the given path");
             e.printStackTrace();
             return null;
-        } catch (NumberFormatException e) {
+        } catch (IOException | NumberFormatException e) {
             System.err.println("There was an issue decoding the replay file");
             e.printStackTrace();
             return null;
         }
 
+        GameEngine replayEngine = createEngineForReplay(gameReplay, startTurn);
+        replayEngine.setGuiEnabled(true); // I'm going to assume you're doing this to watch
+        return replayEngine;
+    }
+
+    /**
+     * Creates a GameEngine that replays a match from a specific turn, without enabling the GUI
+     *
+     * @param gameReplay The Replay of a past match
+     * @param startTurn The first turn anything watching the engine should see
+     * @return A GameEngine ready for runGame() to be called to replay the match
+     */
+    public static GameEngine createEngineForReplay(Replay gameReplay, int startTurn) {
+        GameCheckpoint checkpoint = gameReplay.getLatestCheckpoint(startTurn);
+        int firstSimulatedTurn = (checkpoint == null) ? 0 : checkpoint.getTurnNumber();
+
         int boardSize = gameReplay.getBoardSize();
-        MinePlayerStrategy redPlayerReplay = new ReplayStrategy(gameReplay);
-        MinePlayerStrategy bluePlayerReplay = new ReplayStrategy(gameReplay);
+        MinePlayerStrategy redPlayerReplay = new ReplayStrategy(gameReplay, firstSimulatedTurn);
+        MinePlayerStrategy bluePlayerReplay = new ReplayStrategy(gameReplay, firstSimulatedTurn);
         long worldSeed = gameReplay.getWorldSeed();
 
-        GameEngine replayEngine = new GameEngine(boardSize, redPlayerReplay, bluePlayerReplay, worldSeed);
-        replayEngine.setGuiEnabled(true); // I'm going to assume you're doing this to watch
+        GameEngine replayEngine = new GameEngine(boardSize, redPlayerReplay, bluePlayerReplay, worldSeed,
+                                                 gameReplay.getWorldGeneratorVersion());
+        if (checkpoint != null) {
+            replayEngine.restoreCheckpoint(checkpoint);
+        }
+        replayEngine.setFirstVisibleTurn(startTurn);
         return replayEngine;
     }
 
+    /**
+     * Reads a replay file in either the binary or the text replay format, detected from the start of the file
+     *
+     * @param replayFilePath The path to the replay file to read
+     * @return The Replay stored in the file
+     * @throws IOException If the file cannot be read or does not hold a valid replay
+     * @throws NumberFormatException If there is an issue parsing any numbers in a text replay file
+     */
+    public static Replay readReplayFromFile(String replayFilePath) throws IOException {
+        try (FileChannel replayChannel = FileChannel.open(Paths.get(replayFilePath), StandardOpenOption.READ)) {
+            ByteBuffer fileStart = ByteBuffer.allocate(BinaryReplayCodec.HEADER_SIZE);
+            while (fileStart.hasRemaining() && replayChannel.read(fileStart) >= 0) {
+                // Keep reading until the buffer is full or the file ends
+            }
+            fileStart.flip();
+
+            // Start over from the beginning of the file with the codec for the detected format
+            replayChannel.position(0);
+            ReplayCodec codec = BinaryReplayCodec.isBinaryReplay(fileStart)
+                    ? new BinaryReplayCodec() : new TextReplayCodec();
+            return codec.decode(replayChannel);
+        }
+    }
+
     /**
      * Writes a Replay object, probably retrieved from the GameEngine, to a file so it can be watched again in
      *  the future. This will overwrite a file if a file already exists at the specified path
@@ -45,8 +107,21 @@ public class ReplayIO {
      * @param replayFilePath The file path at which to write the replay file
      */
     public static void writeReplayToFile(Replay replayToWrite, String replayFilePath) {
-        try {
-            Replay.encodeReplayFile(replayToWrite, replayFilePath);
+        writeReplayToFile(replayToWrite, replayFilePath, new BinaryReplayCodec());
+    }
+
+    /**
+     * Writes a Replay object to a file using a specific replay format, such as TextReplayCodec for replays that
+     *  need to be readable by older versions of Mine-opoly
+     *
+     * @param replayToWrite The Replay object to write to a replay file
+     * @param replayFilePath The file path at which to write the replay file
+     * @param replayCodec The codec used to encode the replay
+     */
+    public static void writeReplayToFile(Replay replayToWrite, String replayFilePath, ReplayCodec replayCodec) {
+        try (FileChannel replayChannel = FileChannel.open(Paths.get(replayFilePath), StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            replayCodec.encode(replayToWrite, replayChannel);
         } catch (IOException e) {
             System.err.println("There was an error encoding the game replay");
             e.printStackTrace();
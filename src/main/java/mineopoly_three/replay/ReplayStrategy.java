@@ -8,6 +8,7 @@ import mineopoly_three.strategy.MinePlayerStrategy;
 
 import java.awt.*;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Queue;
 import java.util.Random;
 
@@ -18,24 +19,37 @@ import java.util.Random;
  */
 public class ReplayStrategy implements MinePlayerStrategy {
     private Replay gameToReplay;
+    private int firstTurn;
     private Queue<TurnAction> actionsToReplay;
     private boolean exceptionThrown;
     private boolean isRedPlayer;
 
     public ReplayStrategy(Replay gameToReplay) {
+        this(gameToReplay, 0);
+    }
+
+    /**
+     * @param gameToReplay The game being replayed
+     * @param firstTurn The turn the replay starts from, the actions from every turn before it are skipped
+     */
+    public ReplayStrategy(Replay gameToReplay, int firstTurn) {
         this.gameToReplay = gameToReplay;
+        this.firstTurn = firstTurn;
     }
 
     @Override
     public void initialize(int boardSize, int maxInventorySize, int maxCharge, int winningScore,
                            PlayerBoardView startingBoard, Point startTileLocation, boolean isRedPlayer, Random random) {
+        List<TurnAction> playerActions;
         if (isRedPlayer) {
-            actionsToReplay = new LinkedList<>(gameToReplay.getRedPlayerActions());
+            playerActions = gameToReplay.getRedPlayerActions();
             exceptionThrown = gameToReplay.redThrewException();
         } else {
-            actionsToReplay = new LinkedList<>(gameToReplay.getBluePlayerActions());
+            playerActions = gameToReplay.getBluePlayerActions();
             exceptionThrown = gameToReplay.blueThrewException();
         }
+        int numSkippedActions = Math.min(firstTurn, playerActions.size());
+        actionsToReplay = new LinkedList<>(playerActions.subList(numSkippedActions, playerActions.size()));
 
         this.isRedPlayer = isRedPlayer;
     }
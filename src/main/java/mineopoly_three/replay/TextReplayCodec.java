@@ -0,0 +1,155 @@
+package mineopoly_three.replay;
+
+import mineopoly_three.action.TurnAction;
+import mineopoly_three.game.WorldGenerator;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+
+/**
+ * The original human readable replay format, kept so older replay files can still be watched.
+ * The format is:
+ * [board size]\r\n
+ * [world seed]\r\n
+ * [red player actions]\r\n
+ * [blue player actions]\r\n
+ * [world generator version]\r\n (only written when it isn't WorldGenerator.LEGACY_VERSION, older files end before it)
+ * (where player actions are a comma separated list of TurnAction indices, the number of TurnActions means no action,
+ *  one more than that means the strategy ran out of time and did nothing, which older readers take as no action,
+ *  and a trailing -1 means the player threw an exception on that turn)
+ */
+public class TextReplayCodec implements ReplayCodec {
+    private static final TurnAction[] allTurnActions = TurnAction.values();
+    private static final int TIMEOUT_INDEX = allTurnActions.length + 1;
+
+    @Override
+    public void encode(Replay replay, WritableByteChannel channel) throws IOException {
+        Writer replayWriter = Channels.newWriter(channel, StandardCharsets.US_ASCII.newEncoder(), -1);
+        replayWriter.write(encodeToString(replay));
+        // Flush instead of close, the channel belongs to the caller
+        replayWriter.flush();
+    }
+
+    @Override
+    public Replay decode(ReadableByteChannel channel) throws IOException {
+        Reader replayReader = Channels.newReader(channel, StandardCharsets.US_ASCII.newDecoder(), -1);
+        try {
+            return decode(new Scanner(replayReader));
+        } catch (NoSuchElementException e) {
+            throw new IOException("The replay ended before all of its lines were read", e);
+        }
+    }
+
+    /**
+     * Decodes a replay in the text format
+     *
+     * @param replayFileReader A Scanner positioned at the start of an encoded replay
+     * @return The decoded Replay
+     * @throws NumberFormatException If there is an issue parsing any numbers in the replay
+     */
+    static Replay decode(Scanner replayFileReader) {
+        int boardSize = Integer.parseInt(replayFileReader.nextLine().trim());
+        long worldSeed = Long.parseLong(replayFileReader.nextLine().trim());
+
+        // Split and decode the red and blue player actions lists
+        String[] redActionEncoding = replayFileReader.nextLine().trim().split(",");
+        String[] blueActionEncoding = replayFileReader.nextLine().trim().split(",");
+        BitSet redTimedOutTurns = new BitSet();
+        BitSet blueTimedOutTurns = new BitSet();
+        List<TurnAction> redActionList = decodeActionList(redActionEncoding, redTimedOutTurns);
+        List<TurnAction> blueActionList = decodeActionList(blueActionEncoding, blueTimedOutTurns);
+
+        int lastRedAction = Integer.parseInt(redActionEncoding[redActionEncoding.length - 1]);
+        int lastBlueAction = Integer.parseInt(blueActionEncoding[blueActionEncoding.length - 1]);
+        boolean redThrewException = (lastRedAction < 0);
+        boolean blueThrewException = (lastBlueAction < 0);
+        Replay replay = new Replay(boardSize, worldSeed, redActionList, blueActionList, redThrewException,
+                                   blueThrewException);
+        replay.setTimedOutTurns(redTimedOutTurns, blueTimedOutTurns);
+        if (replayFileReader.hasNextLine()) {
+            String worldGeneratorLine = replayFileReader.nextLine().trim();
+            if (!worldGeneratorLine.isEmpty()) {
+                replay.setWorldGeneratorVersion(Integer.parseInt(worldGeneratorLine));
+            }
+        }
+        return replay;
+    }
+
+    /**
+     * @param replay The Replay to encode
+     * @return The Replay in the text format
+     */
+    static String encodeToString(Replay replay) {
+        String encodedRedActions = encodeActionList(replay.getRedPlayerActions(), replay.getRedTimedOutTurns(),
+                                                     replay.redThrewException());
+        String encodedBlueActions = encodeActionList(replay.getBluePlayerActions(), replay.getBlueTimedOutTurns(),
+                                                      replay.blueThrewException());
+        String encodedReplay = String.join("\r\n", String.valueOf(replay.getBoardSize()),
+                                           String.valueOf(replay.getWorldSeed()), encodedRedActions,
+                                           encodedBlueActions);
+        if (replay.getWorldGeneratorVersion() != WorldGenerator.LEGACY_VERSION) {
+            encodedReplay += "\r\n" + replay.getWorldGeneratorVersion();
+        }
+        return encodedReplay;
+    }
+
+    private static String encodeActionList(List<TurnAction> actionList, BitSet timedOutTurns,
+                                           boolean exceptionThrown) {
+        StringBuilder actionListEncoder = new StringBuilder();
+        for (int turn = 0; turn < actionList.size(); turn++) {
+            TurnAction action = actionList.get(turn);
+            if (timedOutTurns.get(turn)) {
+                actionListEncoder.append(TIMEOUT_INDEX);
+            } else if (action == null) {
+                // There is no turn action at the length of the list, it will be treated as no action
+                actionListEncoder.append(allTurnActions.length);
+            } else {
+                actionListEncoder.append(action.ordinal());
+            }
+            actionListEncoder.append(',');
+        }
+
+        if (exceptionThrown) {
+            // A negative number indicates an exception
+            actionListEncoder.append("-1");
+        } else if (actionListEncoder.length() > 0) {
+            // Remove trailing comma
+            actionListEncoder.deleteCharAt(actionListEncoder.length() - 1);
+        }
+        return actionListEncoder.toString();
+    }
+
+    private static List<TurnAction> decodeActionList(String[] encodedList, BitSet timedOutTurns) {
+        List<TurnAction> turnActions = new ArrayList<>(encodedList.length);
+
+        for (String encodedAction : encodedList) {
+            int actionIndex = Integer.parseInt(encodedAction);
+            if (actionIndex < 0) {
+                // Exception thrown on this turn
+                break;
+            }
+
+            if (actionIndex == TIMEOUT_INDEX) {
+                timedOutTurns.set(turnActions.size());
+            }
+            if (actionIndex >= allTurnActions.length) {
+                // Player did nothing on this turn
+                turnActions.add(null);
+            } else {
+                turnActions.add(allTurnActions[actionIndex]);
+            }
+        }
+
+        return turnActions;
+    }
+}
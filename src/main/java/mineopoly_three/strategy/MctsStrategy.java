@@ -0,0 +1,444 @@
+package mineopoly_three.strategy;
+
+import mineopoly_three.action.TurnAction;
+import mineopoly_three.game.Economy;
+import mineopoly_three.game.GameState;
+import mineopoly_three.item.InventoryItem;
+import mineopoly_three.item.ItemType;
+import mineopoly_three.tiles.TileType;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * A strategy that picks every action with a Monte Carlo tree search, simulating games forward with GameState.
+ *
+ * The search is root-parallel: every worker Thread grows its own tree from the current turn, and the action the
+ *  trees visited most in total is played. Trees are open-loop, each node stands for a sequence of this player's
+ *  actions rather than one exact state, since the other player's actions and anything this strategy can't see
+ *  are simulated differently every time. That lets each worker keep the subtree of the action that was played
+ *  and carry on searching from it next turn. Past the end of a tree, both players act as RolloutPolicy says.
+ *
+ * It is meant as a CPU-heavy opponent for load-testing the engine and as a baseline for other strategies to beat.
+ */
+public class MctsStrategy implements MinePlayerStrategy {
+    private static final TurnAction[] allTurnActions = TurnAction.values();
+    private static final ItemType[] allItemTypes = ItemType.values();
+    private static final int NUM_ACTIONS = allTurnActions.length;
+    // How many turns a simulation goes past the end of the tree before the game is scored
+    private static final int ROLLOUT_TURNS = 40;
+    private static final int MAX_TREE_DEPTH = 32;
+    private static final double EXPLORATION = 1.0;
+    // How much less items in the inventory are worth for every move they are from a market
+    private static final double INVENTORY_DISCOUNT_PER_MOVE = 0.01;
+
+    private final long turnTimeBudgetMillis;
+    private final int parallelism;
+    private int maxIterationsPerTurn;
+    private ForkJoinPool workerPool;
+    private Worker[] workers;
+
+    private int boardSize;
+    private int maxInventorySize;
+    private int maxCharge;
+    private int winningScore;
+    private boolean isRedPlayer;
+    private int[] redMarketIndices;
+    private int[] blueMarketIndices;
+    private int[] rechargeIndices;
+    // Only used to measure distances to markets, which every worker can do at the same time
+    private RolloutPolicy marketDistances;
+    private Random random;
+
+    // What this strategy knows about its own player that the board view doesn't show
+    private int turnNumber;
+    private int score;
+    private final int[] inventoryCounts = new int[allItemTypes.length];
+    private TurnAction lastAction;
+    private Point lastActionLocation;
+    private boolean lastActionTileHadAutominer;
+
+    // Set every turn before the workers start and only read by them
+    private GameState rootState;
+    private double rootValue;
+    private double rewardScale;
+    private long deadlineNanos;
+    private int[] resourceIndices = new int[0];
+    private int numResources;
+
+    /**
+     * Creates a strategy that searches for 50 milliseconds a turn with one worker for every available processor
+     */
+    public MctsStrategy() {
+        this(50, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param turnTimeBudgetMillis How long to search every turn, or 0 to only stop at the iteration limit
+     * @param parallelism The number of worker Threads, each of which grows its own tree
+     */
+    public MctsStrategy(long turnTimeBudgetMillis, int parallelism) {
+        if (turnTimeBudgetMillis < 0) {
+            throw new IllegalArgumentException("The turn time budget can't be negative");
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("A search needs at least one worker Thread");
+        }
+        this.turnTimeBudgetMillis = turnTimeBudgetMillis;
+        this.parallelism = parallelism;
+        this.maxIterationsPerTurn = 0;
+    }
+
+    /**
+     * Stops every worker after a number of simulations each turn. With no time budget, the search then does the same
+     *  amount of work every turn on any machine, so games against deterministic strategies can be reproduced
+     *
+     * @param maxIterationsPerTurn The most simulations each worker runs every turn, or 0 for no limit
+     */
+    public void setMaxIterationsPerTurn(int maxIterationsPerTurn) {
+        if (maxIterationsPerTurn < 0) {
+            throw new IllegalArgumentException("The iteration limit can't be negative");
+        }
+        this.maxIterationsPerTurn = maxIterationsPerTurn;
+    }
+
+    @Override
+    public void initialize(int boardSize, int maxInventorySize, int maxCharge, int winningScore,
+                           PlayerBoardView startingBoard, Point startTileLocation, boolean isRedPlayer, Random random) {
+        if (turnTimeBudgetMillis == 0 && maxIterationsPerTurn == 0) {
+            throw new IllegalStateException("A search with no time budget needs an iteration limit");
+        }
+        this.boardSize = boardSize;
+        this.maxInventorySize = maxInventorySize;
+        this.maxCharge = maxCharge;
+        this.winningScore = winningScore;
+        this.isRedPlayer = isRedPlayer;
+        this.random = random;
+        this.redMarketIndices = findTiles(startingBoard, TileType.RED_MARKET);
+        this.blueMarketIndices = findTiles(startingBoard, TileType.BLUE_MARKET);
+        this.rechargeIndices = findTiles(startingBoard, TileType.RECHARGE);
+        this.marketDistances = new RolloutPolicy(boardSize, maxInventorySize, maxCharge, redMarketIndices,
+                                                 blueMarketIndices, rechargeIndices);
+
+        this.turnNumber = 0;
+        this.score = 0;
+        Arrays.fill(inventoryCounts, 0);
+        this.lastAction = null;
+
+        // A sale is worth at most a full inventory of the most valuable resource
+        int maxPrice = 0;
+        for (ItemType itemType : allItemTypes) {
+            maxPrice = Math.max(maxPrice, itemType.getMaxPrice());
+        }
+        this.rewardScale = (double) maxInventorySize * maxPrice;
+
+        if (workerPool == null) {
+            workerPool = new ForkJoinPool(parallelism);
+        }
+        workers = new Worker[parallelism];
+        for (int i = 0; i < parallelism; i++) {
+            workers[i] = new Worker(random.nextLong());
+        }
+    }
+
+    @Override
+    public TurnAction getTurnAction(PlayerBoardView boardView, Economy economy, int currentCharge, boolean isRedTurn) {
+        // Red goes first on even turns, which also keeps the count right for games resumed from a checkpoint
+        if ((turnNumber % 2 == 0) != isRedTurn) {
+            turnNumber++;
+        }
+        trackPlacedAutominer(boardView);
+
+        // When this player goes second, the other player has already acted this turn and gets to act again in the
+        //  first simulated turn, which only makes the search a little more careful
+        rootState = GameState.fromView(boardView, economy, isRedPlayer, turnNumber, winningScore);
+        rootState.setEnergy(isRedPlayer, currentCharge);
+        rootState.setScore(isRedPlayer, score);
+        for (ItemType itemType : allItemTypes) {
+            rootState.setInventoryCount(isRedPlayer, itemType, inventoryCounts[itemType.ordinal()]);
+        }
+        // Neither player's random number generator can be seen, so every turn guesses them again
+        rootState.setRandomState(true, random.nextLong());
+        rootState.setRandomState(false, random.nextLong());
+        findResources(rootState);
+        rootValue = evaluate(rootState);
+
+        TurnAction chosenAction = rootState.isGameOver() ? null : search();
+        Point yourLocation = boardView.getYourLocation();
+        lastAction = chosenAction;
+        lastActionLocation = new Point(yourLocation.x, yourLocation.y);
+        lastActionTileHadAutominer = boardView.hasAutominerAtLocation(yourLocation.x, yourLocation.y);
+        turnNumber++;
+        return chosenAction;
+    }
+
+    private TurnAction search() {
+        deadlineNanos = (turnTimeBudgetMillis > 0) ? System.nanoTime() + turnTimeBudgetMillis * 1_000_000
+                                                   : Long.MAX_VALUE;
+        List<Callable<Void>> searches = new ArrayList<>(workers.length);
+        for (Worker worker : workers) {
+            searches.add(worker);
+        }
+        try {
+            for (Future<Void> searchResult : workerPool.invokeAll(searches)) {
+                searchResult.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while searching for a turn action", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A search worker failed", e.getCause());
+        }
+
+        // Every tree votes with how often it tried each action
+        long[] totalVisits = new long[NUM_ACTIONS];
+        for (Worker worker : workers) {
+            for (int actionIndex = 0; actionIndex < NUM_ACTIONS; actionIndex++) {
+                Node child = worker.root.children[actionIndex];
+                totalVisits[actionIndex] += (child == null) ? 0 : child.visits;
+            }
+        }
+        int bestActionIndex = 0;
+        for (int actionIndex = 1; actionIndex < NUM_ACTIONS; actionIndex++) {
+            if (totalVisits[actionIndex] > totalVisits[bestActionIndex]) {
+                bestActionIndex = actionIndex;
+            }
+        }
+
+        for (Worker worker : workers) {
+            worker.keepSubtree(bestActionIndex);
+        }
+        return allTurnActions[bestActionIndex];
+    }
+
+    /**
+     * The engine doesn't say when an autominer leaves the inventory, so a placed autominer is noticed by it showing
+     *  up on the tile this strategy was standing on
+     */
+    private void trackPlacedAutominer(PlayerBoardView boardView) {
+        int autominerIndex = ItemType.AUTOMINER.ordinal();
+        if (lastAction == TurnAction.PLACE_AUTOMINER && inventoryCounts[autominerIndex] > 0
+                && !lastActionTileHadAutominer
+                && boardView.hasAutominerAtLocation(lastActionLocation.x, lastActionLocation.y)) {
+            inventoryCounts[autominerIndex]--;
+        }
+    }
+
+    private void findResources(GameState state) {
+        if (resourceIndices.length < boardSize * boardSize) {
+            resourceIndices = new int[boardSize * boardSize];
+        }
+        numResources = 0;
+        for (int y = 0; y < boardSize; y++) {
+            for (int x = 0; x < boardSize; x++) {
+                if (RolloutPolicy.isResourceTile(state.getTileType(x, y))
+                        || RolloutPolicy.hasResourceItem(state, x, y)) {
+                    resourceIndices[numResources++] = x + y * boardSize;
+                }
+            }
+        }
+    }
+
+    private int[] findTiles(PlayerBoardView boardView, TileType tileType) {
+        int[] tileIndices = new int[boardSize * boardSize];
+        int numTiles = 0;
+        for (int y = 0; y < boardSize; y++) {
+            for (int x = 0; x < boardSize; x++) {
+                if (boardView.getTileTypeAtLocation(x, y) == tileType) {
+                    tileIndices[numTiles++] = x + y * boardSize;
+                }
+            }
+        }
+        return Arrays.copyOf(tileIndices, numTiles);
+    }
+
+    /**
+     * Scores a state from this player's point of view: its score plus what its inventory would sell for, minus the
+     *  same for the other player. Items far from a market are worth a little less, since they might not get there
+     */
+    private double evaluate(GameState state) {
+        return getPlayerValue(state, isRedPlayer) - getPlayerValue(state, !isRedPlayer);
+    }
+
+    private double getPlayerValue(GameState state, boolean isRed) {
+        int inventoryValue = 0;
+        for (ItemType itemType : allItemTypes) {
+            if (itemType.isResource()) {
+                inventoryValue += state.getInventoryCount(isRed, itemType) * state.getPrice(itemType);
+            }
+        }
+        int x = state.getPlayerX(isRed);
+        int y = state.getPlayerY(isRed);
+        int marketDistance = marketDistances.getDistanceToMarket(isRed, x, y);
+        double discount = Math.max(0, 1 - INVENTORY_DISCOUNT_PER_MOVE * marketDistance);
+        return state.getScore(isRed) + inventoryValue * discount;
+    }
+
+    @Override
+    public void onReceiveItem(InventoryItem itemReceived) {
+        inventoryCounts[itemReceived.getItemType().ordinal()]++;
+    }
+
+    @Override
+    public void onSoldInventory(int totalSellPrice) {
+        score += totalSellPrice;
+        for (ItemType itemType : allItemTypes) {
+            if (itemType.isResource()) {
+                inventoryCounts[itemType.ordinal()] = 0;
+            }
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "MctsStrategy";
+    }
+
+    @Override
+    public void endRound(int pointsScored, int opponentPointsScored) {
+        // The worker Threads would otherwise keep running after the last game
+        if (workerPool != null) {
+            workerPool.shutdown();
+            workerPool = null;
+        }
+        workers = null;
+    }
+
+    /**
+     * One node of an open-loop search tree, standing for a sequence of this player's actions from the root
+     */
+    private static class Node {
+        private final Node[] children = new Node[NUM_ACTIONS];
+        private int visits;
+        private double totalReward;
+    }
+
+    /**
+     * Grows one search tree. Everything a worker changes while searching is its own, so workers never wait on each
+     *  other until the turn's search is over
+     */
+    private class Worker implements Callable<Void> {
+        private final SplittableRandom workerRandom;
+        private final Node[] path = new Node[MAX_TREE_DEPTH + 1];
+        private Node root;
+        private GameState scratchState;
+        private RolloutPolicy policy;
+
+        private Worker(long seed) {
+            this.workerRandom = new SplittableRandom(seed);
+            this.root = new Node();
+        }
+
+        @Override
+        public Void call() {
+            if (scratchState == null) {
+                scratchState = rootState.fork();
+                policy = new RolloutPolicy(boardSize, maxInventorySize, maxCharge, redMarketIndices,
+                                           blueMarketIndices, rechargeIndices);
+            }
+            policy.setResources(resourceIndices, numResources);
+
+            for (int iteration = 0; maxIterationsPerTurn == 0 || iteration < maxIterationsPerTurn; iteration++) {
+                if (System.nanoTime() >= deadlineNanos) {
+                    break;
+                }
+                runIteration();
+            }
+            return null;
+        }
+
+        private void runIteration() {
+            scratchState.copyFrom(rootState);
+            policy.reset();
+
+            // Walk down the tree until reaching an action that hasn't been tried yet from its node
+            Node node = root;
+            int pathLength = 0;
+            path[pathLength++] = root;
+            while (!scratchState.isGameOver() && pathLength <= MAX_TREE_DEPTH) {
+                int actionIndex = selectAction(node);
+                Node child = node.children[actionIndex];
+                boolean expanded = (child == null);
+                if (expanded) {
+                    child = new Node();
+                    node.children[actionIndex] = child;
+                }
+                step(allTurnActions[actionIndex]);
+                path[pathLength++] = child;
+                node = child;
+                if (expanded) {
+                    break;
+                }
+            }
+
+            for (int turn = 0; turn < ROLLOUT_TURNS && !scratchState.isGameOver(); turn++) {
+                step(policy.chooseAction(scratchState, isRedPlayer, workerRandom));
+            }
+
+            double reward = (evaluate(scratchState) - rootValue) / rewardScale;
+            for (int i = 0; i < pathLength; i++) {
+                path[i].visits++;
+                path[i].totalReward += reward;
+            }
+        }
+
+        private void step(TurnAction action) {
+            TurnAction otherAction = policy.chooseAction(scratchState, !isRedPlayer, workerRandom);
+            if (isRedPlayer) {
+                scratchState.step(action, otherAction);
+            } else {
+                scratchState.step(otherAction, action);
+            }
+        }
+
+        /**
+         * Picks an untried action at random if there is one, otherwise the action with the best upper confidence bound
+         */
+        private int selectAction(Node node) {
+            int numUntried = 0;
+            for (Node child : node.children) {
+                if (child == null) {
+                    numUntried++;
+                }
+            }
+            if (numUntried > 0) {
+                int untriedNumber = workerRandom.nextInt(numUntried);
+                for (int actionIndex = 0; actionIndex < NUM_ACTIONS; actionIndex++) {
+                    if (node.children[actionIndex] == null && untriedNumber-- == 0) {
+                        return actionIndex;
+                    }
+                }
+            }
+
+            double logVisits = Math.log(Math.max(node.visits, 1));
+            int bestActionIndex = 0;
+            double bestBound = Double.NEGATIVE_INFINITY;
+            for (int actionIndex = 0; actionIndex < NUM_ACTIONS; actionIndex++) {
+                Node child = node.children[actionIndex];
+                double bound = child.totalReward / child.visits
+                        + EXPLORATION * Math.sqrt(logVisits / child.visits);
+                if (bound > bestBound) {
+                    bestBound = bound;
+                    bestActionIndex = actionIndex;
+                }
+            }
+            return bestActionIndex;
+        }
+
+        /**
+         * Makes the subtree of the action that was played the root of the next turn's search
+         */
+        private void keepSubtree(int playedActionIndex) {
+            Node playedChild = root.children[playedActionIndex];
+            root = (playedChild == null) ? new Node() : playedChild;
+        }
+    }
+}
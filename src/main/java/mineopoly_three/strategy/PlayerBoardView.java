@@ -1,6 +1,8 @@
 package mineopoly_three.strategy;
 
+import mineopoly_three.game.PackedBoard;
 import mineopoly_three.item.InventoryItem;
+import mineopoly_three.item.ItemType;
 import mineopoly_three.tiles.TileType;
 
 import java.awt.*;
@@ -9,7 +11,7 @@ import java.util.List;
 
 @SuppressWarnings("unused")
 public class PlayerBoardView {
-    private TileType[][] tiles;
+    private PackedBoard board;
     private Map<Point, List<InventoryItem>> itemsOnGround;
     private Point thisPlayerLocation;
     private Point otherPlayerLocation;
@@ -17,13 +19,26 @@ public class PlayerBoardView {
 
     public PlayerBoardView(TileType[][] tiles, Map<Point, List<InventoryItem>> itemsOnGround,
                            Point thisPlayerLocation, Point otherPlayerLocation, int otherPlayerScore) {
-        this.tiles = tiles;
+        this(PackedBoard.fromTileTypes(tiles, itemsOnGround), itemsOnGround, thisPlayerLocation,
+             otherPlayerLocation, otherPlayerScore);
+    }
+
+    public PlayerBoardView(PackedBoard board, Map<Point, List<InventoryItem>> itemsOnGround,
+                           Point thisPlayerLocation, Point otherPlayerLocation, int otherPlayerScore) {
+        this.board = board;
         this.itemsOnGround = itemsOnGround;
         this.thisPlayerLocation = thisPlayerLocation;
         this.otherPlayerLocation = otherPlayerLocation;
         this.otherPlayerScore = otherPlayerScore;
     }
 
+    /**
+     * @return The length and width of the square game board
+     */
+    public int getBoardSize() {
+        return board.getSize();
+    }
+
     /**
      * Gets the type of tile at the specified location
      *
@@ -42,21 +57,83 @@ public class PlayerBoardView {
      * @return The type of tile at the (x, y) Cartesian coordinates, or null if the coordinates are outside the board
      */
     public TileType getTileTypeAtLocation(int x, int y) {
-        // The index on the board, and the Cartesian coordinates are mirror opposites in the y direction
-        int xIndex = x;
-        int yIndex = (tiles.length - 1) - y;
+        return board.getTileType(x, y);
+    }
 
-        boolean xIndexInBounds = (xIndex >= 0 && xIndex < tiles.length);
-        boolean yIndexInBounds = (yIndex >= 0 && yIndex < tiles.length);
-        if (xIndexInBounds && yIndexInBounds) {
-            return tiles[yIndex][xIndex];
-        }
+    /**
+     * Gets how many times the resource at the specified (x, y) coordinates has been mined
+     *
+     * @param x The x coordinate of the tile
+     * @param y The y coordinate of the tile
+     * @return The number of times the tile has been mined, or 0 if it is not a resource tile or outside the board
+     */
+    public int getMiningProgressAtLocation(int x, int y) {
+        return board.getMiningProgress(x, y);
+    }
 
-        return null;
+    /**
+     * Counts the items of one type on the ground at the specified (x, y) coordinates. Much cheaper than looking
+     *  through getItemsOnGround()
+     *
+     * @param x The x coordinate of the tile
+     * @param y The y coordinate of the tile
+     * @param itemType The type of item to count
+     * @return The number of items of that type on the tile, or 0 if the coordinates are outside the board
+     */
+    public int getItemCountAtLocation(int x, int y, ItemType itemType) {
+        return board.getItemCount(x, y, itemType);
+    }
+
+    /**
+     * @param x The x coordinate of the tile
+     * @param y The y coordinate of the tile
+     * @return The total number of resource items on the ground at the tile
+     */
+    public int getResourceCountAtLocation(int x, int y) {
+        return board.getResourceCount(x, y);
+    }
+
+    /**
+     * @param x The x coordinate of the tile
+     * @param y The y coordinate of the tile
+     * @return True if there is an autominer on the ground at the tile
+     */
+    public boolean hasAutominerAtLocation(int x, int y) {
+        return board.hasAutominer(x, y);
+    }
+
+    /**
+     * Counts how many times any tile on the board has changed type so far this game. Anything a strategy computes
+     *  from tile types only needs to be updated when this changes, and only for the tiles that changed
+     *
+     * @return The number of tile type changes since the start of the game
+     */
+    public int getTileChangeCount() {
+        return board.getTileChangeCount();
+    }
+
+    /**
+     * Gets the location of a tile that changed type
+     *
+     * @param changeNumber Which change to look up, from 0 up to getTileChangeCount() - 1
+     * @return The location of the tile that changed type. It may have changed again in a later change
+     */
+    public Point getChangedTileLocation(int changeNumber) {
+        int tileIndex = board.getChangedTileIndex(changeNumber);
+        return new Point(tileIndex % board.getSize(), tileIndex / board.getSize());
+    }
+
+    /**
+     * @param other Another view
+     * @return True if both views are of the same game board, so tile changes in one are tile changes in the other
+     */
+    public boolean sharesTilesWith(PlayerBoardView other) {
+        return other != null && board.sharesTilesWith(other.board);
     }
 
     /**
-     * Gets a map from every Point with an item on the ground to the InventoryItem on the ground
+     * Gets a map from every Point with an item on the ground to the InventoryItem on the ground.
+     * The map is a snapshot of this turn: it will not change as the game goes on, and it cannot be modified
      *
      * @return The mapping for all locations with InventoryItems to those items
      */
@@ -21,6 +21,7 @@ public class PlayerStrategy implements MinePlayerStrategy {
     private int currentInventorySize = 0; // current size of inventory
     private int currentScore = 0; // current score of game
     private int mineCount = 0; // number of times mined
+    private Tool tool; // helper kept for the whole round so it can index the board once
 
     public static int getCurrentBoardSize() {
         return currentBoardSize;
@@ -63,7 +64,7 @@ public class PlayerStrategy implements MinePlayerStrategy {
         this.maxInventorySize = maxInventorySize;
         this.maxCharge = maxCharge;
 
-        Tool tool = new Tool(); // new instance of tool
+        tool = new Tool(); // new instance of tool for this round
         // first destination is diamond for it will always be the most expensive at the beginning of round
         destination = tool.nearestTile(TileType.RESOURCE_DIAMOND, startingBoard, startTileLocation);
     }
@@ -85,7 +86,9 @@ public class PlayerStrategy implements MinePlayerStrategy {
     public TurnAction getTurnAction(PlayerBoardView boardView, Economy economy, int currentCharge,
             boolean isRedTurn) {
         // current game board
-        Tool tool = new Tool(); // an instance of my Tool helper class
+        if (tool == null) {
+            tool = new Tool(); // an instance of my Tool helper class
+        }
         currentLocation = boardView.getYourLocation(); // sets current location to player location on board
         TileType mostExpensiveTile = tool.itemToTile(tool.mostExpensiveResource(economy, boardView)); // updated most expensive tile type
 
@@ -0,0 +1,215 @@
+package mineopoly_three.strategy;
+
+import mineopoly_three.action.TurnAction;
+import mineopoly_three.game.GameState;
+import mineopoly_three.item.ItemType;
+import mineopoly_three.tiles.TileType;
+
+import java.util.SplittableRandom;
+
+/**
+ * The quick, greedy way MctsStrategy assumes both players act when it simulates a game past the end of its search
+ *  tree: pick up and mine whatever is underfoot, head for a resource, head back to a market once the inventory is
+ *  full, and go recharge before running out of energy. The policy remembers which resource each player is heading
+ *  for, so each search worker needs a policy of its own.
+ */
+class RolloutPolicy {
+    private static final ItemType[] allItemTypes = ItemType.values();
+    // How many resources are looked at when picking a new one to head for
+    private static final int NUM_TARGET_CANDIDATES = 4;
+    // How many more moves of energy than the distance to a recharge tile a player keeps before heading there
+    private static final int RECHARGE_MARGIN = 2;
+
+    private final int boardSize;
+    private final int maxInventorySize;
+    private final int maxCharge;
+    private final int[] redMarketIndices;
+    private final int[] blueMarketIndices;
+    private final int[] rechargeIndices;
+    private int[] resourceIndices;
+    private int numResources;
+    // The resource tile each player is heading for, indexed by 0 for red and 1 for blue, -1 for none
+    private final int[] targetIndices;
+
+    /**
+     * @param boardSize The size of the board
+     * @param maxInventorySize The most items a player can carry
+     * @param maxCharge The most energy a player can have
+     * @param redMarketIndices The tile indices (x + y * boardSize) of the red player's markets
+     * @param blueMarketIndices The tile indices of the blue player's markets
+     * @param rechargeIndices The tile indices of every recharge tile
+     */
+    RolloutPolicy(int boardSize, int maxInventorySize, int maxCharge, int[] redMarketIndices,
+                  int[] blueMarketIndices, int[] rechargeIndices) {
+        this.boardSize = boardSize;
+        this.maxInventorySize = maxInventorySize;
+        this.maxCharge = maxCharge;
+        this.redMarketIndices = redMarketIndices;
+        this.blueMarketIndices = blueMarketIndices;
+        this.rechargeIndices = rechargeIndices;
+        this.resourceIndices = new int[0];
+        this.numResources = 0;
+        this.targetIndices = new int[] {-1, -1};
+    }
+
+    /**
+     * Sets the resources players can head for, which are only read and so can be shared by every policy
+     *
+     * @param resourceIndices The tile indices of tiles that have or had a resource at the start of the turn
+     * @param numResources How many of the indices are used
+     */
+    void setResources(int[] resourceIndices, int numResources) {
+        this.resourceIndices = resourceIndices;
+        this.numResources = numResources;
+    }
+
+    /**
+     * Forgets the resources players were heading for, called at the start of every simulation
+     */
+    void reset() {
+        targetIndices[0] = -1;
+        targetIndices[1] = -1;
+    }
+
+    /**
+     * @param state The state of the simulated game
+     * @param isRedPlayer True to choose an action for the red player
+     * @param random The random number generator of the search worker
+     * @return The action the player takes, null to wait
+     */
+    TurnAction chooseAction(GameState state, boolean isRedPlayer, SplittableRandom random) {
+        int x = state.getPlayerX(isRedPlayer);
+        int y = state.getPlayerY(isRedPlayer);
+        int inventorySize = state.getInventorySize(isRedPlayer);
+        boolean inventoryFull = (inventorySize >= maxInventorySize);
+        TileType tileType = state.getTileType(x, y);
+
+        if (!inventoryFull) {
+            if (hasResourceItem(state, x, y)) {
+                return TurnAction.PICK_UP_RESOURCE;
+            }
+            if (isResourceTile(tileType)) {
+                return TurnAction.MINE;
+            }
+        }
+
+        int energy = state.getEnergy(isRedPlayer);
+        if (tileType == TileType.RECHARGE && energy < maxCharge) {
+            return null;
+        }
+
+        int destination = getNearest(rechargeIndices, x, y);
+        if (destination < 0 || energy > getDistance(destination, x, y) + RECHARGE_MARGIN) {
+            int[] marketIndices = isRedPlayer ? redMarketIndices : blueMarketIndices;
+            destination = inventoryFull ? -1 : getTarget(state, isRedPlayer, x, y, random);
+            if (destination < 0 && inventorySize > 0) {
+                destination = getNearest(marketIndices, x, y);
+            }
+        }
+        if (destination < 0) {
+            return randomMove(random);
+        }
+        return moveToward(x, y, destination, random);
+    }
+
+    private int getTarget(GameState state, boolean isRedPlayer, int x, int y, SplittableRandom random) {
+        int player = isRedPlayer ? 0 : 1;
+        int target = targetIndices[player];
+        if (target >= 0 && isStillResource(state, target)) {
+            return target;
+        }
+
+        target = -1;
+        int targetDistance = Integer.MAX_VALUE;
+        for (int i = 0; i < NUM_TARGET_CANDIDATES && numResources > 0; i++) {
+            int candidate = resourceIndices[random.nextInt(numResources)];
+            int candidateDistance = getDistance(candidate, x, y);
+            if (candidateDistance < targetDistance && isStillResource(state, candidate)) {
+                target = candidate;
+                targetDistance = candidateDistance;
+            }
+        }
+        targetIndices[player] = target;
+        return target;
+    }
+
+    private boolean isStillResource(GameState state, int tileIndex) {
+        int x = tileIndex % boardSize;
+        int y = tileIndex / boardSize;
+        return isResourceTile(state.getTileType(x, y)) || hasResourceItem(state, x, y);
+    }
+
+    private TurnAction moveToward(int x, int y, int destination, SplittableRandom random) {
+        int xChange = (destination % boardSize) - x;
+        int yChange = (destination / boardSize) - y;
+        if (xChange == 0 && yChange == 0) {
+            return null;
+        }
+        // Either direction that gets closer is as good as the other
+        boolean moveHorizontally = (yChange == 0) || (xChange != 0 && random.nextBoolean());
+        if (moveHorizontally) {
+            return (xChange > 0) ? TurnAction.MOVE_RIGHT : TurnAction.MOVE_LEFT;
+        }
+        return (yChange > 0) ? TurnAction.MOVE_UP : TurnAction.MOVE_DOWN;
+    }
+
+    private static TurnAction randomMove(SplittableRandom random) {
+        switch (random.nextInt(4)) {
+            case 0:
+                return TurnAction.MOVE_UP;
+            case 1:
+                return TurnAction.MOVE_DOWN;
+            case 2:
+                return TurnAction.MOVE_RIGHT;
+            default:
+                return TurnAction.MOVE_LEFT;
+        }
+    }
+
+    private int getNearest(int[] tileIndices, int x, int y) {
+        int nearest = -1;
+        int nearestDistance = Integer.MAX_VALUE;
+        for (int tileIndex : tileIndices) {
+            int distance = getDistance(tileIndex, x, y);
+            if (distance < nearestDistance) {
+                nearest = tileIndex;
+                nearestDistance = distance;
+            }
+        }
+        return nearest;
+    }
+
+    int getDistance(int tileIndex, int x, int y) {
+        return Math.abs((tileIndex % boardSize) - x) + Math.abs((tileIndex / boardSize) - y);
+    }
+
+    /**
+     * @param isRedPlayer True for the red player's markets
+     * @param x The x coordinate to measure from
+     * @param y The y coordinate to measure from
+     * @return The number of moves from (x, y) to the player's nearest market
+     */
+    int getDistanceToMarket(boolean isRedPlayer, int x, int y) {
+        int[] marketIndices = isRedPlayer ? redMarketIndices : blueMarketIndices;
+        int nearest = getNearest(marketIndices, x, y);
+        return (nearest < 0) ? 0 : getDistance(nearest, x, y);
+    }
+
+    static boolean hasResourceItem(GameState state, int x, int y) {
+        for (ItemType itemType : allItemTypes) {
+            if (itemType.isResource() && state.getItemCount(x, y, itemType) > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static boolean isResourceTile(TileType tileType) {
+        for (ItemType itemType : allItemTypes) {
+            if (itemType.getResourceTileType() == tileType && tileType != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,180 @@
+package mineopoly_three.strategy;
+
+import mineopoly_three.tiles.TileType;
+
+import java.awt.Point;
+import java.util.BitSet;
+
+/**
+ * Finds the nearest tile of a given TileType without scanning the whole board. Every column of the board keeps
+ *  one BitSet of rows per TileType, so the nearest tile in a column is two BitSet lookups away, and a search only
+ *  visits columns that are no further away than the nearest tile found so far.
+ *
+ * The index is built from one PlayerBoardView and then kept in sync with later views of the same game through
+ *  the board's tile change log, so each turn only looks at the tiles that changed since the last one.
+ */
+public class TileTypeIndex {
+    private static final TileType[] allTileTypes = TileType.values();
+
+    private PlayerBoardView lastSyncedView;
+    private int numSyncedChanges;
+    private int boardSize;
+    // Indexed by x + y * boardSize, the type each tile had when last synced
+    private TileType[] tileTypes;
+    // Indexed by [TileType ordinal][x], the rows of that column with a tile of that type
+    private BitSet[][] columns;
+    private int[] tileTypeCounts;
+
+    public TileTypeIndex(PlayerBoardView board) {
+        rebuild(board);
+    }
+
+    /**
+     * Brings the index up to date with a newer view of the board. Only tiles that changed type since the last view
+     *  are looked at, unless the view is of a different board, which rebuilds the index
+     *
+     * @param board The latest view of the board
+     */
+    public void sync(PlayerBoardView board) {
+        if (board == lastSyncedView) {
+            return;
+        }
+        if (!board.sharesTilesWith(lastSyncedView) || board.getTileChangeCount() < numSyncedChanges) {
+            rebuild(board);
+            return;
+        }
+
+        int numChanges = board.getTileChangeCount();
+        for (int changeNumber = numSyncedChanges; changeNumber < numChanges; changeNumber++) {
+            Point changedTile = board.getChangedTileLocation(changeNumber);
+            setTileType(changedTile.x, changedTile.y, board.getTileTypeAtLocation(changedTile));
+        }
+        numSyncedChanges = numChanges;
+        lastSyncedView = board;
+    }
+
+    /**
+     * Finds the tile of a type with the smallest Manhattan distance from a location. Ties go to the tile with the
+     *  lowest x, then the lowest y
+     *
+     * @param tileType The type of tile to look for
+     * @param location The location to measure distances from
+     * @return The location of the nearest tile of that type, or null if there are none
+     */
+    public Point nearest(TileType tileType, Point location) {
+        if (tileTypeCounts[tileType.ordinal()] == 0) {
+            return null;
+        }
+
+        BitSet[] typeColumns = columns[tileType.ordinal()];
+        int bestDistance = Integer.MAX_VALUE;
+        int bestX = -1;
+        int bestY = -1;
+        // Columns further away than the best tile found so far can't hold anything nearer
+        for (int xDistance = 0; xDistance <= bestDistance; xDistance++) {
+            int leftX = location.x - xDistance;
+            int rightX = location.x + xDistance;
+            if (leftX < 0 && rightX >= boardSize) {
+                break;
+            }
+
+            for (int side = 0; side < 2; side++) {
+                if (side == 1 && xDistance == 0) {
+                    // Both sides are the same column
+                    break;
+                }
+                int x = (side == 0) ? leftX : rightX;
+                if (x < 0 || x >= boardSize || typeColumns[x].isEmpty()) {
+                    continue;
+                }
+                int y = nearestRow(typeColumns[x], location.y);
+                int distance = xDistance + Math.abs(y - location.y);
+                boolean isNearer = distance < bestDistance;
+                boolean winsTie = distance == bestDistance && (x < bestX || (x == bestX && y < bestY));
+                if (isNearer || winsTie) {
+                    bestDistance = distance;
+                    bestX = x;
+                    bestY = y;
+                }
+            }
+        }
+        return new Point(bestX, bestY);
+    }
+
+    /**
+     * @param tileType The type of tile to look for
+     * @return The tile of that type with the highest x, then the highest y, or null if there are none
+     */
+    public Point last(TileType tileType) {
+        if (tileTypeCounts[tileType.ordinal()] == 0) {
+            return null;
+        }
+
+        BitSet[] typeColumns = columns[tileType.ordinal()];
+        for (int x = boardSize - 1; x >= 0; x--) {
+            if (!typeColumns[x].isEmpty()) {
+                return new Point(x, typeColumns[x].length() - 1);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param tileType A type of tile
+     * @return The number of tiles of that type on the board
+     */
+    public int count(TileType tileType) {
+        return tileTypeCounts[tileType.ordinal()];
+    }
+
+    private int nearestRow(BitSet column, int y) {
+        int below = (y < 0) ? -1 : column.previousSetBit(Math.min(y, boardSize - 1));
+        int above = column.nextSetBit(Math.max(y, 0));
+        if (below < 0) {
+            return above;
+        }
+        if (above < 0) {
+            return below;
+        }
+        // Equal distances go to the lower row
+        return (y - below <= above - y) ? below : above;
+    }
+
+    private void rebuild(PlayerBoardView board) {
+        boardSize = board.getBoardSize();
+        tileTypes = new TileType[boardSize * boardSize];
+        columns = new BitSet[allTileTypes.length][boardSize];
+        for (BitSet[] typeColumns : columns) {
+            for (int x = 0; x < boardSize; x++) {
+                typeColumns[x] = new BitSet(boardSize);
+            }
+        }
+        tileTypeCounts = new int[allTileTypes.length];
+
+        for (int x = 0; x < boardSize; x++) {
+            for (int y = 0; y < boardSize; y++) {
+                setTileType(x, y, board.getTileTypeAtLocation(x, y));
+            }
+        }
+        numSyncedChanges = board.getTileChangeCount();
+        lastSyncedView = board;
+    }
+
+    private void setTileType(int x, int y, TileType tileType) {
+        int tileIndex = x + y * boardSize;
+        TileType oldTileType = tileTypes[tileIndex];
+        if (oldTileType == tileType) {
+            return;
+        }
+
+        if (oldTileType != null) {
+            columns[oldTileType.ordinal()][x].clear(y);
+            tileTypeCounts[oldTileType.ordinal()]--;
+        }
+        tileTypes[tileIndex] = tileType;
+        if (tileType != null) {
+            columns[tileType.ordinal()][x].set(y);
+            tileTypeCounts[tileType.ordinal()]++;
+        }
+    }
+}
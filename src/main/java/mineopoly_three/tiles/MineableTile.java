@@ -0,0 +1,143 @@
+package mineopoly_three.tiles;
+
+import mineopoly_three.game.MinePlayer;
+import mineopoly_three.action.TurnAction;
+import mineopoly_three.graphics.ImageManager;
+import mineopoly_three.graphics.TileRenderLayer;
+import mineopoly_three.item.ItemType;
+
+import java.awt.*;
+
+/**
+ * The stone floor of the mine, which can be empty, cracked, or hold a resource part way through being mined.
+ * Mining changes the MiningState of the tile instead of replacing it with a new Tile, so the same MineableTile
+ *  stays at its location for the whole game. Cracked tiles have the EMPTY TileType, like uncracked empty tiles.
+ */
+public class MineableTile extends StoneTile {
+    private static final int CRACKED_IMAGE_NUMBER = 3;
+
+    private MiningState miningState;
+    // Only set while the tile is in the RESOURCE state
+    private ItemType tileResource;
+    private int numTimesMined;
+
+    /**
+     * Creates an empty tile
+     *
+     * @param tileLocation The location of this tile
+     */
+    public MineableTile(Point tileLocation) {
+        super(tileLocation);
+        this.miningState = MiningState.EMPTY;
+    }
+
+    public MineableTile(Point tileLocation, ItemType tileResource) {
+        this(tileLocation, tileResource, 0);
+    }
+
+    /**
+     * Creates a resource tile that has already been partly mined, like one restored from a checkpoint
+     *
+     * @param tileLocation The location of this tile
+     * @param tileResource The resource this tile gives when mined
+     * @param numTimesMined How many times this tile has been mined so far
+     */
+    public MineableTile(Point tileLocation, ItemType tileResource, int numTimesMined) {
+        super(tileLocation);
+        setResource(tileResource);
+        this.numTimesMined = numTimesMined;
+    }
+
+    @Override
+    public TileType getType() {
+        return (miningState == MiningState.RESOURCE) ? tileResource.getResourceTileType() : TileType.EMPTY;
+    }
+
+    public MiningState getMiningState() {
+        return miningState;
+    }
+
+    /**
+     * @return The resource this tile gives when mined, or null if it isn't in the RESOURCE state
+     */
+    public ItemType getTileResource() {
+        return tileResource;
+    }
+
+    /**
+     * @return How many times the resource in this tile has been mined, 0 if it isn't in the RESOURCE state
+     */
+    public int getNumTimesMined() {
+        return numTimesMined;
+    }
+
+    /**
+     * Puts an unmined resource in this tile, as happens when the world is generated
+     *
+     * @param newResource The resource this tile gives when mined
+     */
+    public void setResource(ItemType newResource) {
+        assert(newResource.isResource());
+        this.miningState = MiningState.RESOURCE;
+        this.tileResource = newResource;
+        this.numTimesMined = 0;
+    }
+
+    /**
+     * Cracks this tile, throwing away any resource in it that hasn't been mined out
+     */
+    public void crack() {
+        this.miningState = MiningState.CRACKED;
+        this.tileResource = null;
+        this.numTimesMined = 0;
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        this.miningState = MiningState.EMPTY;
+        this.tileResource = null;
+        this.numTimesMined = 0;
+    }
+
+    @Override
+    public Tile interact(MinePlayer playerOnTile, TurnAction actionOnTile) {
+        super.interact(playerOnTile, actionOnTile);
+
+        if (actionOnTile != TurnAction.MINE) {
+            return this;
+        }
+        if (miningState == MiningState.EMPTY) {
+            // There's really no reason to do this, but sure you can mine empty tiles
+            crack();
+        } else if (miningState == MiningState.RESOURCE) {
+            numTimesMined++;
+
+            if (numTimesMined >= tileResource.getTurnsToMine()) {
+                ItemType minedResource = tileResource;
+                crack();
+                itemsOnTile.addItem(minedResource);
+            }
+        }
+        return this;
+    }
+
+    @Override
+    protected Image[] getImageOverlays(ImageManager imageManager) {
+        Image[] imageOverlays = super.getImageOverlays(imageManager);
+        int crackLayerIndex = TileRenderLayer.LAYER_CRACK.ordinal();
+
+        if (miningState == MiningState.CRACKED) {
+            imageOverlays[crackLayerIndex] = imageManager.getScaledImage("crack_" + CRACKED_IMAGE_NUMBER);
+        } else if (miningState == MiningState.RESOURCE) {
+            // Add texture for resource
+            Image resourceTileOverlay = imageManager.getScaledImage(tileResource.getTileImageName());
+            int resourceTypeLayerIndex = TileRenderLayer.LAYER_RESOURCE_TYPE.ordinal();
+            imageOverlays[resourceTypeLayerIndex] = resourceTileOverlay;
+
+            // Add crack textures if this has been mined
+            imageOverlays[crackLayerIndex] = imageManager.getScaledImage("crack_" + numTimesMined);
+        }
+        return imageOverlays;
+    }
+}
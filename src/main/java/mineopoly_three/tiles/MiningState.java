@@ -0,0 +1,11 @@
+package mineopoly_three.tiles;
+
+/**
+ * The states a MineableTile moves through as it gets mined. Mining an EMPTY tile cracks it, and mining a RESOURCE
+ *  tile enough times cracks it and drops its resource. CRACKED tiles stay cracked
+ */
+public enum MiningState {
+    EMPTY,
+    CRACKED,
+    RESOURCE
+}
@@ -6,7 +6,8 @@ import mineopoly_three.graphics.TileRenderLayer;
 import java.awt.*;
 
 public class RechargeTile extends StoneTile {
-    private static final float RECHARGE_PERCENT_PER_TURN = 0.1f;
+    /**How much of a player's maximum energy is recharged every turn they stand on this tile*/
+    public static final float RECHARGE_PERCENT_PER_TURN = 0.1f;
 
     public RechargeTile(Point tileLocation) {
         super(tileLocation);
@@ -24,6 +25,11 @@ public class RechargeTile extends StoneTile {
         }
     }
 
+    @Override
+    public boolean hasTurnUpdate() {
+        return true;
+    }
+
     @Override
     protected Image[] getImageOverlays(ImageManager imageManager) {
         Image[] imageOverlays = super.getImageOverlays(imageManager);
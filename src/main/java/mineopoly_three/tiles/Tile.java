@@ -4,23 +4,22 @@ import mineopoly_three.game.MinePlayer;
 import mineopoly_three.action.TurnAction;
 import mineopoly_three.graphics.ImageManager;
 import mineopoly_three.graphics.TileRenderLayer;
-import mineopoly_three.item.InventoryItem;
+import mineopoly_three.item.CountedItemList;
 import mineopoly_three.item.ItemType;
 
 import java.awt.*;
-import java.util.ArrayList;
-import java.util.List;
 
 
 public abstract class Tile {
     private static final int NUM_RENDER_LAYERS = TileRenderLayer.values().length;
+    private static final ItemType[] allItemTypes = ItemType.values();
     protected MinePlayer playerOnTile;
-    protected List<InventoryItem> itemsOnTile;
+    protected CountedItemList itemsOnTile;
     protected Point location;
 
     protected Tile(Point tileLocation) {
         this.playerOnTile = null;
-        this.itemsOnTile = new ArrayList<>();
+        this.itemsOnTile = new CountedItemList();
         this.location = tileLocation;
     }
 
@@ -32,7 +31,7 @@ public abstract class Tile {
         return location;
     }
 
-    public List<InventoryItem> getItemsOnTile() {
+    public CountedItemList getItemsOnTile() {
         return itemsOnTile;
     }
 
@@ -44,43 +43,48 @@ public abstract class Tile {
     /**
      * Called when an action is performed on a Tile by a player to determine
      *  A. What happens for that action and B. What changes are made to the Tile as a result of that action
+     * Tiles change in place: a Tile whose type changes because of the action (like a mined tile cracking) updates
+     *  its own state. The GameBoard re-packs the Tile's type when it tracks the items on it after the interaction
      *
      * @param playerOnTile The player performing the action on this tile
      * @param actionOnTile The TurnAction being performed on this tile
-     * @return A Tile representing what the Tile at this location on the game board should be set to after this turn.
-     *          Return this Tile if no change should happen
-     *          Return a new Tile of the next type if the action does result in a change on the tile
+     * @return This Tile, whether or not the action changed it
      */
     public Tile interact(MinePlayer playerOnTile, TurnAction actionOnTile) {
-
-        InventoryItem resource = itemsOnTile.stream().filter(x -> x.getItemType().isResource()).findFirst().orElse(null);
-        InventoryItem autominer = itemsOnTile.stream().filter(x -> x.getItemType() == ItemType.AUTOMINER).findFirst().orElse(null);
+        // Items are counted by type, so none of this has to search the items on the tile or in the inventory
+        boolean hasAutominer = itemsOnTile.hasItem(ItemType.AUTOMINER);
 
         // Ensure there already is not an autominer here
-        if(actionOnTile == TurnAction.PLACE_AUTOMINER && autominer == null) {
-            InventoryItem playerAutominer = playerOnTile.getInventory().stream().filter(x -> x.getItemType() == ItemType.AUTOMINER).findFirst().orElse(null);
-
-            if(playerAutominer != null) {
-                playerOnTile.getInventory().remove(playerAutominer);
-                itemsOnTile.add(playerAutominer);
+        if (actionOnTile == TurnAction.PLACE_AUTOMINER && !hasAutominer) {
+            if (playerOnTile.getInventory().removeItem(ItemType.AUTOMINER)) {
+                itemsOnTile.addItem(ItemType.AUTOMINER);
             }
         } else {
-            InventoryItem toPickUp = null;
+            ItemType toPickUp = null;
 
-            if (actionOnTile == TurnAction.PICK_UP_RESOURCE && resource != null) {
-                toPickUp = resource;
-            } else if(actionOnTile == TurnAction.PICK_UP_AUTOMINER && autominer != null) {
-                toPickUp = autominer;
+            if (actionOnTile == TurnAction.PICK_UP_RESOURCE) {
+                toPickUp = itemsOnTile.getFirstResourceType();
+            } else if (actionOnTile == TurnAction.PICK_UP_AUTOMINER && hasAutominer) {
+                toPickUp = ItemType.AUTOMINER;
             }
 
-            if(toPickUp != null && playerOnTile.addItemToInventory(toPickUp))
-                itemsOnTile.remove(toPickUp);
+            if (toPickUp != null && playerOnTile.addItemToInventory(toPickUp)) {
+                itemsOnTile.removeItem(toPickUp);
+            }
         }
 
-
         return this;
     }
 
+    /**
+     * Puts this Tile back into the state it was created in, with no player or items on it, so a new board can reuse
+     *  it instead of creating another Tile of the same type at the same location
+     */
+    public void reset() {
+        playerOnTile = null;
+        itemsOnTile.clear();
+    }
+
     /**
      * Called every turn for tiles to update their internal state, if they need to do so
      */
@@ -88,6 +92,15 @@ public abstract class Tile {
         // By default tiles don't do anything
     }
 
+    /**
+     * Lets the GameBoard skip tiles that never change on their own
+     *
+     * @return True if update() needs to be called on this Tile every turn
+     */
+    public boolean hasTurnUpdate() {
+        return false;
+    }
+
     /**
      * Called when a player enters this tile on a turn
      *
@@ -124,10 +137,12 @@ public abstract class Tile {
         }
 
         // Draw the items that could be on this tile
-        for(InventoryItem item : itemsOnTile) {
-            String itemImageName = item.getItemType().getItemImageName();
-            Image itemImage = imageManager.getScaledImage(itemImageName);
-            int itemOverlayIndex = item.getItemType() == ItemType.AUTOMINER ?
+        for (ItemType itemType : allItemTypes) {
+            if (!itemsOnTile.hasItem(itemType)) {
+                continue;
+            }
+            Image itemImage = imageManager.getScaledImage(itemType.getItemImageName());
+            int itemOverlayIndex = itemType == ItemType.AUTOMINER ?
                     TileRenderLayer.LAYER_AUTOMINER.ordinal() : TileRenderLayer.LAYER_ITEM.ordinal();
             imageOverlays[itemOverlayIndex] = itemImage;
         }
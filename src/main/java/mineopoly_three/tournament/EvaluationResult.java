@@ -0,0 +1,88 @@
+package mineopoly_three.tournament;
+
+/**
+ * What a SequentialEvaluator learned about a strategy: its win percent and head-to-head score against the opponent,
+ *  each with the half width of its confidence interval, over every pair of games played before the evaluation stopped
+ */
+public class EvaluationResult {
+    private final int boardSize;
+    private final int numPairs;
+    private final boolean resolved;
+    private final double winPercent;
+    private final double winPercentHalfWidth;
+    private final double headToHeadScore;
+    private final double headToHeadHalfWidth;
+    private final double meanScoreMargin;
+
+    public EvaluationResult(int boardSize, int numPairs, boolean resolved, double winPercent,
+                            double winPercentHalfWidth, double headToHeadScore, double headToHeadHalfWidth,
+                            double meanScoreMargin) {
+        this.boardSize = boardSize;
+        this.numPairs = numPairs;
+        this.resolved = resolved;
+        this.winPercent = winPercent;
+        this.winPercentHalfWidth = winPercentHalfWidth;
+        this.headToHeadScore = headToHeadScore;
+        this.headToHeadHalfWidth = headToHeadHalfWidth;
+        this.meanScoreMargin = meanScoreMargin;
+    }
+
+    public int getBoardSize() {
+        return boardSize;
+    }
+
+    /**
+     * @return The number of seeds played, each once with the strategy as red and once as blue
+     */
+    public int getNumPairs() {
+        return numPairs;
+    }
+
+    public int getNumGames() {
+        return 2 * numPairs;
+    }
+
+    /**
+     * @return True if the evaluation stopped because it reached the requested precision, false if it ran out of pairs
+     */
+    public boolean isResolved() {
+        return resolved;
+    }
+
+    /**
+     * @return The fraction of games where the strategy reached the minimum score needed to win
+     */
+    public double getWinPercent() {
+        return winPercent;
+    }
+
+    public double getWinPercentHalfWidth() {
+        return winPercentHalfWidth;
+    }
+
+    /**
+     * @return The strategy's average head-to-head result, counting 1 for outscoring the opponent, 0.5 for a tie and
+     *          0 for being outscored. Above 0.5 means the strategy is the stronger of the two
+     */
+    public double getHeadToHeadScore() {
+        return headToHeadScore;
+    }
+
+    public double getHeadToHeadHalfWidth() {
+        return headToHeadHalfWidth;
+    }
+
+    /**
+     * @return How many points more than the opponent the strategy scored in an average game
+     */
+    public double getMeanScoreMargin() {
+        return meanScoreMargin;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("(%d pairs, win percent %.3f +/- %.3f, head to head %.3f +/- %.3f%s)", numPairs,
+                             winPercent, winPercentHalfWidth, headToHeadScore, headToHeadHalfWidth,
+                             resolved ? "" : ", unresolved");
+    }
+}
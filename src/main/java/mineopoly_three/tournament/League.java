@@ -0,0 +1,230 @@
+package mineopoly_three.tournament;
+
+import mineopoly_three.game.BoardTemplateCache;
+import mineopoly_three.game.GameEngine;
+import mineopoly_three.strategy.MinePlayerStrategy;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * A round-robin league between any number of strategies. Every pair of strategies plays one match for every board
+ *  size and seed, and a match is two games on the same board with the strategies swapping colors.
+ *
+ * Matches are played concurrently, but their results reach the RatingTable in the order they were scheduled, so a
+ *  league's ratings don't depend on the number of worker Threads. Only the matches in flight are held in memory,
+ *  never the results of the whole league.
+ *
+ * Strategies can be added after the league has been run, and the next run only plays the pairings that haven't
+ *  been played yet.
+ */
+public class League {
+    private final int parallelism;
+    private final int[] boardSizes;
+    private final int seedsPerBoardSize;
+    private final long firstSeed;
+    private final List<String> strategyNames;
+    private final List<StrategyFactory> strategyFactories;
+    // For every strategy, the strategies it has played all of its matches against
+    private final List<BitSet> playedOpponents;
+    private final RatingTable ratingTable;
+    private BoardTemplateCache boardTemplateCache;
+    private long strategyTimeBudgetMillis;
+
+    /**
+     * @param parallelism The maximum number of matches to play at the same time
+     * @param boardSizes The board sizes every pairing plays on
+     * @param seedsPerBoardSize How many seeds every pairing plays on each board size
+     * @param firstSeed The first seed, the seeds played are firstSeed to (firstSeed + seedsPerBoardSize - 1)
+     */
+    public League(int parallelism, int[] boardSizes, int seedsPerBoardSize, long firstSeed) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("A league needs at least one worker Thread");
+        }
+        if (boardSizes.length == 0 || seedsPerBoardSize < 1) {
+            throw new IllegalArgumentException("A league needs at least one board size and seed to play on");
+        }
+        this.parallelism = parallelism;
+        this.boardSizes = boardSizes.clone();
+        this.seedsPerBoardSize = seedsPerBoardSize;
+        this.firstSeed = firstSeed;
+        this.strategyNames = new ArrayList<>();
+        this.strategyFactories = new ArrayList<>();
+        this.playedOpponents = new ArrayList<>();
+        this.ratingTable = new RatingTable();
+    }
+
+    /**
+     * @return A League with one worker Thread for every available processor
+     */
+    public static League withAvailableProcessors(int[] boardSizes, int seedsPerBoardSize, long firstSeed) {
+        return new League(Runtime.getRuntime().availableProcessors(), boardSizes, seedsPerBoardSize, firstSeed);
+    }
+
+    /**
+     * @param boardTemplateCache The cache every worker takes its boards from, or null to always generate boards
+     */
+    public void setBoardTemplateCache(BoardTemplateCache boardTemplateCache) {
+        this.boardTemplateCache = boardTemplateCache;
+    }
+
+    /**
+     * @param strategyTimeBudgetMillis The most milliseconds each strategy call can take, or 0 for no limit
+     */
+    public void setStrategyTimeBudgetMillis(long strategyTimeBudgetMillis) {
+        if (strategyTimeBudgetMillis < 0) {
+            throw new IllegalArgumentException("The strategy time budget can't be negative");
+        }
+        this.strategyTimeBudgetMillis = strategyTimeBudgetMillis;
+    }
+
+    /**
+     * Adds a strategy to the league. It plays its matches against every other strategy the next time the league runs
+     *
+     * @param strategyName The name the strategy is rated under, which has to be unique in the league
+     * @param strategyFactory Creates a fresh instance of the strategy for every game
+     */
+    public void addStrategy(String strategyName, StrategyFactory strategyFactory) {
+        if (strategyNames.contains(strategyName)) {
+            throw new IllegalArgumentException("The league already has a strategy named " + strategyName);
+        }
+        strategyNames.add(strategyName);
+        strategyFactories.add(strategyFactory);
+        playedOpponents.add(new BitSet());
+        ratingTable.addStrategy(strategyName);
+    }
+
+    public RatingTable getRatingTable() {
+        return ratingTable;
+    }
+
+    /**
+     * @return The number of matches the next run will play
+     */
+    public int getNumUnplayedMatches() {
+        return getUnplayedPairings().size() * boardSizes.length * seedsPerBoardSize;
+    }
+
+    /**
+     * Plays every match of every pairing that hasn't been played yet, recording each game in the RatingTable
+     *
+     * @return The number of matches played
+     */
+    public int run() {
+        List<int[]> pairings = getUnplayedPairings();
+        int numMatches = pairings.size() * boardSizes.length * seedsPerBoardSize;
+        if (numMatches == 0) {
+            return 0;
+        }
+
+        // Enough matches in flight to keep every worker busy while the oldest one is waited on
+        int maxMatchesInFlight = 2 * parallelism;
+        Deque<Future<MatchResult>> matchesInFlight = new ArrayDeque<>(maxMatchesInFlight);
+        ThreadLocal<GameEngine> workerEngine = new ThreadLocal<>();
+        ForkJoinPool workerPool = new ForkJoinPool(parallelism);
+        try {
+            for (int match = 0; match < numMatches; match++) {
+                if (matchesInFlight.size() == maxMatchesInFlight) {
+                    recordMatch(matchesInFlight.removeFirst());
+                }
+                // Pairings change fastest, so every strategy's rating moves with games against all of its opponents
+                int[] pairing = pairings.get(match % pairings.size());
+                int boardSize = boardSizes[(match / pairings.size()) % boardSizes.length];
+                long seed = firstSeed + match / (pairings.size() * boardSizes.length);
+                matchesInFlight.addLast(workerPool.submit(
+                        () -> playMatch(pairing[0], pairing[1], boardSize, seed, workerEngine)));
+            }
+            while (!matchesInFlight.isEmpty()) {
+                recordMatch(matchesInFlight.removeFirst());
+            }
+        } finally {
+            workerPool.shutdownNow();
+        }
+
+        for (int[] pairing : pairings) {
+            playedOpponents.get(pairing[0]).set(pairing[1]);
+            playedOpponents.get(pairing[1]).set(pairing[0]);
+        }
+        return numMatches;
+    }
+
+    private List<int[]> getUnplayedPairings() {
+        List<int[]> pairings = new ArrayList<>();
+        for (int first = 0; first < strategyNames.size(); first++) {
+            for (int second = first + 1; second < strategyNames.size(); second++) {
+                if (!playedOpponents.get(first).get(second)) {
+                    pairings.add(new int[]{first, second});
+                }
+            }
+        }
+        return pairings;
+    }
+
+    private void recordMatch(Future<MatchResult> matchInFlight) {
+        MatchResult matchResult;
+        try {
+            matchResult = matchInFlight.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for league matches to finish", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A league worker failed", e.getCause());
+        }
+
+        String firstName = strategyNames.get(matchResult.firstStrategy);
+        String secondName = strategyNames.get(matchResult.secondStrategy);
+        for (int game = 0; game < 2; game++) {
+            ratingTable.recordGame(firstName, matchResult.firstScores[game], secondName,
+                                   matchResult.secondScores[game]);
+        }
+    }
+
+    private MatchResult playMatch(int firstStrategy, int secondStrategy, int boardSize, long seed,
+                                  ThreadLocal<GameEngine> workerEngine) {
+        MatchResult matchResult = new MatchResult(firstStrategy, secondStrategy);
+        for (int game = 0; game < 2; game++) {
+            boolean firstIsRed = (game == 0);
+            MinePlayerStrategy first = strategyFactories.get(firstStrategy).createStrategy();
+            MinePlayerStrategy second = strategyFactories.get(secondStrategy).createStrategy();
+            MinePlayerStrategy redStrategy = firstIsRed ? first : second;
+            MinePlayerStrategy blueStrategy = firstIsRed ? second : first;
+
+            GameEngine engine = workerEngine.get();
+            if (engine == null) {
+                engine = new GameEngine(boardSize, redStrategy, blueStrategy, seed);
+                engine.setHeadless(true);
+                engine.setBoardTemplateCache(boardTemplateCache);
+                engine.setStrategyTimeBudgetMillis(strategyTimeBudgetMillis);
+                workerEngine.set(engine);
+            } else {
+                engine.reset(boardSize, seed, redStrategy, blueStrategy);
+            }
+            engine.runGame();
+
+            matchResult.firstScores[game] = firstIsRed ? engine.getRedPlayerScore() : engine.getBluePlayerScore();
+            matchResult.secondScores[game] = firstIsRed ? engine.getBluePlayerScore() : engine.getRedPlayerScore();
+        }
+        return matchResult;
+    }
+
+    /**
+     * The scores of both games of a match, held only until the match is recorded
+     */
+    private static class MatchResult {
+        private final int firstStrategy;
+        private final int secondStrategy;
+        private final int[] firstScores = new int[2];
+        private final int[] secondScores = new int[2];
+
+        private MatchResult(int firstStrategy, int secondStrategy) {
+            this.firstStrategy = firstStrategy;
+            this.secondStrategy = secondStrategy;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package mineopoly_three.tournament;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Elo ratings for every strategy in a league, updated after every game. Only the ratings and running totals are
+ *  kept, so the table takes the same memory no matter how many games have been played.
+ *
+ * A game counts as a win for whoever scored more points, or a draw if both scored the same.
+ */
+public class RatingTable {
+    public static final double DEFAULT_INITIAL_RATING = 1500;
+    public static final double DEFAULT_K_FACTOR = 16;
+
+    private final double initialRating;
+    private final double kFactor;
+    private final Map<String, StrategyRating> ratings;
+
+    public RatingTable() {
+        this(DEFAULT_INITIAL_RATING, DEFAULT_K_FACTOR);
+    }
+
+    /**
+     * @param initialRating The rating every strategy starts at
+     * @param kFactor The most a rating can change after a single game
+     */
+    public RatingTable(double initialRating, double kFactor) {
+        if (kFactor <= 0) {
+            throw new IllegalArgumentException("The K factor must be positive");
+        }
+        this.initialRating = initialRating;
+        this.kFactor = kFactor;
+        this.ratings = new HashMap<>();
+    }
+
+    /**
+     * Adds a strategy at the initial rating, if it isn't in the table already
+     */
+    public synchronized void addStrategy(String strategyName) {
+        ratings.computeIfAbsent(strategyName, name -> new StrategyRating(name, initialRating));
+    }
+
+    /**
+     * Updates both strategies' ratings with the result of one game
+     *
+     * @param firstStrategyName One strategy that played in the game
+     * @param firstScore The points it scored
+     * @param secondStrategyName The strategy it played against
+     * @param secondScore The points that strategy scored
+     */
+    public synchronized void recordGame(String firstStrategyName, int firstScore, String secondStrategyName,
+                                        int secondScore) {
+        StrategyRating first = getOrAdd(firstStrategyName);
+        StrategyRating second = getOrAdd(secondStrategyName);
+        double expectedFirstResult = 1 / (1 + Math.pow(10, (second.getRating() - first.getRating()) / 400));
+        double firstResult = (firstScore > secondScore) ? 1 : (firstScore == secondScore) ? 0.5 : 0;
+        double firstRatingChange = kFactor * (firstResult - expectedFirstResult);
+
+        first.recordGame(firstRatingChange, firstScore, secondScore);
+        second.recordGame(-firstRatingChange, secondScore, firstScore);
+    }
+
+    private StrategyRating getOrAdd(String strategyName) {
+        return ratings.computeIfAbsent(strategyName, name -> new StrategyRating(name, initialRating));
+    }
+
+    /**
+     * @return A copy of the strategy's rating, or null if it isn't in the table
+     */
+    public synchronized StrategyRating getRating(String strategyName) {
+        StrategyRating rating = ratings.get(strategyName);
+        return (rating == null) ? null : rating.copy();
+    }
+
+    /**
+     * @return Copies of every strategy's rating, from the highest rating to the lowest
+     */
+    public synchronized List<StrategyRating> getStandings() {
+        List<StrategyRating> standings = new ArrayList<>(ratings.size());
+        for (StrategyRating rating : ratings.values()) {
+            standings.add(rating.copy());
+        }
+        standings.sort((first, second) -> {
+            int ratingComparison = Double.compare(second.getRating(), first.getRating());
+            return (ratingComparison != 0) ? ratingComparison
+                                           : first.getStrategyName().compareTo(second.getStrategyName());
+        });
+        return standings;
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder tableBuilder = new StringBuilder();
+        int place = 1;
+        for (StrategyRating rating : getStandings()) {
+            tableBuilder.append(place++).append(". ").append(rating).append('\n');
+        }
+        return tableBuilder.toString();
+    }
+}
@@ -0,0 +1,49 @@
+package mineopoly_three.tournament;
+
+/**
+ * The outcome of a single round played during a tournament
+ */
+public class RoundResult {
+    private final long seed;
+    private final int redScore;
+    private final int blueScore;
+    private final boolean redReachedWinningScore;
+
+    public RoundResult(long seed, int redScore, int blueScore, boolean redReachedWinningScore) {
+        this.seed = seed;
+        this.redScore = redScore;
+        this.blueScore = blueScore;
+        this.redReachedWinningScore = redReachedWinningScore;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getRedScore() {
+        return redScore;
+    }
+
+    public int getBlueScore() {
+        return blueScore;
+    }
+
+    /**
+     * @return True if the red player scored at least the minimum score needed to win the round
+     */
+    public boolean redReachedWinningScore() {
+        return redReachedWinningScore;
+    }
+
+    /**
+     * @return True if the red player outscored the blue player this round
+     */
+    public boolean redWonHeadToHead() {
+        return redScore > blueScore;
+    }
+
+    @Override
+    public String toString() {
+        return "(" + seed + ", " + redScore + ", " + blueScore + ")";
+    }
+}
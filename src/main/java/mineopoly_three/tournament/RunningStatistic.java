@@ -0,0 +1,47 @@
+package mineopoly_three.tournament;
+
+/**
+ * The mean and variance of a stream of samples, updated one sample at a time without keeping the samples
+ */
+public class RunningStatistic {
+    private long count;
+    private double mean;
+    // The sum of squared differences from the mean, as in Welford's algorithm
+    private double sumSquaredDeviations;
+
+    public void add(double sample) {
+        count++;
+        double deviation = sample - mean;
+        mean += deviation / count;
+        sumSquaredDeviations += deviation * (sample - mean);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return The mean of every sample, or 0 if there are none
+     */
+    public double getMean() {
+        return mean;
+    }
+
+    /**
+     * @return The sample variance (divided by count - 1), or 0 with fewer than two samples
+     */
+    public double getVariance() {
+        return (count < 2) ? 0 : sumSquaredDeviations / (count - 1);
+    }
+
+    /**
+     * @param zScore How many standard errors the interval spans on each side, 1.96 for 95% confidence
+     * @return Half the width of the normal confidence interval of the mean, or infinity with fewer than two samples
+     */
+    public double getConfidenceHalfWidth(double zScore) {
+        if (count < 2) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return zScore * Math.sqrt(getVariance() / count);
+    }
+}
@@ -0,0 +1,242 @@
+package mineopoly_three.tournament;
+
+import mineopoly_three.game.BoardTemplateCache;
+import mineopoly_three.game.GameEngine;
+import mineopoly_three.strategy.MinePlayerStrategy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Measures how a strategy does against an opponent with as few games as it takes to reach a requested precision.
+ *
+ * Games are played in pairs: pair i plays the seed (firstSeed + i) once with the strategy as red and once as blue,
+ *  so both strategies get the same board and the same side of it. Luck of the board mostly cancels out within a
+ *  pair, which makes a pair's result far less noisy than two unrelated games. After every pair, the evaluation stops
+ *  as soon as the confidence interval of the target it measures is narrower than the precision asked for.
+ *
+ * Pairs are played a batch at a time, one pair per worker Thread, and the stopping rule is checked pair by pair in
+ *  seed order, so the result doesn't depend on the number of worker Threads.
+ */
+public class SequentialEvaluator {
+    /**
+     * What an evaluation has to measure precisely before it stops
+     */
+    public enum Target {
+        // The fraction of games where the strategy reaches the minimum score needed to win
+        WIN_PERCENT,
+        // How often the strategy outscores its opponent
+        HEAD_TO_HEAD
+    }
+
+    private static final double DEFAULT_Z_SCORE = 1.96;
+    private static final int DEFAULT_MIN_PAIRS = 10;
+
+    private final int parallelism;
+    private double zScore;
+    private int minPairs;
+    private BoardTemplateCache boardTemplateCache;
+    private long strategyTimeBudgetMillis;
+
+    /**
+     * @param parallelism The number of pairs of games to play at the same time
+     */
+    public SequentialEvaluator(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("An evaluation needs at least one worker Thread");
+        }
+        this.parallelism = parallelism;
+        this.zScore = DEFAULT_Z_SCORE;
+        this.minPairs = DEFAULT_MIN_PAIRS;
+    }
+
+    /**
+     * @return A SequentialEvaluator with one worker Thread for every available processor
+     */
+    public static SequentialEvaluator withAvailableProcessors() {
+        return new SequentialEvaluator(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param zScore How many standard errors the confidence interval spans on each side, 1.96 (the default) for 95%
+     */
+    public void setZScore(double zScore) {
+        if (zScore <= 0) {
+            throw new IllegalArgumentException("The z score must be positive");
+        }
+        this.zScore = zScore;
+    }
+
+    /**
+     * @param minPairs The fewest pairs to play before stopping, 10 by default
+     */
+    public void setMinPairs(int minPairs) {
+        if (minPairs < 1) {
+            throw new IllegalArgumentException("An evaluation has to play at least one pair");
+        }
+        this.minPairs = minPairs;
+    }
+
+    /**
+     * @param boardTemplateCache The cache every worker takes its boards from, or null to only share each board between
+     *                           the two games of a pair
+     */
+    public void setBoardTemplateCache(BoardTemplateCache boardTemplateCache) {
+        this.boardTemplateCache = boardTemplateCache;
+    }
+
+    /**
+     * @param strategyTimeBudgetMillis The most milliseconds each strategy call can take, or 0 for no limit
+     */
+    public void setStrategyTimeBudgetMillis(long strategyTimeBudgetMillis) {
+        if (strategyTimeBudgetMillis < 0) {
+            throw new IllegalArgumentException("The strategy time budget can't be negative");
+        }
+        this.strategyTimeBudgetMillis = strategyTimeBudgetMillis;
+    }
+
+    /**
+     * Plays pairs of games until the target is known to within the precision, or until maxPairs pairs are played
+     *
+     * @param strategyFactory Creates the strategy being evaluated
+     * @param opponentFactory Creates the strategy it plays against
+     * @param boardSize The size of the board used for every game
+     * @param target What has to be measured to the precision
+     * @param precision The largest acceptable half width of the target's confidence interval, e.g. 0.02 for +/- 2%
+     * @param maxPairs The most pairs to play if the precision isn't reached
+     * @param firstSeed The seed of the first pair, pair i is played with seed (firstSeed + i)
+     * @return What was measured over every pair played
+     */
+    public EvaluationResult evaluate(StrategyFactory strategyFactory, StrategyFactory opponentFactory, int boardSize,
+                                     Target target, double precision, int maxPairs, long firstSeed) {
+        if (precision <= 0) {
+            throw new IllegalArgumentException("The precision must be positive");
+        }
+        BoardTemplateCache workerBoardCache = (boardTemplateCache != null) ? boardTemplateCache
+                                                                           : new BoardTemplateCache(parallelism);
+        GameEngine[] workerEngines = new GameEngine[parallelism];
+        PairResult[] batchResults = new PairResult[parallelism];
+
+        RunningStatistic winPercent = new RunningStatistic();
+        RunningStatistic headToHead = new RunningStatistic();
+        RunningStatistic scoreMargin = new RunningStatistic();
+        // Stopping is decided with one made-up pair at each extreme added, so a streak of identical results early on
+        //  doesn't look like certainty
+        RunningStatistic stoppingStatistic = new RunningStatistic();
+        stoppingStatistic.add(0);
+        stoppingStatistic.add(1);
+
+        ForkJoinPool workerPool = new ForkJoinPool(parallelism);
+        try {
+            int numPairs = 0;
+            while (numPairs < maxPairs) {
+                int batchSize = Math.min(parallelism, maxPairs - numPairs);
+                playBatch(workerPool, strategyFactory, opponentFactory, boardSize, firstSeed + numPairs, batchSize,
+                          workerEngines, workerBoardCache, batchResults);
+
+                for (int i = 0; i < batchSize; i++) {
+                    PairResult pairResult = batchResults[i];
+                    winPercent.add(pairResult.winPercent);
+                    headToHead.add(pairResult.headToHeadScore);
+                    scoreMargin.add(pairResult.scoreMargin);
+                    stoppingStatistic.add((target == Target.WIN_PERCENT) ? pairResult.winPercent
+                                                                         : pairResult.headToHeadScore);
+                    numPairs++;
+                    // Pairs after this one in the batch are thrown away, as if they had never been scheduled
+                    if (numPairs >= minPairs && stoppingStatistic.getConfidenceHalfWidth(zScore) <= precision) {
+                        return createResult(boardSize, numPairs, true, winPercent, headToHead, scoreMargin);
+                    }
+                }
+            }
+            return createResult(boardSize, numPairs, false, winPercent, headToHead, scoreMargin);
+        } finally {
+            workerPool.shutdown();
+        }
+    }
+
+    private EvaluationResult createResult(int boardSize, int numPairs, boolean resolved, RunningStatistic winPercent,
+                                          RunningStatistic headToHead, RunningStatistic scoreMargin) {
+        return new EvaluationResult(boardSize, numPairs, resolved, winPercent.getMean(),
+                                    winPercent.getConfidenceHalfWidth(zScore), headToHead.getMean(),
+                                    headToHead.getConfidenceHalfWidth(zScore), scoreMargin.getMean());
+    }
+
+    private void playBatch(ForkJoinPool workerPool, StrategyFactory strategyFactory, StrategyFactory opponentFactory,
+                           int boardSize, long firstSeed, int batchSize, GameEngine[] workerEngines,
+                           BoardTemplateCache workerBoardCache, PairResult[] batchResults) {
+        // Worker i always plays the i-th pair of a batch on its own GameEngine
+        List<Callable<Void>> pairs = new ArrayList<>(batchSize);
+        for (int worker = 0; worker < batchSize; worker++) {
+            int pairIndex = worker;
+            pairs.add(() -> {
+                batchResults[pairIndex] = playPair(strategyFactory, opponentFactory, boardSize,
+                                                   firstSeed + pairIndex, workerEngines, pairIndex,
+                                                   workerBoardCache);
+                return null;
+            });
+        }
+
+        try {
+            for (Future<Void> pairResult : workerPool.invokeAll(pairs)) {
+                pairResult.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for evaluation games to finish", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("An evaluation worker failed", e.getCause());
+        }
+    }
+
+    private PairResult playPair(StrategyFactory strategyFactory, StrategyFactory opponentFactory, int boardSize,
+                                long seed, GameEngine[] workerEngines, int worker,
+                                BoardTemplateCache workerBoardCache) {
+        PairResult pairResult = new PairResult();
+        for (int game = 0; game < 2; game++) {
+            boolean strategyIsRed = (game == 0);
+            MinePlayerStrategy strategy = strategyFactory.createStrategy();
+            MinePlayerStrategy opponent = opponentFactory.createStrategy();
+            MinePlayerStrategy redStrategy = strategyIsRed ? strategy : opponent;
+            MinePlayerStrategy blueStrategy = strategyIsRed ? opponent : strategy;
+
+            GameEngine engine = workerEngines[worker];
+            if (engine == null) {
+                engine = new GameEngine(boardSize, redStrategy, blueStrategy, seed);
+                engine.setHeadless(true);
+                engine.setBoardTemplateCache(workerBoardCache);
+                engine.setStrategyTimeBudgetMillis(strategyTimeBudgetMillis);
+                workerEngines[worker] = engine;
+            } else {
+                // Fresh strategies rather than reset(..., true), so nothing carries over from the last game
+                engine.reset(boardSize, seed, redStrategy, blueStrategy);
+            }
+            engine.runGame();
+
+            int strategyScore = strategyIsRed ? engine.getRedPlayerScore() : engine.getBluePlayerScore();
+            int opponentScore = strategyIsRed ? engine.getBluePlayerScore() : engine.getRedPlayerScore();
+            if (strategyScore >= engine.getMinScoreToWin()) {
+                pairResult.winPercent += 0.5;
+            }
+            if (strategyScore > opponentScore) {
+                pairResult.headToHeadScore += 0.5;
+            } else if (strategyScore == opponentScore) {
+                pairResult.headToHeadScore += 0.25;
+            }
+            pairResult.scoreMargin += (strategyScore - opponentScore) / 2.0;
+        }
+        return pairResult;
+    }
+
+    /**
+     * The averages of the two games played on one seed
+     */
+    private static class PairResult {
+        private double winPercent;
+        private double headToHeadScore;
+        private double scoreMargin;
+    }
+}
@@ -0,0 +1,16 @@
+package mineopoly_three.tournament;
+
+import mineopoly_three.strategy.MinePlayerStrategy;
+
+/**
+ * Creates fresh MinePlayerStrategy instances. Tournament workers ask for a new strategy every round so state
+ *  left behind in one game (or on another worker's Thread) can never leak into the result of another game.
+ */
+@FunctionalInterface
+public interface StrategyFactory {
+
+    /**
+     * @return A new, uninitialized MinePlayerStrategy
+     */
+    MinePlayerStrategy createStrategy();
+}
@@ -0,0 +1,173 @@
+package mineopoly_three.tournament;
+
+import mineopoly_three.strategy.MinePlayerStrategy;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.net.MalformedURLException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.CodeSource;
+
+/**
+ * A strategy loaded from a directory or jar of classes, isolated so static fields can't be shared between games.
+ *
+ * Every Thread that creates the strategy gets its own class loader for it, which loads the strategy and all of its
+ *  helper classes again, so each worker of a tournament has its own copy of every static field. The engine's own
+ *  classes (the MinePlayerStrategy interface and everything it hands strategies) always come from the engine, so
+ *  loaded strategies can still be played by it. A Thread keeps its class loader, so every strategy after its
+ *  first is just a new instance.
+ *
+ * Isolation relies on each Thread playing one game at a time, which is how TournamentRunner, SequentialEvaluator and
+ *  League all run their games. Both players of one game share a copy of the static fields if they are the same
+ *  plugin, which is safe as long as the strategy only keeps per-game settings like the board size there.
+ */
+public class StrategyPlugin implements StrategyFactory {
+    // Classes and packages every class loader takes from the engine instead of loading its own copy
+    private static final String[] SHARED_PACKAGES = new String[]{
+            "java.", "javax.", "sun.", "mineopoly_three.action.", "mineopoly_three.game.", "mineopoly_three.item.",
+            "mineopoly_three.tiles."
+    };
+    private static final String[] SHARED_CLASSES = new String[]{
+            MinePlayerStrategy.class.getName(), "mineopoly_three.strategy.PlayerBoardView"
+    };
+
+    private final Path classLocation;
+    private final URL[] classLocations;
+    private final String strategyClassName;
+    private final ThreadLocal<Constructor<? extends MinePlayerStrategy>> workerConstructor;
+
+    /**
+     * @param classLocation A directory of compiled classes, or a jar of them
+     * @param strategyClassName The fully qualified name of the MinePlayerStrategy class to load from it
+     */
+    public StrategyPlugin(Path classLocation, String strategyClassName) {
+        try {
+            this.classLocations = new URL[]{classLocation.toUri().toURL()};
+        } catch (MalformedURLException e) {
+            throw new IllegalArgumentException("Can't load classes from " + classLocation, e);
+        }
+        this.classLocation = classLocation;
+        this.strategyClassName = strategyClassName;
+        this.workerConstructor = new ThreadLocal<>();
+        // Fails now rather than on the first worker if the class can't be played
+        loadConstructor();
+    }
+
+    /**
+     * Isolates one of the strategies the engine was built with, loading it again from wherever its class came from
+     *
+     * @param strategyClass The strategy to isolate
+     * @return A StrategyPlugin for that strategy
+     */
+    public static StrategyPlugin isolating(Class<? extends MinePlayerStrategy> strategyClass) {
+        CodeSource codeSource = strategyClass.getProtectionDomain().getCodeSource();
+        if (codeSource == null) {
+            throw new IllegalArgumentException("Can't find where " + strategyClass.getName() + " was loaded from");
+        }
+        try {
+            return new StrategyPlugin(Paths.get(codeSource.getLocation().toURI()), strategyClass.getName());
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException("Can't find where " + strategyClass.getName() + " was loaded from", e);
+        }
+    }
+
+    public Path getClassLocation() {
+        return classLocation;
+    }
+
+    public String getStrategyClassName() {
+        return strategyClassName;
+    }
+
+    /**
+     * @return A new instance of the strategy, from the calling Thread's own copy of the strategy's classes
+     */
+    @Override
+    public MinePlayerStrategy createStrategy() {
+        Constructor<? extends MinePlayerStrategy> constructor = workerConstructor.get();
+        if (constructor == null) {
+            constructor = loadConstructor();
+            workerConstructor.set(constructor);
+        }
+        try {
+            return constructor.newInstance();
+        } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Couldn't create a new " + strategyClassName, e);
+        }
+    }
+
+    private Constructor<? extends MinePlayerStrategy> loadConstructor() {
+        ClassLoader classLoader = new IsolatingClassLoader(classLocations, MinePlayerStrategy.class.getClassLoader());
+        try {
+            Class<?> strategyClass = Class.forName(strategyClassName, true, classLoader);
+            if (!MinePlayerStrategy.class.isAssignableFrom(strategyClass)) {
+                throw new IllegalArgumentException(strategyClassName + " isn't a MinePlayerStrategy");
+            }
+            return strategyClass.asSubclass(MinePlayerStrategy.class).getConstructor();
+        } catch (ClassNotFoundException e) {
+            throw new IllegalArgumentException("Couldn't find " + strategyClassName + " in " + classLocation, e);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException(strategyClassName + " needs a public no argument constructor", e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return strategyClassName + " from " + classLocation;
+    }
+
+    /**
+     * Loads every class it can from the plugin's location itself, before asking its parent, except for the engine's
+     *  shared classes
+     */
+    private static class IsolatingClassLoader extends URLClassLoader {
+        static {
+            ClassLoader.registerAsParallelCapable();
+        }
+
+        private IsolatingClassLoader(URL[] classLocations, ClassLoader engineClassLoader) {
+            super(classLocations, engineClassLoader);
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (isShared(name)) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> loadedClass = findLoadedClass(name);
+                if (loadedClass == null) {
+                    try {
+                        loadedClass = findClass(name);
+                    } catch (ClassNotFoundException e) {
+                        // Not part of the plugin, so it comes from the engine like a shared class
+                        return super.loadClass(name, resolve);
+                    }
+                }
+                if (resolve) {
+                    resolveClass(loadedClass);
+                }
+                return loadedClass;
+            }
+        }
+
+        private static boolean isShared(String className) {
+            for (String sharedPackage : SHARED_PACKAGES) {
+                if (className.startsWith(sharedPackage)) {
+                    return true;
+                }
+            }
+            for (String sharedClass : SHARED_CLASSES) {
+                // Nested classes go with the class they are nested in
+                if (className.equals(sharedClass) || className.startsWith(sharedClass + "$")) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
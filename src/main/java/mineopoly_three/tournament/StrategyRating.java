@@ -0,0 +1,77 @@
+package mineopoly_three.tournament;
+
+/**
+ * A strategy's Elo rating in a league and the running totals of the games behind it
+ */
+public class StrategyRating {
+    private final String strategyName;
+    private double rating;
+    private int numGames;
+    private int numWins;
+    private int numDraws;
+    private long totalScore;
+
+    StrategyRating(String strategyName, double initialRating) {
+        this.strategyName = strategyName;
+        this.rating = initialRating;
+    }
+
+    /**
+     * @return A copy that later games won't change
+     */
+    StrategyRating copy() {
+        StrategyRating copy = new StrategyRating(strategyName, rating);
+        copy.numGames = numGames;
+        copy.numWins = numWins;
+        copy.numDraws = numDraws;
+        copy.totalScore = totalScore;
+        return copy;
+    }
+
+    void recordGame(double ratingChange, int score, int opponentScore) {
+        rating += ratingChange;
+        numGames++;
+        totalScore += score;
+        if (score > opponentScore) {
+            numWins++;
+        } else if (score == opponentScore) {
+            numDraws++;
+        }
+    }
+
+    public String getStrategyName() {
+        return strategyName;
+    }
+
+    public double getRating() {
+        return rating;
+    }
+
+    public int getNumGames() {
+        return numGames;
+    }
+
+    /**
+     * @return The number of games where this strategy outscored its opponent
+     */
+    public int getNumWins() {
+        return numWins;
+    }
+
+    public int getNumDraws() {
+        return numDraws;
+    }
+
+    public int getNumLosses() {
+        return numGames - numWins - numDraws;
+    }
+
+    public double getMeanScore() {
+        return (numGames == 0) ? 0 : ((double) totalScore) / numGames;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %.1f (%d-%d-%d)", strategyName, rating, numWins, numDraws, getNumLosses());
+    }
+}
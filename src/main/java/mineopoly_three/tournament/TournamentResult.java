@@ -0,0 +1,157 @@
+package mineopoly_three.tournament;
+
+import mineopoly_three.metrics.StrategyTimings;
+
+import java.util.Arrays;
+
+/**
+ * The merged results of every round played in a tournament. Rounds are always stored in seed order, so the
+ *  results are identical no matter how many Threads the tournament was sharded across.
+ */
+public class TournamentResult {
+    private final int boardSize;
+    private final RoundResult[] roundResults;
+    private final StrategyTimings redStrategyTimings;
+    private final StrategyTimings blueStrategyTimings;
+
+    public TournamentResult(int boardSize, RoundResult[] roundResults) {
+        this(boardSize, roundResults, new StrategyTimings(), new StrategyTimings());
+    }
+
+    /**
+     * @param redStrategyTimings How long the red strategy took to answer the GameEngine, over every round
+     * @param blueStrategyTimings How long the blue strategy took to answer the GameEngine, over every round
+     */
+    public TournamentResult(int boardSize, RoundResult[] roundResults, StrategyTimings redStrategyTimings,
+                            StrategyTimings blueStrategyTimings) {
+        this.boardSize = boardSize;
+        this.roundResults = roundResults;
+        this.redStrategyTimings = redStrategyTimings;
+        this.blueStrategyTimings = blueStrategyTimings;
+    }
+
+    public int getBoardSize() {
+        return boardSize;
+    }
+
+    public StrategyTimings getRedStrategyTimings() {
+        return redStrategyTimings;
+    }
+
+    public StrategyTimings getBlueStrategyTimings() {
+        return blueStrategyTimings;
+    }
+
+    public int getNumRounds() {
+        return roundResults.length;
+    }
+
+    /**
+     * Gets the result of a round, in the order that seeds were assigned
+     *
+     * @param roundIndex The index of the round, from 0 to getNumRounds() - 1
+     * @return The RoundResult of that round
+     */
+    public RoundResult getRoundResult(int roundIndex) {
+        return roundResults[roundIndex];
+    }
+
+    /**
+     * @return The number of rounds where the red player reached the minimum score needed to win
+     */
+    public int getNumRoundsWonByMinScore() {
+        int numRoundsWon = 0;
+        for (RoundResult roundResult : roundResults) {
+            if (roundResult.redReachedWinningScore()) {
+                numRoundsWon++;
+            }
+        }
+        return numRoundsWon;
+    }
+
+    /**
+     * @return The number of rounds where the red player outscored the blue player
+     */
+    public int getNumRoundsWonHeadToHead() {
+        int numRoundsWon = 0;
+        for (RoundResult roundResult : roundResults) {
+            if (roundResult.redWonHeadToHead()) {
+                numRoundsWon++;
+            }
+        }
+        return numRoundsWon;
+    }
+
+    /**
+     * @return The fraction of rounds where the red player reached the minimum score needed to win
+     */
+    public double getWinPercent() {
+        if (roundResults.length == 0) {
+            return 0;
+        }
+        return ((double) getNumRoundsWonByMinScore()) / roundResults.length;
+    }
+
+    /**
+     * @return Every red player score, sorted in ascending order
+     */
+    public int[] getSortedRedScores() {
+        int[] redScores = new int[roundResults.length];
+        for (int i = 0; i < roundResults.length; i++) {
+            redScores[i] = roundResults[i].getRedScore();
+        }
+        Arrays.sort(redScores);
+        return redScores;
+    }
+
+    /**
+     * @return Every blue player score, sorted in ascending order
+     */
+    public int[] getSortedBlueScores() {
+        int[] blueScores = new int[roundResults.length];
+        for (int i = 0; i < roundResults.length; i++) {
+            blueScores[i] = roundResults[i].getBlueScore();
+        }
+        Arrays.sort(blueScores);
+        return blueScores;
+    }
+
+    /**
+     * Computes a percentile of the red player's score distribution using the nearest-rank method
+     *
+     * @param percentile The percentile to compute, between 0 and 100
+     * @return The red player score at that percentile, or 0 if no rounds were played
+     */
+    public int getRedScorePercentile(double percentile) {
+        return getPercentile(getSortedRedScores(), percentile);
+    }
+
+    /**
+     * Computes a percentile of the blue player's score distribution using the nearest-rank method
+     *
+     * @param percentile The percentile to compute, between 0 and 100
+     * @return The blue player score at that percentile, or 0 if no rounds were played
+     */
+    public int getBlueScorePercentile(double percentile) {
+        return getPercentile(getSortedBlueScores(), percentile);
+    }
+
+    public double getMeanRedScore() {
+        return Arrays.stream(roundResults).mapToInt(RoundResult::getRedScore).average().orElse(0);
+    }
+
+    public double getMeanBlueScore() {
+        return Arrays.stream(roundResults).mapToInt(RoundResult::getBlueScore).average().orElse(0);
+    }
+
+    private static int getPercentile(int[] sortedScores, double percentile) {
+        assert percentile >= 0 && percentile <= 100;
+        if (sortedScores.length == 0) {
+            return 0;
+        }
+
+        int rank = (int) Math.ceil((percentile / 100) * sortedScores.length);
+        int index = Math.max(rank - 1, 0);
+        return sortedScores[index];
+    }
+}
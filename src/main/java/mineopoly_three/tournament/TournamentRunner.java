@@ -0,0 +1,161 @@
+package mineopoly_three.tournament;
+
+import mineopoly_three.game.BoardTemplateCache;
+import mineopoly_three.game.GameEngine;
+import mineopoly_three.metrics.MetricsSink;
+import mineopoly_three.metrics.StrategyTimings;
+import mineopoly_three.strategy.MinePlayerStrategy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Plays many rounds of Mine-opoly between two strategies, sharding the rounds across a pool of worker Threads.
+ * Every round i is played on the seed (firstSeed + i) with brand new strategy instances, and each worker owns
+ *  its own GameEngine, so the outcome of a round only depends on its seed and not on which worker played it.
+ */
+public class TournamentRunner {
+    private final int parallelism;
+    private BoardTemplateCache boardTemplateCache;
+    private long strategyTimeBudgetMillis;
+    private MetricsSink metricsSink;
+
+    /**
+     * @param parallelism The maximum number of worker Threads to play rounds on at the same time
+     */
+    public TournamentRunner(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("A tournament needs at least one worker Thread");
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * @return A TournamentRunner with one worker Thread for every available processor
+     */
+    public static TournamentRunner withAvailableProcessors() {
+        return new TournamentRunner(Runtime.getRuntime().availableProcessors());
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Shares a cache of generated worlds between every worker, so tournaments that replay the same seeds with other
+     *  strategies don't generate the same worlds again
+     *
+     * @param boardTemplateCache The cache every worker takes its boards from, or null to always generate boards
+     */
+    public void setBoardTemplateCache(BoardTemplateCache boardTemplateCache) {
+        this.boardTemplateCache = boardTemplateCache;
+    }
+
+    /**
+     * Holds every strategy call in every round to a time budget, so one slow strategy can't stall the tournament.
+     *  See GameEngine.setStrategyTimeBudgetMillis
+     *
+     * @param strategyTimeBudgetMillis The most milliseconds each strategy call can take, or 0 for no limit
+     */
+    public void setStrategyTimeBudgetMillis(long strategyTimeBudgetMillis) {
+        if (strategyTimeBudgetMillis < 0) {
+            throw new IllegalArgumentException("The strategy time budget can't be negative");
+        }
+        this.strategyTimeBudgetMillis = strategyTimeBudgetMillis;
+    }
+
+    /**
+     * Sends the EngineMetrics of every round to a sink as each round ends. Rounds end on many worker Threads at once,
+     *  so the order rounds reach the sink in is not the order they were scheduled in
+     *
+     * @param metricsSink Where to send the metrics of every round, or null to not collect metrics
+     */
+    public void setMetricsSink(MetricsSink metricsSink) {
+        this.metricsSink = metricsSink;
+    }
+
+    /**
+     * Plays a tournament where the red strategy always plays against the blue strategy
+     *
+     * @param redStrategyFactory Creates the strategy that plays as the red player every round
+     * @param blueStrategyFactory Creates the strategy that plays as the blue player every round
+     * @param boardSize The size of the board used for every round
+     * @param numRounds The total number of rounds to play
+     * @param firstSeed The seed of the first round, round i is played with seed (firstSeed + i)
+     * @return The results of every round, merged in seed order
+     */
+    public TournamentResult runTournament(StrategyFactory redStrategyFactory, StrategyFactory blueStrategyFactory,
+                                          int boardSize, int numRounds, long firstSeed) {
+        RoundResult[] roundResults = new RoundResult[numRounds];
+        // Timings are only ever added to, which is safe from every worker at once
+        StrategyTimings redStrategyTimings = new StrategyTimings();
+        StrategyTimings blueStrategyTimings = new StrategyTimings();
+        int numShards = Math.min(parallelism, numRounds);
+        if (numShards == 0) {
+            return new TournamentResult(boardSize, roundResults, redStrategyTimings, blueStrategyTimings);
+        }
+
+        // Each shard gets a contiguous range of rounds and writes only to its own slice of the results
+        List<Callable<Void>> shards = new ArrayList<>(numShards);
+        for (int shard = 0; shard < numShards; shard++) {
+            int firstRound = (int) ((long) shard * numRounds / numShards);
+            int lastRound = (int) ((long) (shard + 1) * numRounds / numShards);
+            shards.add(() -> {
+                playRounds(redStrategyFactory, blueStrategyFactory, boardSize, firstSeed, firstRound, lastRound,
+                           roundResults, redStrategyTimings, blueStrategyTimings);
+                return null;
+            });
+        }
+
+        ForkJoinPool workerPool = new ForkJoinPool(numShards);
+        try {
+            for (Future<Void> shardResult : workerPool.invokeAll(shards)) {
+                shardResult.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for tournament rounds to finish", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A tournament worker failed", e.getCause());
+        } finally {
+            workerPool.shutdown();
+        }
+
+        return new TournamentResult(boardSize, roundResults, redStrategyTimings, blueStrategyTimings);
+    }
+
+    private void playRounds(StrategyFactory redStrategyFactory, StrategyFactory blueStrategyFactory,
+                            int boardSize, long firstSeed, int firstRound, int lastRound,
+                            RoundResult[] roundResults, StrategyTimings redStrategyTimings,
+                            StrategyTimings blueStrategyTimings) {
+        GameEngine engine = null;
+        for (int round = firstRound; round < lastRound; round++) {
+            long roundSeed = firstSeed + round;
+            MinePlayerStrategy redStrategy = redStrategyFactory.createStrategy();
+            MinePlayerStrategy blueStrategy = blueStrategyFactory.createStrategy();
+
+            if (engine == null) {
+                // The constructor always generates its board, the cache is used from the worker's second round on
+                engine = new GameEngine(boardSize, redStrategy, blueStrategy, roundSeed);
+                engine.setHeadless(true);
+                engine.setBoardTemplateCache(boardTemplateCache);
+                engine.setStrategyTimeBudgetMillis(strategyTimeBudgetMillis);
+                engine.setMetricsSink(metricsSink);
+            } else {
+                engine.reset(boardSize, roundSeed, redStrategy, blueStrategy);
+            }
+            engine.runGame();
+            redStrategyTimings.add(engine.getRedPlayer().getStrategyTimings());
+            blueStrategyTimings.add(engine.getBluePlayer().getStrategyTimings());
+
+            int redScore = engine.getRedPlayerScore();
+            int blueScore = engine.getBluePlayerScore();
+            boolean redReachedWinningScore = (redScore >= engine.getMinScoreToWin());
+            roundResults[round] = new RoundResult(roundSeed, redScore, blueScore, redReachedWinningScore);
+        }
+    }
+}
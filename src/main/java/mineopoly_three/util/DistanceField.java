@@ -0,0 +1,215 @@
+package mineopoly_three.util;
+
+import java.util.Arrays;
+
+/**
+ * The walking distance from every tile on the board to the nearest of a set of source tiles, computed with a
+ *  multi-source breadth first search. Tiles are indexed by x + y * boardSize.
+ *
+ * Sources can be added and removed after the field is built. Adding a source only searches the tiles it is now
+ *  the nearest source of. Removing a source only clears the tiles it was the nearest source of, then searches
+ *  them again starting from the tiles around them.
+ */
+public class DistanceField {
+    /** The distance to every tile when there are no sources at all */
+    public static final int UNREACHABLE = -1;
+    private static final int NO_SOURCE = -1;
+
+    private final int boardSize;
+    private final int[] distances;
+    // The source each tile's distance was measured from
+    private final int[] nearestSources;
+    // Reused between searches, a search never has more than every tile in it
+    private final int[] searchQueue;
+
+    DistanceField(int boardSize) {
+        this.boardSize = boardSize;
+        this.distances = new int[boardSize * boardSize];
+        this.nearestSources = new int[boardSize * boardSize];
+        this.searchQueue = new int[boardSize * boardSize];
+        Arrays.fill(distances, Integer.MAX_VALUE);
+        Arrays.fill(nearestSources, NO_SOURCE);
+    }
+
+    public int getBoardSize() {
+        return boardSize;
+    }
+
+    /**
+     * @param x The x coordinate of a tile
+     * @param y The y coordinate of a tile
+     * @return The number of moves from the tile to the nearest source, or UNREACHABLE if there are no sources
+     *          or the tile is outside the board
+     */
+    public int getDistance(int x, int y) {
+        if (x < 0 || x >= boardSize || y < 0 || y >= boardSize) {
+            return UNREACHABLE;
+        }
+        int distance = distances[x + y * boardSize];
+        return (distance == Integer.MAX_VALUE) ? UNREACHABLE : distance;
+    }
+
+    /**
+     * Searches the whole board from a set of sources at once
+     *
+     * @param sourceTiles The indices of every source tile
+     * @param numSources How many entries of sourceTiles are used
+     */
+    void build(int[] sourceTiles, int numSources) {
+        int queueEnd = 0;
+        for (int i = 0; i < numSources; i++) {
+            int sourceTile = sourceTiles[i];
+            if (distances[sourceTile] != 0) {
+                distances[sourceTile] = 0;
+                nearestSources[sourceTile] = sourceTile;
+                searchQueue[queueEnd++] = sourceTile;
+            }
+        }
+        search(queueEnd);
+    }
+
+    void addSource(int sourceTile) {
+        if (distances[sourceTile] == 0) {
+            return;
+        }
+        distances[sourceTile] = 0;
+        nearestSources[sourceTile] = sourceTile;
+        searchQueue[0] = sourceTile;
+        search(1);
+    }
+
+    void removeSource(int sourceTile) {
+        if (nearestSources[sourceTile] != sourceTile) {
+            return;
+        }
+
+        // The tiles measured from this source are connected to it, because each one was reached from a neighbor
+        //  measured from the same source
+        int regionEnd = 0;
+        searchQueue[regionEnd++] = sourceTile;
+        distances[sourceTile] = Integer.MAX_VALUE;
+        nearestSources[sourceTile] = NO_SOURCE;
+        for (int regionIndex = 0; regionIndex < regionEnd; regionIndex++) {
+            int tile = searchQueue[regionIndex];
+            int x = tile % boardSize;
+            int y = tile / boardSize;
+            regionEnd = clearIfMeasuredFrom(x - 1, y, sourceTile, regionEnd);
+            regionEnd = clearIfMeasuredFrom(x + 1, y, sourceTile, regionEnd);
+            regionEnd = clearIfMeasuredFrom(x, y - 1, sourceTile, regionEnd);
+            regionEnd = clearIfMeasuredFrom(x, y + 1, sourceTile, regionEnd);
+        }
+
+        // Search the cleared region again from every tile bordering it, nearest border tiles first. A border tile
+        //  touching the region more than once is searched from more than once, which finds nothing new
+        int[] borderTiles = new int[regionEnd * 4];
+        int borderEnd = 0;
+        for (int regionIndex = 0; regionIndex < regionEnd; regionIndex++) {
+            int tile = searchQueue[regionIndex];
+            int x = tile % boardSize;
+            int y = tile / boardSize;
+            borderEnd = addBorderTile(x - 1, y, borderTiles, borderEnd);
+            borderEnd = addBorderTile(x + 1, y, borderTiles, borderEnd);
+            borderEnd = addBorderTile(x, y - 1, borderTiles, borderEnd);
+            borderEnd = addBorderTile(x, y + 1, borderTiles, borderEnd);
+        }
+        if (borderEnd == 0) {
+            // That was the last source
+            return;
+        }
+
+        borderTiles = Arrays.copyOf(borderTiles, borderEnd);
+        sortByDistance(borderTiles);
+        repairFrom(borderTiles);
+    }
+
+    private int clearIfMeasuredFrom(int x, int y, int sourceTile, int regionEnd) {
+        if (x < 0 || x >= boardSize || y < 0 || y >= boardSize) {
+            return regionEnd;
+        }
+        int tile = x + y * boardSize;
+        if (nearestSources[tile] != sourceTile) {
+            return regionEnd;
+        }
+        distances[tile] = Integer.MAX_VALUE;
+        nearestSources[tile] = NO_SOURCE;
+        searchQueue[regionEnd] = tile;
+        return regionEnd + 1;
+    }
+
+    private int addBorderTile(int x, int y, int[] borderTiles, int borderEnd) {
+        if (x < 0 || x >= boardSize || y < 0 || y >= boardSize) {
+            return borderEnd;
+        }
+        int tile = x + y * boardSize;
+        if (nearestSources[tile] == NO_SOURCE) {
+            return borderEnd;
+        }
+        borderTiles[borderEnd] = tile;
+        return borderEnd + 1;
+    }
+
+    private void sortByDistance(int[] tiles) {
+        long[] distanceThenTile = new long[tiles.length];
+        for (int i = 0; i < tiles.length; i++) {
+            distanceThenTile[i] = ((long) distances[tiles[i]] << 32) | tiles[i];
+        }
+        Arrays.sort(distanceThenTile);
+        for (int i = 0; i < tiles.length; i++) {
+            tiles[i] = (int) distanceThenTile[i];
+        }
+    }
+
+    /**
+     * A breadth first search starting from tiles at different distances. The border tiles are sorted by distance
+     *  and every tile the search reaches is further than the tile it came from, so always taking the nearer of the
+     *  next border tile and the next queued tile visits tiles in order of distance
+     */
+    private void repairFrom(int[] borderTiles) {
+        int nextBorderTile = 0;
+        int queueStart = 0;
+        int queueEnd = 0;
+        while (nextBorderTile < borderTiles.length || queueStart < queueEnd) {
+            int tile;
+            boolean borderIsNearer = queueStart == queueEnd || (nextBorderTile < borderTiles.length
+                    && distances[borderTiles[nextBorderTile]] <= distances[searchQueue[queueStart]]);
+            if (borderIsNearer) {
+                tile = borderTiles[nextBorderTile++];
+            } else {
+                tile = searchQueue[queueStart++];
+            }
+            queueEnd = relaxNeighbors(tile, queueEnd);
+        }
+    }
+
+    private void search(int queueEnd) {
+        int queueStart = 0;
+        while (queueStart < queueEnd) {
+            queueEnd = relaxNeighbors(searchQueue[queueStart++], queueEnd);
+        }
+    }
+
+    private int relaxNeighbors(int tile, int queueEnd) {
+        int x = tile % boardSize;
+        int y = tile / boardSize;
+        int nextDistance = distances[tile] + 1;
+        int source = nearestSources[tile];
+        queueEnd = relax(x - 1, y, nextDistance, source, queueEnd);
+        queueEnd = relax(x + 1, y, nextDistance, source, queueEnd);
+        queueEnd = relax(x, y - 1, nextDistance, source, queueEnd);
+        return relax(x, y + 1, nextDistance, source, queueEnd);
+    }
+
+    private int relax(int x, int y, int distance, int source, int queueEnd) {
+        if (x < 0 || x >= boardSize || y < 0 || y >= boardSize) {
+            return queueEnd;
+        }
+        int tile = x + y * boardSize;
+        if (distances[tile] <= distance) {
+            return queueEnd;
+        }
+        distances[tile] = distance;
+        nearestSources[tile] = source;
+        searchQueue[queueEnd] = tile;
+        return queueEnd + 1;
+    }
+}
@@ -0,0 +1,157 @@
+package mineopoly_three.util;
+
+import mineopoly_three.action.TurnAction;
+import mineopoly_three.strategy.PlayerBoardView;
+import mineopoly_three.tiles.TileType;
+
+import java.awt.Point;
+
+/**
+ * Finds the way to the nearest tile of a given TileType. The first time a type is asked about, a DistanceField is
+ *  built from every tile of that type at once, after which the distance to the nearest one and the move towards it
+ *  are a single lookup from anywhere on the board.
+ *
+ * The fields are kept in sync with later views of the same game through the board's tile change log. A tile
+ *  changing type only updates the fields of its old and new type, and only around that tile.
+ */
+public class PathFinder {
+    private static final TileType[] allTileTypes = TileType.values();
+    // Moves along x come first, the same as Tool.moveToDestination
+    private static final TurnAction[] allMoves = {
+            TurnAction.MOVE_RIGHT, TurnAction.MOVE_LEFT, TurnAction.MOVE_UP, TurnAction.MOVE_DOWN
+    };
+    private static final int[] moveXChanges = {1, -1, 0, 0};
+    private static final int[] moveYChanges = {0, 0, 1, -1};
+
+    private PlayerBoardView lastSyncedView;
+    private int numSyncedChanges;
+    private int boardSize;
+    // Indexed by x + y * boardSize, the type each tile had when last synced
+    private TileType[] tileTypes;
+    // Indexed by TileType ordinal, null until that type is first asked about
+    private DistanceField[] distanceFields;
+
+    public PathFinder(PlayerBoardView board) {
+        rebuild(board);
+    }
+
+    /**
+     * Brings the distance fields up to date with a newer view of the board. Only tiles that changed type since the
+     *  last view are looked at, unless the view is of a different board, which throws every field away
+     *
+     * @param board The latest view of the board
+     */
+    public void sync(PlayerBoardView board) {
+        if (board == lastSyncedView) {
+            return;
+        }
+        if (!board.sharesTilesWith(lastSyncedView) || board.getTileChangeCount() < numSyncedChanges) {
+            rebuild(board);
+            return;
+        }
+
+        int numChanges = board.getTileChangeCount();
+        for (int changeNumber = numSyncedChanges; changeNumber < numChanges; changeNumber++) {
+            Point changedTile = board.getChangedTileLocation(changeNumber);
+            int tileIndex = changedTile.x + changedTile.y * boardSize;
+            TileType oldTileType = tileTypes[tileIndex];
+            TileType newTileType = board.getTileTypeAtLocation(changedTile);
+            if (oldTileType == newTileType) {
+                // The tile changed back and forth between syncs
+                continue;
+            }
+
+            tileTypes[tileIndex] = newTileType;
+            DistanceField oldField = distanceFields[oldTileType.ordinal()];
+            if (oldField != null) {
+                oldField.removeSource(tileIndex);
+            }
+            DistanceField newField = distanceFields[newTileType.ordinal()];
+            if (newField != null) {
+                newField.addSource(tileIndex);
+            }
+        }
+        numSyncedChanges = numChanges;
+        lastSyncedView = board;
+    }
+
+    /**
+     * @param tileType The type of tile to find the way to
+     * @return The distance from every tile on the board to the nearest tile of that type
+     */
+    public DistanceField getDistanceField(TileType tileType) {
+        DistanceField distanceField = distanceFields[tileType.ordinal()];
+        if (distanceField == null) {
+            distanceField = buildDistanceField(tileType);
+            distanceFields[tileType.ordinal()] = distanceField;
+        }
+        return distanceField;
+    }
+
+    /**
+     * @param tileType The type of tile to find the way to
+     * @param location Where to measure from
+     * @return The number of moves to the nearest tile of that type, or DistanceField.UNREACHABLE if there are none
+     */
+    public int getDistance(TileType tileType, Point location) {
+        return getDistanceField(tileType).getDistance(location.x, location.y);
+    }
+
+    /**
+     * Picks the move that gets one step closer to the nearest tile of a type without walking into the other
+     *  player. If the other player is standing on every way forward, there is no move, since a MoveAction onto them
+     *  would fail anyway and they are likely to have moved on next turn
+     *
+     * @param tileType The type of tile to find the way to
+     * @param currentLocation Where the move starts
+     * @param otherPlayerLocation Where the other player is standing, or null to ignore them
+     * @return The move to make, or null if already on a tile of that type, there are none, or the way is blocked
+     */
+    public TurnAction getNextMove(TileType tileType, Point currentLocation, Point otherPlayerLocation) {
+        DistanceField distanceField = getDistanceField(tileType);
+        int currentDistance = distanceField.getDistance(currentLocation.x, currentLocation.y);
+        if (currentDistance == DistanceField.UNREACHABLE || currentDistance == 0) {
+            return null;
+        }
+
+        for (int moveIndex = 0; moveIndex < allMoves.length; moveIndex++) {
+            int nextX = currentLocation.x + moveXChanges[moveIndex];
+            int nextY = currentLocation.y + moveYChanges[moveIndex];
+            if (otherPlayerLocation != null && otherPlayerLocation.x == nextX && otherPlayerLocation.y == nextY) {
+                continue;
+            }
+            int nextDistance = distanceField.getDistance(nextX, nextY);
+            if (nextDistance != DistanceField.UNREACHABLE && nextDistance < currentDistance) {
+                return allMoves[moveIndex];
+            }
+        }
+        return null;
+    }
+
+    private DistanceField buildDistanceField(TileType tileType) {
+        int[] sourceTiles = new int[tileTypes.length];
+        int numSources = 0;
+        for (int tileIndex = 0; tileIndex < tileTypes.length; tileIndex++) {
+            if (tileTypes[tileIndex] == tileType) {
+                sourceTiles[numSources++] = tileIndex;
+            }
+        }
+
+        DistanceField distanceField = new DistanceField(boardSize);
+        distanceField.build(sourceTiles, numSources);
+        return distanceField;
+    }
+
+    private void rebuild(PlayerBoardView board) {
+        boardSize = board.getBoardSize();
+        tileTypes = new TileType[boardSize * boardSize];
+        for (int x = 0; x < boardSize; x++) {
+            for (int y = 0; y < boardSize; y++) {
+                tileTypes[x + y * boardSize] = board.getTileTypeAtLocation(x, y);
+            }
+        }
+        distanceFields = new DistanceField[allTileTypes.length];
+        numSyncedChanges = board.getTileChangeCount();
+        lastSyncedView = board;
+    }
+}
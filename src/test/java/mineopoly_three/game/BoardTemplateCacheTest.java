@@ -0,0 +1,101 @@
+package mineopoly_three.game;
+
+import mineopoly_three.strategy.PlayerStrategy;
+import mineopoly_three.strategy.RandomStrategy;
+import mineopoly_three.tiles.TileType;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class BoardTemplateCacheTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private static String playGame(long seed, int worldGeneratorVersion, BoardTemplateCache cache) {
+        GameEngine engine = new GameEngine(20, new PlayerStrategy(), new RandomStrategy(), seed,
+                                           worldGeneratorVersion);
+        engine.setHeadless(true);
+        if (cache != null) {
+            engine.setBoardTemplateCache(cache);
+            engine.reset(20, seed, new PlayerStrategy(), new RandomStrategy());
+        }
+        engine.runGame();
+        return engine.getRedPlayerScore() + " " + engine.getBluePlayerScore() + " " + engine.getReplay();
+    }
+
+    @Test
+    public void test_cachedBoardsPlayLikeGeneratedBoards() {
+        BoardTemplateCache cache = new BoardTemplateCache(4);
+        for (long seed = 40; seed < 44; seed++) {
+            assertEquals(playGame(seed, WorldGenerator.LEGACY_VERSION, null),
+                         playGame(seed, WorldGenerator.LEGACY_VERSION, cache));
+            assertEquals(playGame(seed, WorldGenerator.SECTOR_VERSION, null),
+                         playGame(seed, WorldGenerator.SECTOR_VERSION, cache));
+        }
+        // Playing the same seeds again only takes copies of the templates
+        assertEquals(playGame(43, WorldGenerator.SECTOR_VERSION, null),
+                     playGame(43, WorldGenerator.SECTOR_VERSION, cache));
+        assertEquals(8, cache.getMissCount());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void test_leastRecentlyUsedTemplateIsEvicted() {
+        BoardTemplateCache cache = new BoardTemplateCache(2);
+        cache.getTemplate(1, 14, WorldGenerator.LEGACY_VERSION);
+        cache.getTemplate(2, 14, WorldGenerator.LEGACY_VERSION);
+        cache.getTemplate(1, 14, WorldGenerator.LEGACY_VERSION);
+        cache.getTemplate(3, 14, WorldGenerator.LEGACY_VERSION);
+        assertEquals(2, cache.size());
+
+        // Seed 2 was used least recently, so it is the one that has to be generated again
+        cache.getTemplate(1, 14, WorldGenerator.LEGACY_VERSION);
+        cache.getTemplate(2, 14, WorldGenerator.LEGACY_VERSION);
+        assertEquals(2, cache.getHitCount());
+        assertEquals(4, cache.getMissCount());
+    }
+
+    @Test
+    public void test_diskTierOutlivesCache() throws Exception {
+        Path diskDirectory = temporaryFolder.newFolder().toPath();
+        BoardTemplateCache firstCache = new BoardTemplateCache(1);
+        firstCache.setDiskDirectory(diskDirectory);
+        GameBoard generatedBoard = firstCache.createBoard(9, 26, WorldGenerator.SECTOR_VERSION);
+
+        BoardTemplateCache secondCache = new BoardTemplateCache(1);
+        secondCache.setDiskDirectory(diskDirectory);
+        GameBoard boardFromDisk = secondCache.createBoard(9, 26, WorldGenerator.SECTOR_VERSION);
+        assertEquals(1, secondCache.getDiskHitCount());
+        assertEquals(0, secondCache.getMissCount());
+        assertArrayEquals(WorldGeneratorTest.getTileTypes(generatedBoard),
+                          WorldGeneratorTest.getTileTypes(boardFromDisk));
+        assertEquals(generatedBoard.getRedStartTileLocation(), boardFromDisk.getRedStartTileLocation());
+        assertEquals(generatedBoard.getBlueStartTileLocation(), boardFromDisk.getBlueStartTileLocation());
+    }
+
+    @Test
+    public void test_failedWriteLeavesNoPartialFile() throws IOException {
+        Path diskDirectory = temporaryFolder.newFolder().toPath();
+        // A directory where the template should go makes the final rename fail
+        Path blockedTemplate = diskDirectory.resolve("board-v" + WorldGenerator.SECTOR_VERSION + "-26-9.template");
+        Files.createDirectory(blockedTemplate);
+        Files.createFile(blockedTemplate.resolve("occupied"));
+
+        BoardTemplateCache cache = new BoardTemplateCache(1);
+        cache.setDiskDirectory(diskDirectory);
+        cache.createBoard(9, 26, WorldGenerator.SECTOR_VERSION);
+        try (Stream<Path> cachedFiles = Files.list(diskDirectory)) {
+            assertEquals(Collections.singletonList(blockedTemplate), cachedFiles.collect(Collectors.toList()));
+        }
+    }
+}
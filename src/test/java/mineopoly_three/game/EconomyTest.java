@@ -0,0 +1,86 @@
+package mineopoly_three.game;
+
+import mineopoly_three.item.InventoryItem;
+import mineopoly_three.item.ItemType;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+
+public class EconomyTest {
+    private Economy economy;
+
+    @Before
+    public void setUp() {
+        economy = new Economy(new ItemType[]{ItemType.DIAMOND, ItemType.EMERALD, ItemType.RUBY});
+        economy.setNotificationsEnabled(false);
+    }
+
+    @Test
+    public void test_sellLowersPricesBySupply() {
+        economy.increaseDemand();
+        int soldFor = economy.sellResources(Arrays.asList(new InventoryItem(ItemType.DIAMOND),
+                new InventoryItem(ItemType.DIAMOND), new InventoryItem(ItemType.RUBY),
+                new InventoryItem(ItemType.AUTOMINER)));
+
+        assertEquals(2 * 155 + 53, soldFor);
+        assertEquals((int) (155 * (1 - 2 / 8.0)), economy.getPrice(ItemType.DIAMOND));
+        assertEquals(104, economy.getPrice(ItemType.EMERALD));
+        assertEquals((int) (53 * (1 - 1 / 8.0)), economy.getPrice(ItemType.RUBY));
+        assertEquals(0, economy.getPrice(ItemType.AUTOMINER));
+
+        // Counts from one sale don't carry over into the next
+        assertEquals(economy.getPrice(ItemType.RUBY),
+                     economy.sellResources(Arrays.asList(new InventoryItem(ItemType.RUBY))));
+    }
+
+    @Test
+    public void test_pricesSnapshotIsSharedUntilPricesChange() {
+        Map<ItemType, Integer> snapshot = economy.getCurrentPrices();
+        assertSame(snapshot, economy.getCurrentPrices());
+        assertFalse(snapshot.containsKey(ItemType.AUTOMINER));
+
+        int versionBefore = economy.getPriceVersion();
+        economy.increaseDemand();
+        assertEquals(versionBefore + 1, economy.getPriceVersion());
+        assertEquals(Integer.valueOf(150), snapshot.get(ItemType.DIAMOND));
+        assertEquals(Integer.valueOf(155), economy.getCurrentPrices().get(ItemType.DIAMOND));
+    }
+
+    @Test
+    public void test_pricesSnapshotReadFromOtherThreads() throws Exception {
+        AtomicBoolean done = new AtomicBoolean(false);
+        AtomicInteger missingSnapshots = new AtomicInteger();
+        Thread reader = new Thread(() -> {
+            while (!done.get()) {
+                Map<ItemType, Integer> snapshot = economy.getCurrentPrices();
+                if (snapshot == null || snapshot.size() != 3) {
+                    missingSnapshots.incrementAndGet();
+                }
+            }
+        });
+        reader.start();
+        try {
+            for (int turn = 0; turn < 100_000; turn++) {
+                economy.increaseDemand();
+                economy.getCurrentPrices();
+            }
+        } finally {
+            done.set(true);
+            reader.join();
+        }
+        assertEquals(0, missingSnapshots.get());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void test_pricesSnapshotCannotBeModified() {
+        economy.getCurrentPrices().put(ItemType.DIAMOND, 0);
+    }
+}
@@ -0,0 +1,347 @@
+package mineopoly_three.game;
+
+import mineopoly_three.action.TurnAction;
+import mineopoly_three.item.InventoryItem;
+import mineopoly_three.item.ItemType;
+import mineopoly_three.strategy.PlayerBoardView;
+import mineopoly_three.strategy.RandomStrategy;
+import mineopoly_three.tiles.MineableTile;
+import mineopoly_three.tiles.MiningState;
+import mineopoly_three.tiles.RechargeTile;
+import mineopoly_three.tiles.Tile;
+import mineopoly_three.tiles.TileType;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class GameBoardTest {
+    private static final int BOARD_SIZE = 4;
+    private static final long SEED = 2021;
+    private static final ItemType[] RESOURCE_TYPES = {ItemType.DIAMOND, ItemType.EMERALD, ItemType.RUBY};
+    private static final int[][] NEIGHBOR_OFFSETS = {{0, 1}, {0, -1}, {1, 0}, {-1, 0}, {0, 0}};
+    private GameBoard board;
+    private MinePlayer redPlayer;
+    private MinePlayer bluePlayer;
+
+    @Before
+    public void setUp() {
+        Tile[][] tiles = new Tile[BOARD_SIZE][BOARD_SIZE];
+        for (int i = 0; i < BOARD_SIZE; i++) {
+            for (int j = 0; j < BOARD_SIZE; j++) {
+                tiles[i][j] = new MineableTile(new Point(j, (BOARD_SIZE - 1) - i));
+            }
+        }
+        board = new GameBoard(tiles);
+
+        Economy economy = new Economy(new ItemType[]{ItemType.DIAMOND, ItemType.EMERALD, ItemType.RUBY});
+        redPlayer = new MinePlayer(new RandomStrategy(), board.getTileAtLocation(0, 0), economy, 0, true);
+        bluePlayer = new MinePlayer(new RandomStrategy(), board.getTileAtLocation(3, 3), economy, 0, false);
+    }
+
+    @Test
+    public void test_viewItemsUnaffectedByLaterChanges() {
+        PlayerBoardView view = board.convertToView(redPlayer, bluePlayer);
+        List<InventoryItem> newItems = Collections.singletonList(new InventoryItem(ItemType.RUBY));
+        board.trackItemsOnPoint(new Point(2, 1), newItems);
+
+        assertTrue(view.getItemsOnGround().get(new Point(2, 1)).isEmpty());
+        PlayerBoardView nextView = board.convertToView(redPlayer, bluePlayer);
+        assertEquals(newItems, nextView.getItemsOnGround().get(new Point(2, 1)));
+    }
+
+    @Test
+    public void test_viewHasEveryLocation() {
+        Map<Point, List<InventoryItem>> itemsOnGround = board.convertToView(redPlayer, bluePlayer).getItemsOnGround();
+        assertEquals(BOARD_SIZE * BOARD_SIZE, itemsOnGround.size());
+        assertEquals(BOARD_SIZE * BOARD_SIZE, itemsOnGround.keySet().size());
+        assertTrue(itemsOnGround.containsKey(new Point(3, 0)));
+        assertEquals(null, itemsOnGround.get(new Point(BOARD_SIZE, 0)));
+    }
+
+    @Test
+    public void test_unchangedBoardSharesSnapshot() {
+        PlayerBoardView redView = board.convertToView(redPlayer, bluePlayer);
+        PlayerBoardView blueView = board.convertToView(bluePlayer, redPlayer);
+        assertSame(redView.getItemsOnGround(), blueView.getItemsOnGround());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void test_viewItemsCannotBeModified() {
+        PlayerBoardView view = board.convertToView(redPlayer, bluePlayer);
+        view.getItemsOnGround().get(new Point(0, 0)).add(new InventoryItem(ItemType.RUBY));
+    }
+
+    @Test
+    public void test_packedViewTracksTileChanges() {
+        Point resourceLocation = new Point(1, 2);
+        board.setTileAtTileLocation(new MineableTile(resourceLocation, ItemType.EMERALD));
+        PlayerBoardView view = board.convertToView(redPlayer, bluePlayer);
+        assertEquals(TileType.RESOURCE_EMERALD, view.getTileTypeAtLocation(resourceLocation));
+
+        Tile minedOnce = board.getTileAtLocation(resourceLocation).interact(null, TurnAction.MINE);
+        board.trackItemsOnPoint(resourceLocation, minedOnce.getItemsOnTile());
+        assertEquals(1, view.getMiningProgressAtLocation(1, 2));
+
+        Tile minedOut = minedOnce.interact(null, TurnAction.MINE);
+        board.setTileAtTileLocation(minedOut);
+        board.trackItemsOnPoint(resourceLocation, minedOut.getItemsOnTile());
+        PlayerBoardView nextView = board.convertToView(redPlayer, bluePlayer);
+        assertEquals(TileType.EMPTY, nextView.getTileTypeAtLocation(resourceLocation));
+        assertEquals(1, nextView.getItemCountAtLocation(1, 2, ItemType.EMERALD));
+        assertEquals(1, nextView.getResourceCountAtLocation(1, 2));
+        assertEquals(0, view.getItemCountAtLocation(1, 2, ItemType.EMERALD));
+    }
+
+    @Test
+    public void test_miningChangesTileInPlace() {
+        Point resourceLocation = new Point(2, 2);
+        MineableTile resourceTile = new MineableTile(resourceLocation, ItemType.RUBY);
+        board.setTileAtTileLocation(resourceTile);
+        for (int i = 0; i < ItemType.RUBY.getTurnsToMine(); i++) {
+            assertSame(resourceTile, resourceTile.interact(null, TurnAction.MINE));
+        }
+        assertEquals(MiningState.CRACKED, resourceTile.getMiningState());
+        assertEquals(TileType.EMPTY, resourceTile.getType());
+        assertEquals(ItemType.RUBY, resourceTile.getItemsOnTile().get(0).getItemType());
+
+        // Autominers crack the empty tiles around them without replacing them
+        Point autominerLocation = new Point(0, 2);
+        Tile emptyTile = board.getTileAtLocation(1, 2);
+        board.trackItemsOnPoint(autominerLocation, Collections.singletonList(new InventoryItem(ItemType.AUTOMINER)));
+        board.update();
+        assertSame(emptyTile, board.getTileAtLocation(1, 2));
+        assertEquals(MiningState.CRACKED, ((MineableTile) emptyTile).getMiningState());
+    }
+
+    @Test
+    public void test_packedViewAutominerFlag() {
+        board.trackItemsOnPoint(new Point(3, 0), Collections.singletonList(new InventoryItem(ItemType.AUTOMINER)));
+        PlayerBoardView view = board.convertToView(redPlayer, bluePlayer);
+        assertTrue(view.hasAutominerAtLocation(3, 0));
+        assertFalse(view.hasAutominerAtLocation(0, 3));
+        assertFalse(view.hasAutominerAtLocation(BOARD_SIZE, 0));
+    }
+
+    @Test
+    public void test_itemsMoveBetweenTileAndInventory() {
+        Tile startTile = board.getTileAtLocation(0, 0);
+        startTile.onEnter(redPlayer);
+        startTile.getItemsOnTile().addItem(ItemType.RUBY);
+        startTile.getItemsOnTile().addItem(ItemType.AUTOMINER);
+
+        startTile.interact(redPlayer, TurnAction.PICK_UP_RESOURCE);
+        startTile.interact(redPlayer, TurnAction.PICK_UP_AUTOMINER);
+        assertTrue(startTile.getItemsOnTile().isEmpty());
+        assertEquals(1, redPlayer.getInventory().getCount(ItemType.RUBY));
+        assertEquals(1, redPlayer.getInventory().getCount(ItemType.AUTOMINER));
+
+        startTile.interact(redPlayer, TurnAction.PLACE_AUTOMINER);
+        assertEquals(Collections.singletonList(InventoryItem.of(ItemType.RUBY)), redPlayer.getInventory());
+        assertEquals(Collections.singletonList(InventoryItem.of(ItemType.AUTOMINER)), startTile.getItemsOnTile());
+    }
+
+    @Test
+    public void test_tileBetweenAutominersIsWorkedByBoth() {
+        Tile leftTile = board.getTileAtLocation(0, 2);
+        Tile rightTile = board.getTileAtLocation(2, 2);
+        leftTile.getItemsOnTile().addItem(ItemType.AUTOMINER);
+        rightTile.getItemsOnTile().addItem(ItemType.AUTOMINER);
+        board.trackItemsOnPoint(leftTile.getLocation(), leftTile.getItemsOnTile());
+        board.trackItemsOnPoint(rightTile.getLocation(), rightTile.getItemsOnTile());
+        board.update();
+        assertEquals(2, board.getAutominerTurnsMined(1, 2));
+        assertEquals(1, board.getAutominerTurnsMined(0, 2));
+        assertEquals(0, board.getAutominerTurnsMined(3, 0));
+
+        rightTile.getItemsOnTile().clear();
+        board.trackItemsOnPoint(rightTile.getLocation(), rightTile.getItemsOnTile());
+        board.update();
+        assertEquals(3, board.getAutominerTurnsMined(1, 2));
+        assertEquals(1, board.getAutominerTurnsMined(3, 2));
+    }
+
+    /**
+     * Builds the same board every time for the same layout seed, with recharge tiles, resources and empty tiles
+     *  mixed together and a recharge tile at (0, 0)
+     */
+    private static Tile[][] createMixedTiles(int boardSize, long layoutSeed) {
+        Random layoutRandom = new Random(layoutSeed);
+        Tile[][] tiles = new Tile[boardSize][boardSize];
+        for (int i = 0; i < boardSize; i++) {
+            for (int j = 0; j < boardSize; j++) {
+                tiles[i][j] = createRandomTile(new Point(j, (boardSize - 1) - i), layoutRandom);
+            }
+        }
+        tiles[boardSize - 1][0] = new RechargeTile(new Point(0, 0));
+        return tiles;
+    }
+
+    private static Tile createRandomTile(Point location, Random layoutRandom) {
+        int tileKind = layoutRandom.nextInt(10);
+        if (tileKind == 0) {
+            return new RechargeTile(location);
+        }
+        if (tileKind < 4) {
+            return new MineableTile(location, RESOURCE_TYPES[layoutRandom.nextInt(RESOURCE_TYPES.length)]);
+        }
+        return new MineableTile(location);
+    }
+
+    private static void moveTo(MinePlayer player, Tile newTile) {
+        player.getCurrentTile().onExit(player);
+        newTile.onEnter(player);
+        player.setCurrentTile(newTile);
+    }
+
+    @Test
+    public void test_updateMatchesFullBoardScan() {
+        final int boardSize = 8;
+        final long layoutSeed = 7;
+        GameBoard activeBoard = new GameBoard(createMixedTiles(boardSize, layoutSeed));
+        FullScanBoard scannedBoard = new FullScanBoard(createMixedTiles(boardSize, layoutSeed));
+        Economy economy = new Economy(RESOURCE_TYPES);
+        MinePlayer activePlayer = new MinePlayer(new RandomStrategy(), activeBoard.getTileAtLocation(0, 0), economy,
+                                                 0, true);
+        MinePlayer scannedPlayer = new MinePlayer(new RandomStrategy(), scannedBoard.getTile(0, 0), economy, 0, true);
+        activeBoard.getTileAtLocation(0, 0).onEnter(activePlayer);
+        scannedBoard.getTile(0, 0).onEnter(scannedPlayer);
+
+        Random eventRandom = new Random(SEED);
+        for (int turn = 0; turn < 500; turn++) {
+            int x = eventRandom.nextInt(boardSize);
+            int y = eventRandom.nextInt(boardSize);
+            int event = eventRandom.nextInt(10);
+            Tile activeTile = activeBoard.getTileAtLocation(x, y);
+            Tile scannedTile = scannedBoard.getTile(x, y);
+            if (event < 2) {
+                // Place an autominer, or pick up the one already there
+                for (Tile tile : new Tile[]{activeTile, scannedTile}) {
+                    if (!tile.getItemsOnTile().removeItem(ItemType.AUTOMINER)) {
+                        tile.getItemsOnTile().addItem(ItemType.AUTOMINER);
+                    }
+                }
+                activeBoard.trackItemsOnPoint(activeTile.getLocation(), activeTile.getItemsOnTile());
+            } else if (event == 2) {
+                activeTile.getItemsOnTile().removeResources();
+                scannedTile.getItemsOnTile().removeResources();
+                activeBoard.trackItemsOnPoint(activeTile.getLocation(), activeTile.getItemsOnTile());
+            } else if (event == 3 && activeTile.getPlayerOnTile() == null) {
+                // Replacing tiles can turn recharge tiles into tiles without a turn update and back
+                long tileSeed = eventRandom.nextLong();
+                activeBoard.setTileAtTileLocation(createRandomTile(new Point(x, y), new Random(tileSeed)));
+                scannedBoard.setTile(createRandomTile(new Point(x, y), new Random(tileSeed)));
+            }
+
+            int[] move = NEIGHBOR_OFFSETS[eventRandom.nextInt(NEIGHBOR_OFFSETS.length)];
+            Point playerLocation = activePlayer.getCurrentTile().getLocation();
+            int nextX = Math.min(boardSize - 1, Math.max(0, playerLocation.x + move[0]));
+            int nextY = Math.min(boardSize - 1, Math.max(0, playerLocation.y + move[1]));
+            moveTo(activePlayer, activeBoard.getTileAtLocation(nextX, nextY));
+            moveTo(scannedPlayer, scannedBoard.getTile(nextX, nextY));
+            for (int i = 0; i < 3; i++) {
+                activePlayer.useEnergy();
+                scannedPlayer.useEnergy();
+            }
+
+            activeBoard.update();
+            scannedBoard.update();
+            assertBoardsMatch(activeBoard, scannedBoard, turn);
+            assertEquals(scannedPlayer.getCurrentEnergy(), activePlayer.getCurrentEnergy());
+        }
+    }
+
+    private static void assertBoardsMatch(GameBoard activeBoard, FullScanBoard scannedBoard, int turn) {
+        PackedBoard packedBoard = activeBoard.getPackedBoard();
+        for (int x = 0; x < activeBoard.getSize(); x++) {
+            for (int y = 0; y < activeBoard.getSize(); y++) {
+                String message = "Turn " + turn + " at (" + x + ", " + y + ")";
+                Tile activeTile = activeBoard.getTileAtLocation(x, y);
+                Tile scannedTile = scannedBoard.getTile(x, y);
+                assertEquals(message, scannedTile.getType(), activeTile.getType());
+                assertEquals(message, scannedTile.getType(), packedBoard.getTileType(x, y));
+                if (scannedTile instanceof MineableTile) {
+                    assertEquals(message, ((MineableTile) scannedTile).getNumTimesMined(),
+                                 ((MineableTile) activeTile).getNumTimesMined());
+                }
+                for (ItemType itemType : ItemType.values()) {
+                    assertEquals(message, scannedTile.getItemsOnTile().getCount(itemType),
+                                 activeTile.getItemsOnTile().getCount(itemType));
+                }
+                assertEquals(message, scannedBoard.getAutominerTurnsMined(x, y),
+                             activeBoard.getAutominerTurnsMined(x, y));
+            }
+        }
+    }
+
+    /**
+     * Updates every turn by scanning the whole board for tiles to update and autominers, the way GameBoard used to
+     */
+    private static class FullScanBoard {
+        private final Tile[][] tiles;
+        private final Map<Point, Integer> autominerTurnsMined = new HashMap<>();
+
+        private FullScanBoard(Tile[][] tiles) {
+            this.tiles = tiles;
+        }
+
+        private Tile getTile(int x, int y) {
+            return tiles[(tiles.length - 1) - y][x];
+        }
+
+        private void setTile(Tile newTile) {
+            tiles[(tiles.length - 1) - newTile.getLocation().y][newTile.getLocation().x] = newTile;
+        }
+
+        private int getAutominerTurnsMined(int x, int y) {
+            return autominerTurnsMined.getOrDefault(new Point(x, y), 0);
+        }
+
+        private void update() {
+            List<Point> autominers = new ArrayList<>();
+            for (Tile[] row : tiles) {
+                for (Tile tile : row) {
+                    tile.update();
+                    if (tile.getItemsOnTile().hasItem(ItemType.AUTOMINER)) {
+                        autominers.add(tile.getLocation());
+                    }
+                }
+            }
+
+            List<Point> affectedTiles = new ArrayList<>();
+            for (Point miner : autominers) {
+                affectedTiles.add(new Point(miner.x, miner.y));
+                if (miner.x > 0) affectedTiles.add(new Point(miner.x - 1, miner.y));
+                if (miner.x < tiles.length - 1) affectedTiles.add(new Point(miner.x + 1, miner.y));
+                if (miner.y > 0) affectedTiles.add(new Point(miner.x, miner.y - 1));
+                if (miner.y < tiles.length - 1) affectedTiles.add(new Point(miner.x, miner.y + 1));
+            }
+
+            for (Point affectedTile : affectedTiles) {
+                int turnsMined = autominerTurnsMined.getOrDefault(affectedTile, 0);
+                Tile tile = getTile(affectedTile.x, affectedTile.y);
+                if (tile instanceof MineableTile) {
+                    MiningState miningState = ((MineableTile) tile).getMiningState();
+                    if (miningState == MiningState.EMPTY) {
+                        tile.interact(null, TurnAction.MINE);
+                    } else if (turnsMined > 0 && miningState == MiningState.RESOURCE
+                               && turnsMined % GameBoard.AUTOMINER_MULTIPLIER == 0) {
+                        tile.interact(null, TurnAction.MINE);
+                    }
+                }
+                autominerTurnsMined.put(affectedTile, turnsMined + 1);
+            }
+        }
+    }
+}
@@ -0,0 +1,322 @@
+package mineopoly_three.game;
+
+import mineopoly_three.action.TurnAction;
+import mineopoly_three.metrics.StrategyTimings;
+import mineopoly_three.replay.BinaryReplayCodec;
+import mineopoly_three.replay.Replay;
+import mineopoly_three.strategy.PlayerBoardView;
+import mineopoly_three.strategy.PlayerStrategy;
+import mineopoly_three.strategy.RandomStrategy;
+import org.junit.Test;
+
+import java.awt.Point;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class GameEngineTest {
+    private static final int BOARD_SIZE = 14;
+    private static final long SEED = 2021;
+
+    @Test
+    public void test_headlessGameMatchesObservedGame() {
+        GameEngine observedEngine = new GameEngine(BOARD_SIZE, new PlayerStrategy(), new RandomStrategy(), SEED);
+        AtomicInteger numNotifications = new AtomicInteger();
+        observedEngine.addObserver((engine, arg) -> numNotifications.incrementAndGet());
+        observedEngine.runGame();
+
+        GameEngine headlessEngine = new GameEngine(BOARD_SIZE, new PlayerStrategy(), new RandomStrategy(), SEED);
+        headlessEngine.addObserver((engine, arg) -> numNotifications.set(-1));
+        headlessEngine.setHeadless(true);
+        headlessEngine.runGame();
+
+        assertEquals(observedEngine.getRedPlayerScore(), headlessEngine.getRedPlayerScore());
+        assertEquals(observedEngine.getBluePlayerScore(), headlessEngine.getBluePlayerScore());
+        assertEquals(observedEngine.getReplay().toString(), headlessEngine.getReplay().toString());
+        assertEquals(observedEngine.getRedPlayer().getAllTurnActions().size(), numNotifications.get());
+    }
+
+    @Test
+    public void test_listenersReceiveEveryTurn() {
+        GameEngine engine = new GameEngine(BOARD_SIZE, new RandomStrategy(), new RandomStrategy(), SEED);
+        engine.setHeadless(true);
+        AtomicInteger numTurns = new AtomicInteger();
+        AtomicInteger numGamesEnded = new AtomicInteger();
+        engine.addEventListener(new GameEventListener() {
+            @Override
+            public void onTurnEnd(GameEngine engine, int turnNumber) {
+                assertEquals(numTurns.incrementAndGet(), turnNumber);
+            }
+
+            @Override
+            public void onGameEnd(GameEngine engine) {
+                numGamesEnded.incrementAndGet();
+            }
+        });
+        engine.runGame();
+
+        assertEquals(engine.getRedPlayer().getAllTurnActions().size(), numTurns.get());
+        assertEquals(1, numGamesEnded.get());
+    }
+
+    @Test
+    public void test_enablingGuiLeavesHeadlessMode() {
+        GameEngine engine = new GameEngine(BOARD_SIZE, new RandomStrategy(), new RandomStrategy(), SEED);
+        engine.setHeadless(true);
+        engine.setGuiEnabled(true);
+        assertFalse(engine.isHeadless());
+    }
+
+    @Test
+    public void test_timeBudgetDoesNotChangeFastGames() {
+        GameEngine engine = new GameEngine(BOARD_SIZE, new PlayerStrategy(), new RandomStrategy(), SEED);
+        engine.setHeadless(true);
+        engine.runGame();
+
+        GameEngine budgetedEngine = new GameEngine(BOARD_SIZE, new PlayerStrategy(), new RandomStrategy(), SEED);
+        budgetedEngine.setHeadless(true);
+        budgetedEngine.setStrategyTimeBudgetMillis(10_000);
+        budgetedEngine.runGame();
+
+        assertEquals(engine.getReplay().toString(), budgetedEngine.getReplay().toString());
+        StrategyTimings redTimings = budgetedEngine.getRedPlayer().getStrategyTimings();
+        assertEquals(0, redTimings.getTimeoutCount());
+        assertEquals(1, redTimings.getInitializeLatency().getCount());
+        assertEquals(budgetedEngine.getRedPlayer().getAllTurnActions().size(),
+                     redTimings.getTurnActionLatency().getCount());
+        assertEquals(1, redTimings.getEndRoundLatency().getCount());
+    }
+
+    @Test
+    public void test_slowTurnsFallBackToNoAction() {
+        GameEngine engine = new GameEngine(BOARD_SIZE, new SlowStrategy(), new RandomStrategy(), SEED);
+        engine.setHeadless(true);
+        engine.setStrategyTimeBudgetMillis(20);
+        engine.runGame();
+
+        List<TurnAction> redActions = engine.getRedPlayer().getAllTurnActions();
+        BitSet redTimedOutTurns = engine.getReplay().getRedTimedOutTurns();
+        for (int turn = 0; turn < redActions.size(); turn++) {
+            assertEquals(turn % SlowStrategy.TURNS_BETWEEN_SLOW_TURNS == 0, redTimedOutTurns.get(turn));
+            if (turn % SlowStrategy.TURNS_BETWEEN_SLOW_TURNS == 0) {
+                assertNull(redActions.get(turn));
+            } else {
+                assertEquals(TurnAction.MINE, redActions.get(turn));
+            }
+        }
+        StrategyTimings redTimings = engine.getRedPlayer().getStrategyTimings();
+        int numSlowTurns = (redActions.size() + SlowStrategy.TURNS_BETWEEN_SLOW_TURNS - 1)
+                           / SlowStrategy.TURNS_BETWEEN_SLOW_TURNS;
+        assertEquals(numSlowTurns, redTimings.getTimeoutCount());
+        assertTrue(redTimings.getTurnActionLatency().getMaxNanos() >= 20_000_000);
+        assertEquals(0, engine.getBluePlayer().getStrategyTimings().getTimeoutCount());
+    }
+
+    @Test
+    public void test_stuckStrategyDoesNotHoldUpLaterTurns() {
+        StuckStrategy stuckStrategy = new StuckStrategy();
+        GameEngine engine = new GameEngine(BOARD_SIZE, stuckStrategy, new ReleasingStrategy(stuckStrategy), SEED);
+        engine.setHeadless(true);
+        engine.setStrategyTimeBudgetMillis(20);
+        try {
+            engine.runGame();
+        } finally {
+            stuckStrategy.released = true;
+        }
+
+        List<TurnAction> redActions = engine.getRedPlayer().getAllTurnActions();
+        assertNull(redActions.get(0));
+        assertEquals(TurnAction.MINE, redActions.get(redActions.size() - 1));
+        assertFalse(stuckStrategy.calledWhileRunning);
+        StrategyTimings redTimings = engine.getRedPlayer().getStrategyTimings();
+        assertTrue(redTimings.getTimeoutCount() >= ReleasingStrategy.TURNS_UNTIL_RELEASE);
+        // Turns while the stuck call runs are skipped at once rather than each waiting out the budget in a queue
+        assertTrue(redTimings.getTurnActionLatency().getTotalNanos() < 10 * 20_000_000L);
+    }
+
+    @Test
+    public void test_stuckStrategySitsOutGamesAfterReset() {
+        StuckStrategy stuckStrategy = new StuckStrategy();
+        GameEngine engine = new GameEngine(BOARD_SIZE, stuckStrategy, new RandomStrategy(), SEED);
+        engine.setHeadless(true);
+        engine.setStrategyTimeBudgetMillis(20);
+        try {
+            engine.runGame();
+            engine.reset(BOARD_SIZE, SEED + 1, true);
+            engine.runGame();
+        } finally {
+            stuckStrategy.released = true;
+        }
+
+        assertSame(stuckStrategy, engine.getBluePlayer().getStrategy());
+        assertFalse(stuckStrategy.calledWhileRunning);
+        List<TurnAction> blueActions = engine.getBluePlayer().getAllTurnActions();
+        for (TurnAction blueAction : blueActions) {
+            assertNull(blueAction);
+        }
+        // Every call of the second game is skipped, initialize and endRound included
+        StrategyTimings blueTimings = engine.getBluePlayer().getStrategyTimings();
+        assertEquals(blueActions.size() + 2, blueTimings.getTimeoutCount());
+    }
+
+    private static byte[] encodeReplay(Replay replay) throws IOException {
+        ByteArrayOutputStream encodedReplay = new ByteArrayOutputStream();
+        new BinaryReplayCodec().encode(replay, Channels.newChannel(encodedReplay));
+        return encodedReplay.toByteArray();
+    }
+
+    private static byte[] encodeFinalState(GameEngine engine) {
+        GameCheckpoint finalState = engine.createCheckpoint();
+        ByteBuffer encodedState = ByteBuffer.allocate(finalState.getEncodedSize());
+        finalState.encode(encodedState);
+        return encodedState.array();
+    }
+
+    @Test
+    public void test_resetGamesMatchFreshGames() throws IOException {
+        GameEngine resetEngine = new GameEngine(BOARD_SIZE, new PlayerStrategy(), new RandomStrategy(), SEED);
+        resetEngine.setHeadless(true);
+        resetEngine.setCheckpointInterval(100);
+        resetEngine.runGame();
+        GameBoard reusedBoard = resetEngine.getBoard();
+        MinePlayer reusedRedPlayer = resetEngine.getRedPlayer();
+        Economy reusedEconomy = resetEngine.getEconomy();
+
+        int[] boardSizes = {BOARD_SIZE, BOARD_SIZE, 20, 20, BOARD_SIZE};
+        for (int game = 0; game < boardSizes.length; game++) {
+            long seed = SEED + 1 + game;
+            resetEngine.reset(boardSizes[game], seed, new PlayerStrategy(), new RandomStrategy());
+            if (game == 1) {
+                assertSame(reusedBoard, resetEngine.getBoard());
+                assertSame(reusedRedPlayer, resetEngine.getRedPlayer());
+                assertSame(reusedEconomy, resetEngine.getEconomy());
+            }
+            resetEngine.runGame();
+
+            GameEngine freshEngine = new GameEngine(boardSizes[game], new PlayerStrategy(), new RandomStrategy(),
+                                                    seed);
+            freshEngine.setHeadless(true);
+            freshEngine.setCheckpointInterval(100);
+            freshEngine.runGame();
+
+            assertEquals(freshEngine.getRedPlayerScore(), resetEngine.getRedPlayerScore());
+            assertEquals(freshEngine.getBluePlayerScore(), resetEngine.getBluePlayerScore());
+            assertArrayEquals(encodeReplay(freshEngine.getReplay()), encodeReplay(resetEngine.getReplay()));
+            assertArrayEquals(encodeFinalState(freshEngine), encodeFinalState(resetEngine));
+        }
+    }
+
+    @Test
+    public void test_replayKeepsActionsAfterReset() {
+        GameEngine engine = new GameEngine(BOARD_SIZE, new PlayerStrategy(), new RandomStrategy(), SEED);
+        engine.setHeadless(true);
+        engine.runGame();
+        Replay replay = engine.getReplay();
+        int numTurns = replay.getRedPlayerActions().size();
+
+        engine.reset(BOARD_SIZE, SEED + 1, false);
+        assertEquals(numTurns, replay.getRedPlayerActions().size());
+        assertEquals(0, engine.getRedPlayer().getAllTurnActions().size());
+    }
+
+    /**
+     * Mines every turn, except that the first turn busy waits without checking for interrupts until released.
+     *  Notes any call that comes in while a turn is still running
+     */
+    private static class StuckStrategy extends RandomStrategy {
+        private volatile boolean released = false;
+        private volatile boolean running = false;
+        private volatile boolean calledWhileRunning = false;
+        private boolean firstTurn = true;
+
+        @Override
+        public void initialize(int boardSize, int maxInventorySize, int maxCharge, int winningScore,
+                               PlayerBoardView startingBoard, Point startTileLocation, boolean isRedPlayer,
+                               Random random) {
+            if (running) {
+                calledWhileRunning = true;
+            }
+            super.initialize(boardSize, maxInventorySize, maxCharge, winningScore, startingBoard, startTileLocation,
+                             isRedPlayer, random);
+        }
+
+        @Override
+        public void endRound(int totalRedPoints, int totalBluePoints) {
+            if (running) {
+                calledWhileRunning = true;
+            }
+        }
+
+        @Override
+        public TurnAction getTurnAction(PlayerBoardView boardView, Economy economy, int currentCharge,
+                                        boolean isRedTurn) {
+            if (running) {
+                calledWhileRunning = true;
+            }
+            running = true;
+            if (firstTurn) {
+                firstTurn = false;
+                while (!released) {
+                    // Ignores interrupts, like a strategy stuck in a loop would
+                }
+            }
+            running = false;
+            return TurnAction.MINE;
+        }
+    }
+
+    /**
+     * Releases a StuckStrategy after playing a number of turns
+     */
+    private static class ReleasingStrategy extends RandomStrategy {
+        static final int TURNS_UNTIL_RELEASE = 50;
+        private final StuckStrategy stuckStrategy;
+        private int turnNumber = 0;
+
+        private ReleasingStrategy(StuckStrategy stuckStrategy) {
+            this.stuckStrategy = stuckStrategy;
+        }
+
+        @Override
+        public TurnAction getTurnAction(PlayerBoardView boardView, Economy economy, int currentCharge,
+                                        boolean isRedTurn) {
+            if (++turnNumber == TURNS_UNTIL_RELEASE) {
+                stuckStrategy.released = true;
+            }
+            return super.getTurnAction(boardView, economy, currentCharge, isRedTurn);
+        }
+    }
+
+    /**
+     * Mines every turn, but takes far too long to answer every hundredth turn
+     */
+    private static class SlowStrategy extends RandomStrategy {
+        static final int TURNS_BETWEEN_SLOW_TURNS = 100;
+        private int turnNumber = 0;
+
+        @Override
+        public TurnAction getTurnAction(PlayerBoardView boardView, Economy economy, int currentCharge,
+                                        boolean isRedTurn) {
+            if (turnNumber++ % TURNS_BETWEEN_SLOW_TURNS == 0) {
+                try {
+                    Thread.sleep(1000);
+                } catch (InterruptedException e) {
+                    // The engine gave up on this turn
+                }
+            }
+            return TurnAction.MINE;
+        }
+    }
+}
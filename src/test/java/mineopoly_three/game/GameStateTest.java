@@ -0,0 +1,78 @@
+package mineopoly_three.game;
+
+import mineopoly_three.action.TurnAction;
+import mineopoly_three.strategy.MinePlayerStrategy;
+import mineopoly_three.strategy.PlayerStrategy;
+import mineopoly_three.strategy.RandomStrategy;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class GameStateTest {
+    private static final long SEED = 2021;
+
+    @Test
+    public void test_steppingMatchesEngineWithRandomStrategies() {
+        for (long seed = SEED; seed < SEED + 5; seed++) {
+            assertSteppingMatchesEngine(new GameEngine(14, new RandomStrategy(), new RandomStrategy(), seed));
+        }
+    }
+
+    @Test
+    public void test_steppingMatchesEngineWithSelling() {
+        for (long seed = SEED; seed < SEED + 5; seed++) {
+            assertSteppingMatchesEngine(new GameEngine(20, new PlayerStrategy(), new RandomStrategy(), seed));
+            assertSteppingMatchesEngine(new GameEngine(14, new RandomStrategy(), new PlayerStrategy(), seed));
+        }
+    }
+
+    @Test
+    public void test_forkIsIndependent() {
+        GameEngine engine = new GameEngine(14, new RandomStrategy(), new RandomStrategy(), SEED);
+        GameState state = engine.getGameState();
+        GameState fork = state.fork();
+        assertEquals(state, fork);
+
+        fork.step(TurnAction.MOVE_UP, TurnAction.MOVE_DOWN);
+        assertEquals(0, state.getTurnNumber());
+        assertEquals(1, fork.getTurnNumber());
+        assertNotEquals(state, fork);
+
+        fork.copyFrom(state);
+        assertEquals(state, fork);
+    }
+
+    private static void assertSteppingMatchesEngine(GameEngine engine) {
+        engine.setHeadless(true);
+        List<GameState> engineStates = new ArrayList<>();
+        engine.addEventListener(new GameEventListener() {
+            @Override
+            public void onGameStart(GameEngine engine) {
+                engineStates.add(engine.getGameState());
+            }
+
+            @Override
+            public void onTurnEnd(GameEngine engine, int turnNumber) {
+                engineStates.add(engine.getGameState());
+            }
+        });
+        engine.runGame();
+
+        List<TurnAction> redActions = engine.getRedPlayer().getAllTurnActions();
+        List<TurnAction> blueActions = engine.getBluePlayer().getAllTurnActions();
+        GameState steppedState = engineStates.get(0).fork();
+        for (int turn = 0; turn < redActions.size(); turn++) {
+            steppedState.step(redActions.get(turn), blueActions.get(turn));
+            assertEquals("Turn " + turn + " of seed " + engine.getRandomSeed(), engineStates.get(turn + 1),
+                         steppedState);
+        }
+        assertTrue(steppedState.isGameOver());
+        assertEquals(engine.getRedPlayerScore(), steppedState.getScore(true));
+        assertEquals(engine.getBluePlayerScore(), steppedState.getScore(false));
+    }
+}
@@ -0,0 +1,71 @@
+package mineopoly_three.game;
+
+import mineopoly_three.tiles.TileType;
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class WorldGeneratorTest {
+
+    // Also used by BoardTemplateCacheTest to compare whole boards
+    static TileType[] getTileTypes(GameBoard board) {
+        TileType[] tileTypes = new TileType[board.getSize() * board.getSize()];
+        for (int y = 0; y < board.getSize(); y++) {
+            for (int x = 0; x < board.getSize(); x++) {
+                tileTypes[x + y * board.getSize()] = board.getTileAtLocation(x, y).getType();
+            }
+        }
+        return tileTypes;
+    }
+
+    // Parallel streams started from inside a pool run on that pool instead of the common pool
+    private static TileType[] generateOnThreads(int numThreads, long seed, int boardSize) throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(numThreads);
+        try {
+            return pool.submit(() -> getTileTypes(new WorldGenerator(seed, WorldGenerator.SECTOR_VERSION)
+                    .generateBoard(boardSize))).get();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void test_sectorBoardDoesNotDependOnThreadCount() throws Exception {
+        TileType[] oneThreadBoard = generateOnThreads(1, 77, 160);
+        assertArrayEquals(oneThreadBoard, generateOnThreads(4, 77, 160));
+        assertArrayEquals(oneThreadBoard, generateOnThreads(7, 77, 160));
+    }
+
+    @Test
+    public void test_sectorBoardSpawnsEveryResource() {
+        int boardSize = 40;
+        TileType[] tileTypes = getTileTypes(new WorldGenerator(3, WorldGenerator.SECTOR_VERSION)
+                .generateBoard(boardSize));
+        int numResources = 0;
+        for (TileType tileType : tileTypes) {
+            if (tileType == TileType.RESOURCE_DIAMOND || tileType == TileType.RESOURCE_EMERALD
+                    || tileType == TileType.RESOURCE_RUBY) {
+                numResources++;
+            }
+        }
+
+        // Every ring has room for all of its resources, so nothing is skipped the way a failed search would be
+        int expectedResources = (int) (boardSize * boardSize * 0.075) + (int) (boardSize * boardSize * 0.09)
+                                + (int) (boardSize * boardSize * 0.1);
+        assertEquals(expectedResources, numResources);
+    }
+
+    @Test
+    public void test_legacyVersionIsTheDefault() {
+        assertArrayEquals(getTileTypes(new WorldGenerator(5).generateBoard(20)),
+                          getTileTypes(new WorldGenerator(5, WorldGenerator.LEGACY_VERSION).generateBoard(20)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_unknownVersion() {
+        new WorldGenerator(5, 3);
+    }
+}
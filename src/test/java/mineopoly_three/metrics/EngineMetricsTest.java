@@ -0,0 +1,118 @@
+package mineopoly_three.metrics;
+
+import mineopoly_three.game.GameEngine;
+import mineopoly_three.strategy.RandomStrategy;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class EngineMetricsTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private static GameEngine createEngine(long seed) {
+        GameEngine engine = new GameEngine(20, new RandomStrategy(), new RandomStrategy(), seed);
+        engine.setHeadless(true);
+        return engine;
+    }
+
+    @Test
+    public void test_noMetricsByDefault() {
+        GameEngine engine = createEngine(1);
+        engine.runGame();
+        assertNull(engine.getEngineMetrics());
+    }
+
+    @Test
+    public void test_everyTurnIsTimed() {
+        GameEngine engine = createEngine(1);
+        engine.setMetricsEnabled(true);
+        engine.runGame();
+
+        EngineMetrics metrics = engine.getEngineMetrics();
+        assertNotNull(metrics);
+        int numTurns = engine.getTurnNumber();
+        assertEquals(numTurns, metrics.getNumTurns());
+        assertEquals(numTurns, metrics.getPhaseLatency(TurnPhase.BOARD_UPDATE).getCount());
+        assertEquals(numTurns, metrics.getPhaseLatency(TurnPhase.ECONOMY_UPDATE).getCount());
+        // Both players see the board and are asked for an action every turn
+        assertEquals(2 * numTurns, metrics.getPhaseLatency(TurnPhase.VIEW_CONVERSION).getCount());
+        assertEquals(2 * numTurns, metrics.getPhaseLatency(TurnPhase.STRATEGY_CALL).getCount());
+        assertTrue(metrics.getPhaseLatency(TurnPhase.ACTION_EXECUTION).getCount() <= 2 * numTurns);
+        assertTrue(metrics.getGameNanos() > 0);
+        assertTrue(metrics.getTurnsPerSecond() > 0);
+    }
+
+    @Test
+    public void test_allocationsCountedWhereSupported() {
+        GameEngine engine = createEngine(1);
+        engine.setMetricsEnabled(true);
+        engine.runGame();
+
+        EngineMetrics metrics = engine.getEngineMetrics();
+        boolean countsAllocations = (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        if (countsAllocations) {
+            assertTrue(metrics.getAllocatedBytes() > 0);
+        } else {
+            assertEquals(-1, metrics.getAllocatedBytes());
+        }
+    }
+
+    @Test
+    public void test_metricsDoNotChangeOutcome() {
+        GameEngine plainEngine = createEngine(7);
+        plainEngine.runGame();
+        GameEngine measuredEngine = createEngine(7);
+        measuredEngine.setMetricsEnabled(true);
+        measuredEngine.runGame();
+
+        assertEquals(plainEngine.getTurnNumber(), measuredEngine.getTurnNumber());
+        assertEquals(plainEngine.getRedPlayerScore(), measuredEngine.getRedPlayerScore());
+        assertEquals(plainEngine.getBluePlayerScore(), measuredEngine.getBluePlayerScore());
+    }
+
+    @Test
+    public void test_csvSinkAppendsOneLinePerGame() throws Exception {
+        Path csvFile = temporaryFolder.getRoot().toPath().resolve("metrics.csv");
+        CsvMetricsSink sink = new CsvMetricsSink(csvFile);
+        GameEngine engine = createEngine(3);
+        engine.setMetricsSink(sink);
+        engine.runGame();
+        engine.reset(20, 4, false);
+        engine.runGame();
+
+        List<String> lines = Files.readAllLines(csvFile, StandardCharsets.UTF_8);
+        assertEquals(3, lines.size());
+        assertEquals(CsvMetricsSink.getHeader(), lines.get(0));
+        int numColumns = lines.get(0).split(",").length;
+        assertEquals(numColumns, lines.get(1).split(",").length);
+        assertTrue(lines.get(1).startsWith("3,20,"));
+        assertTrue(lines.get(2).startsWith("4,20," + engine.getTurnNumber() + ","));
+    }
+
+    @Test
+    public void test_jsonSinkWritesOneObjectPerLine() throws Exception {
+        Path jsonFile = temporaryFolder.getRoot().toPath().resolve("metrics.json");
+        GameEngine engine = createEngine(5);
+        engine.setMetricsSink(new JsonMetricsSink(jsonFile));
+        engine.runGame();
+
+        List<String> lines = Files.readAllLines(jsonFile, StandardCharsets.UTF_8);
+        assertEquals(1, lines.size());
+        String json = lines.get(0);
+        assertTrue(json.startsWith("{\"seed\":5,\"boardSize\":20,\"turns\":" + engine.getTurnNumber() + ","));
+        assertTrue(json.contains("\"view_conversion\":{\"count\":" + 2 * engine.getTurnNumber() + ","));
+        assertTrue(json.endsWith("}}"));
+    }
+}
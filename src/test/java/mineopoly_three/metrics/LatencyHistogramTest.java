@@ -0,0 +1,70 @@
+package mineopoly_three.metrics;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LatencyHistogramTest {
+
+    private static void assertWithinPrecision(long expected, long actual) {
+        assertTrue(expected + " vs " + actual, actual >= expected && actual <= expected + expected / 16 + 1);
+    }
+
+    @Test
+    public void test_percentilesWithinPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long nanos = 1; nanos <= 100_000; nanos++) {
+            histogram.record(nanos * 1000);
+        }
+
+        assertEquals(100_000, histogram.getCount());
+        assertEquals(100_000_000, histogram.getMaxNanos());
+        assertEquals(50_000_500, histogram.getMeanNanos(), 0.001);
+        assertWithinPrecision(1000, histogram.getValueAtPercentile(0));
+        assertWithinPrecision(50_000_000, histogram.getValueAtPercentile(50));
+        assertWithinPrecision(99_000_000, histogram.getValueAtPercentile(99));
+        assertEquals(100_000_000, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void test_smallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(3);
+        histogram.record(-5);
+        histogram.record(31);
+        assertEquals(0, histogram.getValueAtPercentile(0));
+        assertEquals(3, histogram.getValueAtPercentile(50));
+        assertEquals(31, histogram.getValueAtPercentile(100));
+        assertEquals(0, new LatencyHistogram().getValueAtPercentile(50));
+    }
+
+    @Test
+    public void test_concurrentRecordingLosesNothing() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        List<Thread> recorders = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Thread recorder = new Thread(() -> {
+                for (long nanos = 0; nanos < 50_000; nanos++) {
+                    histogram.record(nanos);
+                }
+            });
+            recorders.add(recorder);
+            recorder.start();
+        }
+        for (Thread recorder : recorders) {
+            recorder.join();
+        }
+
+        LatencyHistogram merged = new LatencyHistogram();
+        merged.add(histogram);
+        merged.add(histogram);
+        assertEquals(200_000, histogram.getCount());
+        assertEquals(400_000, merged.getCount());
+        assertEquals(49_999, merged.getMaxNanos());
+        assertEquals(histogram.getValueAtPercentile(90), merged.getValueAtPercentile(90));
+    }
+}
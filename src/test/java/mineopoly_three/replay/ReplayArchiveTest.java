@@ -0,0 +1,138 @@
+package mineopoly_three.replay;
+
+import mineopoly_three.game.GameEngine;
+import mineopoly_three.strategy.PlayerStrategy;
+import mineopoly_three.strategy.RandomStrategy;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class ReplayArchiveTest {
+    private static final int NUM_MATCHES = 3;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private static List<GameEngine> playGames() {
+        List<GameEngine> finishedGames = new ArrayList<>();
+        for (int seed = 0; seed < NUM_MATCHES; seed++) {
+            GameEngine engine = new GameEngine(14 + seed, new PlayerStrategy(), new RandomStrategy(), seed);
+            engine.setHeadless(true);
+            engine.runGame();
+            finishedGames.add(engine);
+        }
+        return finishedGames;
+    }
+
+    @Test
+    public void test_reopenedArchiveMatchesAppendedGames() throws IOException {
+        Path archivePath = temporaryFolder.newFile("matches.archive").toPath();
+        List<GameEngine> finishedGames = playGames();
+        try (ReplayArchive archive = ReplayArchive.create(archivePath, 10)) {
+            for (GameEngine finishedGame : finishedGames) {
+                archive.append(finishedGame);
+            }
+        }
+
+        try (ReplayArchive archive = ReplayArchive.open(archivePath)) {
+            assertEquals(NUM_MATCHES, archive.size());
+            for (int i = NUM_MATCHES - 1; i >= 0; i--) {
+                GameEngine finishedGame = finishedGames.get(i);
+                ArchivedMatch match = archive.getMatch(i);
+                assertEquals(finishedGame.getRandomSeed(), match.getWorldSeed());
+                assertEquals(finishedGame.getRedPlayerScore(), match.getRedScore());
+                assertEquals(finishedGame.getBluePlayerScore(), match.getBlueScore());
+                assertEquals(ArchivedMatch.Winner.RED, match.getWinner());
+                assertEquals(finishedGame.getReplay().toString(), archive.readReplay(i).toString());
+            }
+
+            int matchIndex = 0;
+            for (Replay replay : archive) {
+                assertEquals(finishedGames.get(matchIndex++).getReplay().toString(), replay.toString());
+            }
+            assertEquals(NUM_MATCHES, matchIndex);
+        }
+    }
+
+    @Test
+    public void test_appendAfterReopen() throws IOException {
+        Path archivePath = temporaryFolder.newFile("matches.archive").toPath();
+        List<GameEngine> finishedGames = playGames();
+        try (ReplayArchive archive = ReplayArchive.create(archivePath, NUM_MATCHES)) {
+            archive.append(finishedGames.get(0));
+        }
+        try (ReplayArchive archive = ReplayArchive.open(archivePath, true)) {
+            archive.append(finishedGames.get(1));
+            assertEquals(finishedGames.get(0).getReplay().toString(), archive.readReplay(0).toString());
+            assertEquals(finishedGames.get(1).getReplay().toString(), archive.readReplay(1).toString());
+        }
+    }
+
+    @Test
+    public void test_readsAcrossMappingChunks() throws IOException {
+        Path archivePath = temporaryFolder.newFile("matches.archive").toPath();
+        List<GameEngine> finishedGames = playGames();
+        try (ReplayArchive archive = ReplayArchive.create(archivePath, 10)) {
+            for (GameEngine finishedGame : finishedGames) {
+                archive.append(finishedGame);
+            }
+        }
+
+        try (ReplayArchive archive = ReplayArchive.open(archivePath)) {
+            // Index entries straddle chunk boundaries, and replays are longer than the overlap
+            archive.setMappingChunkSize(100, 40);
+            for (int i = 0; i < NUM_MATCHES; i++) {
+                assertEquals(finishedGames.get(i).getRandomSeed(), archive.getMatch(i).getWorldSeed());
+                assertEquals(finishedGames.get(i).getReplay().toString(), archive.readReplay(i).toString());
+            }
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void test_corruptWinnerRejected() throws IOException {
+        Path archivePath = temporaryFolder.newFile("matches.archive").toPath();
+        try (ReplayArchive archive = ReplayArchive.create(archivePath, 1)) {
+            archive.append(playGames().get(0));
+        }
+        try (FileChannel archiveChannel = FileChannel.open(archivePath, StandardOpenOption.WRITE)) {
+            // The winner byte is the 33rd byte of the first index entry, right after the 16 byte header
+            archiveChannel.write(ByteBuffer.wrap(new byte[]{(byte) 0xFF}), 16 + 32);
+        }
+        try (ReplayArchive archive = ReplayArchive.open(archivePath)) {
+            archive.getMatch(0);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void test_corruptMatchCountRejected() throws IOException {
+        Path archivePath = temporaryFolder.newFile("matches.archive").toPath();
+        try (ReplayArchive archive = ReplayArchive.create(archivePath, 1)) {
+            archive.append(playGames().get(0));
+        }
+        try (FileChannel archiveChannel = FileChannel.open(archivePath, StandardOpenOption.WRITE)) {
+            // The match count is the last int of the header, and the archive only has room for one match
+            archiveChannel.write(ByteBuffer.allocate(4).putInt(0, 2), 12);
+        }
+        ReplayArchive.open(archivePath).close();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void test_fullArchiveRejectsAppend() throws IOException {
+        Path archivePath = temporaryFolder.newFile("matches.archive").toPath();
+        GameEngine finishedGame = playGames().get(0);
+        try (ReplayArchive archive = ReplayArchive.create(archivePath, 1)) {
+            archive.append(finishedGame);
+            archive.append(finishedGame);
+        }
+    }
+}
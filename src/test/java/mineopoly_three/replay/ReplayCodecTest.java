@@ -0,0 +1,133 @@
+package mineopoly_three.replay;
+
+import mineopoly_three.action.TurnAction;
+import mineopoly_three.game.GameEngine;
+import mineopoly_three.game.WorldGenerator;
+import mineopoly_three.strategy.PlayerStrategy;
+import mineopoly_three.strategy.RandomStrategy;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.Arrays;
+import java.util.BitSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ReplayCodecTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private static Replay playGame() {
+        GameEngine engine = new GameEngine(14, new PlayerStrategy(), new RandomStrategy(), 2021);
+        engine.setHeadless(true);
+        engine.runGame();
+        return engine.getReplay();
+    }
+
+    private static byte[] encode(ReplayCodec codec, Replay replay) throws IOException {
+        ByteArrayOutputStream encodedReplay = new ByteArrayOutputStream();
+        codec.encode(replay, Channels.newChannel(encodedReplay));
+        return encodedReplay.toByteArray();
+    }
+
+    private static Replay decode(ReplayCodec codec, byte[] encodedReplay) throws IOException {
+        return codec.decode(Channels.newChannel(new ByteArrayInputStream(encodedReplay)));
+    }
+
+    @Test
+    public void test_binaryRoundTrip() throws IOException {
+        Replay replay = playGame();
+        BinaryReplayCodec codec = new BinaryReplayCodec();
+        byte[] encodedReplay = encode(codec, replay);
+
+        assertEquals(replay.toString(), decode(codec, encodedReplay).toString());
+        assertEquals(replay.toString(), codec.decode(ByteBuffer.wrap(encodedReplay)).toString());
+        assertTrue(encodedReplay.length < replay.toString().length() / 3);
+    }
+
+    @Test
+    public void test_deflatedRoundTrip() throws IOException {
+        Replay replay = playGame();
+        byte[] encodedReplay = encode(new BinaryReplayCodec(true), replay);
+
+        // Compression is recorded in the header, so any binary codec can decode it
+        assertEquals(replay.toString(), decode(new BinaryReplayCodec(), encodedReplay).toString());
+        assertEquals(replay.toString(), new BinaryReplayCodec().decode(ByteBuffer.wrap(encodedReplay)).toString());
+    }
+
+    @Test
+    public void test_noActionsAndExceptionsRoundTrip() throws IOException {
+        Replay replay = new Replay(20, -7, Arrays.asList(TurnAction.MINE, null, TurnAction.PLACE_AUTOMINER),
+                                   Arrays.asList(null, TurnAction.MOVE_LEFT), true, false);
+        Replay decodedReplay = decode(new BinaryReplayCodec(), encode(new BinaryReplayCodec(), replay));
+
+        assertEquals(replay.getRedPlayerActions(), decodedReplay.getRedPlayerActions());
+        assertEquals(replay.getBluePlayerActions(), decodedReplay.getBluePlayerActions());
+        assertTrue(decodedReplay.redThrewException());
+        assertEquals(replay.toString(), decodedReplay.toString());
+    }
+
+    @Test
+    public void test_timedOutTurnsRoundTrip() throws IOException {
+        Replay replay = new Replay(20, -7, Arrays.asList(TurnAction.MINE, null, null, TurnAction.PLACE_AUTOMINER),
+                                   Arrays.asList(null, TurnAction.MOVE_LEFT, null), false, false);
+        BitSet redTimedOutTurns = new BitSet();
+        redTimedOutTurns.set(2);
+        BitSet blueTimedOutTurns = new BitSet();
+        blueTimedOutTurns.set(0);
+        replay.setTimedOutTurns(redTimedOutTurns, blueTimedOutTurns);
+
+        ReplayCodec[] codecs = {new BinaryReplayCodec(), new BinaryReplayCodec(true), new TextReplayCodec()};
+        for (ReplayCodec codec : codecs) {
+            Replay decodedReplay = decode(codec, encode(codec, replay));
+            assertEquals(replay.getRedPlayerActions(), decodedReplay.getRedPlayerActions());
+            assertEquals(replay.getBluePlayerActions(), decodedReplay.getBluePlayerActions());
+            // A timeout and choosing to do nothing are both null actions, only the timed out turns tell them apart
+            assertEquals(redTimedOutTurns, decodedReplay.getRedTimedOutTurns());
+            assertEquals(blueTimedOutTurns, decodedReplay.getBlueTimedOutTurns());
+        }
+    }
+
+    @Test
+    public void test_readReplayDetectsFormat() throws IOException {
+        Replay replay = playGame();
+        String textReplayPath = temporaryFolder.newFile("text.replay").getPath();
+        String binaryReplayPath = temporaryFolder.newFile("binary.replay").getPath();
+        ReplayIO.writeReplayToFile(replay, textReplayPath, new TextReplayCodec());
+        ReplayIO.writeReplayToFile(replay, binaryReplayPath);
+
+        assertEquals(replay.toString(), ReplayIO.readReplayFromFile(textReplayPath).toString());
+        assertEquals(replay.toString(), ReplayIO.readReplayFromFile(binaryReplayPath).toString());
+        assertEquals(replay.toString(), Replay.decodeReplayFile(textReplayPath).toString());
+    }
+
+    @Test
+    public void test_worldGeneratorVersionRoundTrip() throws IOException {
+        GameEngine engine = new GameEngine(14, new PlayerStrategy(), new RandomStrategy(), 2021,
+                                           WorldGenerator.SECTOR_VERSION);
+        engine.setHeadless(true);
+        engine.runGame();
+        Replay replay = engine.getReplay();
+
+        for (ReplayCodec codec : Arrays.asList(new TextReplayCodec(), new BinaryReplayCodec(),
+                                               new BinaryReplayCodec(true))) {
+            Replay decodedReplay = decode(codec, encode(codec, replay));
+            assertEquals(WorldGenerator.SECTOR_VERSION, decodedReplay.getWorldGeneratorVersion());
+            assertEquals(replay.toString(), decodedReplay.toString());
+        }
+
+        // Watching the replay builds the same board, so the players' actions lead to the same result
+        GameEngine replayEngine = ReplayIO.createEngineForReplay(replay, 0);
+        replayEngine.setHeadless(true);
+        replayEngine.runGame();
+        assertEquals(engine.getRedPlayerScore(), replayEngine.getRedPlayerScore());
+        assertEquals(engine.getBluePlayerScore(), replayEngine.getBluePlayerScore());
+    }
+}
@@ -0,0 +1,73 @@
+package mineopoly_three.replay;
+
+import mineopoly_three.game.GameCheckpoint;
+import mineopoly_three.game.GameEngine;
+import mineopoly_three.strategy.PlayerStrategy;
+import mineopoly_three.strategy.RandomStrategy;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class ReplaySeekTest {
+    private static final int CHECKPOINT_INTERVAL = 50;
+
+    private static GameEngine playGame() {
+        GameEngine engine = new GameEngine(20, new PlayerStrategy(), new RandomStrategy(), 7);
+        engine.setHeadless(true);
+        engine.setCheckpointInterval(CHECKPOINT_INTERVAL);
+        engine.runGame();
+        return engine;
+    }
+
+    private static byte[] encode(GameCheckpoint checkpoint) {
+        ByteBuffer encodedCheckpoint = ByteBuffer.allocate(checkpoint.getEncodedSize());
+        checkpoint.encode(encodedCheckpoint);
+        assertEquals(0, encodedCheckpoint.remaining());
+        return encodedCheckpoint.array();
+    }
+
+    @Test
+    public void test_seekingFromAnyCheckpointGivesTheSameGame() {
+        GameEngine originalEngine = playGame();
+        Replay replay = originalEngine.getReplay();
+        // The engine checkpoints at the start of every turn after turn 0 that is a multiple of the interval
+        int numTurnsPlayed = replay.getRedPlayerActions().size();
+        assertEquals((numTurnsPlayed - 1) / CHECKPOINT_INTERVAL, replay.getCheckpoints().size());
+        byte[] finalState = encode(originalEngine.createCheckpoint());
+
+        for (int startTurn = 0; startTurn < numTurnsPlayed; startTurn += 130) {
+            GameEngine seekingEngine = ReplayIO.createEngineForReplay(replay, startTurn);
+            seekingEngine.setHeadless(true);
+            seekingEngine.runGame();
+
+            assertEquals(originalEngine.getRedPlayerScore(), seekingEngine.getRedPlayerScore());
+            assertEquals(originalEngine.getBluePlayerScore(), seekingEngine.getBluePlayerScore());
+            assertArrayEquals(finalState, encode(seekingEngine.createCheckpoint()));
+        }
+    }
+
+    @Test
+    public void test_checkpointsSurviveBinaryRoundTrip() throws IOException {
+        Replay replay = playGame().getReplay();
+        for (boolean deflate : new boolean[]{false, true}) {
+            ByteArrayOutputStream encodedReplay = new ByteArrayOutputStream();
+            new BinaryReplayCodec(deflate).encode(replay, Channels.newChannel(encodedReplay));
+            Replay decodedReplay = new BinaryReplayCodec().decode(
+                    Channels.newChannel(new ByteArrayInputStream(encodedReplay.toByteArray())));
+
+            assertEquals(replay.toString(), decodedReplay.toString());
+            assertEquals(replay.getCheckpoints().size(), decodedReplay.getCheckpoints().size());
+            for (int i = 0; i < replay.getCheckpoints().size(); i++) {
+                assertArrayEquals(encode(replay.getCheckpoints().get(i)),
+                                  encode(decodedReplay.getCheckpoints().get(i)));
+            }
+        }
+    }
+}
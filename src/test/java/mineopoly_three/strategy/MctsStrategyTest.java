@@ -0,0 +1,39 @@
+package mineopoly_three.strategy;
+
+import mineopoly_three.game.GameEngine;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MctsStrategyTest {
+    private static final long SEED = 2021;
+
+    private static MctsStrategy createFixedWorkStrategy() {
+        MctsStrategy strategy = new MctsStrategy(0, 1);
+        strategy.setMaxIterationsPerTurn(40);
+        return strategy;
+    }
+
+    private static GameEngine runGame(MinePlayerStrategy redStrategy, MinePlayerStrategy blueStrategy) {
+        GameEngine engine = new GameEngine(14, redStrategy, blueStrategy, SEED);
+        engine.setHeadless(true);
+        engine.runGame();
+        return engine;
+    }
+
+    @Test
+    public void test_fixedIterationSearchIsRepeatable() {
+        GameEngine firstEngine = runGame(createFixedWorkStrategy(), new RandomStrategy());
+        GameEngine secondEngine = runGame(createFixedWorkStrategy(), new RandomStrategy());
+        assertEquals(firstEngine.getRedPlayer().getAllTurnActions(), secondEngine.getRedPlayer().getAllTurnActions());
+        assertEquals(firstEngine.getRedPlayerScore(), secondEngine.getRedPlayerScore());
+    }
+
+    @Test
+    public void test_searchOutscoresRandomPlayer() {
+        GameEngine engine = runGame(new RandomStrategy(), createFixedWorkStrategy());
+        assertTrue(engine.getBluePlayerScore() > 0);
+        assertTrue(engine.getBluePlayerScore() > engine.getRedPlayerScore());
+    }
+}
@@ -0,0 +1,93 @@
+package mineopoly_three.strategy;
+
+import mineopoly_three.game.GameEngine;
+import mineopoly_three.game.GameEventListener;
+import mineopoly_three.tiles.TileType;
+import mineopoly_three.util.DistanceUtil;
+import org.junit.Test;
+
+import java.awt.Point;
+
+import static org.junit.Assert.assertEquals;
+
+public class TileTypeIndexTest {
+
+    private static PlayerBoardView getView(GameEngine engine) {
+        return engine.getBoard().convertToView(engine.getRedPlayer(), engine.getBluePlayer());
+    }
+
+    // The full board scan the index replaces, keeping the first nearest tile in (x, y) order
+    private static Point scanForNearest(PlayerBoardView board, TileType tileType, Point location) {
+        Point nearest = null;
+        for (int x = 0; x < board.getBoardSize(); x++) {
+            for (int y = 0; y < board.getBoardSize(); y++) {
+                if (board.getTileTypeAtLocation(x, y) == tileType && (nearest == null
+                        || DistanceUtil.getManhattanDistance(x, y, location.x, location.y)
+                           < DistanceUtil.getManhattanDistance(nearest, location))) {
+                    nearest = new Point(x, y);
+                }
+            }
+        }
+        return nearest;
+    }
+
+    private static void assertMatchesScan(TileTypeIndex index, PlayerBoardView board) {
+        for (TileType tileType : TileType.values()) {
+            for (int x = 0; x < board.getBoardSize(); x += 3) {
+                for (int y = 0; y < board.getBoardSize(); y += 2) {
+                    Point location = new Point(x, y);
+                    assertEquals(scanForNearest(board, tileType, location), index.nearest(tileType, location));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void test_nearestMatchesBoardScan() {
+        GameEngine engine = new GameEngine(26, new RandomStrategy(), new RandomStrategy(), 11);
+        PlayerBoardView board = getView(engine);
+        assertMatchesScan(new TileTypeIndex(board), board);
+    }
+
+    @Test
+    public void test_syncFollowsTileChanges() {
+        GameEngine engine = new GameEngine(20, new PlayerStrategy(), new RandomStrategy(), 5);
+        engine.setHeadless(true);
+        TileTypeIndex index = new TileTypeIndex(getView(engine));
+        int initialChangeCount = getView(engine).getTileChangeCount();
+        engine.addEventListener(new GameEventListener() {
+            @Override
+            public void onTurnEnd(GameEngine engine, int turnNumber) {
+                if (turnNumber % 100 == 0) {
+                    PlayerBoardView board = getView(engine);
+                    index.sync(board);
+                    assertMatchesScan(index, board);
+                }
+            }
+        });
+        engine.runGame();
+
+        // Resources were mined, so the index had changes to catch up on
+        assertEquals(true, getView(engine).getTileChangeCount() > initialChangeCount);
+    }
+
+    @Test
+    public void test_syncRebuildsForNewBoard() {
+        GameEngine engine = new GameEngine(14, new RandomStrategy(), new RandomStrategy(), 1);
+        TileTypeIndex index = new TileTypeIndex(getView(engine));
+        engine.reset(20, 2, false);
+        PlayerBoardView newBoard = getView(engine);
+        index.sync(newBoard);
+        assertMatchesScan(index, newBoard);
+
+        Point lastMarket = null;
+        for (int x = 0; x < newBoard.getBoardSize(); x++) {
+            for (int y = 0; y < newBoard.getBoardSize(); y++) {
+                if (newBoard.getTileTypeAtLocation(x, y) == TileType.BLUE_MARKET) {
+                    lastMarket = new Point(x, y);
+                }
+            }
+        }
+        assertEquals(lastMarket, index.last(TileType.BLUE_MARKET));
+    }
+}
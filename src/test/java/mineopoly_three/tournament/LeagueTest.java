@@ -0,0 +1,68 @@
+package mineopoly_three.tournament;
+
+import mineopoly_three.strategy.PlayerStrategy;
+import mineopoly_three.strategy.RandomStrategy;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LeagueTest {
+    private static final int[] BOARD_SIZES = new int[]{14};
+    private static final int SEEDS_PER_BOARD_SIZE = 3;
+    private static final long FIRST_SEED = 126;
+
+    private static League createLeague(int parallelism) {
+        League league = new League(parallelism, BOARD_SIZES, SEEDS_PER_BOARD_SIZE, FIRST_SEED);
+        league.addStrategy("Player", PlayerStrategy::new);
+        league.addStrategy("Random", RandomStrategy::new);
+        league.addStrategy("Random 2", RandomStrategy::new);
+        return league;
+    }
+
+    @Test
+    public void test_ratingsIndependentOfThreadCount() {
+        League singleThreaded = createLeague(1);
+        League multiThreaded = createLeague(4);
+        assertEquals(9, singleThreaded.run());
+        assertEquals(9, multiThreaded.run());
+
+        List<StrategyRating> expected = singleThreaded.getRatingTable().getStandings();
+        List<StrategyRating> actual = multiThreaded.getRatingTable().getStandings();
+        for (int place = 0; place < expected.size(); place++) {
+            assertEquals(expected.get(place).getStrategyName(), actual.get(place).getStrategyName());
+            assertEquals(expected.get(place).getRating(), actual.get(place).getRating(), 0);
+        }
+        assertEquals("Player", actual.get(0).getStrategyName());
+        // Every strategy plays two games against each of the other two on every seed
+        assertEquals(2 * 2 * SEEDS_PER_BOARD_SIZE, actual.get(0).getNumGames());
+
+        double totalRating = 0;
+        for (StrategyRating rating : actual) {
+            totalRating += rating.getRating();
+        }
+        assertEquals(3 * RatingTable.DEFAULT_INITIAL_RATING, totalRating, 1e-9);
+    }
+
+    @Test
+    public void test_newStrategyOnlyPlaysNewPairings() {
+        League league = createLeague(2);
+        league.run();
+        assertEquals(0, league.getNumUnplayedMatches());
+        assertEquals(0, league.run());
+
+        league.addStrategy("Player 2", PlayerStrategy::new);
+        assertEquals(3 * SEEDS_PER_BOARD_SIZE, league.getNumUnplayedMatches());
+        assertEquals(3 * SEEDS_PER_BOARD_SIZE, league.run());
+        assertEquals(2 * 3 * SEEDS_PER_BOARD_SIZE, league.getRatingTable().getRating("Player 2").getNumGames());
+        assertEquals(2 * 3 * SEEDS_PER_BOARD_SIZE, league.getRatingTable().getRating("Player").getNumGames());
+        assertTrue(league.getRatingTable().getRating("Player 2").getRating() > RatingTable.DEFAULT_INITIAL_RATING);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_duplicateNamesRejected() {
+        createLeague(1).addStrategy("Random", RandomStrategy::new);
+    }
+}
@@ -0,0 +1,62 @@
+package mineopoly_three.tournament;
+
+import mineopoly_three.strategy.PlayerStrategy;
+import mineopoly_three.strategy.RandomStrategy;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SequentialEvaluatorTest {
+    private static final int BOARD_SIZE = 14;
+    private static final long FIRST_SEED = 126;
+
+    @Test
+    public void test_lopsidedMatchStopsEarly() {
+        SequentialEvaluator evaluator = new SequentialEvaluator(4);
+        evaluator.setMinPairs(5);
+        EvaluationResult result = evaluator.evaluate(PlayerStrategy::new, RandomStrategy::new, BOARD_SIZE,
+                                                     SequentialEvaluator.Target.HEAD_TO_HEAD, 0.2, 100, FIRST_SEED);
+        assertTrue(result.isResolved());
+        assertTrue(result.getNumPairs() < 100);
+        assertTrue(result.getHeadToHeadScore() > 0.5);
+        assertTrue(result.getMeanScoreMargin() > 0);
+    }
+
+    @Test
+    public void test_resultsIndependentOfThreadCount() {
+        EvaluationResult singleThreaded = new SequentialEvaluator(1)
+                .evaluate(PlayerStrategy::new, RandomStrategy::new, BOARD_SIZE,
+                          SequentialEvaluator.Target.HEAD_TO_HEAD, 0.2, 30, FIRST_SEED);
+        EvaluationResult multiThreaded = new SequentialEvaluator(3)
+                .evaluate(PlayerStrategy::new, RandomStrategy::new, BOARD_SIZE,
+                          SequentialEvaluator.Target.HEAD_TO_HEAD, 0.2, 30, FIRST_SEED);
+        assertEquals(singleThreaded.getNumPairs(), multiThreaded.getNumPairs());
+        assertEquals(singleThreaded.getHeadToHeadScore(), multiThreaded.getHeadToHeadScore(), 0);
+        assertEquals(singleThreaded.getMeanScoreMargin(), multiThreaded.getMeanScoreMargin(), 0);
+    }
+
+    @Test
+    public void test_unresolvedAfterMaxPairs() {
+        EvaluationResult result = new SequentialEvaluator(2)
+                .evaluate(RandomStrategy::new, RandomStrategy::new, BOARD_SIZE,
+                          SequentialEvaluator.Target.WIN_PERCENT, 0.001, 3, FIRST_SEED);
+        assertFalse(result.isResolved());
+        assertEquals(3, result.getNumPairs());
+        assertEquals(6, result.getNumGames());
+        assertEquals(0, result.getWinPercent(), 0);
+    }
+
+    @Test
+    public void test_runningStatistic() {
+        RunningStatistic statistic = new RunningStatistic();
+        for (double sample : new double[]{2, 4, 4, 4, 5, 5, 7, 9}) {
+            statistic.add(sample);
+        }
+        assertEquals(8, statistic.getCount());
+        assertEquals(5, statistic.getMean(), 1e-12);
+        assertEquals(32.0 / 7, statistic.getVariance(), 1e-12);
+        assertEquals(2 * Math.sqrt(32.0 / 7 / 8), statistic.getConfidenceHalfWidth(2), 1e-12);
+    }
+}
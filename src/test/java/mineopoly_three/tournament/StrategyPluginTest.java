@@ -0,0 +1,73 @@
+package mineopoly_three.tournament;
+
+import mineopoly_three.game.GameEngine;
+import mineopoly_three.strategy.MinePlayerStrategy;
+import mineopoly_three.strategy.PlayerBoardView;
+import mineopoly_three.strategy.PlayerStrategy;
+import mineopoly_three.strategy.RandomStrategy;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class StrategyPluginTest {
+    private static final long FIRST_SEED = 126;
+
+    private static int getCurrentBoardSize(MinePlayerStrategy strategy) throws Exception {
+        return (int) strategy.getClass().getMethod("getCurrentBoardSize").invoke(null);
+    }
+
+    private static void initialize(MinePlayerStrategy strategy, int boardSize) {
+        GameEngine engine = new GameEngine(boardSize, new RandomStrategy(), new RandomStrategy(), FIRST_SEED);
+        PlayerBoardView startingBoard = engine.getBoard().convertToView(engine.getRedPlayer(),
+                                                                        engine.getBluePlayer());
+        strategy.initialize(boardSize, 5, 80, engine.getMinScoreToWin(), startingBoard,
+                            startingBoard.getYourLocation(), true, new Random(FIRST_SEED));
+    }
+
+    @Test
+    public void test_workersGetTheirOwnStaticFields() throws Exception {
+        StrategyPlugin plugin = StrategyPlugin.isolating(PlayerStrategy.class);
+        MinePlayerStrategy first = plugin.createStrategy();
+        MinePlayerStrategy second = plugin.createStrategy();
+        assertSame(first.getClass(), second.getClass());
+        assertNotSame(PlayerStrategy.class, first.getClass());
+
+        ExecutorService otherWorker = Executors.newSingleThreadExecutor();
+        MinePlayerStrategy otherWorkerStrategy;
+        try {
+            otherWorkerStrategy = otherWorker.submit(plugin::createStrategy).get();
+        } finally {
+            otherWorker.shutdown();
+        }
+        assertNotSame(first.getClass(), otherWorkerStrategy.getClass());
+
+        initialize(first, 14);
+        initialize(otherWorkerStrategy, 20);
+        assertEquals(14, getCurrentBoardSize(first));
+        assertEquals(20, getCurrentBoardSize(otherWorkerStrategy));
+    }
+
+    @Test
+    public void test_isolatedStrategyPlaysTheSame() {
+        TournamentRunner tournamentRunner = new TournamentRunner(2);
+        TournamentResult expected = tournamentRunner.runTournament(PlayerStrategy::new, RandomStrategy::new, 14, 4,
+                                                                   FIRST_SEED);
+        TournamentResult actual = tournamentRunner.runTournament(StrategyPlugin.isolating(PlayerStrategy.class),
+                                                                 RandomStrategy::new, 14, 4, FIRST_SEED);
+        for (int round = 0; round < 4; round++) {
+            assertEquals(expected.getRoundResult(round).getRedScore(), actual.getRoundResult(round).getRedScore());
+            assertEquals(expected.getRoundResult(round).getBlueScore(), actual.getRoundResult(round).getBlueScore());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_missingClassRejected() {
+        new StrategyPlugin(StrategyPlugin.isolating(PlayerStrategy.class).getClassLocation(), "NotAStrategy");
+    }
+}
@@ -0,0 +1,57 @@
+package mineopoly_three.tournament;
+
+import mineopoly_three.strategy.PlayerStrategy;
+import mineopoly_three.strategy.RandomStrategy;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class TournamentRunnerTest {
+    private static final int BOARD_SIZE = 14;
+    private static final int NUM_ROUNDS = 12;
+    private static final long FIRST_SEED = 126;
+
+    @Test
+    public void test_resultsIndependentOfThreadCount() {
+        TournamentResult singleThreaded = new TournamentRunner(1)
+                .runTournament(PlayerStrategy::new, RandomStrategy::new, BOARD_SIZE, NUM_ROUNDS, FIRST_SEED);
+        TournamentResult multiThreaded = new TournamentRunner(4)
+                .runTournament(PlayerStrategy::new, RandomStrategy::new, BOARD_SIZE, NUM_ROUNDS, FIRST_SEED);
+
+        assertEquals(NUM_ROUNDS, multiThreaded.getNumRounds());
+        for (int round = 0; round < NUM_ROUNDS; round++) {
+            RoundResult expected = singleThreaded.getRoundResult(round);
+            RoundResult actual = multiThreaded.getRoundResult(round);
+            assertEquals(FIRST_SEED + round, actual.getSeed());
+            assertEquals(expected.getRedScore(), actual.getRedScore());
+            assertEquals(expected.getBlueScore(), actual.getBlueScore());
+        }
+        assertEquals(singleThreaded.getWinPercent(), multiThreaded.getWinPercent(), 0);
+        // Every worker's timings are merged
+        assertEquals(NUM_ROUNDS, multiThreaded.getRedStrategyTimings().getInitializeLatency().getCount());
+        assertEquals(NUM_ROUNDS, multiThreaded.getBlueStrategyTimings().getEndRoundLatency().getCount());
+    }
+
+    @Test
+    public void test_moreWorkersThanRounds() {
+        TournamentResult result = new TournamentRunner(8)
+                .runTournament(RandomStrategy::new, RandomStrategy::new, BOARD_SIZE, 3, FIRST_SEED);
+        assertEquals(3, result.getNumRounds());
+        assertEquals(0, result.getNumRoundsWonByMinScore());
+    }
+
+    @Test
+    public void test_scorePercentiles() {
+        RoundResult[] rounds = new RoundResult[]{
+                new RoundResult(0, 30, 0, false),
+                new RoundResult(1, 10, 0, false),
+                new RoundResult(2, 20, 0, false),
+                new RoundResult(3, 40, 0, true)
+        };
+        TournamentResult result = new TournamentResult(BOARD_SIZE, rounds);
+        assertEquals(10, result.getRedScorePercentile(0));
+        assertEquals(20, result.getRedScorePercentile(50));
+        assertEquals(40, result.getRedScorePercentile(100));
+        assertEquals(0.25, result.getWinPercent(), 0);
+    }
+}
@@ -0,0 +1,121 @@
+package mineopoly_three.util;
+
+import mineopoly_three.action.TurnAction;
+import mineopoly_three.game.GameEngine;
+import mineopoly_three.game.GameEventListener;
+import mineopoly_three.strategy.PlayerBoardView;
+import mineopoly_three.strategy.PlayerStrategy;
+import mineopoly_three.strategy.RandomStrategy;
+import mineopoly_three.tiles.TileType;
+import org.junit.Test;
+
+import java.awt.Point;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+
+public class PathFinderTest {
+
+    private static PlayerBoardView getView(GameEngine engine) {
+        return engine.getBoard().convertToView(engine.getRedPlayer(), engine.getBluePlayer());
+    }
+
+    // Nothing on the board blocks movement, so the walking distance is the Manhattan distance to the nearest tile
+    private static int scanForDistance(PlayerBoardView board, TileType tileType, int x, int y) {
+        int nearestDistance = DistanceField.UNREACHABLE;
+        for (int tileX = 0; tileX < board.getBoardSize(); tileX++) {
+            for (int tileY = 0; tileY < board.getBoardSize(); tileY++) {
+                int distance = DistanceUtil.getManhattanDistance(x, y, tileX, tileY);
+                if (board.getTileTypeAtLocation(tileX, tileY) == tileType
+                        && (nearestDistance == DistanceField.UNREACHABLE || distance < nearestDistance)) {
+                    nearestDistance = distance;
+                }
+            }
+        }
+        return nearestDistance;
+    }
+
+    private static void assertMatchesScan(PathFinder pathFinder, PlayerBoardView board) {
+        for (TileType tileType : TileType.values()) {
+            DistanceField distanceField = pathFinder.getDistanceField(tileType);
+            for (int x = 0; x < board.getBoardSize(); x++) {
+                for (int y = 0; y < board.getBoardSize(); y++) {
+                    assertEquals(scanForDistance(board, tileType, x, y), distanceField.getDistance(x, y));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void test_distancesMatchBoardScan() {
+        GameEngine engine = new GameEngine(22, new RandomStrategy(), new RandomStrategy(), 8);
+        PlayerBoardView board = getView(engine);
+        assertMatchesScan(new PathFinder(board), board);
+    }
+
+    @Test
+    public void test_syncRepairsFieldsAsTilesChange() {
+        GameEngine engine = new GameEngine(20, new PlayerStrategy(), new RandomStrategy(), 5);
+        engine.setHeadless(true);
+        PathFinder pathFinder = new PathFinder(getView(engine));
+        // Build every field up front so the changes have to be applied to them rather than built fresh
+        for (TileType tileType : TileType.values()) {
+            pathFinder.getDistanceField(tileType);
+        }
+        engine.addEventListener(new GameEventListener() {
+            @Override
+            public void onTurnEnd(GameEngine engine, int turnNumber) {
+                if (turnNumber % 50 == 0) {
+                    PlayerBoardView board = getView(engine);
+                    pathFinder.sync(board);
+                    assertMatchesScan(pathFinder, board);
+                }
+            }
+        });
+        engine.runGame();
+    }
+
+    @Test
+    public void test_nextMoveStepsAroundOtherPlayer() {
+        GameEngine engine = new GameEngine(14, new RandomStrategy(), new RandomStrategy(), 3);
+        PlayerBoardView board = getView(engine);
+        PathFinder pathFinder = new PathFinder(board);
+        DistanceField marketDistances = pathFinder.getDistanceField(TileType.RED_MARKET);
+
+        for (int x = 0; x < board.getBoardSize(); x++) {
+            for (int y = 0; y < board.getBoardSize(); y++) {
+                Point location = new Point(x, y);
+                int distance = marketDistances.getDistance(x, y);
+                TurnAction freeMove = pathFinder.getNextMove(TileType.RED_MARKET, location, null);
+                if (distance == 0) {
+                    assertNull(freeMove);
+                    continue;
+                }
+                Point freeStep = step(location, freeMove);
+                assertEquals(distance - 1, marketDistances.getDistance(freeStep.x, freeStep.y));
+
+                // With the other player in the way, the move either goes another way that is just as short or waits
+                TurnAction blockedMove = pathFinder.getNextMove(TileType.RED_MARKET, location, freeStep);
+                if (blockedMove != null) {
+                    Point blockedStep = step(location, blockedMove);
+                    assertNotEquals(freeStep, blockedStep);
+                    assertEquals(distance - 1, marketDistances.getDistance(blockedStep.x, blockedStep.y));
+                }
+            }
+        }
+    }
+
+    private static Point step(Point location, TurnAction move) {
+        switch (move) {
+            case MOVE_RIGHT:
+                return new Point(location.x + 1, location.y);
+            case MOVE_LEFT:
+                return new Point(location.x - 1, location.y);
+            case MOVE_UP:
+                return new Point(location.x, location.y + 1);
+            default:
+                return new Point(location.x, location.y - 1);
+        }
+    }
+}